@@ -1,5 +1,9 @@
 package com.carrental;
 import com.carrental.gui.LoginFrame;
+import com.carrental.service.ReportSummaryService;
+import com.carrental.service.SessionService;
+import com.carrental.util.AppConfig;
+import com.carrental.util.SchemaMigrator;
 
 /**
  * 汽车出租管理系统主类
@@ -22,6 +26,15 @@ public class CarRentalSystem {
             System.err.println("设置外观失败: " + e.getMessage());
         }
         
+        // 创建或升级数据库表结构、索引和报表视图
+        boolean schemaReady = !AppConfig.getBoolean("schema.migrateOnStartup", true) || SchemaMigrator.migrate();
+        
+        // 后台定时更新财务报表汇总表，续约员工登录会话并清理过期会话
+        if (schemaReady) {
+            ReportSummaryService.getInstance().start();
+            SessionService.getInstance().start();
+        }
+        
         // 在事件分发线程中启动GUI
         javax.swing.SwingUtilities.invokeLater(new Runnable() {
             @Override
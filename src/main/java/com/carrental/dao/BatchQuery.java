@@ -0,0 +1,52 @@
+package com.carrental.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 批量查询工具
+ * 把ID集合拆成固定大小的分组，每组生成一条 IN (?, ?, ...) 查询，控制单条SQL的参数个数
+ */
+final class BatchQuery {
+    static final int CHUNK_SIZE = 500;
+
+    private BatchQuery() {
+    }
+
+    /**
+     * 去重并按CHUNK_SIZE分组
+     * @param ids ID集合，null元素会被忽略
+     * @return 分组后的ID列表
+     */
+    static List<List<Integer>> chunks(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 生成IN子句的占位符
+     * @param count 参数个数
+     * @return 形如 "?, ?, ?" 的字符串
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+}
@@ -2,17 +2,39 @@ package com.carrental.dao;
 
 import com.carrental.entity.Car;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.EntityCache;
+import com.carrental.util.Money;
 
-import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 车辆数据访问对象
  * 负责车辆相关的数据库操作
  */
 public class CarDAO {
+    private static final String SCAN_SQL =
+            "SELECT car_id, license_plate_number, model, color, status, brand, "
+            + RowScanner.epochDay("purchase_date") + " AS purchase_day, "
+            + RowScanner.cents("rent") + " AS rent_cents, "
+            + RowScanner.cents("deposit") + " AS deposit_cents "
+            + "FROM car WHERE car_id > ? ORDER BY car_id";
+
+    // 列表查询使用的列，不含photo，避免每次刷新都把照片BLOB读进内存
+    private static final String SUMMARY_COLUMNS =
+            "car_id, license_plate_number, model, color, status, brand, purchase_date, rent, deposit";
+
+    // 按ID查询的缓存，含照片的完整对象较大，容量更小；其他客户端的修改最多在存活时间后可见
+    private static final EntityCache<Integer, Car> CAR_CACHE =
+            EntityCache.create("car", "车辆", 64, 60, Car::new);
+    private static final EntityCache<Integer, Car> CAR_SUMMARY_CACHE =
+            EntityCache.create("carSummary", "车辆摘要", 512, 60, Car::new);
+
     private final DatabaseConnection dbConnection;
 
     public CarDAO() {
@@ -38,10 +60,11 @@ public class CarDAO {
             pstmt.setString(6, car.getBrand());
             pstmt.setDate(7, Date.valueOf(car.getPurchaseDate()));
             pstmt.setBytes(8, car.getPhoto());
-            pstmt.setBigDecimal(9, car.getRent());
-            pstmt.setString(10, car.getDeposit());
+            Money.bind(pstmt, 9, car.getRent());
+            Money.bind(pstmt, 10, car.getDeposit());
             
             int result = pstmt.executeUpdate();
+            invalidateCar(car.getCarId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -64,6 +87,7 @@ public class CarDAO {
             
             pstmt.setInt(1, carId);
             int result = pstmt.executeUpdate();
+            invalidateCar(carId);
             return result > 0;
             
         } catch (SQLException e) {
@@ -91,11 +115,12 @@ public class CarDAO {
             pstmt.setString(5, car.getBrand());
             pstmt.setDate(6, Date.valueOf(car.getPurchaseDate()));
             pstmt.setBytes(7, car.getPhoto());
-            pstmt.setBigDecimal(8, car.getRent());
-            pstmt.setString(9, car.getDeposit());
+            Money.bind(pstmt, 8, car.getRent());
+            Money.bind(pstmt, 9, car.getDeposit());
             pstmt.setInt(10, car.getCarId());
             
             int result = pstmt.executeUpdate();
+            invalidateCar(car.getCarId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -106,11 +131,15 @@ public class CarDAO {
     }
 
     /**
-     * 根据ID查询车辆
+     * 根据ID查询车辆（读穿缓存）
      * @param carId 车辆ID
      * @return 车辆对象
      */
     public Car getCarById(int carId) {
+        return CAR_CACHE.get(carId, this::loadCarById);
+    }
+
+    private Car loadCarById(int carId) {
         String sql = "SELECT * FROM car WHERE car_id = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -120,7 +149,37 @@ public class CarDAO {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return mapResultSetToCar(rs);
+                return mapResultSetToCar(rs, true);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("查询车辆失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * 根据ID查询车辆（不含照片，读穿缓存）
+     * @param carId 车辆ID
+     * @return 车辆对象，photo为null
+     */
+    public Car getCarSummaryById(int carId) {
+        return CAR_SUMMARY_CACHE.get(carId, this::loadCarSummaryById);
+    }
+
+    private Car loadCarSummaryById(int carId) {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM car WHERE car_id = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, carId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return mapResultSetToCar(rs, false);
             }
             
         } catch (SQLException e) {
@@ -132,11 +191,98 @@ public class CarDAO {
     }
 
     /**
-     * 查询所有车辆
+     * 根据一组ID批量查询车辆（不含照片）
+     * ID较多时按分组执行多条 IN 查询
+     * @param carIds 车辆ID集合
+     * @return 车辆ID到车辆对象的映射，不存在的ID没有对应项
+     */
+    public Map<Integer, Car> getCarsByIds(Collection<Integer> carIds) {
+        try {
+            return loadCarsByIds(carIds);
+        } catch (SQLException e) {
+            System.err.println("批量查询车辆失败: " + e.getMessage());
+            e.printStackTrace();
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * 同getCarsByIds，但查询失败时抛出异常而不是返回空映射，
+     * 供需要区分"车辆已删除"和"查询失败"的内存索引使用
+     * @param carIds 车辆ID集合
+     * @return 车辆ID到车辆对象的映射，不存在的ID没有对应项
+     * @throws SQLException 查询失败
+     */
+    public Map<Integer, Car> loadCarsByIds(Collection<Integer> carIds) throws SQLException {
+        Map<Integer, Car> cars = new HashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : BatchQuery.chunks(carIds)) {
+                String sql = "SELECT " + SUMMARY_COLUMNS + " FROM car WHERE car_id IN ("
+                        + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Car car = mapResultSetToCar(rs, false);
+                        cars.put(car.getCarId(), car);
+                    }
+                }
+            }
+        }
+        
+        return cars;
+    }
+
+    /**
+     * 查询车辆照片
+     * @param carId 车辆ID
+     * @return 照片数据，没有照片时返回null
+     */
+    public byte[] getCarPhoto(int carId) {
+        String sql = "SELECT photo FROM car WHERE car_id = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, carId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getBytes("photo");
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("查询车辆照片失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * 查询所有车辆（不含照片）
      * @return 车辆列表
      */
     public List<Car> getAllCars() {
-        String sql = "SELECT * FROM car ORDER BY car_id";
+        try {
+            return loadAllCars();
+        } catch (SQLException e) {
+            System.err.println("查询所有车辆失败: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 同getAllCars，但查询失败时抛出异常而不是返回空列表
+     * @return 车辆列表
+     * @throws SQLException 查询失败
+     */
+    public List<Car> loadAllCars() throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM car ORDER BY car_id";
         List<Car> cars = new ArrayList<>();
         
         try (Connection conn = dbConnection.getConnection();
@@ -144,24 +290,20 @@ public class CarDAO {
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                cars.add(mapResultSetToCar(rs));
+                cars.add(mapResultSetToCar(rs, false));
             }
-            
-        } catch (SQLException e) {
-            System.err.println("查询所有车辆失败: " + e.getMessage());
-            e.printStackTrace();
         }
         
         return cars;
     }
 
     /**
-     * 根据状态查询车辆
+     * 根据状态查询车辆（不含照片）
      * @param status 车辆状态
      * @return 车辆列表
      */
     public List<Car> getCarsByStatus(String status) {
-        String sql = "SELECT * FROM car WHERE status = ? ORDER BY car_id";
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM car WHERE status = ? ORDER BY car_id";
         List<Car> cars = new ArrayList<>();
         
         try (Connection conn = dbConnection.getConnection();
@@ -171,7 +313,7 @@ public class CarDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                cars.add(mapResultSetToCar(rs));
+                cars.add(mapResultSetToCar(rs, false));
             }
             
         } catch (SQLException e) {
@@ -183,12 +325,12 @@ public class CarDAO {
     }
 
     /**
-     * 根据品牌查询车辆
+     * 根据品牌查询车辆（不含照片）
      * @param brand 品牌
      * @return 车辆列表
      */
     public List<Car> getCarsByBrand(String brand) {
-        String sql = "SELECT * FROM car WHERE brand = ? ORDER BY car_id";
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM car WHERE brand = ? ORDER BY car_id";
         List<Car> cars = new ArrayList<>();
         
         try (Connection conn = dbConnection.getConnection();
@@ -198,7 +340,7 @@ public class CarDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                cars.add(mapResultSetToCar(rs));
+                cars.add(mapResultSetToCar(rs, false));
             }
             
         } catch (SQLException e) {
@@ -225,6 +367,7 @@ public class CarDAO {
             pstmt.setInt(2, carId);
             
             int result = pstmt.executeUpdate();
+            invalidateCar(carId);
             return result > 0;
             
         } catch (SQLException e) {
@@ -234,13 +377,54 @@ public class CarDAO {
         }
     }
 
+    /**
+     * 车辆被修改后使缓存失效并发布变更，其他DAO修改car表后也要调用
+     * @param carId 车辆ID
+     */
+    static void invalidateCar(int carId) {
+        CAR_CACHE.invalidate(carId);
+        CAR_SUMMARY_CACHE.invalidate(carId);
+        DataChangeBus.publish(DataChangeBus.CAR, carId);
+    }
+
+    /**
+     * 按ID顺序逐行扫描车辆（不含照片），用法同RentInformationDAO.forEachRental
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调，参数对象会被下一行复用
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachCar(int afterId, Consumer<CarRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "car_id", "license_plate_number", "model", "color",
+                    "status", "brand", "purchase_day", "rent_cents", "deposit_cents");
+            CarRow row = new CarRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描车辆失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * 将ResultSet映射为Car对象
      * @param rs ResultSet对象
+     * @param withPhoto 结果集中是否包含photo列
      * @return Car对象
      * @throws SQLException SQL异常
      */
-    private Car mapResultSetToCar(ResultSet rs) throws SQLException {
+    static Car mapResultSetToCar(ResultSet rs, boolean withPhoto) throws SQLException {
         Car car = new Car();
         car.setCarId(rs.getInt("car_id"));
         car.setLicensePlateNumber(rs.getString("license_plate_number"));
@@ -254,15 +438,82 @@ public class CarDAO {
             car.setPurchaseDate(purchaseDate.toLocalDate());
         }
         
-        car.setPhoto(rs.getBytes("photo"));
+        if (withPhoto) {
+            car.setPhoto(rs.getBytes("photo"));
+        }
         
-        BigDecimal rent = rs.getBigDecimal("rent");
+        Money rent = Money.read(rs, "rent");
         if (rent != null) {
             car.setRent(rent);
         }
         
-        car.setDeposit(rs.getString("deposit"));
+        // 早期版本押金以文本保存，可能带有货币符号，未执行v5升级时也不能因个别异常值中断查询
+        car.setDeposit(Money.readLenient(rs, "deposit"));
         
         return car;
     }
+
+    /**
+     * 逐行扫描时复用的车辆行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE；金额以分为单位
+     */
+    public static final class CarRow {
+        private int carId;
+        private String licensePlateNumber;
+        private String model;
+        private String color;
+        private String status;
+        private String brand;
+        private int purchaseDay;
+        private long rentCents;
+        private long depositCents;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            carId = rs.getInt(columns[0]);
+            licensePlateNumber = rs.getString(columns[1]);
+            model = rs.getString(columns[2]);
+            color = rs.getString(columns[3]);
+            status = rs.getString(columns[4]);
+            brand = rs.getString(columns[5]);
+            purchaseDay = RowScanner.day(rs, columns[6]);
+            rentCents = rs.getLong(columns[7]);
+            depositCents = rs.getLong(columns[8]);
+        }
+
+        public int getCarId() {
+            return carId;
+        }
+
+        public String getLicensePlateNumber() {
+            return licensePlateNumber;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public int getPurchaseDay() {
+            return purchaseDay;
+        }
+
+        public long getRentCents() {
+            return rentCents;
+        }
+
+        public long getDepositCents() {
+            return depositCents;
+        }
+    }
 }
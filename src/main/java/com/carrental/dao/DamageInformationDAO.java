@@ -1,17 +1,25 @@
 package com.carrental.dao;
 
 import com.carrental.entity.DamageInformation;
+import com.carrental.entity.DamageView;
 import com.carrental.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 损坏信息数据访问对象
  * 负责损坏信息相关的数据库操作
  */
 public class DamageInformationDAO {
+    private static final String SCAN_SQL =
+            "SELECT damage_id, car_id, "
+            + RowScanner.epochDay("damage_data") + " AS damage_day, "
+            + "damage_describe, damage_state "
+            + "FROM damage_information WHERE damage_id > ? ORDER BY damage_id";
+
     private DatabaseConnection dbConnection;
 
     public DamageInformationDAO() {
@@ -199,6 +207,88 @@ public class DamageInformationDAO {
         return damageList;
     }
 
+    /**
+     * 分页查询损坏记录展示行（关联车牌号，不含照片）
+     * 按损毁日期降序、损坏信息ID降序，键集分页
+     * @param damageState 维修状态，null表示全部
+     * @param carId 车辆ID，null表示全部
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 展示行列表，条数小于limit说明已到最后一页
+     */
+    public List<DamageView> getDamageViewPage(String damageState, Integer carId, DamageView after, int limit) {
+        PageQuery query = new PageQuery();
+        if (damageState != null) {
+            query.where("d.damage_state = ?", damageState);
+        }
+        if (carId != null) {
+            query.where("d.car_id = ?", carId);
+        }
+        if (after != null) {
+            query.afterDesc("d.damage_data", "d.damage_id", after.getDamageDate(), after.getDamageId());
+        }
+        String sql = query.toSql(
+                "SELECT d.damage_id, d.car_id, c.license_plate_number, d.damage_data, d.damage_describe, d.damage_state "
+                + "FROM damage_information d "
+                + "LEFT JOIN car c ON c.car_id = d.car_id",
+                "d.damage_data DESC, d.damage_id DESC");
+        List<DamageView> views = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            query.bind(pstmt, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Date damageDate = rs.getDate("damage_data");
+                views.add(new DamageView(
+                        rs.getInt("damage_id"),
+                        rs.getInt("car_id"),
+                        rs.getString("license_plate_number"),
+                        damageDate != null ? damageDate.toLocalDate() : null,
+                        rs.getString("damage_describe"),
+                        rs.getString("damage_state")));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询损坏信息失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return views;
+    }
+
+    /**
+     * 按ID顺序逐行扫描损坏信息，用法同RentInformationDAO.forEachRental
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调，参数对象会被下一行复用
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachDamage(int afterId, Consumer<DamageRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "damage_id", "car_id", "damage_day", "damage_describe",
+                    "damage_state");
+            DamageRow row = new DamageRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描损坏信息失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * 将ResultSet映射为DamageInformation对象
      * @param rs ResultSet对象
@@ -221,4 +311,44 @@ public class DamageInformationDAO {
         
         return damageInfo;
     }
+
+    /**
+     * 逐行扫描时复用的损坏信息行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE
+     */
+    public static final class DamageRow {
+        private int damageId;
+        private int carId;
+        private int damageDay;
+        private String damageDescribe;
+        private String damageState;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            damageId = rs.getInt(columns[0]);
+            carId = rs.getInt(columns[1]);
+            damageDay = RowScanner.day(rs, columns[2]);
+            damageDescribe = rs.getString(columns[3]);
+            damageState = rs.getString(columns[4]);
+        }
+
+        public int getDamageId() {
+            return damageId;
+        }
+
+        public int getCarId() {
+            return carId;
+        }
+
+        public int getDamageDay() {
+            return damageDay;
+        }
+
+        public String getDamageDescribe() {
+            return damageDescribe;
+        }
+
+        public String getDamageState() {
+            return damageState;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.carrental.dao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 数据变更通知
+ * DAO写入数据库后发布变更，内存索引等订阅者据此更新自己；只能感知本进程内的写入
+ * 通知在写入线程中同步调用，订阅者应只做记录，不要在回调中访问数据库
+ */
+public final class DataChangeBus {
+    public static final String CAR = "car";
+    public static final String MAINTAIN = "maintain_information";
+    public static final String RENT = "rent_information";
+    public static final String FINE = "traffic_fine";
+
+    /**
+     * 变更订阅者
+     */
+    public interface Listener {
+        /**
+         * 某条记录被新增、修改或删除
+         * @param table 表名，见本类常量
+         * @param id 记录主键
+         */
+        void changed(String table, int id);
+    }
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private DataChangeBus() {
+    }
+
+    /**
+     * 订阅变更
+     * @param listener 订阅者
+     */
+    public static void subscribe(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 取消订阅
+     * @param listener 订阅者
+     */
+    public static void unsubscribe(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 发布变更
+     * @param table 表名
+     * @param id 记录主键
+     */
+    static void publish(String table, int id) {
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.changed(table, id);
+            } catch (RuntimeException e) {
+                System.err.println("数据变更通知失败: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package com.carrental.dao;
 
+import com.carrental.entity.Booking;
 import com.carrental.entity.MaintainInformation;
+import com.carrental.entity.MaintainView;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 维修信息数据访问对象
  * 负责维修信息相关的数据库操作
  */
 public class MaintainInformationDAO {
+    private static final String SCAN_SQL =
+            "SELECT maintain_id, car_id, "
+            + RowScanner.epochDay("maintain_data") + " AS maintain_day, "
+            + "maintain_describe, "
+            + RowScanner.epochDay("maintain_begin_date") + " AS maintain_begin_day, "
+            + RowScanner.epochDay("maintain_finish_date") + " AS maintain_finish_day, "
+            + RowScanner.cents("maimtain_cost") + " AS cost_cents "
+            + "FROM maintain_information WHERE maintain_id > ? ORDER BY maintain_id";
+
     private DatabaseConnection dbConnection;
 
     public MaintainInformationDAO() {
@@ -35,9 +53,10 @@ public class MaintainInformationDAO {
             pstmt.setString(4, maintainInfo.getMaintainDescribe());
             pstmt.setDate(5, Date.valueOf(maintainInfo.getMaintainBeginDate()));
             pstmt.setDate(6, Date.valueOf(maintainInfo.getMaintainFinishDate()));
-            pstmt.setBigDecimal(7, maintainInfo.getMaintainCost());
+            Money.bind(pstmt, 7, maintainInfo.getMaintainCost());
             
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.MAINTAIN, maintainInfo.getMaintainId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -60,6 +79,7 @@ public class MaintainInformationDAO {
             
             pstmt.setInt(1, maintainId);
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.MAINTAIN, maintainId);
             return result > 0;
             
         } catch (SQLException e) {
@@ -85,10 +105,11 @@ public class MaintainInformationDAO {
             pstmt.setString(3, maintainInfo.getMaintainDescribe());
             pstmt.setDate(4, Date.valueOf(maintainInfo.getMaintainBeginDate()));
             pstmt.setDate(5, Date.valueOf(maintainInfo.getMaintainFinishDate()));
-            pstmt.setBigDecimal(6, maintainInfo.getMaintainCost());
+            Money.bind(pstmt, 6, maintainInfo.getMaintainCost());
             pstmt.setInt(7, maintainInfo.getMaintainId());
             
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.MAINTAIN, maintainInfo.getMaintainId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -198,6 +219,162 @@ public class MaintainInformationDAO {
         return 1;
     }
 
+    /**
+     * 分页查询维修记录展示行（关联车牌号）
+     * 按报修日期降序、维修信息ID降序，键集分页
+     * @param carId 车辆ID，null表示全部
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 展示行列表，条数小于limit说明已到最后一页
+     */
+    public List<MaintainView> getMaintainViewPage(Integer carId, MaintainView after, int limit) {
+        PageQuery query = new PageQuery();
+        if (carId != null) {
+            query.where("m.car_id = ?", carId);
+        }
+        if (after != null) {
+            query.afterDesc("m.maintain_data", "m.maintain_id", after.getMaintainDate(), after.getMaintainId());
+        }
+        String sql = query.toSql(
+                "SELECT m.maintain_id, m.car_id, c.license_plate_number, m.maintain_data, m.maintain_describe, "
+                + "m.maintain_begin_date, m.maintain_finish_date, m.maimtain_cost "
+                + "FROM maintain_information m "
+                + "LEFT JOIN car c ON c.car_id = m.car_id",
+                "m.maintain_data DESC, m.maintain_id DESC");
+        List<MaintainView> views = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            query.bind(pstmt, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Date maintainDate = rs.getDate("maintain_data");
+                Date beginDate = rs.getDate("maintain_begin_date");
+                Date finishDate = rs.getDate("maintain_finish_date");
+                views.add(new MaintainView(
+                        rs.getInt("maintain_id"),
+                        rs.getInt("car_id"),
+                        rs.getString("license_plate_number"),
+                        maintainDate != null ? maintainDate.toLocalDate() : null,
+                        rs.getString("maintain_describe"),
+                        beginDate != null ? beginDate.toLocalDate() : null,
+                        finishDate != null ? finishDate.toLocalDate() : null,
+                        Money.read(rs, "maimtain_cost")));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询维修信息失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return views;
+    }
+
+    /**
+     * 查询未结束的维修占用时段，维修结束日期当天仍算占用
+     * 查询失败时抛出异常而不是返回空列表，内存索引据此保留原有数据
+     * @param carIds 车辆ID集合，null表示全部车辆
+     * @return 占用时段列表
+     * @throws SQLException 查询失败
+     */
+    public List<Booking> loadOpenMaintainBookings(Collection<Integer> carIds) throws SQLException {
+        String base = "SELECT maintain_id, car_id, maintain_data, maintain_begin_date, maintain_finish_date "
+                + "FROM maintain_information "
+                + "WHERE (maintain_finish_date IS NULL OR maintain_finish_date >= CURDATE())";
+        List<Booking> bookings = new ArrayList<>();
+        if (carIds != null && carIds.isEmpty()) {
+            return bookings;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+            List<List<Integer>> chunks = carIds == null
+                    ? Collections.singletonList(Collections.<Integer>emptyList())
+                    : BatchQuery.chunks(carIds);
+            for (List<Integer> chunk : chunks) {
+                String sql = carIds == null ? base
+                        : base + " AND car_id IN (" + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Date begin = rs.getDate("maintain_begin_date");
+                        if (begin == null) {
+                            begin = rs.getDate("maintain_data");
+                        }
+                        Date finish = rs.getDate("maintain_finish_date");
+                        bookings.add(new Booking(rs.getInt("car_id"), Booking.MAINTAIN, rs.getInt("maintain_id"),
+                                begin != null ? begin.toLocalDate() : LocalDate.now(),
+                                finish != null ? finish.toLocalDate().plusDays(1) : null));
+                    }
+                }
+            }
+        }
+
+        return bookings;
+    }
+
+    /**
+     * 查询维修记录所属的车辆
+     * @param maintainIds 维修信息ID集合
+     * @return 车辆ID集合，已删除的记录没有对应项
+     * @throws SQLException 查询失败
+     */
+    public Set<Integer> loadCarIdsByMaintainIds(Collection<Integer> maintainIds) throws SQLException {
+        Set<Integer> carIds = new HashSet<>();
+
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : BatchQuery.chunks(maintainIds)) {
+                String sql = "SELECT DISTINCT car_id FROM maintain_information WHERE maintain_id IN ("
+                        + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        carIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+
+        return carIds;
+    }
+
+    /**
+     * 按ID顺序逐行扫描维修信息，用法同RentInformationDAO.forEachRental
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调，参数对象会被下一行复用
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachMaintain(int afterId, Consumer<MaintainRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "maintain_id", "car_id", "maintain_day",
+                    "maintain_describe", "maintain_begin_day", "maintain_finish_day", "cost_cents");
+            MaintainRow row = new MaintainRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描维修信息失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * 将ResultSet映射为MaintainInformation对象
      * @param rs ResultSet对象
@@ -226,8 +403,60 @@ public class MaintainInformationDAO {
             maintainInfo.setMaintainFinishDate(finishDate.toLocalDate());
         }
         
-        maintainInfo.setMaintainCost(rs.getBigDecimal("maimtain_cost"));
+        maintainInfo.setMaintainCost(Money.read(rs, "maimtain_cost"));
         
         return maintainInfo;
     }
+
+    /**
+     * 逐行扫描时复用的维修信息行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE；金额以分为单位
+     */
+    public static final class MaintainRow {
+        private int maintainId;
+        private int carId;
+        private int maintainDay;
+        private String maintainDescribe;
+        private int beginDay;
+        private int finishDay;
+        private long costCents;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            maintainId = rs.getInt(columns[0]);
+            carId = rs.getInt(columns[1]);
+            maintainDay = RowScanner.day(rs, columns[2]);
+            maintainDescribe = rs.getString(columns[3]);
+            beginDay = RowScanner.day(rs, columns[4]);
+            finishDay = RowScanner.day(rs, columns[5]);
+            costCents = rs.getLong(columns[6]);
+        }
+
+        public int getMaintainId() {
+            return maintainId;
+        }
+
+        public int getCarId() {
+            return carId;
+        }
+
+        public int getMaintainDay() {
+            return maintainDay;
+        }
+
+        public String getMaintainDescribe() {
+            return maintainDescribe;
+        }
+
+        public int getBeginDay() {
+            return beginDay;
+        }
+
+        public int getFinishDay() {
+            return finishDay;
+        }
+
+        public long getCostCents() {
+            return costCents;
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.carrental.dao;
+
+import com.carrental.util.Money;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分页查询拼装工具
+ * 收集WHERE条件和参数，生成键集分页（seek）SQL：按排序键定位到上一页最后一条之后，不使用OFFSET；
+ * 无法按上一页定位时（如直接跳到中间某页）才使用OFFSET分页
+ */
+final class PageQuery {
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+
+    /**
+     * 添加筛选条件
+     * @param condition 条件SQL片段，参数用?表示
+     * @param values 参数值
+     * @return 当前对象
+     */
+    PageQuery where(String condition, Object... values) {
+        conditions.add(condition);
+        for (Object value : values) {
+            params.add(value);
+        }
+        return this;
+    }
+
+    /**
+     * 按主键升序分页时，定位到上一页最后一条之后
+     * @param idColumn 主键列
+     * @param lastId 上一页最后一条的主键
+     * @return 当前对象
+     */
+    PageQuery afterAsc(String idColumn, int lastId) {
+        return where(idColumn + " > ?", lastId);
+    }
+
+    /**
+     * 按（日期降序, 主键降序）分页时，定位到上一页最后一条之后
+     * MySQL降序排序时NULL排在最后，日期为空的记录按主键继续往后翻
+     * @param dateColumn 日期列
+     * @param idColumn 主键列
+     * @param lastDate 上一页最后一条的日期，可为null
+     * @param lastId 上一页最后一条的主键
+     * @return 当前对象
+     */
+    PageQuery afterDesc(String dateColumn, String idColumn, LocalDate lastDate, int lastId) {
+        if (lastDate == null) {
+            return where("(" + dateColumn + " IS NULL AND " + idColumn + " < ?)", lastId);
+        }
+        return where("(" + dateColumn + " < ? OR (" + dateColumn + " = ? AND " + idColumn + " < ?) OR "
+                + dateColumn + " IS NULL)", lastDate, lastDate, lastId);
+    }
+
+    /**
+     * 生成键集分页SQL
+     * @param select SELECT ... FROM ... 部分
+     * @param orderBy 排序列，需与分页条件一致
+     * @return SQL语句，最后一个参数为LIMIT
+     */
+    String toSql(String select, String orderBy) {
+        return appendWhere(new StringBuilder(select))
+                .append(" ORDER BY ").append(orderBy).append(" LIMIT ?").toString();
+    }
+
+    /**
+     * 生成OFFSET分页SQL
+     * @param select SELECT ... FROM ... 部分
+     * @param orderBy 排序列
+     * @return SQL语句，最后两个参数为LIMIT和OFFSET
+     */
+    String toOffsetSql(String select, String orderBy) {
+        return appendWhere(new StringBuilder(select))
+                .append(" ORDER BY ").append(orderBy).append(" LIMIT ? OFFSET ?").toString();
+    }
+
+    /**
+     * 生成计数SQL
+     * @param from FROM ... 部分
+     * @return SELECT COUNT(*) 语句
+     */
+    String toCountSql(String from) {
+        return appendWhere(new StringBuilder("SELECT COUNT(*) ").append(from)).toString();
+    }
+
+    private StringBuilder appendWhere(StringBuilder sql) {
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+        return sql;
+    }
+
+    /**
+     * 绑定条件参数和LIMIT
+     * @param pstmt 预编译语句
+     * @param limit 每页条数
+     * @throws SQLException SQL异常
+     */
+    void bind(PreparedStatement pstmt, int limit) throws SQLException {
+        int index = bindConditions(pstmt);
+        pstmt.setInt(index, limit);
+    }
+
+    /**
+     * 绑定条件参数、LIMIT和OFFSET
+     * @param pstmt 预编译语句
+     * @param limit 每页条数
+     * @param offset 跳过的条数
+     * @throws SQLException SQL异常
+     */
+    void bindOffset(PreparedStatement pstmt, int limit, int offset) throws SQLException {
+        int index = bindConditions(pstmt);
+        pstmt.setInt(index, limit);
+        pstmt.setInt(index + 1, offset);
+    }
+
+    /**
+     * 绑定条件参数
+     * @param pstmt 预编译语句
+     * @return 下一个参数的位置
+     * @throws SQLException SQL异常
+     */
+    int bindConditions(PreparedStatement pstmt) throws SQLException {
+        int index = 1;
+        for (Object value : params) {
+            if (value instanceof Integer) {
+                pstmt.setInt(index++, (Integer) value);
+            } else if (value instanceof LocalDate) {
+                pstmt.setDate(index++, Date.valueOf((LocalDate) value));
+            } else if (value instanceof BigDecimal) {
+                pstmt.setBigDecimal(index++, (BigDecimal) value);
+            } else if (value instanceof Money) {
+                Money.bind(pstmt, index++, (Money) value);
+            } else {
+                pstmt.setObject(index++, value);
+            }
+        }
+        return index;
+    }
+}
@@ -1,19 +1,76 @@
 package com.carrental.dao;
 
+import com.carrental.entity.Booking;
 import com.carrental.entity.RentInformation;
+import com.carrental.entity.RentOutcome;
+import com.carrental.entity.RentView;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
 
-import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * 租车信息数据访问对象
  * 负责租车信息相关的数据库操作
  */
 public class RentInformationDAO {
+    private static final String RENT_VIEW_SELECT =
+            "SELECT r.rent_id, r.car_id, c.license_plate_number, r.user_id, u.name AS user_name, "
+            + "r.staff_id, s.name AS staff_name, r.rent_date, r.return_date, r.pay_the_amount, r.return_amount "
+            + "FROM rent_information r "
+            + "LEFT JOIN car c ON c.car_id = r.car_id "
+            + "LEFT JOIN user u ON u.user_id = r.user_id "
+            + "LEFT JOIN staff s ON s.staff_id = r.staff_id";
+    private static final String SCAN_SQL =
+            "SELECT rent_id, car_id, staff_id, user_id, "
+            + RowScanner.epochDay("rent_date") + " AS rent_day, "
+            + RowScanner.epochDay("return_date") + " AS return_day, "
+            + RowScanner.cents("pay_the_amount") + " AS pay_cents, "
+            + RowScanner.cents("return_amount") + " AS return_cents "
+            + "FROM rent_information WHERE rent_id > ? ORDER BY rent_id";
+
+    // 只有空闲车辆会被更新，并发租同一辆车时只有一个事务能抢到
+    private static final String CLAIM_CAR_SQL =
+            "UPDATE car SET status = '已借出' WHERE car_id = ? AND status = '空闲'";
+    private static final String INSERT_RENT_SQL =
+            "INSERT INTO rent_information (car_id, staff_id, user_id, rent_date, return_date, pay_the_amount, return_amount) "
+            + "SELECT c.car_id, s.staff_id, u.user_id, ?, ?, c.rent * ?, 0 "
+            + "FROM car c, user u, staff s "
+            + "WHERE c.car_id = ? AND u.user_id = ? AND s.staff_id = ?";
+    private static final String DIAGNOSE_RENT_SQL =
+            "SELECT (SELECT status FROM car WHERE car_id = ?) AS car_status, "
+            + "EXISTS (SELECT 1 FROM user WHERE user_id = ?) AS user_exists, "
+            + "EXISTS (SELECT 1 FROM staff WHERE staff_id = ?) AS staff_exists";
+    private static final String LOCK_RENT_SQL =
+            "SELECT r.car_id, r.rent_date, r.pay_the_amount, c.rent, c.status, "
+            + "(SELECT MAX(l.rent_id) FROM rent_information l WHERE l.car_id = r.car_id) AS latest_rent_id "
+            + "FROM rent_information r "
+            + "LEFT JOIN car c ON c.car_id = r.car_id "
+            + "WHERE r.rent_id = ? FOR UPDATE";
+    private static final String RETURN_RENT_SQL =
+            "UPDATE rent_information r JOIN car c ON c.car_id = r.car_id "
+            + "SET r.return_date = ?, r.return_amount = ?, c.status = '空闲' "
+            + "WHERE r.rent_id = ?";
+
+    // 进行中的租车：车辆为借出状态且是该车最新的一条租车记录
+    private static final String ACTIVE_RENT_SQL =
+            "SELECT r.rent_id, r.car_id, r.rent_date, r.return_date "
+            + "FROM rent_information r "
+            + "JOIN car c ON c.car_id = r.car_id "
+            + "WHERE c.status = '已借出' "
+            + "AND r.rent_id = (SELECT MAX(l.rent_id) FROM rent_information l WHERE l.car_id = r.car_id)";
+
     private DatabaseConnection dbConnection;
 
     public RentInformationDAO() {
@@ -36,8 +93,8 @@ public class RentInformationDAO {
             pstmt.setInt(3, rentInfo.getUserId());
             pstmt.setDate(4, Date.valueOf(rentInfo.getRentDate()));
             pstmt.setDate(5, Date.valueOf(rentInfo.getReturnDate()));
-            pstmt.setBigDecimal(6, rentInfo.getPayTheAmount());
-            pstmt.setBigDecimal(7, rentInfo.getReturnAmount());
+            Money.bind(pstmt, 6, rentInfo.getPayTheAmount());
+            Money.bind(pstmt, 7, rentInfo.getReturnAmount());
             
             int result = pstmt.executeUpdate();
             return result > 0;
@@ -62,6 +119,7 @@ public class RentInformationDAO {
             
             pstmt.setInt(1, rentId);
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.RENT, rentId);
             return result > 0;
             
         } catch (SQLException e) {
@@ -87,11 +145,12 @@ public class RentInformationDAO {
             pstmt.setInt(3, rentInfo.getUserId());
             pstmt.setDate(4, Date.valueOf(rentInfo.getRentDate()));
             pstmt.setDate(5, Date.valueOf(rentInfo.getReturnDate()));
-            pstmt.setBigDecimal(6, rentInfo.getPayTheAmount());
-            pstmt.setBigDecimal(7, rentInfo.getReturnAmount());
+            Money.bind(pstmt, 6, rentInfo.getPayTheAmount());
+            Money.bind(pstmt, 7, rentInfo.getReturnAmount());
             pstmt.setInt(8, rentInfo.getRentId());
             
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.RENT, rentInfo.getRentId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -232,6 +291,168 @@ public class RentInformationDAO {
         return rentInfoList;
     }
 
+    /**
+     * 查询当前租车信息：归还日期为空或晚于今天
+     * @return 租车信息列表
+     */
+    public List<RentInformation> getCurrentRentals() {
+        String sql = "SELECT * FROM rent_information "
+                + "WHERE return_date IS NULL OR return_date > CURDATE() ORDER BY rent_id";
+        List<RentInformation> rentInfoList = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                rentInfoList.add(mapResultSetToRentInformation(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("查询当前租车信息失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rentInfoList;
+    }
+
+    /**
+     * 统计收入：已有归还日期的租车信息的支付金额减退还金额
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 收入合计，没有记录时为0
+     */
+    public Money getRevenue(LocalDate from, LocalDate to) {
+        String sql = "SELECT SUM(pay_the_amount - return_amount) FROM rent_information WHERE "
+                + periodCondition(from, to);
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setPeriod(pstmt, 1, from, to);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next() && rs.getString(1) != null) {
+                return Money.read(rs, 1);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("统计收入失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return Money.ZERO;
+    }
+
+    /**
+     * 按归还日期统计每日收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 日期到收入的有序映射，没有收入的日期不出现
+     */
+    public Map<LocalDate, Money> getDailyRevenue(LocalDate from, LocalDate to) {
+        String sql = "SELECT return_date, SUM(pay_the_amount - return_amount) FROM rent_information WHERE "
+                + periodCondition(from, to) + " GROUP BY return_date ORDER BY return_date";
+        Map<LocalDate, Money> revenue = new LinkedHashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setPeriod(pstmt, 1, from, to);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                revenue.put(rs.getDate(1).toLocalDate(), Money.read(rs, 2));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("统计每日收入失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return revenue;
+    }
+
+    /**
+     * 按车辆统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 车辆ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByCar(LocalDate from, LocalDate to) {
+        return getRevenueGroupedBy("car_id", from, to);
+    }
+
+    /**
+     * 按经办员工统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 员工ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByStaff(LocalDate from, LocalDate to) {
+        return getRevenueGroupedBy("staff_id", from, to);
+    }
+
+    /**
+     * 按用户统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 用户ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByUser(LocalDate from, LocalDate to) {
+        return getRevenueGroupedBy("user_id", from, to);
+    }
+
+    /**
+     * 按指定列分组统计收入
+     * @param column 分组列，只能是本类传入的常量列名
+     */
+    private Map<Integer, Money> getRevenueGroupedBy(String column, LocalDate from, LocalDate to) {
+        String sql = "SELECT " + column + ", SUM(pay_the_amount - return_amount) FROM rent_information WHERE "
+                + periodCondition(from, to) + " GROUP BY " + column + " ORDER BY " + column;
+        Map<Integer, Money> revenue = new LinkedHashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setPeriod(pstmt, 1, from, to);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                revenue.put(rs.getInt(1), Money.read(rs, 2));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分组统计收入失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return revenue;
+    }
+
+    /**
+     * 收入统计的归还日期条件，命中return_date索引
+     */
+    private static String periodCondition(LocalDate from, LocalDate to) {
+        StringBuilder condition = new StringBuilder("return_date IS NOT NULL");
+        if (from != null) {
+            condition.append(" AND return_date >= ?");
+        }
+        if (to != null) {
+            condition.append(" AND return_date < ?");
+        }
+        return condition.toString();
+    }
+
+    private static void setPeriod(PreparedStatement pstmt, int index, LocalDate from, LocalDate to) throws SQLException {
+        if (from != null) {
+            pstmt.setDate(index++, Date.valueOf(from));
+        }
+        if (to != null) {
+            pstmt.setDate(index, Date.valueOf(to));
+        }
+    }
+
     /**
      * 计算租金
      * @param carId 车辆ID
@@ -239,7 +460,7 @@ public class RentInformationDAO {
      * @param returnDate 归还日期
      * @return 租金金额
      */
-    public BigDecimal calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
+    public Money calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
         String sql = "SELECT rent FROM car WHERE car_id = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -249,17 +470,436 @@ public class RentInformationDAO {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                BigDecimal dailyRent = rs.getBigDecimal("rent");
-                long days = java.time.temporal.ChronoUnit.DAYS.between(rentDate, returnDate);
-                return dailyRent.multiply(BigDecimal.valueOf(days));
+                return rentFor(Money.read(rs, "rent"), rentDate, returnDate);
             }
             
         } catch (SQLException e) {
             System.err.println("计算租金失败: " + e.getMessage());
             e.printStackTrace();
         }
+
+        return Money.ZERO;
+    }
+
+    /**
+     * 租金 = 日租金 × 天数
+     * @param dailyRent 日租金
+     * @param rentDate 租借日期
+     * @param returnDate 归还日期
+     * @return 租金金额
+     */
+    public static Money rentFor(Money dailyRent, LocalDate rentDate, LocalDate returnDate) {
+        return dailyRent.times(ChronoUnit.DAYS.between(rentDate, returnDate));
+    }
+
+    /**
+     * 退还金额 = 支付金额 - 实际租金 - 损坏费用
+     * @param paid 租车时支付的金额
+     * @param dailyRent 日租金
+     * @param rentDate 租借日期
+     * @param actualReturnDate 实际归还日期
+     * @param damageCost 损坏费用
+     * @return 退还金额，可能为负数（需补交）
+     */
+    public static Money refundFor(Money paid, Money dailyRent, LocalDate rentDate, LocalDate actualReturnDate,
+                                  Money damageCost) {
+        return paid.minus(rentFor(dailyRent, rentDate, actualReturnDate)).minus(damageCost);
+    }
+
+    /**
+     * 租车（单个事务）
+     * 先用条件更新抢占空闲车辆，再用INSERT...SELECT按车辆日租金写入租车信息，
+     * 用户或员工不存在时插入0行，整个事务回滚，车辆状态随之恢复；
+     * 只有失败时才额外查询一次具体原因
+     * @param carId 车辆ID
+     * @param userId 用户ID
+     * @param staffId 员工ID
+     * @param rentDate 租借日期
+     * @param returnDate 归还日期
+     * @return 操作结果
+     */
+    public RentOutcome rentCar(int carId, int userId, int staffId, LocalDate rentDate, LocalDate returnDate) {
+        long days = ChronoUnit.DAYS.between(rentDate, returnDate);
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int inserted = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(CLAIM_CAR_SQL)) {
+                    pstmt.setInt(1, carId);
+                    if (pstmt.executeUpdate() == 1) {
+                        try (PreparedStatement insert = conn.prepareStatement(INSERT_RENT_SQL)) {
+                            insert.setDate(1, Date.valueOf(rentDate));
+                            insert.setDate(2, Date.valueOf(returnDate));
+                            insert.setLong(3, days);
+                            insert.setInt(4, carId);
+                            insert.setInt(5, userId);
+                            insert.setInt(6, staffId);
+                            inserted = insert.executeUpdate();
+                        }
+                    }
+                }
+
+                if (inserted == 1) {
+                    conn.commit();
+                    CarDAO.invalidateCar(carId);
+                    return RentOutcome.SUCCESS;
+                }
+                conn.rollback();
+                return diagnoseRentFailure(conn, carId, userId, staffId);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("租车失败: " + e.getMessage());
+            e.printStackTrace();
+            return RentOutcome.DATABASE_ERROR;
+        }
+    }
+
+    /**
+     * 还车（单个事务）
+     * 锁定租车记录和车辆后在一条多表UPDATE中写入归还日期、退还金额并把车辆改回空闲；
+     * 车辆已不是借出状态或已有更新的租车记录时说明该记录已还车
+     * @param rentId 租车信息ID
+     * @param actualReturnDate 实际归还日期
+     * @param damageCost 损坏费用
+     * @return 操作结果
+     */
+    public RentOutcome returnCar(int rentId, LocalDate actualReturnDate, Money damageCost) {
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                RentOutcome outcome;
+                int carId = 0;
+                Money returnAmount = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(LOCK_RENT_SQL)) {
+                    pstmt.setInt(1, rentId);
+                    ResultSet rs = pstmt.executeQuery();
+
+                    if (!rs.next()) {
+                        outcome = RentOutcome.RENT_NOT_FOUND;
+                    } else if (rs.getString("rent") == null) {
+                        outcome = RentOutcome.CAR_NOT_FOUND;
+                    } else if (!"已借出".equals(rs.getString("status")) || rs.getInt("latest_rent_id") != rentId) {
+                        outcome = RentOutcome.ALREADY_RETURNED;
+                    } else if (actualReturnDate.isBefore(rs.getDate("rent_date").toLocalDate())) {
+                        outcome = RentOutcome.INVALID_DATES;
+                    } else {
+                        carId = rs.getInt("car_id");
+                        returnAmount = refundFor(Money.read(rs, "pay_the_amount"), Money.read(rs, "rent"),
+                                rs.getDate("rent_date").toLocalDate(), actualReturnDate, damageCost);
+                        outcome = RentOutcome.SUCCESS;
+                    }
+                }
+
+                if (outcome.isSuccess()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(RETURN_RENT_SQL)) {
+                        pstmt.setDate(1, Date.valueOf(actualReturnDate));
+                        Money.bind(pstmt, 2, returnAmount);
+                        pstmt.setInt(3, rentId);
+                        pstmt.executeUpdate();
+                    }
+                    conn.commit();
+                    CarDAO.invalidateCar(carId);
+                    DataChangeBus.publish(DataChangeBus.RENT, rentId);
+                } else {
+                    conn.rollback();
+                }
+                return outcome;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("还车失败: " + e.getMessage());
+            e.printStackTrace();
+            return RentOutcome.DATABASE_ERROR;
+        }
+    }
+
+    /**
+     * 租车失败后查询具体原因（事务已回滚）
+     * @param conn 数据库连接
+     * @param carId 车辆ID
+     * @param userId 用户ID
+     * @param staffId 员工ID
+     * @return 失败原因
+     * @throws SQLException SQL异常
+     */
+    private RentOutcome diagnoseRentFailure(Connection conn, int carId, int userId, int staffId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DIAGNOSE_RENT_SQL)) {
+            pstmt.setInt(1, carId);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, staffId);
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+
+            String status = rs.getString("car_status");
+            if (status == null) {
+                return RentOutcome.CAR_NOT_FOUND;
+            }
+            if (!"空闲".equals(status)) {
+                return RentOutcome.CAR_NOT_AVAILABLE;
+            }
+            if (!rs.getBoolean("user_exists")) {
+                return RentOutcome.USER_NOT_FOUND;
+            }
+            if (!rs.getBoolean("staff_exists")) {
+                return RentOutcome.STAFF_NOT_FOUND;
+            }
+            // 诊断时车辆又变回空闲，说明刚才与其他人的租车或还车交错
+            return RentOutcome.CAR_NOT_AVAILABLE;
+        }
+    }
+
+    /**
+     * 按主键分页查询租车信息
+     * @param afterRentId 上一页最后一条的rent_id，第一页传0
+     * @param limit 每页条数
+     * @return 租车信息列表，条数小于limit说明已到最后一页
+     */
+    public List<RentInformation> getRentInformationPage(int afterRentId, int limit) {
+        String sql = "SELECT * FROM rent_information WHERE rent_id > ? ORDER BY rent_id LIMIT ?";
+        List<RentInformation> rentInfoList = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, afterRentId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                rentInfoList.add(mapResultSetToRentInformation(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询租车信息失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return rentInfoList;
+    }
+
+    /**
+     * 分页查询租车记录展示行（关联车牌号、用户姓名、员工姓名）
+     * 按rent_id升序，键集分页：传入上一页最后一条，返回其后的limit条
+     * @param status 状态筛选：null或"全部"、"租借中"（未归还或归还日期在今天之后）、"已归还"（有归还日期）
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 展示行列表，条数小于limit说明已到最后一页
+     */
+    public List<RentView> getRentViewPage(String status, RentView after, int limit) {
+        PageQuery query = buildRentViewQuery(status);
+        if (after != null) {
+            query.afterAsc("r.rent_id", after.getRentId());
+        }
+        return queryRentViews(query, query.toSql(RENT_VIEW_SELECT, "r.rent_id"), limit, -1);
+    }
+
+    /**
+     * 按偏移量查询租车记录展示行，用于无法按上一页定位的跳页
+     * @param status 状态筛选
+     * @param offset 跳过的条数
+     * @param limit 每页条数
+     * @return 展示行列表
+     */
+    public List<RentView> getRentViewPageAt(String status, int offset, int limit) {
+        PageQuery query = buildRentViewQuery(status);
+        return queryRentViews(query, query.toOffsetSql(RENT_VIEW_SELECT, "r.rent_id"), limit, offset);
+    }
+
+    /**
+     * 统计符合状态筛选的租车记录数
+     * @param status 状态筛选
+     * @return 记录数
+     */
+    public int countRentViews(String status) {
+        PageQuery query = buildRentViewQuery(status);
+        String sql = query.toCountSql("FROM rent_information r");
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            query.bindConditions(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("统计租车记录失败: " + e.getMessage());
+            e.printStackTrace();
+        }
         
-        return BigDecimal.ZERO;
+        return 0;
+    }
+
+    private PageQuery buildRentViewQuery(String status) {
+        PageQuery query = new PageQuery();
+        if ("租借中".equals(status)) {
+            query.where("(r.return_date IS NULL OR r.return_date > ?)", LocalDate.now());
+        } else if ("已归还".equals(status)) {
+            query.where("r.return_date IS NOT NULL");
+        }
+        return query;
+    }
+
+    /**
+     * 执行展示行查询
+     * @param offset 偏移量，小于0表示键集分页SQL（没有OFFSET参数）
+     */
+    private List<RentView> queryRentViews(PageQuery query, String sql, int limit, int offset) {
+        List<RentView> views = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            if (offset < 0) {
+                query.bind(pstmt, limit);
+            } else {
+                query.bindOffset(pstmt, limit, offset);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                views.add(mapResultSetToRentView(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询租车记录失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return views;
+    }
+
+    /**
+     * 按租车信息ID顺序逐行扫描，内存占用与记录总数无关
+     * 每行数据写入同一个RentRow对象后回调，回调返回后该对象会被下一行覆盖，需要保留的值应自行复制；
+     * 扫描期间占用一个数据库连接
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachRental(int afterId, Consumer<RentRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "rent_id", "car_id", "staff_id", "user_id",
+                    "rent_day", "return_day", "pay_cents", "return_cents");
+            RentRow row = new RentRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描租车信息失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * 将关联查询结果映射为RentView对象
+     * @param rs ResultSet对象
+     * @return RentView对象
+     * @throws SQLException SQL异常
+     */
+    private RentView mapResultSetToRentView(ResultSet rs) throws SQLException {
+        Date rentDate = rs.getDate("rent_date");
+        Date returnDate = rs.getDate("return_date");
+        return new RentView(
+                rs.getInt("rent_id"),
+                rs.getInt("car_id"),
+                rs.getString("license_plate_number"),
+                rs.getInt("user_id"),
+                rs.getString("user_name"),
+                rs.getInt("staff_id"),
+                rs.getString("staff_name"),
+                rentDate != null ? rentDate.toLocalDate() : null,
+                returnDate != null ? returnDate.toLocalDate() : null,
+                Money.read(rs, "pay_the_amount"),
+                Money.read(rs, "return_amount"));
+    }
+
+    /**
+     * 查询进行中的租车占用时段，时段结束日期为计划归还日期
+     * 查询失败时抛出异常而不是返回空列表，内存索引据此保留原有数据
+     * @param carIds 车辆ID集合，null表示全部车辆
+     * @return 占用时段列表
+     * @throws SQLException 查询失败
+     */
+    public List<Booking> loadActiveRentBookings(Collection<Integer> carIds) throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        if (carIds != null && carIds.isEmpty()) {
+            return bookings;
+        }
+
+        try (Connection conn = dbConnection.getConnection()) {
+            List<List<Integer>> chunks = carIds == null
+                    ? Collections.singletonList(Collections.<Integer>emptyList())
+                    : BatchQuery.chunks(carIds);
+            for (List<Integer> chunk : chunks) {
+                String sql = carIds == null ? ACTIVE_RENT_SQL
+                        : ACTIVE_RENT_SQL + " AND r.car_id IN (" + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Date returnDate = rs.getDate("return_date");
+                        bookings.add(new Booking(rs.getInt("car_id"), Booking.RENT, rs.getInt("rent_id"),
+                                rs.getDate("rent_date").toLocalDate(),
+                                returnDate != null ? returnDate.toLocalDate() : null));
+                    }
+                }
+            }
+        }
+
+        return bookings;
+    }
+
+    /**
+     * 查询租车记录所属的车辆
+     * @param rentIds 租车信息ID集合
+     * @return 车辆ID集合，已删除的记录没有对应项
+     * @throws SQLException 查询失败
+     */
+    public Set<Integer> loadCarIdsByRentIds(Collection<Integer> rentIds) throws SQLException {
+        Set<Integer> carIds = new HashSet<>();
+
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : BatchQuery.chunks(rentIds)) {
+                String sql = "SELECT DISTINCT car_id FROM rent_information WHERE rent_id IN ("
+                        + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        carIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+
+        return carIds;
     }
 
     /**
@@ -268,7 +908,7 @@ public class RentInformationDAO {
      * @return RentInformation对象
      * @throws SQLException SQL异常
      */
-    private RentInformation mapResultSetToRentInformation(ResultSet rs) throws SQLException {
+    static RentInformation mapResultSetToRentInformation(ResultSet rs) throws SQLException {
         RentInformation rentInfo = new RentInformation();
         rentInfo.setRentId(rs.getInt("rent_id"));
         rentInfo.setCarId(rs.getInt("car_id"));
@@ -285,16 +925,78 @@ public class RentInformationDAO {
             rentInfo.setReturnDate(returnDate.toLocalDate());
         }
         
-        BigDecimal payAmount = rs.getBigDecimal("pay_the_amount");
+        Money payAmount = Money.read(rs, "pay_the_amount");
         if (payAmount != null) {
             rentInfo.setPayTheAmount(payAmount);
         }
         
-        BigDecimal returnAmount = rs.getBigDecimal("return_amount");
+        Money returnAmount = Money.read(rs, "return_amount");
         if (returnAmount != null) {
             rentInfo.setReturnAmount(returnAmount);
         }
         
         return rentInfo;
     }
+
+    /**
+     * 逐行扫描时复用的租车信息行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE；金额以分为单位
+     */
+    public static final class RentRow {
+        private int rentId;
+        private int carId;
+        private int staffId;
+        private int userId;
+        private int rentDay;
+        private int returnDay;
+        private long payCents;
+        private long returnCents;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            rentId = rs.getInt(columns[0]);
+            carId = rs.getInt(columns[1]);
+            staffId = rs.getInt(columns[2]);
+            userId = rs.getInt(columns[3]);
+            rentDay = RowScanner.day(rs, columns[4]);
+            returnDay = RowScanner.day(rs, columns[5]);
+            payCents = rs.getLong(columns[6]);
+            returnCents = rs.getLong(columns[7]);
+        }
+
+        public int getRentId() {
+            return rentId;
+        }
+
+        public int getCarId() {
+            return carId;
+        }
+
+        public int getStaffId() {
+            return staffId;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public int getRentDay() {
+            return rentDay;
+        }
+
+        public int getReturnDay() {
+            return returnDay;
+        }
+
+        public boolean hasReturnDate() {
+            return returnDay != RowScanner.NO_DAY;
+        }
+
+        public long getPayCents() {
+            return payCents;
+        }
+
+        public long getReturnCents() {
+            return returnCents;
+        }
+    }
 }
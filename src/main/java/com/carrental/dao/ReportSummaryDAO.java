@@ -0,0 +1,226 @@
+package com.carrental.dao;
+
+import com.carrental.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 财务报表汇总表数据访问对象
+ * 租车、维修、违章写入时由触发器在report_dirty中记录受影响的车辆、用户、员工，
+ * 这里按记录逐行重算对应的汇总行，每行只读取该车辆、用户或员工自己的记录，耗时与历史总量无关
+ */
+public class ReportSummaryDAO {
+    private static final String LOCK_NAME = "car_rental_report_summary";
+
+    private static final String DELETE_DIRTY_SQL = "DELETE FROM report_dirty WHERE kind = ? AND key_id = ?";
+    private static final String DELETE_CAR_PROFIT_SQL = "DELETE FROM report_car_profit WHERE car_id = ?";
+    private static final String INSERT_CAR_PROFIT_SQL =
+            "INSERT INTO report_car_profit (car_id, paid, refunded, maintain_cost) "
+            + "SELECT ?, COALESCE(r.paid, 0), COALESCE(r.refunded, 0), COALESCE(m.cost, 0) "
+            + "FROM (SELECT COUNT(*) AS n, SUM(pay_the_amount) AS paid, SUM(return_amount) AS refunded "
+            + "FROM rent_information WHERE car_id = ?) r, "
+            + "(SELECT COUNT(*) AS n, SUM(maimtain_cost) AS cost FROM maintain_information WHERE car_id = ?) m "
+            + "WHERE r.n > 0 OR m.n > 0";
+    private static final String DELETE_REPAIRED_SQL = "DELETE FROM report_repaired_car WHERE car_id = ?";
+    private static final String INSERT_REPAIRED_SQL =
+            "INSERT INTO report_repaired_car (car_id) SELECT ? FROM DUAL WHERE EXISTS "
+            + "(SELECT 1 FROM maintain_information WHERE car_id = ? AND maintain_finish_date IS NOT NULL)";
+    private static final String DELETE_USER_FINE_SQL = "DELETE FROM report_user_fine WHERE user_id = ?";
+    private static final String INSERT_USER_FINE_SQL =
+            "INSERT INTO report_user_fine (user_id, unpaid) "
+            + "SELECT user_id, SUM(fine) FROM traffic_fine WHERE user_id = ? AND fine_state = '未交' GROUP BY user_id";
+    private static final String DELETE_STAFF_CAR_SQL = "DELETE FROM report_staff_car WHERE staff_id = ?";
+    private static final String INSERT_STAFF_CAR_SQL =
+            "INSERT INTO report_staff_car (staff_id, car_count) "
+            + "SELECT staff_id, COUNT(DISTINCT car_id) FROM rent_information WHERE staff_id = ? GROUP BY staff_id";
+
+    private DatabaseConnection dbConnection;
+
+    public ReportSummaryDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * 重算所有待重算的汇总行
+     * 每批在一个事务中先删除待重算标记再重算，重算期间提交的写入会重新留下标记，不会丢失；
+     * 其他客户端正在重算时直接返回
+     * @param batchSize 每批处理的标记数
+     * @return 重算的汇总行数，其他客户端正在重算时返回-1，失败返回-2
+     */
+    public int refreshDirty(int batchSize) {
+        try (Connection conn = dbConnection.getConnection()) {
+            if (!tryLock(conn)) {
+                return -1;
+            }
+            int total = 0;
+            int isolation = conn.getTransactionIsolation();
+            try {
+                // 读已提交：每条重算语句都能看到最新提交的数据
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                conn.setAutoCommit(false);
+                while (true) {
+                    int refreshed = refreshBatch(conn, batchSize);
+                    conn.commit();
+                    total += refreshed;
+                    if (refreshed < batchSize) {
+                        break;
+                    }
+                }
+                return total;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+                unlock(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("更新报表汇总失败: " + e.getMessage());
+            e.printStackTrace();
+            return -2;
+        }
+    }
+
+    /**
+     * 查询汇总数据最近一次更新的时间
+     * @return 更新时间，尚未初始化时返回null
+     */
+    public LocalDateTime getRefreshedAt() {
+        String sql = "SELECT refreshed_at FROM report_refresh WHERE id = 1";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getTimestamp(1).toLocalDateTime();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("查询报表汇总更新时间失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * 统计等待重算的汇总行数
+     * @return 等待重算的行数，查询失败返回-1
+     */
+    public int countPending() {
+        String sql = "SELECT COUNT(*) FROM report_dirty";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("统计待更新的报表汇总失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return -1;
+    }
+
+    /**
+     * 取出一批待重算标记并重算，调用方负责提交
+     * @return 本批处理的标记数
+     */
+    private int refreshBatch(Connection conn, int batchSize) throws SQLException {
+        List<String> kinds = new ArrayList<>();
+        List<Integer> keys = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT kind, key_id FROM report_dirty ORDER BY kind, key_id LIMIT ? FOR UPDATE")) {
+            pstmt.setInt(1, batchSize);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                kinds.add(rs.getString(1));
+                keys.add(rs.getInt(2));
+            }
+        }
+        if (kinds.isEmpty()) {
+            touch(conn);
+            return 0;
+        }
+
+        try (PreparedStatement deleteDirty = conn.prepareStatement(DELETE_DIRTY_SQL)) {
+            for (int i = 0; i < kinds.size(); i++) {
+                deleteDirty.setString(1, kinds.get(i));
+                deleteDirty.setInt(2, keys.get(i));
+                deleteDirty.addBatch();
+            }
+            deleteDirty.executeBatch();
+        }
+
+        for (int i = 0; i < kinds.size(); i++) {
+            int key = keys.get(i);
+            switch (kinds.get(i)) {
+                case "car":
+                    replace(conn, DELETE_CAR_PROFIT_SQL, INSERT_CAR_PROFIT_SQL, key, 3);
+                    replace(conn, DELETE_REPAIRED_SQL, INSERT_REPAIRED_SQL, key, 2);
+                    break;
+                case "user":
+                    replace(conn, DELETE_USER_FINE_SQL, INSERT_USER_FINE_SQL, key, 1);
+                    break;
+                case "staff":
+                    replace(conn, DELETE_STAFF_CAR_SQL, INSERT_STAFF_CAR_SQL, key, 1);
+                    break;
+                default:
+                    break;
+            }
+        }
+        touch(conn);
+        return kinds.size();
+    }
+
+    /**
+     * 删除旧的汇总行后重新插入，没有相关记录时不插入
+     * @param paramCount 插入语句中键参数出现的次数
+     */
+    private void replace(Connection conn, String deleteSql, String insertSql, int key, int paramCount)
+            throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+            delete.setInt(1, key);
+            delete.executeUpdate();
+        }
+        try (PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            for (int i = 1; i <= paramCount; i++) {
+                insert.setInt(i, key);
+            }
+            insert.executeUpdate();
+        }
+    }
+
+    private void touch(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "REPLACE INTO report_refresh (id, refreshed_at) VALUES (1, NOW(3))")) {
+            pstmt.executeUpdate();
+        }
+    }
+
+    private boolean tryLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, LOCK_NAME);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("释放报表汇总锁失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.carrental.dao;
+
+import com.carrental.entity.Car;
+import com.carrental.entity.RentInformation;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * DAO结果集映射的直接入口
+ * 映射方法是静态的，不需要创建DAO（创建DAO会连接数据库），供基准测试在内存结果集上直接调用
+ */
+public final class ResultSetMappers {
+
+    private ResultSetMappers() {
+    }
+
+    /**
+     * 同CarDAO中的映射，结果集不含photo列
+     * @param rs 定位到当前行的结果集
+     * @return 车辆
+     * @throws SQLException SQL异常
+     */
+    public static Car car(ResultSet rs) throws SQLException {
+        return CarDAO.mapResultSetToCar(rs, false);
+    }
+
+    /**
+     * 同RentInformationDAO中的映射
+     * @param rs 定位到当前行的结果集
+     * @return 租车信息
+     * @throws SQLException SQL异常
+     */
+    public static RentInformation rentInformation(ResultSet rs) throws SQLException {
+        return RentInformationDAO.mapResultSetToRentInformation(rs);
+    }
+}
@@ -0,0 +1,64 @@
+package com.carrental.dao;
+
+import com.carrental.util.AppConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 逐行扫描大表的公共方法
+ * 查询使用服务器端游标（连接参数useCursorFetch=true），每次只从服务器取一批行；
+ * 日期在SQL中换算为距1970-01-01的天数，金额换算为分，读取时不创建Date和BigDecimal对象
+ */
+final class RowScanner {
+    /** 日期列为NULL时的天数 */
+    static final int NO_DAY = Integer.MIN_VALUE;
+
+    // TO_DAYS('1970-01-01')
+    private static final int EPOCH_TO_DAYS = 719528;
+    private static final int FETCH_SIZE = Math.max(1, AppConfig.getInt("database.scanFetchSize", 1000));
+
+    private RowScanner() {
+    }
+
+    /**
+     * 准备只进、只读、按批从服务器取行的查询
+     */
+    static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(FETCH_SIZE);
+        return pstmt;
+    }
+
+    /**
+     * 按列名查出列序号，每个结果集只查一次
+     */
+    static int[] columns(ResultSet rs, String... names) throws SQLException {
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = rs.findColumn(names[i]);
+        }
+        return columns;
+    }
+
+    /**
+     * @return 将日期列换算为天数的SQL表达式
+     */
+    static String epochDay(String column) {
+        return "TO_DAYS(" + column + ") - " + EPOCH_TO_DAYS;
+    }
+
+    /**
+     * @return 将金额列换算为分的SQL表达式
+     */
+    static String cents(String column) {
+        return "CAST(" + column + " * 100 AS SIGNED)";
+    }
+
+    static int day(ResultSet rs, int column) throws SQLException {
+        int day = rs.getInt(column);
+        return rs.wasNull() ? NO_DAY : day;
+    }
+}
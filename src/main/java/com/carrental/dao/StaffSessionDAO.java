@@ -0,0 +1,134 @@
+package com.carrental.dao;
+
+import com.carrental.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 员工登录会话数据访问对象
+ * 每个员工在staff_session表中最多一行，expires_at之前该员工不能在别处登录；
+ * 持有会话的客户端定时续约，客户端异常退出时会话在租约到期后自动失效
+ */
+public class StaffSessionDAO {
+    // 驱动默认返回匹配行数（CLIENT_FOUND_ROWS），无法用ON DUPLICATE KEY UPDATE的影响行数区分插入和未修改，
+    // 所以先插入，主键冲突时再只接管已过期的会话
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO staff_session (staff_id, session_id, client, created_at, expires_at) "
+            + "VALUES (?, ?, ?, NOW(3), NOW(3) + INTERVAL ? SECOND)";
+    private static final String TAKE_OVER_SQL =
+            "UPDATE staff_session SET session_id = ?, client = ?, created_at = NOW(3), "
+            + "expires_at = NOW(3) + INTERVAL ? SECOND "
+            + "WHERE staff_id = ? AND expires_at < NOW(3)";
+    private static final String RENEW_SQL =
+            "UPDATE staff_session SET expires_at = NOW(3) + INTERVAL ? SECOND "
+            + "WHERE staff_id = ? AND session_id = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM staff_session WHERE staff_id = ? AND session_id = ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM staff_session WHERE expires_at < NOW(3) LIMIT ?";
+
+    private DatabaseConnection dbConnection;
+
+    public StaffSessionDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * 为员工申请会话：没有会话或原会话已过期时成功，否则说明员工已在别处登录
+     * @param staffId 员工ID
+     * @param sessionId 新会话ID
+     * @param client 客户端标识
+     * @param leaseSeconds 租约时长（秒）
+     * @return 1表示申请成功，0表示员工已有未过期的会话，-1表示失败
+     */
+    public int claim(int staffId, String sessionId, String client, int leaseSeconds) {
+        try (Connection conn = dbConnection.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                pstmt.setInt(1, staffId);
+                pstmt.setString(2, sessionId);
+                pstmt.setString(3, client);
+                pstmt.setInt(4, leaseSeconds);
+                if (pstmt.executeUpdate() > 0) {
+                    return 1;
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(TAKE_OVER_SQL)) {
+                pstmt.setString(1, sessionId);
+                pstmt.setString(2, client);
+                pstmt.setInt(3, leaseSeconds);
+                pstmt.setInt(4, staffId);
+                return pstmt.executeUpdate() > 0 ? 1 : 0;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("申请登录会话失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * 续约会话
+     * @param staffId 员工ID
+     * @param sessionId 会话ID
+     * @param leaseSeconds 从现在起的租约时长（秒）
+     * @return 1表示续约成功，0表示会话已不存在（已过期被清理或被接管），-1表示失败
+     */
+    public int renew(int staffId, String sessionId, int leaseSeconds) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RENEW_SQL)) {
+
+            pstmt.setInt(1, leaseSeconds);
+            pstmt.setInt(2, staffId);
+            pstmt.setString(3, sessionId);
+            return pstmt.executeUpdate() > 0 ? 1 : 0;
+
+        } catch (SQLException e) {
+            System.err.println("续约登录会话失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * 释放会话，只删除自己持有的会话
+     * @param staffId 员工ID
+     * @param sessionId 会话ID
+     * @return 是否删除了会话
+     */
+    public boolean release(int staffId, String sessionId) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RELEASE_SQL)) {
+
+            pstmt.setInt(1, staffId);
+            pstmt.setString(2, sessionId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("释放登录会话失败: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 删除已过期的会话
+     * @param limit 最多删除的行数
+     * @return 删除的行数，失败返回-1
+     */
+    public int deleteExpired(int limit) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DELETE_EXPIRED_SQL)) {
+
+            pstmt.setInt(1, limit);
+            return pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("清理过期登录会话失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
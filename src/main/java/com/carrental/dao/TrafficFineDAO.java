@@ -1,17 +1,35 @@
 package com.carrental.dao;
 
 import com.carrental.entity.TrafficFine;
+import com.carrental.entity.TrafficFineView;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 违章罚款数据访问对象
  * 负责违章罚款相关的数据库操作
  */
 public class TrafficFineDAO {
+    private static final String SCAN_SQL =
+            "SELECT fine_id, car_id, user_id, "
+            + RowScanner.epochDay("violation_date") + " AS violation_day, "
+            + "offending_location, "
+            + RowScanner.cents("fine") + " AS fine_cents, "
+            + "fine_state "
+            + "FROM traffic_fine WHERE fine_id > ? ORDER BY fine_id";
+    private static final String FINE_VIEW_SELECT =
+            "SELECT f.fine_id, f.car_id, c.license_plate_number, f.user_id, u.name AS user_name, "
+            + "f.violation_date, f.offending_location, f.fine, f.fine_state "
+            + "FROM traffic_fine f "
+            + "LEFT JOIN car c ON c.car_id = f.car_id "
+            + "LEFT JOIN user u ON u.user_id = f.user_id";
+    private static final String FINE_VIEW_ORDER = "f.violation_date DESC, f.fine_id DESC";
+
     private DatabaseConnection dbConnection;
 
     public TrafficFineDAO() {
@@ -33,7 +51,7 @@ public class TrafficFineDAO {
             pstmt.setInt(2, trafficFine.getUserId());
             pstmt.setDate(3, Date.valueOf(trafficFine.getViolationDate()));
             pstmt.setString(4, trafficFine.getOffendingLocation());
-            pstmt.setBigDecimal(5, trafficFine.getFine());
+            Money.bind(pstmt, 5, trafficFine.getFine());
             pstmt.setString(6, trafficFine.getFineState());
             
             int result = pstmt.executeUpdate();
@@ -59,6 +77,7 @@ public class TrafficFineDAO {
             
             pstmt.setInt(1, fineId);
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.FINE, fineId);
             return result > 0;
             
         } catch (SQLException e) {
@@ -83,11 +102,12 @@ public class TrafficFineDAO {
             pstmt.setInt(2, trafficFine.getUserId());
             pstmt.setDate(3, Date.valueOf(trafficFine.getViolationDate()));
             pstmt.setString(4, trafficFine.getOffendingLocation());
-            pstmt.setBigDecimal(5, trafficFine.getFine());
+            Money.bind(pstmt, 5, trafficFine.getFine());
             pstmt.setString(6, trafficFine.getFineState());
             pstmt.setInt(7, trafficFine.getFineId());
             
             int result = pstmt.executeUpdate();
+            DataChangeBus.publish(DataChangeBus.FINE, trafficFine.getFineId());
             return result > 0;
             
         } catch (SQLException e) {
@@ -228,6 +248,185 @@ public class TrafficFineDAO {
         return fineList;
     }
 
+    /**
+     * 分页查询违章罚款
+     * 按违规日期降序、罚款ID降序，键集分页
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 违章罚款列表，条数小于limit说明已到最后一页
+     */
+    public List<TrafficFine> getTrafficFinePage(TrafficFine after, int limit) {
+        PageQuery query = new PageQuery();
+        if (after != null) {
+            query.afterDesc("violation_date", "fine_id", after.getViolationDate(), after.getFineId());
+        }
+        String sql = query.toSql("SELECT * FROM traffic_fine", "violation_date DESC, fine_id DESC");
+        List<TrafficFine> trafficFines = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            query.bind(pstmt, limit);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                trafficFines.add(mapResultSetToTrafficFine(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询违章罚款失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return trafficFines;
+    }
+
+    /**
+     * 分页查询违章罚款展示行（关联车牌号、用户姓名）
+     * 按违规日期降序、罚款ID降序，键集分页
+     * @param fineState 罚款状态，null表示全部
+     * @param carId 车辆ID，null表示全部
+     * @param userId 用户ID，null表示全部
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 展示行列表，条数小于limit说明已到最后一页
+     */
+    public List<TrafficFineView> getTrafficFineViewPage(String fineState, Integer carId, Integer userId,
+                                                        TrafficFineView after, int limit) {
+        PageQuery query = buildTrafficFineViewQuery(fineState, carId, userId);
+        if (after != null) {
+            query.afterDesc("f.violation_date", "f.fine_id", after.getViolationDate(), after.getFineId());
+        }
+        return queryTrafficFineViews(query, query.toSql(FINE_VIEW_SELECT, FINE_VIEW_ORDER), limit, -1);
+    }
+
+    /**
+     * 按偏移量查询违章罚款展示行，用于无法按上一页定位的跳页
+     * @param fineState 罚款状态，null表示全部
+     * @param carId 车辆ID，null表示全部
+     * @param userId 用户ID，null表示全部
+     * @param offset 跳过的条数
+     * @param limit 每页条数
+     * @return 展示行列表
+     */
+    public List<TrafficFineView> getTrafficFineViewPageAt(String fineState, Integer carId, Integer userId,
+                                                          int offset, int limit) {
+        PageQuery query = buildTrafficFineViewQuery(fineState, carId, userId);
+        return queryTrafficFineViews(query, query.toOffsetSql(FINE_VIEW_SELECT, FINE_VIEW_ORDER), limit, offset);
+    }
+
+    /**
+     * 统计符合筛选条件的违章罚款数
+     * @param fineState 罚款状态，null表示全部
+     * @param carId 车辆ID，null表示全部
+     * @param userId 用户ID，null表示全部
+     * @return 记录数
+     */
+    public int countTrafficFineViews(String fineState, Integer carId, Integer userId) {
+        PageQuery query = buildTrafficFineViewQuery(fineState, carId, userId);
+        String sql = query.toCountSql("FROM traffic_fine f");
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            query.bindConditions(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("统计违章罚款失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+
+    private PageQuery buildTrafficFineViewQuery(String fineState, Integer carId, Integer userId) {
+        PageQuery query = new PageQuery();
+        if (fineState != null) {
+            query.where("f.fine_state = ?", fineState);
+        }
+        if (carId != null) {
+            query.where("f.car_id = ?", carId);
+        }
+        if (userId != null) {
+            query.where("f.user_id = ?", userId);
+        }
+        return query;
+    }
+
+    /**
+     * 执行展示行查询
+     * @param offset 偏移量，小于0表示键集分页SQL（没有OFFSET参数）
+     */
+    private List<TrafficFineView> queryTrafficFineViews(PageQuery query, String sql, int limit, int offset) {
+        List<TrafficFineView> views = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            if (offset < 0) {
+                query.bind(pstmt, limit);
+            } else {
+                query.bindOffset(pstmt, limit, offset);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Date violationDate = rs.getDate("violation_date");
+                views.add(new TrafficFineView(
+                        rs.getInt("fine_id"),
+                        rs.getInt("car_id"),
+                        rs.getString("license_plate_number"),
+                        rs.getInt("user_id"),
+                        rs.getString("user_name"),
+                        violationDate != null ? violationDate.toLocalDate() : null,
+                        rs.getString("offending_location"),
+                        Money.read(rs, "fine"),
+                        rs.getString("fine_state")));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("分页查询违章罚款失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return views;
+    }
+
+    /**
+     * 按ID顺序逐行扫描违章罚款，用法同RentInformationDAO.forEachRental
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调，参数对象会被下一行复用
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachFine(int afterId, Consumer<FineRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "fine_id", "car_id", "user_id", "violation_day",
+                    "offending_location", "fine_cents", "fine_state");
+            FineRow row = new FineRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描违章罚款失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * 将ResultSet映射为TrafficFine对象
      * @param rs ResultSet对象
@@ -246,9 +445,61 @@ public class TrafficFineDAO {
         }
         
         trafficFine.setOffendingLocation(rs.getString("offending_location"));
-        trafficFine.setFine(rs.getBigDecimal("fine"));
+        trafficFine.setFine(Money.read(rs, "fine"));
         trafficFine.setFineState(rs.getString("fine_state"));
         
         return trafficFine;
     }
+
+    /**
+     * 逐行扫描时复用的违章罚款行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE；金额以分为单位
+     */
+    public static final class FineRow {
+        private int fineId;
+        private int carId;
+        private int userId;
+        private int violationDay;
+        private String offendingLocation;
+        private long fineCents;
+        private String fineState;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            fineId = rs.getInt(columns[0]);
+            carId = rs.getInt(columns[1]);
+            userId = rs.getInt(columns[2]);
+            violationDay = RowScanner.day(rs, columns[3]);
+            offendingLocation = rs.getString(columns[4]);
+            fineCents = rs.getLong(columns[5]);
+            fineState = rs.getString(columns[6]);
+        }
+
+        public int getFineId() {
+            return fineId;
+        }
+
+        public int getCarId() {
+            return carId;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public int getViolationDay() {
+            return violationDay;
+        }
+
+        public String getOffendingLocation() {
+            return offendingLocation;
+        }
+
+        public long getFineCents() {
+            return fineCents;
+        }
+
+        public String getFineState() {
+            return fineState;
+        }
+    }
 }
@@ -2,16 +2,33 @@ package com.carrental.dao;
 
 import com.carrental.entity.User;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.EntityCache;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 用户数据访问对象
  * 负责用户相关的数据库操作
  */
 public class UserDAO {
+    private static final String SCAN_SQL =
+            "SELECT user_id, name, identity_id, phone, "
+            + RowScanner.epochDay("register_date") + " AS register_day, "
+            + "member, judge "
+            + "FROM user WHERE user_id > ? ORDER BY user_id";
+
+    private static final EntityCache<Integer, User> USER_CACHE =
+            EntityCache.create("user", "用户", 512, 300, User::new);
+    // 登录按手机号查询；手机号可能被修改，任何用户写操作都清空整个手机号缓存
+    private static final EntityCache<String, User> USER_PHONE_CACHE =
+            EntityCache.create("userPhone", "用户手机号", 512, 300, User::new);
+
     private DatabaseConnection dbConnection;
 
     public UserDAO() {
@@ -34,6 +51,7 @@ public class UserDAO {
             pstmt.setString(3, user.getPhone());
 
             int result = pstmt.executeUpdate();
+            USER_PHONE_CACHE.invalidateAll();
             return result > 0;
 
         } catch (SQLException e) {
@@ -56,6 +74,7 @@ public class UserDAO {
 
             pstmt.setInt(1, userId);
             int result = pstmt.executeUpdate();
+            invalidateUser(userId);
             return result > 0;
 
         } catch (SQLException e) {
@@ -85,6 +104,7 @@ public class UserDAO {
             pstmt.setInt(7, user.getUserId());
 
             int result = pstmt.executeUpdate();
+            invalidateUser(user.getUserId());
             return result > 0;
 
         } catch (SQLException e) {
@@ -95,11 +115,15 @@ public class UserDAO {
     }
 
     /**
-     * 根据ID查询用户
+     * 根据ID查询用户（读穿缓存）
      * @param userId 用户ID
      * @return 用户对象
      */
     public User getUserById(int userId) {
+        return USER_CACHE.get(userId, this::loadUserById);
+    }
+
+    private User loadUserById(int userId) {
         String sql = "SELECT * FROM user WHERE user_id = ?";
 
         try (Connection conn = dbConnection.getConnection();
@@ -120,6 +144,139 @@ public class UserDAO {
         return null;
     }
 
+    /**
+     * 按主键分页查询用户
+     * @param keyword 姓名、身份证号或电话包含的关键字，null或空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @param afterUserId 上一页最后一条的user_id，第一页传0
+     * @param limit 每页条数
+     * @return 用户列表，条数小于limit说明已到最后一页
+     */
+    public List<User> getUsersPage(String keyword, String member, String judge, int afterUserId, int limit) {
+        PageQuery query = buildUserQuery(keyword, member, judge).afterAsc("user_id", afterUserId);
+        return queryUsers(query, query.toSql("SELECT * FROM user", "user_id"), limit, -1);
+    }
+
+    /**
+     * 按偏移量分页查询用户，用于无法按上一页定位的跳页
+     * @param keyword 姓名、身份证号或电话包含的关键字，null或空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @param offset 跳过的条数
+     * @param limit 每页条数
+     * @return 用户列表
+     */
+    public List<User> getUsersPageAt(String keyword, String member, String judge, int offset, int limit) {
+        PageQuery query = buildUserQuery(keyword, member, judge);
+        return queryUsers(query, query.toOffsetSql("SELECT * FROM user", "user_id"), limit, offset);
+    }
+
+    /**
+     * 统计符合筛选条件的用户数
+     * @param keyword 姓名、身份证号或电话包含的关键字，null或空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @return 用户数
+     */
+    public int countUsers(String keyword, String member, String judge) {
+        PageQuery query = buildUserQuery(keyword, member, judge);
+        String sql = query.toCountSql("FROM user");
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            query.bindConditions(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("统计用户失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return 0;
+    }
+
+    private PageQuery buildUserQuery(String keyword, String member, String judge) {
+        PageQuery query = new PageQuery();
+        if (keyword != null && !keyword.isEmpty()) {
+            String pattern = "%" + keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            query.where("(name LIKE ? OR identity_id LIKE ? OR phone LIKE ?)", pattern, pattern, pattern);
+        }
+        if (member != null) {
+            query.where("member = ?", member);
+        }
+        if (judge != null) {
+            query.where("judge = ?", judge);
+        }
+        return query;
+    }
+
+    /**
+     * 执行分页查询
+     * @param offset 偏移量，小于0表示键集分页SQL（没有OFFSET参数）
+     */
+    private List<User> queryUsers(PageQuery query, String sql, int limit, int offset) {
+        List<User> users = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (offset < 0) {
+                query.bind(pstmt, limit);
+            } else {
+                query.bindOffset(pstmt, limit, offset);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                users.add(mapResultSetToUser(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("分页查询用户失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
+    /**
+     * 根据一组ID批量查询用户
+     * ID较多时按分组执行多条 IN 查询
+     * @param userIds 用户ID集合
+     * @return 用户ID到用户对象的映射，不存在的ID没有对应项
+     */
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds) {
+        Map<Integer, User> users = new HashMap<>();
+
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : BatchQuery.chunks(userIds)) {
+                String sql = "SELECT * FROM user WHERE user_id IN (" + BatchQuery.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        User user = mapResultSetToUser(rs);
+                        users.put(user.getUserId(), user);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("批量查询用户失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
     /**
      * 根据身份证号查询用户
      * @param identityId 身份证号
@@ -224,6 +381,36 @@ public class UserDAO {
         return users;
     }
 
+    /**
+     * 按ID顺序逐行扫描用户，用法同RentInformationDAO.forEachRental
+     * @param afterId 只扫描ID大于该值的记录，0表示全部
+     * @param visitor 每行的回调，参数对象会被下一行复用
+     * @return 扫描的行数，失败返回-1
+     */
+    public long forEachUser(int afterId, Consumer<UserRow> visitor) {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = RowScanner.prepare(conn, SCAN_SQL)) {
+            
+            pstmt.setInt(1, afterId);
+            ResultSet rs = pstmt.executeQuery();
+            int[] columns = RowScanner.columns(rs, "user_id", "name", "identity_id", "phone", "register_day",
+                    "member", "judge");
+            UserRow row = new UserRow();
+            long count = 0;
+            while (rs.next()) {
+                row.read(rs, columns);
+                visitor.accept(row);
+                count++;
+            }
+            return count;
+            
+        } catch (SQLException e) {
+            System.err.println("扫描用户失败: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     /**
      * 将ResultSet映射为User对象
      * @param rs ResultSet对象
@@ -249,6 +436,10 @@ public class UserDAO {
     }
 
     public User getUserByPhone(String phone) {
+        return USER_PHONE_CACHE.get(phone, this::loadUserByPhone);
+    }
+
+    private User loadUserByPhone(String phone) {
                 /*
         这个方法用于用户登陆时判断用户手机号和身份证是否匹配
         要name是因为登陆后在右上角会显示用户名字
@@ -270,4 +461,65 @@ public class UserDAO {
         }
         return null;
     }
+
+    /**
+     * 用户被修改后使缓存失效
+     * @param userId 用户ID
+     */
+    private static void invalidateUser(int userId) {
+        USER_CACHE.invalidate(userId);
+        USER_PHONE_CACHE.invalidateAll();
+    }
+
+    /**
+     * 逐行扫描时复用的用户行
+     * 日期为距1970-01-01的天数，没有日期时为Integer.MIN_VALUE
+     */
+    public static final class UserRow {
+        private int userId;
+        private String name;
+        private String identityId;
+        private String phone;
+        private int registerDay;
+        private String member;
+        private String judge;
+
+        private void read(ResultSet rs, int[] columns) throws SQLException {
+            userId = rs.getInt(columns[0]);
+            name = rs.getString(columns[1]);
+            identityId = rs.getString(columns[2]);
+            phone = rs.getString(columns[3]);
+            registerDay = RowScanner.day(rs, columns[4]);
+            member = rs.getString(columns[5]);
+            judge = rs.getString(columns[6]);
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getIdentityId() {
+            return identityId;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public int getRegisterDay() {
+            return registerDay;
+        }
+
+        public String getMember() {
+            return member;
+        }
+
+        public String getJudge() {
+            return judge;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.carrental.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 车辆占用时段
+ * 进行中的租车或未结束的维修，时段为[开始日期, 结束日期)，结束日期为null表示尚无结束时间
+ */
+public final class Booking {
+    public static final String RENT = "租车";
+    public static final String MAINTAIN = "维修";
+
+    private final int carId;          // 车辆ID
+    private final String type;        // 占用类型：租车、维修
+    private final int sourceId;       // 租车信息ID或维修信息ID
+    private final LocalDate start;    // 开始日期（含）
+    private final LocalDate end;      // 结束日期（不含）
+
+    public Booking(int carId, String type, int sourceId, LocalDate start, LocalDate end) {
+        this.carId = carId;
+        this.type = type;
+        this.sourceId = sourceId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getCarId() {
+        return carId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + start + " 至 " + (end != null ? end : "未定");
+    }
+}
@@ -1,6 +1,7 @@
 package com.carrental.entity;
 
-import java.math.BigDecimal;
+import com.carrental.util.Money;
+
 import java.time.LocalDate;
 
 /**
@@ -16,8 +17,8 @@ public class Car {
     private String brand;                  // 品牌
     private LocalDate purchaseDate;        // 购买日期
     private byte[] photo;                  // 照片
-    private BigDecimal rent;               // 日租金
-    private String deposit;                // 押金
+    private Money rent;                    // 日租金
+    private Money deposit;                 // 押金
 
     // 无参构造函数
     public Car() {}
@@ -25,7 +26,7 @@ public class Car {
     // 带参构造函数
     public Car(int carId, String licensePlateNumber, String model, String color, 
                String status, String brand, LocalDate purchaseDate, byte[] photo, 
-               BigDecimal rent, String deposit) {
+               Money rent, Money deposit) {
         this.carId = carId;
         this.licensePlateNumber = licensePlateNumber;
         this.model = model;
@@ -38,6 +39,12 @@ public class Car {
         this.deposit = deposit;
     }
 
+    // 复制构造函数（照片字节数组共享，不会被原地修改）
+    public Car(Car other) {
+        this(other.carId, other.licensePlateNumber, other.model, other.color, other.status,
+             other.brand, other.purchaseDate, other.photo, other.rent, other.deposit);
+    }
+
     // Getter和Setter方法
     public int getCarId() {
         return carId;
@@ -95,17 +102,17 @@ public class Car {
         this.photo = photo;
     }
 
-    public BigDecimal getRent() {
+    public Money getRent() {
         return rent;
     }
-    public void setRent(BigDecimal rent) {
+    public void setRent(Money rent) {
         this.rent = rent;
     }
 
-    public String getDeposit() {
+    public Money getDeposit() {
         return deposit;
     }
-    public void setDeposit(String deposit) {
+    public void setDeposit(Money deposit) {
         this.deposit = deposit;
     }
 
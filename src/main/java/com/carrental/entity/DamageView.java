@@ -0,0 +1,60 @@
+package com.carrental.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 损坏记录展示行
+ * damage_information 关联车辆后的只读视图，不含照片
+ */
+public final class DamageView {
+    private final int damageId;            // 损坏信息ID
+    private final int carId;               // 车辆ID
+    private final String licensePlate;     // 车牌号
+    private final LocalDate damageDate;    // 损毁日期
+    private final String damageDescribe;   // 损毁描述
+    private final String damageState;      // 维修状态（已维修、未维修）
+
+    public DamageView(int damageId, int carId, String licensePlate, LocalDate damageDate,
+                      String damageDescribe, String damageState) {
+        this.damageId = damageId;
+        this.carId = carId;
+        this.licensePlate = licensePlate;
+        this.damageDate = damageDate;
+        this.damageDescribe = damageDescribe;
+        this.damageState = damageState;
+    }
+
+    public int getDamageId() {
+        return damageId;
+    }
+
+    public int getCarId() {
+        return carId;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public LocalDate getDamageDate() {
+        return damageDate;
+    }
+
+    public String getDamageDescribe() {
+        return damageDescribe;
+    }
+
+    public String getDamageState() {
+        return damageState;
+    }
+
+    @Override
+    public String toString() {
+        return "DamageView{" +
+                "damageId=" + damageId +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", damageDate=" + damageDate +
+                ", damageState='" + damageState + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.carrental.entity;
+
+/**
+ * 员工登录结果
+ * 失败时说明具体原因，供界面直接提示
+ */
+public enum LoginOutcome {
+    SUCCESS("登录成功"),
+    INVALID_CREDENTIALS("用户名或密码错误"),
+    ALREADY_LOGGED_IN("该员工已在其他地方登录，请先退出或等待会话过期"),
+    DATABASE_ERROR("数据库操作失败");
+
+    private final String message;
+
+    LoginOutcome(String message) {
+        this.message = message;
+    }
+
+    /**
+     * 获取结果说明
+     * @return 中文说明
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 是否成功
+     * @return 是否成功
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
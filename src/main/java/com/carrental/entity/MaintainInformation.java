@@ -1,6 +1,7 @@
 package com.carrental.entity;
 
-import java.math.BigDecimal;
+import com.carrental.util.Money;
+
 import java.time.LocalDate;
 
 /**
@@ -14,7 +15,7 @@ public class MaintainInformation {
     private String maintainDescribe;   // 报修描述
     private LocalDate maintainBeginDate;   // 维修开始日期
     private LocalDate maintainFinishDate;  // 维修结束日期
-    private BigDecimal maintainCost;   // 维修费用
+    private Money maintainCost;        // 维修费用
 
     // 无参构造函数
     public MaintainInformation() {}
@@ -22,7 +23,7 @@ public class MaintainInformation {
     // 带参构造函数
     public MaintainInformation(int maintainId, int carId, LocalDate maintainDate, 
                              String maintainDescribe, LocalDate maintainBeginDate, 
-                             LocalDate maintainFinishDate, BigDecimal maintainCost) {
+                             LocalDate maintainFinishDate, Money maintainCost) {
         this.maintainId = maintainId;
         this.carId = carId;
         this.maintainDate = maintainDate;
@@ -75,10 +76,10 @@ public class MaintainInformation {
         this.maintainFinishDate = maintainFinishDate;
     }
 
-    public BigDecimal getMaintainCost() {
+    public Money getMaintainCost() {
         return maintainCost;
     }
-    public void setMaintainCost(BigDecimal maintainCost) {
+    public void setMaintainCost(Money maintainCost) {
         this.maintainCost = maintainCost;
     }
 
@@ -0,0 +1,75 @@
+package com.carrental.entity;
+
+import com.carrental.util.Money;
+
+import java.time.LocalDate;
+
+/**
+ * 维修记录展示行
+ * maintain_information 关联车辆后的只读视图，供表格直接展示
+ */
+public final class MaintainView {
+    private final int maintainId;                  // 维修信息ID
+    private final int carId;                       // 车辆ID
+    private final String licensePlate;             // 车牌号
+    private final LocalDate maintainDate;          // 报修日期
+    private final String maintainDescribe;         // 报修描述
+    private final LocalDate maintainBeginDate;     // 维修开始日期
+    private final LocalDate maintainFinishDate;    // 维修结束日期
+    private final Money maintainCost;              // 维修费用
+
+    public MaintainView(int maintainId, int carId, String licensePlate, LocalDate maintainDate,
+                        String maintainDescribe, LocalDate maintainBeginDate, LocalDate maintainFinishDate,
+                        Money maintainCost) {
+        this.maintainId = maintainId;
+        this.carId = carId;
+        this.licensePlate = licensePlate;
+        this.maintainDate = maintainDate;
+        this.maintainDescribe = maintainDescribe;
+        this.maintainBeginDate = maintainBeginDate;
+        this.maintainFinishDate = maintainFinishDate;
+        this.maintainCost = maintainCost;
+    }
+
+    public int getMaintainId() {
+        return maintainId;
+    }
+
+    public int getCarId() {
+        return carId;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public LocalDate getMaintainDate() {
+        return maintainDate;
+    }
+
+    public String getMaintainDescribe() {
+        return maintainDescribe;
+    }
+
+    public LocalDate getMaintainBeginDate() {
+        return maintainBeginDate;
+    }
+
+    public LocalDate getMaintainFinishDate() {
+        return maintainFinishDate;
+    }
+
+    public Money getMaintainCost() {
+        return maintainCost;
+    }
+
+    @Override
+    public String toString() {
+        return "MaintainView{" +
+                "maintainId=" + maintainId +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", maintainDate=" + maintainDate +
+                ", maintainCost=" + maintainCost +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.carrental.entity;
 
-import java.math.BigDecimal;
+import com.carrental.util.Money;
+
 import java.time.LocalDate;
 
 /**
@@ -14,8 +15,8 @@ public class RentInformation {
     private int userId;                    // 外键 - 用户ID
     private LocalDate rentDate;            // 租借日期
     private LocalDate returnDate;          // 归还日期
-    private BigDecimal payTheAmount;       // 支付金额
-    private BigDecimal returnAmount;       // 退还金额
+    private Money payTheAmount;            // 支付金额
+    private Money returnAmount;            // 退还金额
 
     // 无参构造函数
     public RentInformation() {}
@@ -23,7 +24,7 @@ public class RentInformation {
     // 带参构造函数
     public RentInformation(int rentId, int carId, int staffId, int userId, 
                           LocalDate rentDate, LocalDate returnDate, 
-                          BigDecimal payTheAmount, BigDecimal returnAmount) {
+                          Money payTheAmount, Money returnAmount) {
         this.rentId = rentId;
         this.carId = carId;
         this.staffId = staffId;
@@ -77,17 +78,17 @@ public class RentInformation {
         this.returnDate = returnDate;
     }
 
-    public BigDecimal getPayTheAmount() {
+    public Money getPayTheAmount() {
         return payTheAmount;
     }
-    public void setPayTheAmount(BigDecimal payTheAmount) {
+    public void setPayTheAmount(Money payTheAmount) {
         this.payTheAmount = payTheAmount;
     }
 
-    public BigDecimal getReturnAmount() {
+    public Money getReturnAmount() {
         return returnAmount;
     }
-    public void setReturnAmount(BigDecimal returnAmount) {
+    public void setReturnAmount(Money returnAmount) {
         this.returnAmount = returnAmount;
     }
 
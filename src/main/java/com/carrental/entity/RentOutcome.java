@@ -0,0 +1,40 @@
+package com.carrental.entity;
+
+/**
+ * 租车、还车操作结果
+ * 失败时说明具体原因，供界面直接提示
+ */
+public enum RentOutcome {
+    SUCCESS("操作成功"),
+    CAR_NOT_FOUND("车辆不存在"),
+    CAR_NOT_AVAILABLE("车辆不是空闲状态，可能已被其他人租出"),
+    USER_NOT_FOUND("用户不存在"),
+    STAFF_NOT_FOUND("员工不存在"),
+    SCHEDULE_CONFLICT("所选日期内车辆已有租车或维修安排"),
+    INVALID_DATES("日期无效：租借日期不能早于今天，归还日期必须晚于租借日期"),
+    RENT_NOT_FOUND("租车信息不存在"),
+    ALREADY_RETURNED("该租车记录已经还车"),
+    DATABASE_ERROR("数据库操作失败");
+
+    private final String message;
+
+    RentOutcome(String message) {
+        this.message = message;
+    }
+
+    /**
+     * 获取结果说明
+     * @return 中文说明
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 是否成功
+     * @return 是否成功
+     */
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
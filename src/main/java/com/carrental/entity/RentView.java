@@ -0,0 +1,95 @@
+package com.carrental.entity;
+
+import com.carrental.util.Money;
+
+import java.time.LocalDate;
+
+/**
+ * 租车记录展示行
+ * rent_information 关联车辆、用户、员工后的只读视图，供表格直接展示
+ */
+public final class RentView {
+    private final int rentId;              // 租车信息ID
+    private final int carId;               // 车辆ID
+    private final String licensePlate;     // 车牌号
+    private final int userId;              // 用户ID
+    private final String userName;         // 用户姓名
+    private final int staffId;             // 员工ID
+    private final String staffName;        // 员工姓名
+    private final LocalDate rentDate;      // 租借日期
+    private final LocalDate returnDate;    // 归还日期
+    private final Money payTheAmount;      // 支付金额
+    private final Money returnAmount;      // 退还金额
+
+    public RentView(int rentId, int carId, String licensePlate, int userId, String userName,
+                    int staffId, String staffName, LocalDate rentDate, LocalDate returnDate,
+                    Money payTheAmount, Money returnAmount) {
+        this.rentId = rentId;
+        this.carId = carId;
+        this.licensePlate = licensePlate;
+        this.userId = userId;
+        this.userName = userName;
+        this.staffId = staffId;
+        this.staffName = staffName;
+        this.rentDate = rentDate;
+        this.returnDate = returnDate;
+        this.payTheAmount = payTheAmount;
+        this.returnAmount = returnAmount;
+    }
+
+    public int getRentId() {
+        return rentId;
+    }
+
+    public int getCarId() {
+        return carId;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public int getStaffId() {
+        return staffId;
+    }
+
+    public String getStaffName() {
+        return staffName;
+    }
+
+    public LocalDate getRentDate() {
+        return rentDate;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public Money getPayTheAmount() {
+        return payTheAmount;
+    }
+
+    public Money getReturnAmount() {
+        return returnAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "RentView{" +
+                "rentId=" + rentId +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", userName='" + userName + '\'' +
+                ", staffName='" + staffName + '\'' +
+                ", rentDate=" + rentDate +
+                ", returnDate=" + returnDate +
+                '}';
+    }
+}
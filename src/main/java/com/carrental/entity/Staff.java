@@ -30,6 +30,12 @@ public class Staff {
         this.password = password;
     }
 
+    // 复制构造函数
+    public Staff(Staff other) {
+        this(other.staffId, other.name, other.phone, other.entryDate,
+             other.position, other.role, other.password);
+    }
+
     // Getter和Setter方法
     public int getStaffId() {
         return staffId;
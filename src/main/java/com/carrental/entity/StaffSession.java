@@ -0,0 +1,35 @@
+package com.carrental.entity;
+
+/**
+ * 员工登录会话
+ * 对应staff_session表中的一行，登录成功时创建，登出或租约过期后失效
+ */
+public class StaffSession {
+    private final Staff staff;
+    private final String sessionId;
+
+    public StaffSession(Staff staff, String sessionId) {
+        this.staff = staff;
+        this.sessionId = sessionId;
+    }
+
+    public Staff getStaff() {
+        return staff;
+    }
+
+    public int getStaffId() {
+        return staff.getStaffId();
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    @Override
+    public String toString() {
+        return "StaffSession{" +
+                "staffId=" + staff.getStaffId() +
+                ", sessionId='" + sessionId + '\'' +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.carrental.entity;
 
-import java.math.BigDecimal;
+import com.carrental.util.Money;
+
 import java.time.LocalDate;
 
 /**
@@ -13,7 +14,7 @@ public class TrafficFine {
     private int userId;                // 外键，用户ID
     private LocalDate violationDate;   // 违规日期
     private String offendingLocation;  // 违规地点
-    private BigDecimal fine;           // 罚款金额
+    private Money fine;                // 罚款金额
     private String fineState;          // 罚款状态（已交、未交）
 
     // 无参构造函数
@@ -21,7 +22,7 @@ public class TrafficFine {
 
     // 带参构造函数
     public TrafficFine(int fineId, int carId, int userId, LocalDate violationDate, 
-                      String offendingLocation, BigDecimal fine, String fineState) {
+                      String offendingLocation, Money fine, String fineState) {
         this.fineId = fineId;
         this.carId = carId;
         this.userId = userId;
@@ -47,8 +48,8 @@ public class TrafficFine {
     public String getOffendingLocation() { return offendingLocation; }
     public void setOffendingLocation(String offendingLocation) { this.offendingLocation = offendingLocation; }
 
-    public BigDecimal getFine() { return fine; }
-    public void setFine(BigDecimal fine) { this.fine = fine; }
+    public Money getFine() { return fine; }
+    public void setFine(Money fine) { this.fine = fine; }
 
     public String getFineState() { return fineState; }
     public void setFineState(String fineState) { this.fineState = fineState; }
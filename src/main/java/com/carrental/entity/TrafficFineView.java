@@ -0,0 +1,82 @@
+package com.carrental.entity;
+
+import com.carrental.util.Money;
+
+import java.time.LocalDate;
+
+/**
+ * 违章罚款展示行
+ * traffic_fine 关联车辆、用户后的只读视图，供表格直接展示
+ */
+public final class TrafficFineView {
+    private final int fineId;                  // 罚款ID
+    private final int carId;                   // 车辆ID
+    private final String licensePlate;         // 车牌号
+    private final int userId;                  // 用户ID
+    private final String userName;             // 用户姓名
+    private final LocalDate violationDate;     // 违规日期
+    private final String offendingLocation;    // 违规地点
+    private final Money fine;                  // 罚款金额
+    private final String fineState;            // 罚款状态（已交、未交）
+
+    public TrafficFineView(int fineId, int carId, String licensePlate, int userId, String userName,
+                           LocalDate violationDate, String offendingLocation, Money fine, String fineState) {
+        this.fineId = fineId;
+        this.carId = carId;
+        this.licensePlate = licensePlate;
+        this.userId = userId;
+        this.userName = userName;
+        this.violationDate = violationDate;
+        this.offendingLocation = offendingLocation;
+        this.fine = fine;
+        this.fineState = fineState;
+    }
+
+    public int getFineId() {
+        return fineId;
+    }
+
+    public int getCarId() {
+        return carId;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public LocalDate getViolationDate() {
+        return violationDate;
+    }
+
+    public String getOffendingLocation() {
+        return offendingLocation;
+    }
+
+    public Money getFine() {
+        return fine;
+    }
+
+    public String getFineState() {
+        return fineState;
+    }
+
+    @Override
+    public String toString() {
+        return "TrafficFineView{" +
+                "fineId=" + fineId +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", userName='" + userName + '\'' +
+                ", violationDate=" + violationDate +
+                ", fine=" + fine +
+                ", fineState='" + fineState + '\'' +
+                '}';
+    }
+}
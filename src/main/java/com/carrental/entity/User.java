@@ -30,6 +30,12 @@ public class User {
         this.judge = judge;
     }
 
+    // 复制构造函数
+    public User(User other) {
+        this(other.userId, other.name, other.identityId, other.phone,
+             other.registerDate, other.member, other.judge);
+    }
+
     // Getter和Setter方法
     public int getUserId() {
         return userId;
@@ -0,0 +1,191 @@
+package com.carrental.gui;
+
+import com.carrental.util.AppConfig;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 面板数据的后台加载器
+ * 查询在共享的有界线程池中执行，结果回到事件分发线程再更新界面。每个面板持有一个实例：
+ * 相同条件的请求与排队中或执行中的查询合并，条件变化时替换尚未开始的查询，
+ * 已开始的过期查询执行完后结果直接丢弃，只有最新一次请求的结果会被应用
+ * 除后台查询外，所有方法只能在事件分发线程中调用
+ * @param <T> 查询结果类型
+ */
+public class AsyncLoader<T> {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, AppConfig.getInt("ui.loaderThreads", 3)), r -> {
+                Thread t = new Thread(r, "async-loader-" + THREAD_COUNTER.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    // 同一组件上可能有多个加载器，记录正在加载的个数
+    private static final String BUSY_COUNT = "AsyncLoader.busyCount";
+
+    private final JComponent owner;
+    private final JProgressBar progressBar;
+    // 已提交但尚未被后台线程取走的请求，可以直接替换
+    private final AtomicReference<Request<T>> queued = new AtomicReference<>();
+    private Request<T> latest;
+    private boolean busy;
+
+    /**
+     * @param owner 加载期间显示等待光标的组件
+     */
+    public AsyncLoader(JComponent owner) {
+        this.owner = owner;
+        this.progressBar = new JProgressBar();
+        this.progressBar.setIndeterminate(true);
+        this.progressBar.setPreferredSize(new Dimension(80, 16));
+        this.progressBar.setVisible(false);
+    }
+
+    /**
+     * 获取加载进度条，面板自行放到工具栏中，空闲时隐藏
+     * @return 进度条
+     */
+    public JProgressBar getProgressBar() {
+        return progressBar;
+    }
+
+    /**
+     * 提交加载请求，与相同条件的未完成查询合并
+     * @param key 查询条件，用于判断请求是否相同
+     * @param query 在后台线程执行的查询
+     * @param onLoaded 在事件分发线程处理结果
+     */
+    public void load(Object key, Supplier<T> query, Consumer<T> onLoaded) {
+        submit(key, query, onLoaded, false);
+    }
+
+    /**
+     * 提交加载请求，总是重新查询，用于数据修改之后
+     * @param key 查询条件
+     * @param query 在后台线程执行的查询
+     * @param onLoaded 在事件分发线程处理结果
+     */
+    public void reload(Object key, Supplier<T> query, Consumer<T> onLoaded) {
+        submit(key, query, onLoaded, true);
+    }
+
+    /**
+     * 放弃未完成的请求
+     */
+    public void cancel() {
+        queued.set(null);
+        latest = null;
+        setBusy(false);
+    }
+
+    private void submit(Object key, Supplier<T> query, Consumer<T> onLoaded, boolean force) {
+        Request<T> request = new Request<>(key, query, onLoaded);
+        if (latest != null && !latest.finished) {
+            if (!force && Objects.equals(latest.key, key)) {
+                // 合并：沿用未完成的查询，只替换结果处理
+                latest.onLoaded = onLoaded;
+                return;
+            }
+            if (queued.compareAndSet(latest, request)) {
+                // 旧请求尚未开始，原任务会执行新的请求
+                latest = request;
+                return;
+            }
+            // 旧请求已在执行，不中断JDBC调用以免损坏连接池中的连接，完成后丢弃其结果
+        }
+        latest = request;
+        queued.set(request);
+        setBusy(true);
+        EXECUTOR.execute(this::runQueued);
+    }
+
+    /**
+     * 后台线程：取走排队的请求并执行
+     */
+    private void runQueued() {
+        Request<T> request = queued.getAndSet(null);
+        if (request == null) {
+            return;
+        }
+        T result = null;
+        boolean failed = false;
+        try {
+            result = request.query.get();
+        } catch (RuntimeException e) {
+            failed = true;
+            System.err.println("后台加载数据失败: " + e.getMessage());
+            e.printStackTrace();
+        }
+        final T loaded = result;
+        final boolean success = !failed;
+        SwingUtilities.invokeLater(() -> finish(request, loaded, success));
+    }
+
+    private void finish(Request<T> request, T result, boolean success) {
+        request.finished = true;
+        if (request != latest) {
+            return;
+        }
+        setBusy(false);
+        if (success) {
+            request.onLoaded.accept(result);
+        }
+    }
+
+    private void setBusy(boolean busy) {
+        if (this.busy == busy) {
+            return;
+        }
+        this.busy = busy;
+        progressBar.setVisible(busy);
+        Integer count = (Integer) owner.getClientProperty(BUSY_COUNT);
+        int loading = (count != null ? count : 0) + (busy ? 1 : -1);
+        owner.putClientProperty(BUSY_COUNT, loading);
+        owner.setCursor(loading > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+
+    /**
+     * 一次性替换表格模型中的全部行，只触发一次刷新事件，列宽等设置保持不变
+     * @param model 表格模型
+     * @param rows 新的行数据
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static void replaceRows(DefaultTableModel model, List<Object[]> rows) {
+        // 直接修改数据向量而不是setDataVector，后者会触发表结构变化、重置列宽；JDK 9起返回类型为Vector<Vector>
+        Vector<Vector> data = model.getDataVector();
+        data.clear();
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableDataChanged();
+    }
+
+    /**
+     * 一次加载请求
+     */
+    private static final class Request<T> {
+        private final Object key;
+        private final Supplier<T> query;
+        private Consumer<T> onLoaded;
+        private boolean finished;
+
+        Request(Object key, Supplier<T> query, Consumer<T> onLoaded) {
+            this.key = key;
+            this.query = query;
+            this.onLoaded = onLoaded;
+        }
+    }
+}
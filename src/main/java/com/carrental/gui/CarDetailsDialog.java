@@ -1,6 +1,8 @@
 package com.carrental.gui;
 
 import com.carrental.entity.Car;
+import com.carrental.service.CarService;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,13 +12,15 @@ import java.util.Map;
 
 /**
  * 车辆详情对话框
- * 显示车辆的详细信息
+ * 显示车辆的详细信息，传入的车辆不含照片时在打开后异步加载照片
  */
 public class CarDetailsDialog extends JDialog {
     private static final Font LABEL_FONT = new Font("微软雅黑", Font.BOLD, 12);
     private static final Font VALUE_FONT = new Font("微软雅黑", Font.PLAIN, 12);
     private static final Color RENT_COLOR = Color.RED;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy年MM月dd日");
+    private static final int PHOTO_WIDTH = 320;
+    private static final int PHOTO_HEIGHT = 200;
     
     private static final Map<String, Color> STATUS_COLOR_MAP = new HashMap<>();
     static {
@@ -26,6 +30,7 @@ public class CarDetailsDialog extends JDialog {
     }
 
     private final Car car;
+    private final JLabel photoLabel = new JLabel("", SwingConstants.CENTER);
 
     public CarDetailsDialog(Component parent, Car car) {
         super((JFrame) SwingUtilities.getWindowAncestor(parent), "车辆详情", true);
@@ -40,6 +45,7 @@ public class CarDetailsDialog extends JDialog {
     private void initializeDialog() {
         setupLayout();
         setupDialog();
+        loadPhoto();
     }
 
     /**
@@ -48,6 +54,11 @@ public class CarDetailsDialog extends JDialog {
     private void setupLayout() {
         setLayout(new BorderLayout());
         
+        photoLabel.setPreferredSize(new Dimension(PHOTO_WIDTH, PHOTO_HEIGHT));
+        photoLabel.setFont(VALUE_FONT);
+        photoLabel.setBorder(BorderFactory.createEmptyBorder(15, 20, 0, 20));
+        add(photoLabel, BorderLayout.NORTH);
+        
         JPanel mainPanel = createMainPanel();
         add(mainPanel, BorderLayout.CENTER);
         
@@ -135,37 +146,74 @@ public class CarDetailsDialog extends JDialog {
         return buttonPanel;
     }
 
+    /**
+     * 加载车辆照片
+     * 列表查询得到的车辆不含照片，此时在后台线程单独查询，避免阻塞界面
+     */
+    private void loadPhoto() {
+        if (car.getPhoto() != null) {
+            showPhoto(car.getPhoto());
+            return;
+        }
+        photoLabel.setText("照片加载中...");
+        new SwingWorker<byte[], Void>() {
+            @Override
+            protected byte[] doInBackground() {
+                return new CarService().getCarPhoto(car.getCarId());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    byte[] photo = get();
+                    car.setPhoto(photo);
+                    showPhoto(photo);
+                } catch (Exception e) {
+                    photoLabel.setText("照片加载失败");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 按比例缩放显示照片
+     * @param photo 照片数据
+     */
+    private void showPhoto(byte[] photo) {
+        if (photo == null || photo.length == 0) {
+            photoLabel.setText("暂无照片");
+            return;
+        }
+        ImageIcon icon = new ImageIcon(photo);
+        if (icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
+            photoLabel.setText("照片格式无法识别");
+            return;
+        }
+        double scale = Math.min((double) PHOTO_WIDTH / icon.getIconWidth(), (double) PHOTO_HEIGHT / icon.getIconHeight());
+        scale = Math.min(scale, 1.0);
+        int width = Math.max(1, (int) (icon.getIconWidth() * scale));
+        int height = Math.max(1, (int) (icon.getIconHeight() * scale));
+        photoLabel.setText(null);
+        photoLabel.setIcon(new ImageIcon(icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH)));
+    }
+
     /**
      * 设置对话框属性
      */
     private void setupDialog() {
-        setSize(400, 450);
+        setSize(400, 680);
         setLocationRelativeTo(getParent());
         setResizable(false);
     }
 
     /**
-     * 格式化货币 - 处理数值类型
+     * 格式化货币
      */
-    private String formatCurrency(Number amount) {
+    private String formatCurrency(Money amount) {
         if (amount == null) {
             return "¥0";
         }
-        return "¥" + amount.toString();
-    }
-    
-    /**
-     * 格式化货币 - 处理字符串类型
-     */
-    private String formatCurrency(String amountStr) {
-        if (amountStr == null || amountStr.isEmpty()) {
-            return "¥0";
-        }
-        // 如果字符串已经包含货币符号，直接返回
-        if (amountStr.startsWith("¥")) {
-            return amountStr;
-        }
-        return "¥" + amountStr;
+        return "¥" + amount;
     }
 
     /**
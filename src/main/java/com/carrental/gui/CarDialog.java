@@ -2,6 +2,7 @@ package com.carrental.gui;
 
 import com.carrental.entity.Car;
 import com.carrental.service.CarService;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import javax.swing.text.NumberFormatter;
@@ -119,8 +120,8 @@ public class CarDialog extends JDialog {
         modelField.setText(car.getModel());
         colorField.setText(car.getColor());
         statusComboBox.setSelectedItem(car.getStatus());
-        rentField.setValue(car.getRent());
-        depositField.setValue(new BigDecimal(car.getDeposit()));
+        rentField.setValue(car.getRent() != null ? car.getRent().toBigDecimal() : null);
+        depositField.setValue(car.getDeposit() != null ? car.getDeposit().toBigDecimal() : null);
         if (car.getPurchaseDate() != null)
             purchaseDatePicker.setSelectedDate(car.getPurchaseDate());
     }
@@ -151,8 +152,8 @@ public class CarDialog extends JDialog {
              */
             String rentText = rentField.getText().replace(",", "").trim();
             String depositText = depositField.getText().replace(",", "").trim();
-            carToSave.setRent(new BigDecimal(rentText));
-            carToSave.setDeposit(depositText);
+            carToSave.setRent(Money.parse(rentText));
+            carToSave.setDeposit(Money.parse(depositText));
 
             carToSave.setPurchaseDate(purchaseDatePicker.getSelectedDate());
 
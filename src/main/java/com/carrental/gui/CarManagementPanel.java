@@ -9,6 +9,8 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,7 +18,10 @@ import java.util.List;
  * 提供车辆的增删改查功能
  */
 public class CarManagementPanel extends JPanel {
+    private static final String ALL_CARS = "全部车辆";
+
     private CarService carService;
+    private AsyncLoader<List<Object[]>> carLoader;
     private JTable carTable;
     private DefaultTableModel tableModel;
     private JTextField searchField;
@@ -25,6 +30,7 @@ public class CarManagementPanel extends JPanel {
 
     public CarManagementPanel() {
         this.carService = new CarService();
+        this.carLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -125,6 +131,7 @@ public class CarManagementPanel extends JPanel {
             }
         });
         searchPanel.add(refreshButton);
+        searchPanel.add(carLoader.getProgressBar());
         
         return searchPanel;
     }
@@ -183,6 +190,24 @@ public class CarManagementPanel extends JPanel {
      * 设置事件处理器
      */
     private void setupEventHandlers() {
+        // 输入时即时搜索，在内存索引中进行，不访问数据库
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+        });
+
         // 双击表格行查看详情
         carTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
@@ -198,51 +223,29 @@ public class CarManagementPanel extends JPanel {
      * 加载车辆数据
      */
     private void loadCarData() {
-        tableModel.setRowCount(0);
-        List<Car> cars = carService.getAllCars();
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (Car car : cars) {
-            Object[] row = {
-                car.getCarId(),
-                car.getLicensePlateNumber(),
-                car.getBrand(),
-                car.getModel(),
-                car.getColor(),
-                car.getStatus(),
-                car.getRent(),
-                car.getDeposit(),
-                car.getPurchaseDate() != null ? car.getPurchaseDate().format(formatter) : ""
-            };
-            tableModel.addRow(row);
-        }
+        carLoader.load(ALL_CARS, () -> toRows(carService.getAllCars()), rows -> AsyncLoader.replaceRows(tableModel, rows));
     }
 
     /**
      * 执行搜索
+     * 在内存索引中查找，不访问数据库；条件相同的连续搜索只执行一次
      */
     private void performSearch() {
         String searchText = searchField.getText().trim();
         String status = (String) statusComboBox.getSelectedItem();
         String brand = (String) brandComboBox.getSelectedItem();
-        
-        List<Car> cars = carService.getAllCars();
-        
-        // 过滤结果
-        cars = cars.stream()
-                .filter(car -> searchText.isEmpty() || 
-                    car.getLicensePlateNumber().contains(searchText) ||
-                    car.getBrand().contains(searchText) ||
-                    car.getModel().contains(searchText))
-                .filter(car -> status.equals("全部") || car.getStatus().equals(status))
-                .filter(car -> brand.equals("全部") || car.getBrand().equals(brand))
-                .collect(java.util.stream.Collectors.toList());
-        
-        // 更新表格
-        tableModel.setRowCount(0);
+
+        carLoader.load(Arrays.asList(searchText, status, brand),
+                () -> toRows(carService.searchCars(searchText, status, brand)),
+                rows -> AsyncLoader.replaceRows(tableModel, rows));
+    }
+
+    /**
+     * 转换为表格行，在后台线程调用
+     */
+    private static List<Object[]> toRows(List<Car> cars) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
+        List<Object[]> rows = new ArrayList<>(cars.size());
         for (Car car : cars) {
             Object[] row = {
                 car.getCarId(),
@@ -255,8 +258,9 @@ public class CarManagementPanel extends JPanel {
                 car.getDeposit(),
                 car.getPurchaseDate() != null ? car.getPurchaseDate().format(formatter) : ""
             };
-            tableModel.addRow(row);
+            rows.add(row);
         }
+        return rows;
     }
 
     /**
@@ -303,7 +307,7 @@ public class CarManagementPanel extends JPanel {
         if (result == JOptionPane.YES_OPTION) {
             if (carService.deleteCar(carId)) {
                 JOptionPane.showMessageDialog(this, "删除成功", "提示", JOptionPane.INFORMATION_MESSAGE);
-                loadCarData();
+                refreshData();
             } else {
                 JOptionPane.showMessageDialog(this, "删除失败", "错误", JOptionPane.ERROR_MESSAGE);
             }
@@ -321,7 +325,7 @@ public class CarManagementPanel extends JPanel {
         }
         
         int carId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        Car car = carService.getCarById(carId);
+        Car car = carService.getCarSummaryById(carId);
         if (car != null) {
             new CarDetailsDialog(this, car).setVisible(true);
         }
@@ -331,6 +335,6 @@ public class CarManagementPanel extends JPanel {
      * 刷新数据
      */
     public void refreshData() {
-        loadCarData();
+        carLoader.reload(ALL_CARS, () -> toRows(carService.getAllCars()), rows -> AsyncLoader.replaceRows(tableModel, rows));
     }
 }
@@ -11,6 +11,8 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -18,7 +20,10 @@ import java.util.List;
  * 提供车辆的增删改查功能
  */
 public class CarManagementPanelForUser extends JPanel {
+    private static final String ALL_CARS = "全部车辆";
+
     private CarService carService;
+    private AsyncLoader<List<Object[]>> carLoader;
     private JTable carTable;
     private DefaultTableModel tableModel;
     private JTextField searchField;
@@ -28,6 +33,7 @@ public class CarManagementPanelForUser extends JPanel {
 
     public CarManagementPanelForUser() {
         this.carService = new CarService();
+        this.carLoader = new AsyncLoader<>(this);
         this.userPermit = userPermit;
         initializeComponents();
         setupLayout();
@@ -130,6 +136,7 @@ public class CarManagementPanelForUser extends JPanel {
             }
         });
         searchPanel.add(refreshButton);
+        searchPanel.add(carLoader.getProgressBar());
 
         return searchPanel;
     }
@@ -158,6 +165,24 @@ public class CarManagementPanelForUser extends JPanel {
      * 设置事件处理器
      */
     private void setupEventHandlers() {
+        // 输入时即时搜索，在内存索引中进行，不访问数据库
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                performSearch();
+            }
+        });
+
         // 双击表格行查看详情
         carTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
@@ -173,65 +198,44 @@ public class CarManagementPanelForUser extends JPanel {
      * 加载车辆数据
      */
     private void loadCarData() {
-        tableModel.setRowCount(0);
-        List<Car> cars = carService.getAllCars();
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        for (Car car : cars) {
-            Object[] row = {
-                    car.getCarId(),
-                    car.getLicensePlateNumber(),
-                    car.getBrand(),
-                    car.getModel(),
-                    car.getColor(),
-                    car.getStatus(),
-                    car.getRent(),
-                    car.getDeposit(),
-                    car.getPurchaseDate() != null ? car.getPurchaseDate().format(formatter) : ""
-            };
-            tableModel.addRow(row);
-        }
+        carLoader.load(ALL_CARS, () -> toRows(carService.getAllCars()), rows -> AsyncLoader.replaceRows(tableModel, rows));
     }
 
     /**
      * 执行搜索
+     * 在内存索引中查找，不访问数据库；条件相同的连续搜索只执行一次
      */
     private void performSearch() {
         String searchText = searchField.getText().trim();
         String status = (String) statusComboBox.getSelectedItem();
         String brand = (String) brandComboBox.getSelectedItem();
 
-        List<Car> cars = carService.getAllCars();
-
-        // 过滤结果
-        cars = cars.stream()
-                .filter(car -> searchText.isEmpty() ||
-                        car.getLicensePlateNumber().contains(searchText) ||
-                        car.getBrand().contains(searchText) ||
-                        car.getModel().contains(searchText))
-                .filter(car -> status.equals("全部") || car.getStatus().equals(status))
-                .filter(car -> brand.equals("全部") || car.getBrand().equals(brand))
-                .collect(java.util.stream.Collectors.toList());
+        carLoader.load(Arrays.asList(searchText, status, brand),
+                () -> toRows(carService.searchCars(searchText, status, brand)),
+                rows -> AsyncLoader.replaceRows(tableModel, rows));
+    }
 
-        // 更新表格
-        tableModel.setRowCount(0);
+    /**
+     * 转换为表格行，在后台线程调用
+     */
+    private static List<Object[]> toRows(List<Car> cars) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
+        List<Object[]> rows = new ArrayList<>(cars.size());
         for (Car car : cars) {
             Object[] row = {
-                    car.getCarId(),
-                    car.getLicensePlateNumber(),
-                    car.getBrand(),
-                    car.getModel(),
-                    car.getColor(),
-                    car.getStatus(),
-                    car.getRent(),
-                    car.getDeposit(),
-                    car.getPurchaseDate() != null ? car.getPurchaseDate().format(formatter) : ""
+                car.getCarId(),
+                car.getLicensePlateNumber(),
+                car.getBrand(),
+                car.getModel(),
+                car.getColor(),
+                car.getStatus(),
+                car.getRent(),
+                car.getDeposit(),
+                car.getPurchaseDate() != null ? car.getPurchaseDate().format(formatter) : ""
             };
-            tableModel.addRow(row);
+            rows.add(row);
         }
+        return rows;
     }
 
     /**
@@ -245,7 +249,7 @@ public class CarManagementPanelForUser extends JPanel {
         }
 
         int carId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        Car car = carService.getCarById(carId);
+        Car car = carService.getCarSummaryById(carId);
         if (car != null) {
             new CarDetailsDialog(this, car).setVisible(true);
         }
@@ -255,7 +259,7 @@ public class CarManagementPanelForUser extends JPanel {
      * 刷新数据
      */
     public void refreshData() {
-        loadCarData();
+        carLoader.reload(ALL_CARS, () -> toRows(carService.getAllCars()), rows -> AsyncLoader.replaceRows(tableModel, rows));
     }
     private void setButtonState() {
         // 如果用户是普通用户（customer），禁用添加、修改、删除按钮
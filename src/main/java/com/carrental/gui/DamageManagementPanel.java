@@ -4,6 +4,7 @@ import com.carrental.dao.CarDAO;
 import com.carrental.dao.DamageInformationDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.DamageInformation;
+import com.carrental.entity.DamageView;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -11,15 +12,23 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 损坏管理面板
  * 负责车辆损坏信息的管理
  */
 public class DamageManagementPanel extends JPanel {
+    private static final int PAGE_SIZE = 500;
+
     private DamageInformationDAO damageDAO;
     private CarDAO carDAO;
+    private AsyncLoader<List<Object[]>> dataLoader;
+    private AsyncLoader<List<Car>> carListLoader;
+    private AsyncLoader<DialogData> dialogLoader;
     private JTable damageTable;
     private DefaultTableModel tableModel;
     private JButton addButton;
@@ -32,6 +41,9 @@ public class DamageManagementPanel extends JPanel {
     public DamageManagementPanel() {
         this.damageDAO = new DamageInformationDAO();
         this.carDAO = new CarDAO();
+        this.dataLoader = new AsyncLoader<>(this);
+        this.carListLoader = new AsyncLoader<>(this);
+        this.dialogLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -73,10 +85,11 @@ public class DamageManagementPanel extends JPanel {
      * 加载车辆列表到筛选框
      */
     private void loadCarList() {
-        List<Car> cars = carDAO.getAllCars();
-        for (Car car : cars) {
-            carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
-        }
+        carListLoader.load(null, carDAO::getAllCars, cars -> {
+            for (Car car : cars) {
+                carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
+            }
+        });
     }
 
     /**
@@ -92,6 +105,7 @@ public class DamageManagementPanel extends JPanel {
         topPanel.add(new JLabel("车辆:"));
         topPanel.add(carFilterCombo);
         topPanel.add(refreshButton);
+        topPanel.add(dataLoader.getProgressBar());
         add(topPanel, BorderLayout.NORTH);
 
         // 中间表格
@@ -121,43 +135,52 @@ public class DamageManagementPanel extends JPanel {
 
     /**
      * 加载数据
+     * 筛选条件下推到SQL，按页读取关联了车牌号的展示行
      */
     private void loadData() {
-        tableModel.setRowCount(0);
-        
-        List<DamageInformation> damageList;
+        loadData(false);
+    }
+
+    /**
+     * 数据修改后重新加载，不与进行中的查询合并
+     */
+    private void reloadData() {
+        loadData(true);
+    }
+
+    private void loadData(boolean reload) {
         String selectedState = (String) stateFilterCombo.getSelectedItem();
         String selectedCar = (String) carFilterCombo.getSelectedItem();
+        String damageState = "全部".equals(selectedState) ? null : selectedState;
+        Integer carId = "全部车辆".equals(selectedCar) ? null : extractCarIdFromCombo(selectedCar);
         
-        if ("全部".equals(selectedState) && "全部车辆".equals(selectedCar)) {
-            damageList = damageDAO.getAllDamageInformation();
-        } else if (!"全部".equals(selectedState) && "全部车辆".equals(selectedCar)) {
-            damageList = damageDAO.getDamageInformationByState(selectedState);
-        } else if ("全部".equals(selectedState) && !"全部车辆".equals(selectedCar)) {
-            int carId = extractCarIdFromCombo(selectedCar);
-            damageList = damageDAO.getDamageInformationByCarId(carId);
+        Supplier<List<Object[]>> query = () -> {
+            List<Object[]> rows = new ArrayList<>();
+            List<DamageView> page;
+            DamageView last = null;
+            do {
+                page = damageDAO.getDamageViewPage(damageState, carId, last, PAGE_SIZE);
+                for (DamageView damage : page) {
+                    Object[] row = {
+                        damage.getDamageId(),
+                        damage.getCarId(),
+                        damage.getLicensePlate() != null ? damage.getLicensePlate() : "未知",
+                        damage.getDamageDate(),
+                        damage.getDamageDescribe(),
+                        damage.getDamageState()
+                    };
+                    rows.add(row);
+                }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == PAGE_SIZE);
+            return rows;
+        };
+        if (reload) {
+            dataLoader.reload(Arrays.asList(damageState, carId), query, rows -> AsyncLoader.replaceRows(tableModel, rows));
         } else {
-            // 需要实现组合筛选
-            damageList = damageDAO.getAllDamageInformation();
-            damageList = damageList.stream()
-                    .filter(d -> "全部".equals(selectedState) || selectedState.equals(d.getDamageState()))
-                    .filter(d -> "全部车辆".equals(selectedCar) || extractCarIdFromCombo(selectedCar) == d.getCarId())
-                    .collect(java.util.stream.Collectors.toList());
-        }
-        
-        for (DamageInformation damage : damageList) {
-            Car car = carDAO.getCarById(damage.getCarId());
-            String licensePlate = car != null ? car.getLicensePlateNumber() : "未知";
-            
-            Object[] row = {
-                damage.getDamageId(),
-                damage.getCarId(),
-                licensePlate,
-                damage.getDamageDate(),
-                damage.getDamageDescribe(),
-                damage.getDamageState()
-            };
-            tableModel.addRow(row);
+            dataLoader.load(Arrays.asList(damageState, carId), query, rows -> AsyncLoader.replaceRows(tableModel, rows));
         }
     }
 
@@ -174,14 +197,10 @@ public class DamageManagementPanel extends JPanel {
     }
 
     /**
-     * 显示添加损坏记录对话框
+     * 显示添加损坏记录对话框，车辆列表在后台加载后再打开
      */
     private void showAddDamageDialog() {
-        DamageDialog dialog = new DamageDialog(null, carDAO.getAllCars());
-        dialog.setVisible(true);
-        if (dialog.isConfirmed()) {
-            loadData();
-        }
+        dialogLoader.reload("add", () -> new DialogData(null, carDAO.getAllCars()), this::openDamageDialog);
     }
 
     /**
@@ -195,14 +214,20 @@ public class DamageManagementPanel extends JPanel {
         }
         
         int damageId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        DamageInformation damage = damageDAO.getDamageInformationById(damageId);
-        
-        if (damage != null) {
-            DamageDialog dialog = new DamageDialog(damage, carDAO.getAllCars());
-            dialog.setVisible(true);
-            if (dialog.isConfirmed()) {
-                loadData();
-            }
+        dialogLoader.reload(damageId, () -> {
+            DamageInformation damage = damageDAO.getDamageInformationById(damageId);
+            return damage != null ? new DialogData(damage, carDAO.getAllCars()) : null;
+        }, this::openDamageDialog);
+    }
+
+    private void openDamageDialog(DialogData data) {
+        if (data == null) {
+            return;
+        }
+        DamageDialog dialog = new DamageDialog(data.damage, data.cars);
+        dialog.setVisible(true);
+        if (dialog.isConfirmed()) {
+            reloadData();
         }
     }
 
@@ -226,10 +251,23 @@ public class DamageManagementPanel extends JPanel {
         if (result == JOptionPane.YES_OPTION) {
             if (damageDAO.deleteDamageInformation(damageId)) {
                 JOptionPane.showMessageDialog(this, "删除成功", "成功", JOptionPane.INFORMATION_MESSAGE);
-                loadData();
+                reloadData();
             } else {
                 JOptionPane.showMessageDialog(this, "删除失败", "错误", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
+
+    /**
+     * 打开损坏记录对话框所需的数据，在后台线程中查询
+     */
+    private static final class DialogData {
+        private final DamageInformation damage;
+        private final List<Car> cars;
+
+        DialogData(DamageInformation damage, List<Car> cars) {
+            this.damage = damage;
+            this.cars = cars;
+        }
+    }
 }
@@ -1,34 +1,48 @@
 package com.carrental.gui;
 
+import com.carrental.service.RentalAnalyticsSnapshot;
+import com.carrental.service.ReportSummaryService;
+import com.carrental.util.AppConfig;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 财务报表面板
  * 提供财务报表相关功能
  */
 public class FinancialReportPanel extends JPanel {
+    private static final DateTimeFormatter STATUS_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private DatabaseConnection dbConnection;
     private JTable profitTable;
     private JTable unpaidFineTable;
     private JTable staffCarCountTable;
     private JTable repairedCarTable;
     private JButton refreshButton;
+    private JLabel summaryStatusLabel;
     private JTabbedPane reportTabbedPane;
 
     private JPanel chartPanel;
     private JScrollPane chartScrollPane;
+    private GaugeChartPanel profitGauge;
+    private LineChartPanel recentProfitChart;
+    private PieChartPanel staffCarPie;
+    private AsyncLoader<ReportData> reportLoader;
 
 
-    public FinancialReportPanel() throws IOException {
+    public FinancialReportPanel() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.reportLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -84,11 +98,32 @@ public class FinancialReportPanel extends JPanel {
 
         // 刷新按钮
         refreshButton = new JButton("刷新数据");
+        summaryStatusLabel = new JLabel(" ");
+
+        // 图表在JVM内直接绘制，刷新时只更新数据
+        profitGauge = new GaugeChartPanel("总利润完成进度");
+        recentProfitChart = new LineChartPanel("最近30天利润变化");
+        staffCarPie = new PieChartPanel("员工管理车辆数量分布");
+
+        chartPanel = new JPanel(new GridBagLayout());
+        chartPanel.setBackground(Color.WHITE);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(10, 10, 10, 10);  // 设置间隔
+
+        // 第一张图：放在第1行第1列
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        chartPanel.add(profitGauge, gbc);
 
-        // 初始化图表面板
-        chartPanel = new JPanel(new BorderLayout());  // 给 chartPanel 分配实际的容器
-        JLabel chartLabel = new JLabel("图表将在这里显示");
-        chartPanel.add(chartLabel, BorderLayout.CENTER);
+        // 第二张图：放在第1行第2列
+        gbc.gridx = 1;
+        chartPanel.add(recentProfitChart, gbc);
+
+        // 第三张图：放在第2行第1列（跨列显示）
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.gridwidth = 2;  // 让第三个组件跨越两列
+        chartPanel.add(staffCarPie, gbc);
 
         // 创建 JScrollPane 来支持滚动
         chartScrollPane = new JScrollPane(chartPanel);
@@ -104,6 +139,8 @@ public class FinancialReportPanel extends JPanel {
         // 顶部工具栏
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         topPanel.add(refreshButton);
+        topPanel.add(reportLoader.getProgressBar());
+        topPanel.add(summaryStatusLabel);
         add(topPanel, BorderLayout.NORTH);
 
         // 中间标签页
@@ -122,48 +159,80 @@ public class FinancialReportPanel extends JPanel {
      * 设置事件处理器
      */
     private void setupEventHandlers() {
-        refreshButton.addActionListener(e -> {
-            try {
-                loadData();
-            } catch (IOException ex) {
-                throw new RuntimeException(ex);
-            }
-        });
+        refreshButton.addActionListener(e -> loadData());
     }
 
     /**
      * 加载数据
+     * 各报表在后台线程查询，全部完成后一次性更新表格和图表
+     * 报表读取汇总表，查询前先把有变化的汇总行重算一次
+     */
+    private void loadData() {
+        reportLoader.load(null, () -> {
+            ReportData data = new ReportData();
+            ReportSummaryService summaryService = ReportSummaryService.getInstance();
+            summaryService.refresh();
+            data.summaryStatus = summaryService.getStatus();
+            loadProfitData(data);
+            loadUnpaidFineData(data);
+            loadStaffCarCountData(data);
+            loadRepairedCarData(data);
+            loadRecentProfitData(data);
+            return data;
+        }, this::showReport);
+    }
+
+    /**
+     * 显示查询结果，在事件分发线程调用
+     */
+    private void showReport(ReportData data) {
+        AsyncLoader.replaceRows((DefaultTableModel) profitTable.getModel(), data.profitRows);
+        AsyncLoader.replaceRows((DefaultTableModel) unpaidFineTable.getModel(), data.unpaidFineRows);
+        AsyncLoader.replaceRows((DefaultTableModel) staffCarCountTable.getModel(), data.staffCarCountRows);
+        AsyncLoader.replaceRows((DefaultTableModel) repairedCarTable.getModel(), data.repairedCarRows);
+        loadChart(data); // 加载图表
+        showSummaryStatus(data.summaryStatus);
+    }
+
+    /**
+     * 显示汇总数据的更新时间，其他客户端正在汇总时还会显示尚未汇总的变更数
      */
-    private void loadData() throws IOException {
-        loadProfitData();
-        loadUnpaidFineData();
-        loadStaffCarCountData();
-        loadRepairedCarData();
-        loadChart(); // 加载图表
+    private void showSummaryStatus(ReportSummaryService.SummaryStatus status) {
+        if (status.getRefreshedAt() == null) {
+            summaryStatusLabel.setText("汇总数据尚未初始化");
+            return;
+        }
+        String text = "汇总数据更新于 " + status.getRefreshedAt().format(STATUS_TIME_FORMAT);
+        if (status.getPending() > 0) {
+            text += "，另有 " + status.getPending() + " 项变更待汇总";
+        }
+        summaryStatusLabel.setText(text);
     }
 
     /**
-     * 加载利润分析数据
+     * 加载利润分析数据，同时累计各车辆利润之和用于仪表盘图
      */
-    private void loadProfitData() {
-        DefaultTableModel model = (DefaultTableModel) profitTable.getModel();
-        model.setRowCount(0);
+    private void loadProfitData(ReportData data) {
 
-        String sql = "SELECT * FROM profit_view";
+        String sql = "SELECT car_id AS `车辆编号`, paid AS `用户支付金额`, refunded AS `归还用户金额`, "
+                + "maintain_cost AS `用户造成的损坏`, paid - refunded - maintain_cost AS `利润` "
+                + "FROM report_car_profit ORDER BY car_id";
 
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
+                Money profit = Money.read(rs, "利润");
                 Object[] row = {
                     rs.getInt("车辆编号"),
-                    rs.getBigDecimal("用户支付金额"),
-                    rs.getBigDecimal("归还用户金额"),
-                    rs.getBigDecimal("用户造成的损坏"),
-                    rs.getBigDecimal("利润")
+                    Money.read(rs, "用户支付金额"),
+                    Money.read(rs, "归还用户金额"),
+                    Money.read(rs, "用户造成的损坏"),
+                    profit
                 };
-                model.addRow(row);
+                data.profitRows.add(row);
+                data.totalProfit = data.totalProfit.plus(profit);
             }
             
         } catch (SQLException e) {
@@ -175,11 +244,9 @@ public class FinancialReportPanel extends JPanel {
     /**
      * 加载未交罚款数据
      */
-    private void loadUnpaidFineData() {
-        DefaultTableModel model = (DefaultTableModel) unpaidFineTable.getModel();
-        model.setRowCount(0);
-        
-        String sql = "SELECT * FROM fine_not_paied";
+    private void loadUnpaidFineData(ReportData data) {
+        String sql = "SELECT u.name AS `名字`, f.unpaid AS `罚款金额` "
+                + "FROM report_user_fine f JOIN user u ON u.user_id = f.user_id ORDER BY f.user_id";
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
@@ -188,9 +255,9 @@ public class FinancialReportPanel extends JPanel {
             while (rs.next()) {
                 Object[] row = {
                     rs.getString("名字"),
-                    rs.getBigDecimal("罚款金额")
+                    Money.read(rs, "罚款金额")
                 };
-                model.addRow(row);
+                data.unpaidFineRows.add(row);
             }
             
         } catch (SQLException e) {
@@ -202,11 +269,9 @@ public class FinancialReportPanel extends JPanel {
     /**
      * 加载员工管理车辆数量数据
      */
-    private void loadStaffCarCountData() {
-        DefaultTableModel model = (DefaultTableModel) staffCarCountTable.getModel();
-        model.setRowCount(0);
-        
-        String sql = "SELECT * FROM staff_car_count";
+    private void loadStaffCarCountData(ReportData data) {
+        String sql = "SELECT s.name AS `管理员工`, c.car_count AS `管理车辆数量` "
+                + "FROM report_staff_car c JOIN staff s ON s.staff_id = c.staff_id ORDER BY c.staff_id";
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
@@ -217,7 +282,7 @@ public class FinancialReportPanel extends JPanel {
                     rs.getString("管理员工"),
                     rs.getInt("管理车辆数量")
                 };
-                model.addRow(row);
+                data.staffCarCountRows.add(row);
             }
             
         } catch (SQLException e) {
@@ -229,11 +294,10 @@ public class FinancialReportPanel extends JPanel {
     /**
      * 加载已维修车辆数据
      */
-    private void loadRepairedCarData() {
-        DefaultTableModel model = (DefaultTableModel) repairedCarTable.getModel();
-        model.setRowCount(0);
-        
-        String sql = "SELECT * FROM repaired_car";
+    private void loadRepairedCarData(ReportData data) {
+        String sql = "SELECT c.license_plate_number AS `车牌号`, c.model AS `型号`, c.color AS `颜色`, "
+                + "c.status AS `状态`, c.rent AS `日租金`, c.deposit AS `押金` "
+                + "FROM report_repaired_car r JOIN car c ON c.car_id = r.car_id ORDER BY r.car_id";
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
@@ -245,10 +309,10 @@ public class FinancialReportPanel extends JPanel {
                     rs.getString("型号"),
                     rs.getString("颜色"),
                     rs.getString("状态"),
-                    rs.getBigDecimal("日租金"),
-                    rs.getString("押金")
+                    Money.read(rs, "日租金"),
+                    Money.readLenient(rs, "押金")
                 };
-                model.addRow(row);
+                data.repairedCarRows.add(row);
             }
             
         } catch (SQLException e) {
@@ -256,101 +320,49 @@ public class FinancialReportPanel extends JPanel {
             e.printStackTrace();
         }
     }
-    private void loadChart() throws IOException {
-        System.out.println("加载图表");
-        Process process = null;
-        try {
-            // 设置 Python 解释器路径
-            String pythonInterpreterPath = "/opt/anaconda3/bin/python";
-
-            // 运行chartplot.py生成仪表盘图像
-            String chartPlotScriptPath = "python/python_code/chartplot.py";
-            ProcessBuilder pbChartPlot = new ProcessBuilder(pythonInterpreterPath, chartPlotScriptPath);
-            pbChartPlot.redirectErrorStream(true);
-            process = pbChartPlot.start();
-
-            // 等待 chartplot.py 执行完成
-            process.waitFor();
-
-            // 运行staff_manage_car_plot.py生成饼图
-            String staffManageCarPlotScriptPath = "python/python_code/staff_manage_car_plot.py";
-            ProcessBuilder pbStaffManageCarPlot = new ProcessBuilder(pythonInterpreterPath, staffManageCarPlotScriptPath);
-            pbStaffManageCarPlot.redirectErrorStream(true);
-            process = pbStaffManageCarPlot.start();
-
-            // 等待 staff_manage_car_plot.py 执行完成
-            process.waitFor();
-
-            // 运行recent_day_profit_plot生成最近30天利润变化图
-            String recentDayProfitPlotScriptPath = "python/python_code/recent_day_profit_plot.py";
-            ProcessBuilder pbRecentDayProfitPlot = new ProcessBuilder(pythonInterpreterPath, recentDayProfitPlotScriptPath);
-            pbRecentDayProfitPlot.redirectErrorStream(true);
-            process = pbRecentDayProfitPlot.start();
-
-            // 等待 recent_day_profit_plot.py 执行完成
-            process.waitFor();
-
-            // 加载仪表盘图图像
-            ImageIcon chartIcon = new ImageIcon("python/plot/total_profit_progress.png");  // 相对路径
-            Image img = chartIcon.getImage();
-            int width = 400;
-            int height = 300;
-            Image scaledImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            ImageIcon scaledIcon = new ImageIcon(scaledImg);
-            JLabel chartLabel = new JLabel(scaledIcon);
-
-            // 加载饼图图像
-            ImageIcon pieChartIcon = new ImageIcon("python/plot/staff_manage_car_plot.png");  // 相对路径
-            Image pieImg = pieChartIcon.getImage();
-            Image scaledPieImg = pieImg.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            ImageIcon scaledPieIcon = new ImageIcon(scaledPieImg);
-            JLabel pieChartLabel = new JLabel(scaledPieIcon);
-
-            // 加载最近30天利润变化图
-            ImageIcon recentDayProfitChartIcon = new ImageIcon("python/plot/recent_day_profit_plot.png");  // 相对路径
-            Image recentDayProfitImg = recentDayProfitChartIcon.getImage();
-            Image scaledRecentDayProfitImg = recentDayProfitImg.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-            ImageIcon scaledRecentDayProfitIcon = new ImageIcon(scaledRecentDayProfitImg);
-            JLabel recentDayProfitChartLabel = new JLabel(scaledRecentDayProfitIcon);
-
-            // 创建一个 JPanel 来容纳图表
-            JPanel imagePanel = new JPanel(new GridBagLayout());
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.insets = new Insets(10, 10, 10, 10);  // 设置间隔
-
-            // 第一张图：放在第1行第1列
-            gbc.gridx = 0;
-            gbc.gridy = 0;
-            imagePanel.add(chartLabel, gbc);
-
-            // 第二张图：放在第1行第2列
-            gbc.gridx = 1;
-            imagePanel.add(recentDayProfitChartLabel, gbc);
-
-            // 第三张图：放在第2行第1列（跨列显示）
-            gbc.gridx = 0;
-            gbc.gridy = 1;
-            gbc.gridwidth = 2;  // 让第三个组件跨越两列
-            imagePanel.add(pieChartLabel, gbc);
-
-            imagePanel.setPreferredSize(new Dimension(800, 800));  // 每个图表分配的空间
-
-            // 清除旧的内容并添加新的图表容器
-            chartPanel.removeAll();
-            chartPanel.add(imagePanel, BorderLayout.CENTER);
-
-            // 更新 UI
-            chartPanel.revalidate();
-            chartPanel.repaint();
-
-        } catch (IOException | InterruptedException e) {
-            System.err.println("执行 Python 脚本失败: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * 加载图表
+     * 仪表盘和饼图直接使用表格已查询的数据，折线图使用最近30天每日利润
+     */
+    private void loadChart(ReportData data) {
+        Money target = Money.parse(AppConfig.get("report.profitTarget", "1000"));
+        profitGauge.setData(data.totalProfit, target);
+
+        List<String> staffNames = new ArrayList<>();
+        List<Integer> carCounts = new ArrayList<>();
+        for (Object[] row : data.staffCarCountRows) {
+            staffNames.add(String.valueOf(row[0]));
+            carCounts.add((Integer) row[1]);
         }
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            System.out.println(line);
+        staffCarPie.setData(staffNames, carCounts);
+
+        recentProfitChart.setData(data.recentDates, data.recentProfits);
+    }
+
+    /**
+     * 加载最近30天每日利润，按归还日期汇总，来自内存中的租车分析快照
+     */
+    private void loadRecentProfitData(ReportData data) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Long> revenue = RentalAnalyticsSnapshot.getInstance()
+                .revenueByDay(today.minusDays(30), today.plusDays(1));
+        for (Map.Entry<LocalDate, Long> entry : revenue.entrySet()) {
+            data.recentDates.add(entry.getKey());
+            data.recentProfits.add(Money.ofCents(entry.getValue()));
         }
     }
+
+    /**
+     * 一次刷新查询到的全部报表数据
+     */
+    private static final class ReportData {
+        private final List<Object[]> profitRows = new ArrayList<>();
+        private final List<Object[]> unpaidFineRows = new ArrayList<>();
+        private final List<Object[]> staffCarCountRows = new ArrayList<>();
+        private final List<Object[]> repairedCarRows = new ArrayList<>();
+        private final List<LocalDate> recentDates = new ArrayList<>();
+        private final List<Money> recentProfits = new ArrayList<>();
+        private Money totalProfit = Money.ZERO;
+        private ReportSummaryService.SummaryStatus summaryStatus;
+    }
 }
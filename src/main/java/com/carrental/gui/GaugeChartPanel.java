@@ -0,0 +1,125 @@
+package com.carrental.gui;
+
+import com.carrental.util.Money;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Line2D;
+
+/**
+ * 仪表盘图
+ * 半圆刻度0-100%，按区间着色，指示当前完成进度
+ */
+public class GaugeChartPanel extends JComponent {
+    private static final Color[] STEP_COLORS = {
+        new Color(0xe3fdfd), new Color(0xa6e3e9), new Color(0x71c9ce)
+    };
+    private static final double[] STEP_BOUNDS = {0, 50, 80, 100};
+    private static final Color BAR_COLOR = new Color(0x3f9ea6);
+    private static final Color TEXT_COLOR = new Color(0x00008b);
+
+    private final String title;
+    private Money value = Money.ZERO;
+    private Money target = Money.ofYuan(1);
+
+    public GaugeChartPanel(String title) {
+        this.title = title;
+        setPreferredSize(new Dimension(400, 300));
+        setBackground(Color.WHITE);
+        setOpaque(true);
+    }
+
+    /**
+     * 设置当前值和目标值
+     * @param value 当前值
+     * @param target 目标值
+     */
+    public void setData(Money value, Money target) {
+        this.value = value != null ? value : Money.ZERO;
+        this.target = target != null && target.signum() > 0 ? target : Money.ofYuan(1);
+        repaint();
+    }
+
+    /**
+     * 完成进度百分比，限制在0-100之间
+     * @return 百分比
+     */
+    public double getProgress() {
+        double progress = (double) value.getCents() / target.getCents() * 100;
+        return Math.max(0, Math.min(100, progress));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(new Font("微软雅黑", Font.BOLD, 14));
+            drawCentered(g2, title, getWidth() / 2, 24);
+
+            int radius = Math.max(20, Math.min(getWidth() / 2 - 30, getHeight() - 110));
+            int cx = getWidth() / 2;
+            int cy = 50 + radius;
+            int thickness = Math.max(10, radius / 4);
+
+            // 刻度区间
+            g2.setStroke(new BasicStroke(thickness, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+            for (int i = 0; i < STEP_COLORS.length; i++) {
+                g2.setColor(STEP_COLORS[i]);
+                g2.draw(arc(cx, cy, radius, STEP_BOUNDS[i], STEP_BOUNDS[i + 1]));
+            }
+
+            // 当前进度
+            double progress = getProgress();
+            g2.setStroke(new BasicStroke(thickness / 2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+            g2.setColor(BAR_COLOR);
+            g2.draw(arc(cx, cy, radius, 0, progress));
+
+            // 进度指示线
+            double angle = Math.toRadians(180 - progress * 1.8);
+            double inner = radius - thickness * 0.75;
+            double outer = radius + thickness * 0.75;
+            g2.setStroke(new BasicStroke(3f));
+            g2.setColor(Color.RED);
+            g2.draw(new Line2D.Double(cx + inner * Math.cos(angle), cy - inner * Math.sin(angle),
+                    cx + outer * Math.cos(angle), cy - outer * Math.sin(angle)));
+
+            // 刻度文字
+            g2.setColor(Color.GRAY);
+            g2.setFont(new Font("微软雅黑", Font.PLAIN, 11));
+            for (int tick = 0; tick <= 100; tick += 20) {
+                double a = Math.toRadians(180 - tick * 1.8);
+                double r = radius + thickness;
+                drawCentered(g2, String.valueOf(tick), (int) (cx + r * Math.cos(a)), (int) (cy - r * Math.sin(a)) + 4);
+            }
+
+            // 数值
+            g2.setColor(TEXT_COLOR);
+            g2.setFont(new Font("微软雅黑", Font.BOLD, 26));
+            drawCentered(g2, String.format("%.1f%%", progress), cx, cy - 4);
+            g2.setFont(new Font("微软雅黑", Font.PLAIN, 12));
+            drawCentered(g2, "¥" + value + " / 目标 ¥" + target, cx, cy + 24);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * 从百分比from到to的圆弧，0%在左侧，100%在右侧
+     */
+    private static Arc2D arc(int cx, int cy, int radius, double from, double to) {
+        return new Arc2D.Double(cx - radius, cy - radius, radius * 2, radius * 2,
+                180 - from * 1.8, -(to - from) * 1.8, Arc2D.OPEN);
+    }
+
+    private static void drawCentered(Graphics2D g2, String text, int x, int y) {
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(text, x - fm.stringWidth(text) / 2, y);
+    }
+}
@@ -0,0 +1,275 @@
+package com.carrental.gui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 按需分页加载的表格模型
+ * 行数来自COUNT查询，只有滚动到的页才在后台线程查询；内存中最多保留maxCachedPages页，
+ * 记住最近加载的各页最后一行作为下一页的键集分页起点，无法按上一页定位时（直接拖到中间）才按偏移量查询
+ * 除后台查询外，所有状态只在事件分发线程中读写
+ * @param <T> 行数据类型
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+    /** 数据尚未加载时单元格显示的内容 */
+    public static final String LOADING_TEXT = "…";
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "lazy-table-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * 分页数据来源
+     * @param <T> 行数据类型
+     */
+    public interface PageSource<T> {
+        /**
+         * 统计总行数
+         * @return 行数
+         */
+        int count();
+
+        /**
+         * 键集分页：查询指定行之后的一页
+         * @param last 上一页最后一行，null表示第一页
+         * @param limit 每页条数
+         * @return 行数据
+         */
+        List<T> fetchAfter(T last, int limit);
+
+        /**
+         * 偏移量分页：查询从offset开始的一页
+         * @param offset 跳过的条数
+         * @param limit 每页条数
+         * @return 行数据
+         */
+        List<T> fetchAt(int offset, int limit);
+    }
+
+    private final String[] columnNames;
+    private final Function<T, Object[]> rowMapper;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    private final LinkedHashMap<Integer, Page<T>> pages;
+    // 每页最后一行，用于下一页的键集分页；与pages一样按最近使用淘汰，最多保留maxCachedPages个
+    private final LinkedHashMap<Integer, T> pageTails;
+    private final Set<Integer> loadingPages = new HashSet<>();
+
+    private PageSource<T> source;
+    private int rowCount = 0;
+    // 每次切换数据源或刷新加一，丢弃过期的后台查询结果
+    private volatile int generation = 0;
+
+    /**
+     * @param columnNames 列名
+     * @param rowMapper 行数据转换为各列的值
+     * @param pageSize 每页条数
+     * @param maxCachedPages 内存中最多保留的页数
+     */
+    public LazyTableModel(String[] columnNames, Function<T, Object[]> rowMapper, int pageSize, int maxCachedPages) {
+        this.columnNames = columnNames.clone();
+        this.rowMapper = rowMapper;
+        this.pageSize = pageSize;
+        this.maxCachedPages = Math.max(2, maxCachedPages);
+        this.pages = new LinkedHashMap<Integer, Page<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page<T>> eldest) {
+                return size() > LazyTableModel.this.maxCachedPages;
+            }
+        };
+        this.pageTails = new LinkedHashMap<Integer, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                return size() > LazyTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * 切换数据源（如修改了筛选条件），清空已加载的数据并重新统计行数
+     * @param source 数据源
+     */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        refresh();
+    }
+
+    /**
+     * 重新加载当前数据源
+     */
+    public void refresh() {
+        final int gen = ++generation;
+        pages.clear();
+        pageTails.clear();
+        loadingPages.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+
+        final PageSource<T> current = source;
+        if (current == null) {
+            return;
+        }
+        LOADER.execute(() -> {
+            int count = safeCount(current);
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) {
+                    return;
+                }
+                rowCount = count;
+                fireTableDataChanged();
+            });
+        });
+    }
+
+    /**
+     * 获取某行的数据
+     * @param row 行号
+     * @return 行数据，尚未加载时返回null并触发加载
+     */
+    public T getRow(int row) {
+        Page<T> page = pageFor(row);
+        if (page == null) {
+            return null;
+        }
+        int index = row % pageSize;
+        return index < page.items.size() ? page.items.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page<T> page = pageFor(row);
+        if (page == null) {
+            return LOADING_TEXT;
+        }
+        int index = row % pageSize;
+        if (index >= page.cells.length) {
+            return "";
+        }
+        // 接近页尾时预取下一页，平滑滚动
+        if (index >= pageSize * 3 / 4) {
+            int next = row / pageSize + 1;
+            if (next * pageSize < rowCount && !pages.containsKey(next)) {
+                requestPage(next);
+            }
+        }
+        return page.cells[index][column];
+    }
+
+    private Page<T> pageFor(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int pageIndex = row / pageSize;
+        Page<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+        }
+        return page;
+    }
+
+    /**
+     * 在后台线程加载一页
+     * @param pageIndex 页号
+     */
+    private void requestPage(int pageIndex) {
+        if (source == null || !loadingPages.add(pageIndex)) {
+            return;
+        }
+        final int gen = generation;
+        final PageSource<T> current = source;
+        final T last = pageIndex == 0 ? null : pageTails.get(pageIndex - 1);
+        final boolean seek = pageIndex == 0 || last != null;
+
+        LOADER.execute(() -> {
+            if (gen != generation) {
+                return;
+            }
+            List<T> items = fetch(current, seek, last, pageIndex);
+            Object[][] cells = new Object[items.size()][];
+            for (int i = 0; i < items.size(); i++) {
+                cells[i] = rowMapper.apply(items.get(i));
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) {
+                    return;
+                }
+                loadingPages.remove(pageIndex);
+                pages.put(pageIndex, new Page<>(items, cells));
+                if (!items.isEmpty()) {
+                    pageTails.put(pageIndex, items.get(items.size() - 1));
+                }
+                int first = pageIndex * pageSize;
+                int lastRow = Math.min(rowCount, first + pageSize) - 1;
+                if (first <= lastRow) {
+                    fireTableRowsUpdated(first, lastRow);
+                }
+            });
+        });
+    }
+
+    private List<T> fetch(PageSource<T> current, boolean seek, T last, int pageIndex) {
+        try {
+            List<T> items = seek ? current.fetchAfter(last, pageSize) : current.fetchAt(pageIndex * pageSize, pageSize);
+            return items != null ? items : Collections.<T>emptyList();
+        } catch (RuntimeException e) {
+            System.err.println("表格分页加载失败: " + e.getMessage());
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    private int safeCount(PageSource<T> current) {
+        try {
+            return current.count();
+        } catch (RuntimeException e) {
+            System.err.println("表格行数统计失败: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * 已加载的一页
+     */
+    private static final class Page<T> {
+        private final List<T> items;
+        private final Object[][] cells;
+
+        Page(List<T> items, Object[][] cells) {
+            this.items = items;
+            this.cells = cells;
+        }
+    }
+}
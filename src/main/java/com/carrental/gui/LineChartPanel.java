@@ -0,0 +1,137 @@
+package com.carrental.gui;
+
+import com.carrental.util.Money;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 折线图
+ * 横轴为日期，纵轴为金额，数据点带圆点标记
+ */
+public class LineChartPanel extends JComponent {
+    private static final DateTimeFormatter LABEL_FORMATTER = DateTimeFormatter.ofPattern("MM-dd");
+    private static final Color LINE_COLOR = Color.BLUE;
+    private static final Color GRID_COLOR = new Color(0xe0e0e0);
+    private static final int LEFT = 60;
+    private static final int RIGHT = 20;
+    private static final int TOP = 40;
+    private static final int BOTTOM = 40;
+
+    private final String title;
+    private final List<LocalDate> dates = new ArrayList<>();
+    private final List<Money> values = new ArrayList<>();
+
+    public LineChartPanel(String title) {
+        this.title = title;
+        setPreferredSize(new Dimension(400, 300));
+        setBackground(Color.WHITE);
+        setOpaque(true);
+    }
+
+    /**
+     * 设置数据点
+     * @param dates 日期，按时间升序
+     * @param values 数值，与日期一一对应
+     */
+    public void setData(List<LocalDate> dates, List<Money> values) {
+        this.dates.clear();
+        this.values.clear();
+        this.dates.addAll(dates);
+        this.values.addAll(values);
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            g2.setColor(Color.BLACK);
+            g2.setFont(new Font("微软雅黑", Font.BOLD, 14));
+            FontMetrics titleMetrics = g2.getFontMetrics();
+            g2.drawString(title, (getWidth() - titleMetrics.stringWidth(title)) / 2, 24);
+
+            g2.setFont(new Font("微软雅黑", Font.PLAIN, 11));
+            FontMetrics fm = g2.getFontMetrics();
+            int plotWidth = getWidth() - LEFT - RIGHT;
+            int plotHeight = getHeight() - TOP - BOTTOM;
+            if (values.isEmpty() || plotWidth <= 0 || plotHeight <= 0) {
+                g2.setColor(Color.GRAY);
+                g2.drawString("暂无数据", getWidth() / 2 - 24, getHeight() / 2);
+                return;
+            }
+
+            // 纵轴范围包含0，上下留一点余量
+            double min = 0;
+            double max = 0;
+            for (Money value : values) {
+                min = Math.min(min, value.toDouble());
+                max = Math.max(max, value.toDouble());
+            }
+            if (max == min) {
+                max = min + 1;
+            }
+            double padding = (max - min) * 0.1;
+            max += padding;
+            if (min < 0) {
+                min -= padding;
+            }
+
+            // 横向网格和纵轴刻度
+            int ticks = 5;
+            for (int i = 0; i <= ticks; i++) {
+                double tickValue = min + (max - min) * i / ticks;
+                int y = TOP + plotHeight - (int) Math.round(plotHeight * (double) i / ticks);
+                g2.setColor(GRID_COLOR);
+                g2.drawLine(LEFT, y, LEFT + plotWidth, y);
+                g2.setColor(Color.DARK_GRAY);
+                String label = String.format("%.0f", tickValue);
+                g2.drawString(label, LEFT - 6 - fm.stringWidth(label), y + fm.getAscent() / 2);
+            }
+            g2.setColor(Color.GRAY);
+            g2.drawLine(LEFT, TOP, LEFT, TOP + plotHeight);
+            g2.drawLine(LEFT, TOP + plotHeight, LEFT + plotWidth, TOP + plotHeight);
+
+            // 横轴标签过密时隔几个显示一个
+            int count = values.size();
+            int labelStep = Math.max(1, (int) Math.ceil(count * (fm.stringWidth("00-00") + 8) / (double) plotWidth));
+            Path2D line = new Path2D.Double();
+            List<Point> points = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int x = count == 1 ? LEFT + plotWidth / 2 : LEFT + (int) Math.round(plotWidth * (double) i / (count - 1));
+                int y = TOP + plotHeight - (int) Math.round(plotHeight * (values.get(i).toDouble() - min) / (max - min));
+                points.add(new Point(x, y));
+                if (i == 0) {
+                    line.moveTo(x, y);
+                } else {
+                    line.lineTo(x, y);
+                }
+                if (i % labelStep == 0) {
+                    String label = dates.get(i).format(LABEL_FORMATTER);
+                    g2.setColor(Color.DARK_GRAY);
+                    g2.drawString(label, x - fm.stringWidth(label) / 2, TOP + plotHeight + fm.getAscent() + 4);
+                }
+            }
+
+            g2.setColor(LINE_COLOR);
+            g2.setStroke(new BasicStroke(2f));
+            g2.draw(line);
+            for (Point p : points) {
+                g2.fill(new Ellipse2D.Double(p.x - 3, p.y - 3, 6, 6));
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+}
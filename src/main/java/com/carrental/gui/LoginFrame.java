@@ -1,9 +1,11 @@
 package com.carrental.gui;
 
-import com.carrental.entity.Staff;
+import com.carrental.entity.StaffSession;
 import com.carrental.entity.User;
+import com.carrental.service.SessionService;
 import com.carrental.service.UserService;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.StartupTimer;
 
 import javax.swing.*;
 import java.awt.*;
@@ -191,32 +193,26 @@ public class LoginFrame extends JFrame {
                 String password = new String(passwordField.getPassword()).trim();
 
                 // 执行登录操作
-                Staff staff = userService.login(username, password);
+                SessionService.LoginResult result = userService.login(username, password);
 
                 // 在EDT中处理结果
                 SwingUtilities.invokeLater(() -> {
                     loginButton.setEnabled(true);
-                    if (staff != null) {
-                        showMessage("登录成功！\n欢迎，" + staff.getName() + "！",
+                    if (result.isSuccess()) {
+                        StaffSession session = result.getSession();
+                        showMessage("登录成功！\n欢迎，" + session.getStaff().getName() + "！",
                                 "登录成功", JOptionPane.INFORMATION_MESSAGE);
 
                         // 打开主界面
                         dispose();
                         try {
-                            new MainFrame(staff).setVisible(true);
+                            new MainFrame(session).setVisible(true);
                         } catch (IOException e) {
                             throw new RuntimeException(e);
                         }
                     } else {
-                        // 检查是否是重复登录或其他错误
-                        try {
-                            // 由于UserService中已经处理了重复登录检查，这里显示相应的错误信息
-                            showMessage("登录失败！可能原因：\n1. 用户名或密码错误\n2. 该用户已登录，无法重复登录",
-                                    "登录失败", JOptionPane.ERROR_MESSAGE);
-                        } catch (Exception e) {
-                            showMessage("登录失败！可能原因：\n1. 用户名或密码错误\n2. 该用户已登录，无法重复登录",
-                                    "登录失败", JOptionPane.ERROR_MESSAGE);
-                        }
+                        showMessage("登录失败！" + result.getOutcome().getMessage(),
+                                "登录失败", JOptionPane.ERROR_MESSAGE);
                         passwordField.setText("");
                         passwordField.requestFocus();
                     }
@@ -298,22 +294,28 @@ public class LoginFrame extends JFrame {
             return;
         }
 
+        StartupTimer.start();
         if (staffRadio.isSelected()) {
-            Staff staff = userService.login(username, password);
-            if (staff != null) {
-                JOptionPane.showMessageDialog(this, "登录成功！\n欢迎，" + staff.getName() + "！", "登录成功", JOptionPane.INFORMATION_MESSAGE);
+            SessionService.LoginResult result = userService.login(username, password);
+            StartupTimer.phase("登录验证");
+            if (result.isSuccess()) {
+                StaffSession session = result.getSession();
+                JOptionPane.showMessageDialog(this, "登录成功！\n欢迎，" + session.getStaff().getName() + "！", "登录成功", JOptionPane.INFORMATION_MESSAGE);
+                StartupTimer.skip(); // 不计入等待用户确认的时间
                 dispose();
-                new MainFrame(staff).setVisible(true);
+                showMainFrame(new MainFrame(session));
             } else {
-                JOptionPane.showMessageDialog(this, "用户名或密码错误！", "登录失败", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, result.getOutcome().getMessage() + "！", "登录失败", JOptionPane.ERROR_MESSAGE);
                 passwordField.setText("");
             }
         } else {
             User user = userService.userLogin(username, password);
+            StartupTimer.phase("登录验证");
             if (user != null) {
                 JOptionPane.showMessageDialog(this, "登录成功！\n欢迎，" + user.getName() + "！", "登录成功", JOptionPane.INFORMATION_MESSAGE);
+                StartupTimer.skip(); // 不计入等待用户确认的时间
                 dispose();
-                new MainFrame(user).setVisible(true);
+                showMainFrame(new MainFrame(user));
             } else {
                 JOptionPane.showMessageDialog(this, "手机号或身份证号错误！", "登录失败", JOptionPane.ERROR_MESSAGE);
                 passwordField.setText("");
@@ -321,6 +323,15 @@ public class LoginFrame extends JFrame {
         }
     }
 
+    /**
+     * 显示主界面并记录启动耗时，可交互时间由主界面在首次绘制后记录
+     */
+    private void showMainFrame(MainFrame mainFrame) {
+        StartupTimer.phase("主界面构建");
+        mainFrame.setVisible(true);
+        StartupTimer.phase("窗口显示");
+    }
+
     public static void main(String[] args) {
         try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
         SwingUtilities.invokeLater(() -> new LoginFrame().setVisible(true));
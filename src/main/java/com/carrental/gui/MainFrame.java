@@ -1,31 +1,50 @@
 package com.carrental.gui;
 
 import com.carrental.entity.Staff;
+import com.carrental.entity.StaffSession;
 import com.carrental.entity.User;
+import com.carrental.service.FleetIndex;
+import com.carrental.service.ReportSummaryService;
+import com.carrental.service.SessionService;
+import com.carrental.util.AppConfig;
+import com.carrental.util.StartupTimer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 主界面
  * 系统的主要功能入口
+ * 标签页在首次选中时才创建；窗口显示后，在后台线程中预热后面几个标签页用到的内存索引和汇总数据，
+ * 完成后再在事件分发线程中创建这些标签页，事件分发线程上只做组件的构造
  */
 public class MainFrame extends JFrame {
     private Staff currentStaff;
+    // 员工登录会话，用户登录时为null
+    private volatile StaffSession staffSession;
     private JTabbedPane tabbedPane;
+    // 尚未创建的标签页内容，已创建的置为null
+    private final List<Supplier<JComponent>> tabFactories = new ArrayList<>();
+    // 预加载标签页时在后台线程执行的数据预热，没有可预热数据的为null
+    private final List<Runnable> tabWarmUps = new ArrayList<>();
 
 
     private  User currentUser;
 
-    public MainFrame(Staff staff) throws IOException {
-        this.currentStaff = staff;
+    public MainFrame(StaffSession session) throws IOException {
+        this.currentStaff = session.getStaff();
+        this.staffSession = session;
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         setupFrame();
+        watchSession();
     }
     public MainFrame(User user) {
         this.currentUser = user;
@@ -50,20 +69,85 @@ public class MainFrame extends JFrame {
         // 根据权限显示不同的标签页
         if (currentStaff.getRole() >= 2) {
             // 员工权限及以上
-            tabbedPane.addTab("车辆管理", new CarManagementPanel());
-            tabbedPane.addTab("租车管理", new RentManagementPanel());
+            addLazyTab("车辆管理", CarManagementPanel::new,
+                    () -> FleetIndex.getInstance().search(null, null, null));
+            addLazyTab("租车管理", RentManagementPanel::new);
         }
 
         if (currentStaff.getRole() >= 6) {
             // 经理权限及以上
-            tabbedPane.addTab("用户管理", new UserManagementPanel());
-            tabbedPane.addTab("员工管理", new StaffManagementPanel());
+            addLazyTab("用户管理", UserManagementPanel::new);
+            addLazyTab("员工管理", StaffManagementPanel::new);
         }
 
         if (currentStaff.getRole() >= 9) {
             // 董事长权限
-            tabbedPane.addTab("财务报表", new FinancialReportPanel());
-            tabbedPane.addTab("系统设置", new SystemSettingsPanel());
+            addLazyTab("财务报表", FinancialReportPanel::new,
+                    () -> ReportSummaryService.getInstance().refresh());
+            addLazyTab("系统设置", SystemSettingsPanel::new);
+        }
+
+        tabbedPane.addChangeListener(e -> ensureTabBuilt(tabbedPane.getSelectedIndex()));
+        ensureTabBuilt(tabbedPane.getSelectedIndex());
+        StartupTimer.phase("首个标签页");
+    }
+
+    /**
+     * 添加标签页，内容在首次选中时才创建
+     * @param title 标题
+     * @param factory 创建标签页内容
+     */
+    private void addLazyTab(String title, Supplier<JComponent> factory) {
+        addLazyTab(title, factory, null);
+    }
+
+    /**
+     * 添加标签页，内容在首次选中时才创建
+     * @param title 标题
+     * @param factory 创建标签页内容
+     * @param warmUp 预加载时在后台线程执行的数据预热，null表示没有
+     */
+    private void addLazyTab(String title, Supplier<JComponent> factory, Runnable warmUp) {
+        tabbedPane.addTab(title, new JPanel(new BorderLayout()));
+        tabFactories.add(factory);
+        tabWarmUps.add(warmUp);
+    }
+
+    /**
+     * 创建尚未创建的标签页内容
+     * @param index 标签页序号
+     */
+    private void ensureTabBuilt(int index) {
+        if (index < 0 || index >= tabFactories.size() || tabFactories.get(index) == null) {
+            return;
+        }
+        Supplier<JComponent> factory = tabFactories.set(index, null);
+        tabWarmUps.set(index, null);
+        JPanel holder = (JPanel) tabbedPane.getComponentAt(index);
+        holder.add(factory.get(), BorderLayout.CENTER);
+        holder.revalidate();
+    }
+
+    /**
+     * 预先加载当前标签页之后的几个标签页：数据预热通过AsyncLoader在后台线程执行，
+     * 完成后在事件分发线程中创建标签页；期间用户已选中的标签页会立即创建，预热结果到达时不再重复创建
+     */
+    private void prefetchTabs() {
+        int count = AppConfig.getInt("ui.prefetchTabs", 2);
+        int selected = tabbedPane.getSelectedIndex();
+        for (int i = 1; i <= count; i++) {
+            final int index = selected + i;
+            if (index >= tabFactories.size() || tabFactories.get(index) == null) {
+                continue;
+            }
+            Runnable warmUp = tabWarmUps.get(index);
+            JPanel holder = (JPanel) tabbedPane.getComponentAt(index);
+            new AsyncLoader<Boolean>(holder).load(index, () -> {
+                if (warmUp != null) {
+                    warmUp.run();
+                }
+                return Boolean.TRUE;
+            }, done -> ensureTabBuilt(index));
         }
     }
 
@@ -99,10 +183,7 @@ public class MainFrame extends JFrame {
         JPanel userPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         JLabel userLabel = new JLabel("当前用户: " + currentUser.getName());
         JButton logoutButton = new JButton("退出登录");
-        logoutButton.addActionListener(e -> {
-            dispose();
-            new LoginFrame().setVisible(true);
-        });
+        logoutButton.addActionListener(e -> returnToLogin());
         userPanel.add(userLabel);
         userPanel.add(logoutButton);
         topPanel.add(userPanel, BorderLayout.EAST);
@@ -138,8 +219,7 @@ public class MainFrame extends JFrame {
                 int result = JOptionPane.showConfirmDialog(MainFrame.this,
                         "确定要退出登录吗？", "确认退出", JOptionPane.YES_NO_OPTION);
                 if (result == JOptionPane.YES_OPTION) {
-                    dispose();
-                    new LoginFrame().setVisible(true);
+                    returnToLogin();
                 }
             }
         });
@@ -173,17 +253,61 @@ public class MainFrame extends JFrame {
         // 窗口关闭事件
         setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
         addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                // 窗口首次绘制完成后即可交互，再开始预加载其他标签页
+                SwingUtilities.invokeLater(() -> {
+                    StartupTimer.phase("首次绘制");
+                    StartupTimer.finish();
+                    prefetchTabs();
+                });
+            }
+
             @Override
             public void windowClosing(java.awt.event.WindowEvent e) {
                 int result = JOptionPane.showConfirmDialog(MainFrame.this,
                         "确定要退出系统吗？", "确认退出", JOptionPane.YES_NO_OPTION);
                 if (result == JOptionPane.YES_OPTION) {
+                    releaseSession();
                     System.exit(0);
                 }
             }
         });
     }
 
+    /**
+     * 会话在后台续约失败时提示并回到登录界面
+     */
+    private void watchSession() {
+        SessionService.getInstance().setSessionLostListener(lost -> {
+            if (lost == staffSession) {
+                SwingUtilities.invokeLater(() -> {
+                    staffSession = null;
+                    JOptionPane.showMessageDialog(this, "登录会话已过期，请重新登录", "会话过期",
+                            JOptionPane.WARNING_MESSAGE);
+                    returnToLogin();
+                });
+            }
+        });
+    }
+
+    /**
+     * 释放登录会话后回到登录界面
+     */
+    private void returnToLogin() {
+        releaseSession();
+        dispose();
+        new LoginFrame().setVisible(true);
+    }
+
+    private void releaseSession() {
+        if (staffSession != null) {
+            SessionService.getInstance().setSessionLostListener(null);
+            SessionService.getInstance().logout(staffSession);
+            staffSession = null;
+        }
+    }
+
     /**
      * 设置窗口属性
      */
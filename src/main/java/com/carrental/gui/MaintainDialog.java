@@ -4,12 +4,12 @@ import com.carrental.dao.CarDAO;
 import com.carrental.dao.MaintainInformationDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.MaintainInformation;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -210,7 +210,7 @@ public class MaintainDialog extends JDialog {
             }
             
             if (!maintainCostField.getText().trim().isEmpty()) {
-                newMaintainInfo.setMaintainCost(new BigDecimal(maintainCostField.getText().trim()));
+                newMaintainInfo.setMaintainCost(Money.parse(maintainCostField.getText()));
             }
             
             boolean success;
@@ -270,7 +270,7 @@ public class MaintainDialog extends JDialog {
             }
             
             if (!maintainCostField.getText().trim().isEmpty()) {
-                new BigDecimal(maintainCostField.getText().trim());
+                Money.parse(maintainCostField.getText());
             }
             
         } catch (Exception e) {
@@ -4,6 +4,7 @@ import com.carrental.dao.CarDAO;
 import com.carrental.dao.MaintainInformationDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.MaintainInformation;
+import com.carrental.entity.MaintainView;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -12,15 +13,22 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 维修管理面板
  * 负责车辆维修信息的管理
  */
 public class MaintainManagementPanel extends JPanel {
+    private static final int PAGE_SIZE = 500;
+
     private MaintainInformationDAO maintainDAO;
     private CarDAO carDAO;
+    private AsyncLoader<List<Object[]>> dataLoader;
+    private AsyncLoader<List<Car>> carListLoader;
+    private AsyncLoader<DialogData> dialogLoader;
     private JTable maintainTable;
     private DefaultTableModel tableModel;
     private JButton addButton;
@@ -32,6 +40,9 @@ public class MaintainManagementPanel extends JPanel {
     public MaintainManagementPanel() {
         this.maintainDAO = new MaintainInformationDAO();
         this.carDAO = new CarDAO();
+        this.dataLoader = new AsyncLoader<>(this);
+        this.carListLoader = new AsyncLoader<>(this);
+        this.dialogLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -72,10 +83,11 @@ public class MaintainManagementPanel extends JPanel {
      * 加载车辆列表到筛选框
      */
     private void loadCarList() {
-        List<Car> cars = carDAO.getAllCars();
-        for (Car car : cars) {
-            carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
-        }
+        carListLoader.load(null, carDAO::getAllCars, cars -> {
+            for (Car car : cars) {
+                carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
+            }
+        });
     }
 
     /**
@@ -89,6 +101,7 @@ public class MaintainManagementPanel extends JPanel {
         topPanel.add(new JLabel("车辆:"));
         topPanel.add(carFilterCombo);
         topPanel.add(refreshButton);
+        topPanel.add(dataLoader.getProgressBar());
         add(topPanel, BorderLayout.NORTH);
 
         // 中间表格
@@ -117,35 +130,52 @@ public class MaintainManagementPanel extends JPanel {
 
     /**
      * 加载数据
+     * 按页读取关联了车牌号的展示行
      */
     private void loadData() {
-        tableModel.setRowCount(0);
-        
-        List<MaintainInformation> maintainList;
+        loadData(false);
+    }
+
+    /**
+     * 数据修改后重新加载，不与进行中的查询合并
+     */
+    private void reloadData() {
+        loadData(true);
+    }
+
+    private void loadData(boolean reload) {
         String selectedCar = (String) carFilterCombo.getSelectedItem();
+        Integer carId = "全部车辆".equals(selectedCar) ? null : extractCarIdFromCombo(selectedCar);
         
-        if ("全部车辆".equals(selectedCar)) {
-            maintainList = maintainDAO.getAllMaintainInformation();
+        Supplier<List<Object[]>> query = () -> {
+            List<Object[]> rows = new ArrayList<>();
+            List<MaintainView> page;
+            MaintainView last = null;
+            do {
+                page = maintainDAO.getMaintainViewPage(carId, last, PAGE_SIZE);
+                for (MaintainView maintain : page) {
+                    Object[] row = {
+                        maintain.getMaintainId(),
+                        maintain.getCarId(),
+                        maintain.getLicensePlate() != null ? maintain.getLicensePlate() : "未知",
+                        maintain.getMaintainDate(),
+                        maintain.getMaintainDescribe(),
+                        maintain.getMaintainBeginDate(),
+                        maintain.getMaintainFinishDate(),
+                        maintain.getMaintainCost()
+                    };
+                    rows.add(row);
+                }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == PAGE_SIZE);
+            return rows;
+        };
+        if (reload) {
+            dataLoader.reload(carId, query, rows -> AsyncLoader.replaceRows(tableModel, rows));
         } else {
-            int carId = extractCarIdFromCombo(selectedCar);
-            maintainList = maintainDAO.getMaintainInformationByCarId(carId);
-        }
-        
-        for (MaintainInformation maintain : maintainList) {
-            Car car = carDAO.getCarById(maintain.getCarId());
-            String licensePlate = car != null ? car.getLicensePlateNumber() : "未知";
-            
-            Object[] row = {
-                maintain.getMaintainId(),
-                maintain.getCarId(),
-                licensePlate,
-                maintain.getMaintainDate(),
-                maintain.getMaintainDescribe(),
-                maintain.getMaintainBeginDate(),
-                maintain.getMaintainFinishDate(),
-                maintain.getMaintainCost()
-            };
-            tableModel.addRow(row);
+            dataLoader.load(carId, query, rows -> AsyncLoader.replaceRows(tableModel, rows));
         }
     }
 
@@ -162,14 +192,12 @@ public class MaintainManagementPanel extends JPanel {
     }
 
     /**
-     * 显示添加维修记录对话框
+     * 显示添加维修记录对话框，车辆列表和新记录ID在后台查询后再打开
      */
     private void showAddMaintainDialog() {
-        MaintainDialog dialog = new MaintainDialog(null, carDAO.getAllCars(), maintainDAO.getNextMaintainId());
-        dialog.setVisible(true);
-        if (dialog.isConfirmed()) {
-            loadData();
-        }
+        dialogLoader.reload("add",
+                () -> new DialogData(null, carDAO.getAllCars(), maintainDAO.getNextMaintainId()),
+                this::openMaintainDialog);
     }
 
     /**
@@ -183,14 +211,20 @@ public class MaintainManagementPanel extends JPanel {
         }
         
         int maintainId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        MaintainInformation maintain = maintainDAO.getMaintainInformationById(maintainId);
-        
-        if (maintain != null) {
-            MaintainDialog dialog = new MaintainDialog(maintain, carDAO.getAllCars(), maintainId);
-            dialog.setVisible(true);
-            if (dialog.isConfirmed()) {
-                loadData();
-            }
+        dialogLoader.reload(maintainId, () -> {
+            MaintainInformation maintain = maintainDAO.getMaintainInformationById(maintainId);
+            return maintain != null ? new DialogData(maintain, carDAO.getAllCars(), maintainId) : null;
+        }, this::openMaintainDialog);
+    }
+
+    private void openMaintainDialog(DialogData data) {
+        if (data == null) {
+            return;
+        }
+        MaintainDialog dialog = new MaintainDialog(data.maintain, data.cars, data.maintainId);
+        dialog.setVisible(true);
+        if (dialog.isConfirmed()) {
+            reloadData();
         }
     }
 
@@ -214,10 +248,25 @@ public class MaintainManagementPanel extends JPanel {
         if (result == JOptionPane.YES_OPTION) {
             if (maintainDAO.deleteMaintainInformation(maintainId)) {
                 JOptionPane.showMessageDialog(this, "删除成功", "成功", JOptionPane.INFORMATION_MESSAGE);
-                loadData();
+                reloadData();
             } else {
                 JOptionPane.showMessageDialog(this, "删除失败", "错误", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
+
+    /**
+     * 打开维修记录对话框所需的数据，在后台线程中查询
+     */
+    private static final class DialogData {
+        private final MaintainInformation maintain;
+        private final List<Car> cars;
+        private final int maintainId;
+
+        DialogData(MaintainInformation maintain, List<Car> cars, int maintainId) {
+            this.maintain = maintain;
+            this.cars = cars;
+            this.maintainId = maintainId;
+        }
+    }
 }
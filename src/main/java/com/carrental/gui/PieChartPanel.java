@@ -0,0 +1,110 @@
+package com.carrental.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 饼图
+ * 左侧绘制扇区并标注百分比，右侧为图例
+ */
+public class PieChartPanel extends JComponent {
+    private static final Color[] COLORS = {
+        new Color(0x61c0bf), new Color(0xbbded6), new Color(0xfae3d9), new Color(0xffb6b9),
+        new Color(0xc2c2f0), new Color(0xff6666), new Color(0xffccff), new Color(0x99ffcc),
+        new Color(0xccffcc), new Color(0xffb3e6)
+    };
+
+    private final String title;
+    private final List<String> labels = new ArrayList<>();
+    private final List<Number> values = new ArrayList<>();
+
+    public PieChartPanel(String title) {
+        this.title = title;
+        setPreferredSize(new Dimension(400, 300));
+        setBackground(Color.WHITE);
+        setOpaque(true);
+    }
+
+    /**
+     * 设置扇区数据
+     * @param labels 扇区名称
+     * @param values 扇区数值，与名称一一对应
+     */
+    public void setData(List<String> labels, List<? extends Number> values) {
+        this.labels.clear();
+        this.values.clear();
+        this.labels.addAll(labels);
+        this.values.addAll(values);
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+
+            g2.setColor(Color.BLACK);
+            g2.setFont(new Font("微软雅黑", Font.BOLD, 14));
+            FontMetrics titleMetrics = g2.getFontMetrics();
+            g2.drawString(title, (getWidth() - titleMetrics.stringWidth(title)) / 2, 24);
+
+            double total = 0;
+            for (Number value : values) {
+                total += Math.max(0, value.doubleValue());
+            }
+            g2.setFont(new Font("微软雅黑", Font.PLAIN, 12));
+            if (total <= 0) {
+                g2.setColor(Color.GRAY);
+                g2.drawString("暂无数据", getWidth() / 2 - 24, getHeight() / 2);
+                return;
+            }
+
+            int legendWidth = Math.min(160, getWidth() / 3);
+            int diameter = Math.max(20, Math.min(getWidth() - legendWidth - 40, getHeight() - 60));
+            int x = 20;
+            int y = 40 + (getHeight() - 50 - diameter) / 2;
+
+            // 从12点方向顺时针绘制
+            double start = 90;
+            FontMetrics fm = g2.getFontMetrics();
+            for (int i = 0; i < values.size(); i++) {
+                double extent = Math.max(0, values.get(i).doubleValue()) / total * 360;
+                g2.setColor(COLORS[i % COLORS.length]);
+                g2.fill(new Arc2D.Double(x, y, diameter, diameter, start, -extent, Arc2D.PIE));
+                g2.setColor(Color.WHITE);
+                g2.draw(new Arc2D.Double(x, y, diameter, diameter, start, -extent, Arc2D.PIE));
+
+                if (extent >= 12) {
+                    double mid = Math.toRadians(start - extent / 2);
+                    double r = diameter * 0.32;
+                    String percent = String.format("%.1f%%", extent / 3.6);
+                    int px = (int) (x + diameter / 2.0 + r * Math.cos(mid)) - fm.stringWidth(percent) / 2;
+                    int py = (int) (y + diameter / 2.0 - r * Math.sin(mid)) + fm.getAscent() / 2;
+                    g2.setColor(Color.DARK_GRAY);
+                    g2.drawString(percent, px, py);
+                }
+                start -= extent;
+            }
+
+            // 图例
+            int lx = x + diameter + 20;
+            int ly = 50;
+            for (int i = 0; i < labels.size() && ly < getHeight() - 10; i++) {
+                g2.setColor(COLORS[i % COLORS.length]);
+                g2.fillRect(lx, ly - 10, 12, 12);
+                g2.setColor(Color.BLACK);
+                g2.drawString(labels.get(i) + " (" + values.get(i) + ")", lx + 18, ly);
+                ly += 20;
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+}
@@ -1,18 +1,20 @@
 package com.carrental.gui;
 
 import com.carrental.entity.Car;
+import com.carrental.entity.RentOutcome;
 import com.carrental.entity.User;
 import com.carrental.service.CarService;
 import com.carrental.service.RentService;
-import com.carrental.service.UserService;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * 租车对话框
@@ -21,29 +23,35 @@ import java.time.format.DateTimeFormatter;
 public class RentCarDialog extends JDialog {
     private RentService rentService;
     private CarService carService;
-    private UserService userService;
     private JComboBox<Car> carComboBox;
     private JComboBox<User> userComboBox;
     private JTextField rentDateField;
     private JTextField returnDateField;
     private JLabel rentAmountLabel;
     private JButton calculateButton;
+    private JButton searchCarButton;
     private JButton rentButton;
     private JButton cancelButton;
     private RentManagementPanel parentPanel;
+    private AsyncLoader<List<Car>> carLoader;
 
-    public RentCarDialog(RentManagementPanel parent) {
+    /**
+     * @param parent 租车管理面板
+     * @param availableCars 今天起租一天的可用车辆，由调用方在后台查询
+     * @param users 用户列表，由调用方在后台查询
+     */
+    public RentCarDialog(RentManagementPanel parent, List<Car> availableCars, List<User> users) {
         super((JFrame) SwingUtilities.getWindowAncestor(parent), "租车", true);
         this.parentPanel = parent;
         this.rentService = new RentService();
         this.carService = new CarService();
-        this.userService = new UserService();
         
         initializeComponents();
+        this.carLoader = new AsyncLoader<>(getRootPane());
         setupLayout();
         setupEventHandlers();
         setupDialog();
-        loadData();
+        loadData(availableCars, users);
     }
 
     /**
@@ -56,6 +64,7 @@ public class RentCarDialog extends JDialog {
         returnDateField = new JTextField(15);
         rentAmountLabel = new JLabel("¥0.00");
         calculateButton = new JButton("计算租金");
+        searchCarButton = new JButton("查询可用车辆");
         rentButton = new JButton("确认租车");
         cancelButton = new JButton("取消");
         
@@ -67,6 +76,7 @@ public class RentCarDialog extends JDialog {
         returnDateField.setFont(font);
         rentAmountLabel.setFont(font);
         calculateButton.setFont(font);
+        searchCarButton.setFont(font);
         rentButton.setFont(font);
         cancelButton.setFont(font);
         
@@ -116,6 +126,8 @@ public class RentCarDialog extends JDialog {
         mainPanel.add(new JLabel("归还日期:"), gbc);
         gbc.gridx = 1;
         mainPanel.add(returnDateField, gbc);
+        gbc.gridx = 2;
+        mainPanel.add(searchCarButton, gbc);
         
         // 租金计算
         gbc.gridx = 0; gbc.gridy = 4;
@@ -146,6 +158,13 @@ public class RentCarDialog extends JDialog {
             }
         });
         
+        searchCarButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                loadAvailableCars();
+            }
+        });
+        
         rentButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -165,22 +184,57 @@ public class RentCarDialog extends JDialog {
      * 设置对话框属性
      */
     private void setupDialog() {
-        setSize(400, 300);
+        setSize(520, 300);
         setLocationRelativeTo(getParent());
         setResizable(false);
     }
 
     /**
-     * 加载数据
+     * 填入已查询的可用车辆和用户
      */
-    private void loadData() {
-        // 加载可用车辆
-        carComboBox.removeAllItems();
-        carService.getAvailableCars().forEach(carComboBox::addItem);
+    private void loadData(List<Car> availableCars, List<User> users) {
+        showAvailableCars(availableCars, false);
         
-        // 加载用户
         userComboBox.removeAllItems();
-        userService.getAllUsers().forEach(userComboBox::addItem);
+        users.forEach(userComboBox::addItem);
+    }
+
+    /**
+     * 在后台按填写的租借日期和归还日期查询可以出租的车辆
+     */
+    private void loadAvailableCars() {
+        LocalDate rentDate;
+        LocalDate returnDate;
+        try {
+            rentDate = LocalDate.parse(rentDateField.getText().trim());
+            returnDate = LocalDate.parse(returnDateField.getText().trim());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "日期格式错误，请使用yyyy-MM-dd格式", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        carLoader.load(Arrays.asList(rentDate, returnDate), () -> carService.getAvailableCars(rentDate, returnDate),
+                cars -> showAvailableCars(cars, true));
+    }
+
+    /**
+     * 替换车辆下拉框的内容，保留原来选中的车辆
+     * @param showMessage 没有可用车辆时是否提示
+     */
+    private void showAvailableCars(List<Car> cars, boolean showMessage) {
+        Car selected = (Car) carComboBox.getSelectedItem();
+        carComboBox.removeAllItems();
+        cars.forEach(carComboBox::addItem);
+        if (selected != null) {
+            for (int i = 0; i < carComboBox.getItemCount(); i++) {
+                if (carComboBox.getItemAt(i).getCarId() == selected.getCarId()) {
+                    carComboBox.setSelectedIndex(i);
+                    break;
+                }
+            }
+        }
+        if (showMessage && carComboBox.getItemCount() == 0) {
+            JOptionPane.showMessageDialog(this, "所选日期内没有可用车辆", "提示", JOptionPane.INFORMATION_MESSAGE);
+        }
     }
 
     /**
@@ -196,7 +250,7 @@ public class RentCarDialog extends JDialog {
             LocalDate rentDate = LocalDate.parse(rentDateField.getText().trim());
             LocalDate returnDate = LocalDate.parse(returnDateField.getText().trim());
             
-            BigDecimal rentAmount = carService.calculateRent(selectedCar.getCarId(), rentDate, returnDate);
+            Money rentAmount = carService.calculateRent(selectedCar.getCarId(), rentDate, returnDate);
             rentAmountLabel.setText("¥" + rentAmount.toString());
             
         } catch (Exception e) {
@@ -221,7 +275,7 @@ public class RentCarDialog extends JDialog {
             // 获取当前登录员工ID（这里假设为1，实际应该从登录状态获取）
             int staffId = 1;
             
-            BigDecimal rentAmount = carService.calculateRent(selectedCar.getCarId(), rentDate, returnDate);
+            Money rentAmount = carService.calculateRent(selectedCar.getCarId(), rentDate, returnDate);
             
             int result = JOptionPane.showConfirmDialog(this, 
                 "确认租车信息:\n" +
@@ -232,12 +286,13 @@ public class RentCarDialog extends JDialog {
                 "确认租车", JOptionPane.YES_NO_OPTION);
             
             if (result == JOptionPane.YES_OPTION) {
-                if (rentService.rentCar(selectedCar.getCarId(), selectedUser.getUserId(), staffId, rentDate, returnDate)) {
+                RentOutcome outcome = rentService.rentCar(selectedCar.getCarId(), selectedUser.getUserId(), staffId, rentDate, returnDate);
+                if (outcome.isSuccess()) {
                     JOptionPane.showMessageDialog(this, "租车成功", "提示", JOptionPane.INFORMATION_MESSAGE);
                     parentPanel.refreshData();
                     dispose();
                 } else {
-                    JOptionPane.showMessageDialog(this, "租车失败", "错误", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(this, "租车失败: " + outcome.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
                 }
             }
             
@@ -1,13 +1,18 @@
 package com.carrental.gui;
 
+import com.carrental.entity.Car;
 import com.carrental.entity.RentInformation;
+import com.carrental.entity.RentView;
+import com.carrental.entity.User;
+import com.carrental.service.CarService;
 import com.carrental.service.RentService;
+import com.carrental.service.UserService;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -16,13 +21,19 @@ import java.util.List;
  * 提供租车相关的管理功能
  */
 public class RentManagementPanel extends JPanel {
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 5;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     private RentService rentService;
     private JTable rentTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<RentView> tableModel;
     private JComboBox<String> statusComboBox;
+    private AsyncLoader<RentDialogData> rentDialogLoader;
 
     public RentManagementPanel() {
         this.rentService = new RentService();
+        this.rentDialogLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -34,13 +45,19 @@ public class RentManagementPanel extends JPanel {
      */
     private void initializeComponents() {
         // 创建表格
-        String[] columnNames = {"ID", "车辆ID", "用户ID", "员工ID", "租借日期", "归还日期", "支付金额", "退还金额"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // 表格不可编辑
-            }
-        };
+        String[] columnNames = {"ID", "车辆ID", "车牌号", "用户", "经办员工", "租借日期", "归还日期", "支付金额", "退还金额"};
+        // 按需分页加载，滚动到哪页才查询哪页，内存中只保留少量页
+        tableModel = new LazyTableModel<>(columnNames, view -> new Object[]{
+            view.getRentId(),
+            view.getCarId(),
+            view.getLicensePlate() != null ? view.getLicensePlate() : "未知",
+            view.getUserName() != null ? view.getUserName() : "未知",
+            view.getStaffName() != null ? view.getStaffName() : "未知",
+            view.getRentDate() != null ? view.getRentDate().format(DATE_FORMATTER) : "",
+            view.getReturnDate() != null ? view.getReturnDate().format(DATE_FORMATTER) : "",
+            view.getPayTheAmount(),
+            view.getReturnAmount()
+        }, PAGE_SIZE, CACHED_PAGES);
         rentTable = new JTable(tableModel);
         rentTable.setFont(new Font("微软雅黑", Font.PLAIN, 12));
         rentTable.setRowHeight(25);
@@ -49,12 +66,13 @@ public class RentManagementPanel extends JPanel {
         // 设置列宽
         rentTable.getColumnModel().getColumn(0).setPreferredWidth(50);
         rentTable.getColumnModel().getColumn(1).setPreferredWidth(60);
-        rentTable.getColumnModel().getColumn(2).setPreferredWidth(60);
-        rentTable.getColumnModel().getColumn(3).setPreferredWidth(60);
-        rentTable.getColumnModel().getColumn(4).setPreferredWidth(100);
+        rentTable.getColumnModel().getColumn(2).setPreferredWidth(90);
+        rentTable.getColumnModel().getColumn(3).setPreferredWidth(80);
+        rentTable.getColumnModel().getColumn(4).setPreferredWidth(80);
         rentTable.getColumnModel().getColumn(5).setPreferredWidth(100);
-        rentTable.getColumnModel().getColumn(6).setPreferredWidth(80);
+        rentTable.getColumnModel().getColumn(6).setPreferredWidth(100);
         rentTable.getColumnModel().getColumn(7).setPreferredWidth(80);
+        rentTable.getColumnModel().getColumn(8).setPreferredWidth(80);
 
         // 创建状态选择框
         statusComboBox = new JComboBox<>(new String[]{"全部", "租借中", "已归还"});
@@ -183,67 +201,62 @@ public class RentManagementPanel extends JPanel {
      * 加载租车数据
      */
     private void loadRentData() {
-        tableModel.setRowCount(0);
-        List<RentInformation> rentInfos = rentService.getAllRentInformation();
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (RentInformation rentInfo : rentInfos) {
-            Object[] row = {
-                rentInfo.getRentId(),
-                rentInfo.getCarId(),
-                rentInfo.getUserId(),
-                rentInfo.getStaffId(),
-                rentInfo.getRentDate() != null ? rentInfo.getRentDate().format(formatter) : "",
-                rentInfo.getReturnDate() != null ? rentInfo.getReturnDate().format(formatter) : "",
-                rentInfo.getPayTheAmount(),
-                rentInfo.getReturnAmount()
-            };
-            tableModel.addRow(row);
-        }
+        loadRentViews("全部");
     }
 
     /**
      * 执行搜索
      */
     private void performSearch() {
-        String status = (String) statusComboBox.getSelectedItem();
-        
-        List<RentInformation> rentInfos;
-        if (status.equals("租借中")) {
-            rentInfos = rentService.getCurrentRentals();
-        } else if (status.equals("已归还")) {
-            rentInfos = rentService.getAllRentInformation().stream()
-                    .filter(rent -> rent.getReturnDate() != null)
-                    .collect(java.util.stream.Collectors.toList());
-        } else {
-            rentInfos = rentService.getAllRentInformation();
-        }
-        
-        // 更新表格
-        tableModel.setRowCount(0);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (RentInformation rentInfo : rentInfos) {
-            Object[] row = {
-                rentInfo.getRentId(),
-                rentInfo.getCarId(),
-                rentInfo.getUserId(),
-                rentInfo.getStaffId(),
-                rentInfo.getRentDate() != null ? rentInfo.getRentDate().format(formatter) : "",
-                rentInfo.getReturnDate() != null ? rentInfo.getReturnDate().format(formatter) : "",
-                rentInfo.getPayTheAmount(),
-                rentInfo.getReturnAmount()
-            };
-            tableModel.addRow(row);
+        loadRentViews((String) statusComboBox.getSelectedItem());
+    }
+
+    /**
+     * 按状态切换表格数据源
+     * 车牌号、用户姓名、员工姓名由关联查询一次带出，表格滚动时按页加载
+     * @param status 状态筛选
+     */
+    private void loadRentViews(final String status) {
+        tableModel.setSource(new LazyTableModel.PageSource<RentView>() {
+            @Override
+            public int count() {
+                return rentService.countRentViews(status);
+            }
+
+            @Override
+            public List<RentView> fetchAfter(RentView last, int limit) {
+                return rentService.getRentViewPage(status, last, limit);
+            }
+
+            @Override
+            public List<RentView> fetchAt(int offset, int limit) {
+                return rentService.getRentViewPageAt(status, offset, limit);
+            }
+        });
+    }
+
+    /**
+     * 获取选中行的租车信息
+     * @param selectedRow 选中的行号
+     * @return 租车信息，该行数据尚未加载完成时返回null
+     */
+    private RentInformation getSelectedRentInformation(int selectedRow) {
+        RentView view = tableModel.getRow(selectedRow);
+        if (view == null) {
+            JOptionPane.showMessageDialog(this, "数据加载中，请稍后再试", "提示", JOptionPane.INFORMATION_MESSAGE);
+            return null;
         }
+        return rentService.getRentInformationById(view.getRentId());
     }
 
     /**
-     * 显示租车对话框
+     * 显示租车对话框，今天起租一天的可用车辆和用户列表在后台查询后再打开
      */
     private void showRentCarDialog() {
-        new RentCarDialog(this).setVisible(true);
+        LocalDate today = LocalDate.now();
+        rentDialogLoader.reload("rent", () -> new RentDialogData(
+                        new CarService().getAvailableCars(today, today.plusDays(1)), new UserService().getAllUsers()),
+                data -> new RentCarDialog(this, data.cars, data.users).setVisible(true));
     }
 
     /**
@@ -256,11 +269,7 @@ public class RentManagementPanel extends JPanel {
             return;
         }
         
-        int rentId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        RentInformation rentInfo = rentService.getAllRentInformation().stream()
-                .filter(rent -> rent.getRentId() == rentId)
-                .findFirst()
-                .orElse(null);
+        RentInformation rentInfo = getSelectedRentInformation(selectedRow);
         
         if (rentInfo != null) {
             new ReturnCarDialog(this, rentInfo).setVisible(true);
@@ -277,11 +286,7 @@ public class RentManagementPanel extends JPanel {
             return;
         }
         
-        int rentId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        RentInformation rentInfo = rentService.getAllRentInformation().stream()
-                .filter(rent -> rent.getRentId() == rentId)
-                .findFirst()
-                .orElse(null);
+        RentInformation rentInfo = getSelectedRentInformation(selectedRow);
         
         if (rentInfo != null) {
             new RentDetailsDialog(this, rentInfo).setVisible(true);
@@ -298,11 +303,7 @@ public class RentManagementPanel extends JPanel {
             return;
         }
         
-        int rentId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        RentInformation rentInfo = rentService.getAllRentInformation().stream()
-                .filter(rent -> rent.getRentId() == rentId)
-                .findFirst()
-                .orElse(null);
+        RentInformation rentInfo = getSelectedRentInformation(selectedRow);
         
         if (rentInfo != null) {
             new ContractDialog(this, rentInfo).setVisible(true);
@@ -315,4 +316,17 @@ public class RentManagementPanel extends JPanel {
     public void refreshData() {
         loadRentData();
     }
+
+    /**
+     * 打开租车对话框所需的数据，在后台线程中查询
+     */
+    private static final class RentDialogData {
+        private final List<Car> cars;
+        private final List<User> users;
+
+        RentDialogData(List<Car> cars, List<User> users) {
+            this.cars = cars;
+            this.users = users;
+        }
+    }
 }
@@ -1,13 +1,14 @@
 package com.carrental.gui;
 
 import com.carrental.entity.RentInformation;
+import com.carrental.entity.RentOutcome;
 import com.carrental.service.RentService;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -171,14 +172,14 @@ public class ReturnCarDialog extends JDialog {
     private void calculateReturn() {
         try {
             LocalDate actualReturnDate = LocalDate.parse(returnDateField.getText().trim());
-            BigDecimal damageCost = new BigDecimal(damageCostField.getText().trim());
+            Money damageCost = parseDamageCost();
             
             // 计算实际租金
-            BigDecimal actualRent = rentService.calculateRent(rentInfo.getCarId(), rentInfo.getRentDate(), actualReturnDate);
+            Money actualRent = rentService.calculateRent(rentInfo.getCarId(), rentInfo.getRentDate(), actualReturnDate);
             actualRentLabel.setText("¥" + actualRent.toString());
             
             // 计算退还金额
-            BigDecimal returnAmount = rentInfo.getPayTheAmount().subtract(actualRent).subtract(damageCost);
+            Money returnAmount = rentInfo.getPayTheAmount().minus(actualRent).minus(damageCost);
             returnAmountLabel.setText("¥" + returnAmount.toString());
             
         } catch (Exception e) {
@@ -186,13 +187,21 @@ public class ReturnCarDialog extends JDialog {
         }
     }
 
+    /**
+     * 解析损坏费用，未填写时视为0
+     */
+    private Money parseDamageCost() {
+        Money damageCost = Money.parse(damageCostField.getText());
+        return damageCost != null ? damageCost : Money.ZERO;
+    }
+
     /**
      * 执行还车
      */
     private void performReturn() {
         try {
             LocalDate actualReturnDate = LocalDate.parse(returnDateField.getText().trim());
-            BigDecimal damageCost = new BigDecimal(damageCostField.getText().trim());
+            Money damageCost = parseDamageCost();
             
             int result = JOptionPane.showConfirmDialog(this, 
                 "确认还车信息:\n" +
@@ -202,12 +211,13 @@ public class ReturnCarDialog extends JDialog {
                 "确认还车", JOptionPane.YES_NO_OPTION);
             
             if (result == JOptionPane.YES_OPTION) {
-                if (rentService.returnCar(rentInfo.getRentId(), actualReturnDate, damageCost)) {
+                RentOutcome outcome = rentService.returnCar(rentInfo.getRentId(), actualReturnDate, damageCost);
+                if (outcome.isSuccess()) {
                     JOptionPane.showMessageDialog(this, "还车成功", "提示", JOptionPane.INFORMATION_MESSAGE);
                     parentPanel.refreshData();
                     dispose();
                 } else {
-                    JOptionPane.showMessageDialog(this, "还车失败", "错误", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(this, "还车失败: " + outcome.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
                 }
             }
             
@@ -7,6 +7,8 @@ import com.carrental.entity.Staff;
 import com.carrental.service.UserService;
 import javax.swing.table.DefaultTableModel;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -15,7 +17,10 @@ import java.util.List;
  * 提供员工相关的管理功能
  */
 public class StaffManagementPanel extends JPanel {
+    private static final String ALL_STAFF = "全部员工";
+
     private UserService userService;
+    private AsyncLoader<List<Object[]>> staffLoader;
     private JTable staffTable;
     private DefaultTableModel tableModel;
     private JTextField searchField;
@@ -23,6 +28,7 @@ public class StaffManagementPanel extends JPanel {
 
     public StaffManagementPanel() {
         this.userService = new UserService();
+        this.staffLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -67,6 +73,7 @@ public class StaffManagementPanel extends JPanel {
         refreshBtn.setFont(new Font("微软雅黑", Font.PLAIN, 12));
         refreshBtn.addActionListener(e -> loadStaffData());
         top.add(refreshBtn);
+        top.add(staffLoader.getProgressBar());
 
         add(top, BorderLayout.NORTH);
 
@@ -110,31 +117,31 @@ public class StaffManagementPanel extends JPanel {
     }
 
     private void loadStaffData() {
-        tableModel.setRowCount(0);
-        List<Staff> staffList = userService.getAllStaff();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (Staff s : staffList) {
-            Object[] row = {s.getStaffId(), s.getName(), s.getPhone(), s.getEntryDate() != null ? s.getEntryDate().format(fmt) : "", s.getPosition(), s.getRole()};
-            tableModel.addRow(row);
-        }
+        staffLoader.load(ALL_STAFF, () -> toRows(userService.getAllStaff()), rows -> AsyncLoader.replaceRows(tableModel, rows));
     }
 
     private void performSearch() {
         String text = searchField.getText().trim();
         String pos = (String) positionComboBox.getSelectedItem();
 
-        List<Staff> staffList = userService.getAllStaff();
-        staffList = staffList.stream()
-                .filter(s -> text.isEmpty() || s.getName().contains(text) || s.getPhone().contains(text))
-                .filter(s -> pos.equals("全部") || (s.getPosition() != null && s.getPosition().equals(pos)))
-                .collect(java.util.stream.Collectors.toList());
+        staffLoader.load(Arrays.asList(text, pos), () -> {
+            List<Staff> staffList = userService.getAllStaff();
+            staffList = staffList.stream()
+                    .filter(s -> text.isEmpty() || s.getName().contains(text) || s.getPhone().contains(text))
+                    .filter(s -> pos.equals("全部") || (s.getPosition() != null && s.getPosition().equals(pos)))
+                    .collect(java.util.stream.Collectors.toList());
+            return toRows(staffList);
+        }, rows -> AsyncLoader.replaceRows(tableModel, rows));
+    }
 
-        tableModel.setRowCount(0);
+    private static List<Object[]> toRows(List<Staff> staffList) {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        List<Object[]> rows = new ArrayList<>(staffList.size());
         for (Staff s : staffList) {
             Object[] row = {s.getStaffId(), s.getName(), s.getPhone(), s.getEntryDate() != null ? s.getEntryDate().format(fmt) : "", s.getPosition(), s.getRole()};
-            tableModel.addRow(row);
+            rows.add(row);
         }
+        return rows;
     }
 
     private void showAddStaffDialog() { new StaffDialog(this, null).setVisible(true); }
@@ -154,7 +161,7 @@ public class StaffManagementPanel extends JPanel {
         String name = (String) tableModel.getValueAt(sel, 1);
         int r = JOptionPane.showConfirmDialog(this, "确认删除员工: " + name + " ?", "确认", JOptionPane.YES_NO_OPTION);
         if (r == JOptionPane.YES_OPTION) {
-            if (userService.deleteStaff(staffId)) { JOptionPane.showMessageDialog(this, "删除成功", "提示", JOptionPane.INFORMATION_MESSAGE); loadStaffData(); }
+            if (userService.deleteStaff(staffId)) { JOptionPane.showMessageDialog(this, "删除成功", "提示", JOptionPane.INFORMATION_MESSAGE); refreshData(); }
             else JOptionPane.showMessageDialog(this, "删除失败", "错误", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -176,5 +183,7 @@ public class StaffManagementPanel extends JPanel {
         }
     }
 
-    public void refreshData() { loadStaffData(); }
+    public void refreshData() {
+        staffLoader.reload(ALL_STAFF, () -> toRows(userService.getAllStaff()), rows -> AsyncLoader.replaceRows(tableModel, rows));
+    }
 }
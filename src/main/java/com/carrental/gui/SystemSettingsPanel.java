@@ -15,6 +15,9 @@ import java.util.Properties;
 
 import com.carrental.entity.Staff;
 import com.carrental.service.UserService;
+import com.carrental.util.ConnectionPool;
+import com.carrental.util.DatabaseConnection;
+import com.carrental.util.EntityCache;
 
 /**
  * 系统设置面板
@@ -136,9 +139,13 @@ public class SystemSettingsPanel extends JPanel {
         JButton testDbBtn = new JButton("测试数据库连接");
         JButton saveBtn = new JButton("保存配置");
         JButton reloadBtn = new JButton("重新加载配置");
+        JButton poolStatsBtn = new JButton("连接池状态");
+        JButton cacheStatsBtn = new JButton("缓存状态");
         btnPanel.add(testDbBtn);
         btnPanel.add(saveBtn);
         btnPanel.add(reloadBtn);
+        btnPanel.add(poolStatsBtn);
+        btnPanel.add(cacheStatsBtn);
 
         testDbBtn.addActionListener(new ActionListener() {
             @Override
@@ -155,6 +162,16 @@ public class SystemSettingsPanel extends JPanel {
             public void actionPerformed(ActionEvent e) { loadProperties(); }
         });
 
+        poolStatsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) { showPoolStatistics(); }
+        });
+
+        cacheStatsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) { showCacheStatistics(); }
+        });
+
         main.add(btnPanel, BorderLayout.SOUTH);
 
         // Admin password section
@@ -250,6 +267,39 @@ public class SystemSettingsPanel extends JPanel {
         }
     }
 
+    private void showPoolStatistics() {
+        ConnectionPool.Statistics stats = DatabaseConnection.getInstance().getStatistics();
+        String message = "借出中连接: " + stats.getActive() + "\n"
+                + "空闲连接: " + stats.getIdle() + "\n"
+                + "物理连接: " + stats.getTotal() + " / " + stats.getMaxSize() + "\n"
+                + "累计借出: " + stats.getBorrowCount() + "\n"
+                + String.format("平均等待: %.2f ms%n", stats.getAverageWaitMillis())
+                + String.format("最长等待: %.2f ms%n", stats.getMaxWaitMillis())
+                + "等待超时: " + stats.getTimeoutCount() + "\n"
+                + "新建/回收连接: " + stats.getCreatedCount() + " / " + stats.getEvictedCount() + "\n"
+                + "语句缓存命中/未命中: " + stats.getStatementCacheHits() + " / " + stats.getStatementCacheMisses()
+                + String.format("（命中率 %.1f%%）%n", stats.getStatementCacheHitRatio() * 100)
+                + "语句缓存淘汰: " + stats.getStatementCacheEvictions();
+        JOptionPane.showMessageDialog(this, message, "连接池状态", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void showCacheStatistics() {
+        StringBuilder sb = new StringBuilder();
+        for (EntityCache.Statistics stats : EntityCache.getAllStatistics()) {
+            sb.append(stats.getName()).append(": ")
+              .append(stats.getSize()).append(" / ").append(stats.getMaxSize()).append(" 条，存活 ")
+              .append(stats.getTtlSeconds()).append(" 秒\n")
+              .append("    命中/未命中: ").append(stats.getHits()).append(" / ").append(stats.getMisses())
+              .append(String.format("（命中率 %.1f%%）%n", stats.getHitRatio() * 100))
+              .append("    淘汰/过期/失效: ").append(stats.getEvictions()).append(" / ")
+              .append(stats.getExpirations()).append(" / ").append(stats.getInvalidations()).append('\n');
+        }
+        if (sb.length() == 0) {
+            sb.append("缓存尚未使用");
+        }
+        JOptionPane.showMessageDialog(this, sb.toString(), "缓存状态", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void changeAdminPassword() {
         String name = adminNameField.getText().trim();
         String newPwd = new String(adminNewPasswordField.getPassword());
@@ -6,12 +6,12 @@ import com.carrental.dao.UserDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.TrafficFine;
 import com.carrental.entity.User;
+import com.carrental.util.Money;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -219,7 +219,7 @@ public class TrafficFineDialog extends JDialog {
             // 设置其他字段
             newTrafficFine.setViolationDate(LocalDate.parse(violationDateField.getText().trim()));
             newTrafficFine.setOffendingLocation(offendingLocationField.getText().trim());
-            newTrafficFine.setFine(new BigDecimal(fineField.getText().trim()));
+            newTrafficFine.setFine(Money.parse(fineField.getText()));
             newTrafficFine.setFineState((String) fineStateCombo.getSelectedItem());
             
             boolean success;
@@ -272,7 +272,9 @@ public class TrafficFineDialog extends JDialog {
         
         try {
             LocalDate.parse(violationDateField.getText().trim());
-            new BigDecimal(fineField.getText().trim());
+            if (Money.parse(fineField.getText()) == null) {
+                throw new NumberFormatException("罚款金额为空");
+            }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "日期或金额格式不正确", "提示", JOptionPane.WARNING_MESSAGE);
             return false;
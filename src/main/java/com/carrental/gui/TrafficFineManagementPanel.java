@@ -5,10 +5,10 @@ import com.carrental.dao.TrafficFineDAO;
 import com.carrental.dao.UserDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.TrafficFine;
+import com.carrental.entity.TrafficFineView;
 import com.carrental.entity.User;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -21,11 +21,17 @@ import java.util.List;
  * 负责违章罚款信息的管理
  */
 public class TrafficFineManagementPanel extends JPanel {
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 5;
+
     private TrafficFineDAO trafficFineDAO;
     private CarDAO carDAO;
     private UserDAO userDAO;
+    private AsyncLoader<List<Car>> carListLoader;
+    private AsyncLoader<List<User>> userListLoader;
+    private AsyncLoader<DialogData> dialogLoader;
     private JTable fineTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<TrafficFineView> tableModel;
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
@@ -38,6 +44,9 @@ public class TrafficFineManagementPanel extends JPanel {
         this.trafficFineDAO = new TrafficFineDAO();
         this.carDAO = new CarDAO();
         this.userDAO = new UserDAO();
+        this.carListLoader = new AsyncLoader<>(this);
+        this.userListLoader = new AsyncLoader<>(this);
+        this.dialogLoader = new AsyncLoader<>(this);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -50,12 +59,17 @@ public class TrafficFineManagementPanel extends JPanel {
     private void initializeComponents() {
         // 创建表格
         String[] columnNames = {"罚款ID", "车辆ID", "车牌号", "用户ID", "用户姓名", "违规日期", "违规地点", "罚款金额", "罚款状态"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // 表格不可编辑
-            }
-        };
+        tableModel = new LazyTableModel<>(columnNames, fine -> new Object[]{
+            fine.getFineId(),
+            fine.getCarId(),
+            fine.getLicensePlate() != null ? fine.getLicensePlate() : "未知",
+            fine.getUserId(),
+            fine.getUserName() != null ? fine.getUserName() : "未知",
+            fine.getViolationDate(),
+            fine.getOffendingLocation(),
+            fine.getFine(),
+            fine.getFineState()
+        }, PAGE_SIZE, CACHED_PAGES);
         fineTable = new JTable(tableModel);
         fineTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         fineTable.getTableHeader().setReorderingAllowed(false);
@@ -82,20 +96,22 @@ public class TrafficFineManagementPanel extends JPanel {
      * 加载车辆列表到筛选框
      */
     private void loadCarList() {
-        List<Car> cars = carDAO.getAllCars();
-        for (Car car : cars) {
-            carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
-        }
+        carListLoader.load(null, carDAO::getAllCars, cars -> {
+            for (Car car : cars) {
+                carFilterCombo.addItem(car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
+            }
+        });
     }
 
     /**
      * 加载用户列表到筛选框
      */
     private void loadUserList() {
-        List<User> users = userDAO.getAllUsers();
-        for (User user : users) {
-            userFilterCombo.addItem(user.getName() + " (ID:" + user.getUserId() + ")");
-        }
+        userListLoader.load(null, userDAO::getAllUsers, users -> {
+            for (User user : users) {
+                userFilterCombo.addItem(user.getName() + " (ID:" + user.getUserId() + ")");
+            }
+        });
     }
 
     /**
@@ -143,46 +159,43 @@ public class TrafficFineManagementPanel extends JPanel {
 
     /**
      * 加载数据
+     * 筛选条件下推到SQL，表格滚动时按页读取关联了车牌号和用户姓名的展示行
      */
     private void loadData() {
-        tableModel.setRowCount(0);
-        
-        List<TrafficFine> fineList;
         String selectedState = (String) stateFilterCombo.getSelectedItem();
         String selectedCar = (String) carFilterCombo.getSelectedItem();
         String selectedUser = (String) userFilterCombo.getSelectedItem();
-        
-        if ("全部".equals(selectedState) && "全部车辆".equals(selectedCar) && "全部用户".equals(selectedUser)) {
-            fineList = trafficFineDAO.getAllTrafficFine();
-        } else {
-            // 需要实现组合筛选
-            fineList = trafficFineDAO.getAllTrafficFine();
-            fineList = fineList.stream()
-                    .filter(f -> "全部".equals(selectedState) || selectedState.equals(f.getFineState()))
-                    .filter(f -> "全部车辆".equals(selectedCar) || extractCarIdFromCombo(selectedCar) == f.getCarId())
-                    .filter(f -> "全部用户".equals(selectedUser) || extractUserIdFromCombo(selectedUser) == f.getUserId())
-                    .collect(java.util.stream.Collectors.toList());
-        }
-        
-        for (TrafficFine fine : fineList) {
-            Car car = carDAO.getCarById(fine.getCarId());
-            User user = userDAO.getUserById(fine.getUserId());
-            String licensePlate = car != null ? car.getLicensePlateNumber() : "未知";
-            String userName = user != null ? user.getName() : "未知";
-            
-            Object[] row = {
-                fine.getFineId(),
-                fine.getCarId(),
-                licensePlate,
-                fine.getUserId(),
-                userName,
-                fine.getViolationDate(),
-                fine.getOffendingLocation(),
-                fine.getFine(),
-                fine.getFineState()
-            };
-            tableModel.addRow(row);
+        final String fineState = "全部".equals(selectedState) ? null : selectedState;
+        final Integer carId = "全部车辆".equals(selectedCar) ? null : extractCarIdFromCombo(selectedCar);
+        final Integer userId = "全部用户".equals(selectedUser) ? null : extractUserIdFromCombo(selectedUser);
+
+        tableModel.setSource(new LazyTableModel.PageSource<TrafficFineView>() {
+            @Override
+            public int count() {
+                return trafficFineDAO.countTrafficFineViews(fineState, carId, userId);
+            }
+
+            @Override
+            public List<TrafficFineView> fetchAfter(TrafficFineView last, int limit) {
+                return trafficFineDAO.getTrafficFineViewPage(fineState, carId, userId, last, limit);
+            }
+
+            @Override
+            public List<TrafficFineView> fetchAt(int offset, int limit) {
+                return trafficFineDAO.getTrafficFineViewPageAt(fineState, carId, userId, offset, limit);
+            }
+        });
+    }
+
+    /**
+     * 获取选中行的罚款记录，该行数据尚未加载完成时提示并返回null
+     */
+    private TrafficFineView getLoadedFine(int selectedRow) {
+        TrafficFineView fine = tableModel.getRow(selectedRow);
+        if (fine == null) {
+            JOptionPane.showMessageDialog(this, "数据加载中，请稍后再试", "提示", JOptionPane.INFORMATION_MESSAGE);
         }
+        return fine;
     }
 
     /**
@@ -210,14 +223,11 @@ public class TrafficFineManagementPanel extends JPanel {
     }
 
     /**
-     * 显示添加罚款记录对话框
+     * 显示添加罚款记录对话框，车辆和用户列表在后台加载后再打开
      */
     private void showAddFineDialog() {
-        TrafficFineDialog dialog = new TrafficFineDialog(null, carDAO.getAllCars(), userDAO.getAllUsers());
-        dialog.setVisible(true);
-        if (dialog.isConfirmed()) {
-            loadData();
-        }
+        dialogLoader.reload("add", () -> new DialogData(null, carDAO.getAllCars(), userDAO.getAllUsers()),
+                this::openFineDialog);
     }
 
     /**
@@ -230,15 +240,25 @@ public class TrafficFineManagementPanel extends JPanel {
             return;
         }
         
-        int fineId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        TrafficFine fine = trafficFineDAO.getTrafficFineById(fineId);
-        
-        if (fine != null) {
-            TrafficFineDialog dialog = new TrafficFineDialog(fine, carDAO.getAllCars(), userDAO.getAllUsers());
-            dialog.setVisible(true);
-            if (dialog.isConfirmed()) {
-                loadData();
-            }
+        TrafficFineView row = getLoadedFine(selectedRow);
+        if (row == null) {
+            return;
+        }
+        int fineId = row.getFineId();
+        dialogLoader.reload(fineId, () -> {
+            TrafficFine fine = trafficFineDAO.getTrafficFineById(fineId);
+            return fine != null ? new DialogData(fine, carDAO.getAllCars(), userDAO.getAllUsers()) : null;
+        }, this::openFineDialog);
+    }
+
+    private void openFineDialog(DialogData data) {
+        if (data == null) {
+            return;
+        }
+        TrafficFineDialog dialog = new TrafficFineDialog(data.fine, data.cars, data.users);
+        dialog.setVisible(true);
+        if (dialog.isConfirmed()) {
+            loadData();
         }
     }
 
@@ -252,8 +272,12 @@ public class TrafficFineManagementPanel extends JPanel {
             return;
         }
         
-        int fineId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String offendingLocation = (String) tableModel.getValueAt(selectedRow, 6);
+        TrafficFineView row = getLoadedFine(selectedRow);
+        if (row == null) {
+            return;
+        }
+        int fineId = row.getFineId();
+        String offendingLocation = row.getOffendingLocation();
         
         int result = JOptionPane.showConfirmDialog(this, 
             "确定要删除罚款记录吗？\n违规地点: " + offendingLocation, 
@@ -268,4 +292,19 @@ public class TrafficFineManagementPanel extends JPanel {
             }
         }
     }
+
+    /**
+     * 打开罚款记录对话框所需的数据，在后台线程中查询
+     */
+    private static final class DialogData {
+        private final TrafficFine fine;
+        private final List<Car> cars;
+        private final List<User> users;
+
+        DialogData(TrafficFine fine, List<Car> cars, List<User> users) {
+            this.fine = fine;
+            this.cars = cars;
+            this.users = users;
+        }
+    }
 }
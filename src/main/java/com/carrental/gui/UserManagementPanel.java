@@ -5,7 +5,6 @@ import java.awt.*;
  
 import com.carrental.entity.User;
 import com.carrental.service.UserService;
-import javax.swing.table.DefaultTableModel;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.awt.event.ActionEvent;
@@ -16,9 +15,13 @@ import java.awt.event.ActionListener;
  * 提供用户相关的管理功能
  */
 public class UserManagementPanel extends JPanel {
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 5;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     private UserService userService;
     private JTable userTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<User> tableModel;
     private JTextField searchField;
     private JComboBox<String> memberComboBox;
     private JComboBox<String> judgeComboBox;
@@ -33,10 +36,15 @@ public class UserManagementPanel extends JPanel {
 
     private void initializeComponents() {
         String[] columnNames = {"ID", "姓名", "身份证号", "电话", "注册日期", "会员", "信誉度"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new LazyTableModel<>(columnNames, u -> new Object[]{
+            u.getUserId(),
+            u.getName(),
+            u.getIdentityId(),
+            u.getPhone(),
+            u.getRegisterDate() != null ? u.getRegisterDate().format(DATE_FORMATTER) : "",
+            u.getMember(),
+            u.getJudge()
+        }, PAGE_SIZE, CACHED_PAGES);
 
         userTable = new JTable(tableModel);
         userTable.setFont(new Font("微软雅黑", Font.PLAIN, 12));
@@ -120,46 +128,52 @@ public class UserManagementPanel extends JPanel {
     }
 
     private void loadUserData() {
-        tableModel.setRowCount(0);
-        List<User> users = userService.getAllUsers();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        for (User u : users) {
-            Object[] row = {
-                u.getUserId(),
-                u.getName(),
-                u.getIdentityId(),
-                u.getPhone(),
-                u.getRegisterDate() != null ? u.getRegisterDate().format(fmt) : "",
-                u.getMember(),
-                u.getJudge()
-            };
-            tableModel.addRow(row);
-        }
+        loadUsers(null, null, null);
     }
 
     private void performSearch() {
         String text = searchField.getText().trim();
         String member = (String) memberComboBox.getSelectedItem();
         String judge = (String) judgeComboBox.getSelectedItem();
+        loadUsers(text.isEmpty() ? null : text,
+                "全部".equals(member) ? null : member,
+                "全部".equals(judge) ? null : judge);
+    }
+
+    /**
+     * 按筛选条件切换表格数据源，筛选在数据库中完成，表格滚动时按页加载
+     * @param keyword 姓名/身份证号/电话关键字，null表示不限
+     * @param member 会员状态，null表示不限
+     * @param judge 信誉度，null表示不限
+     */
+    private void loadUsers(final String keyword, final String member, final String judge) {
+        tableModel.setSource(new LazyTableModel.PageSource<User>() {
+            @Override
+            public int count() {
+                return userService.countUsers(keyword, member, judge);
+            }
+
+            @Override
+            public List<User> fetchAfter(User last, int limit) {
+                return userService.getUsersPage(keyword, member, judge, last == null ? 0 : last.getUserId(), limit);
+            }
+
+            @Override
+            public List<User> fetchAt(int offset, int limit) {
+                return userService.getUsersPageAt(keyword, member, judge, offset, limit);
+            }
+        });
+    }
 
-        List<User> users = userService.getAllUsers();
-        users = users.stream()
-                .filter(u -> text.isEmpty() || u.getName().contains(text) || u.getIdentityId().contains(text) || u.getPhone().contains(text))
-                .filter(u -> member.equals("全部") || (u.getMember() != null && u.getMember().equals(member)))
-                .filter(u -> judge.equals("全部") || (u.getJudge() != null && u.getJudge().equals(judge)))
-                .collect(java.util.stream.Collectors.toList());
-
-        tableModel.setRowCount(0);
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (User u : users) {
-            Object[] row = {
-                u.getUserId(), u.getName(), u.getIdentityId(), u.getPhone(),
-                u.getRegisterDate() != null ? u.getRegisterDate().format(fmt) : "",
-                u.getMember(), u.getJudge()
-            };
-            tableModel.addRow(row);
+    /**
+     * 获取选中行的用户，该行数据尚未加载完成时提示并返回null
+     */
+    private User getLoadedUser(int sel) {
+        User user = tableModel.getRow(sel);
+        if (user == null) {
+            JOptionPane.showMessageDialog(this, "数据加载中，请稍后再试", "提示", JOptionPane.INFORMATION_MESSAGE);
         }
+        return user;
     }
 
     private void showAddUserDialog() {
@@ -169,19 +183,22 @@ public class UserManagementPanel extends JPanel {
     private void showEditUserDialog() {
         int sel = userTable.getSelectedRow();
         if (sel == -1) { JOptionPane.showMessageDialog(this, "请选择要修改的用户", "提示", JOptionPane.WARNING_MESSAGE); return; }
-        int userId = (Integer) tableModel.getValueAt(sel, 0);
-        User user = userService.getUserById(userId);
+        User row = getLoadedUser(sel);
+        if (row == null) return;
+        User user = userService.getUserById(row.getUserId());
         if (user != null) new UserDialog(this, user).setVisible(true);
     }
 
     private void deleteUser() {
         int sel = userTable.getSelectedRow();
         if (sel == -1) { JOptionPane.showMessageDialog(this, "请选择要删除的用户", "提示", JOptionPane.WARNING_MESSAGE); return; }
-        int userId = (Integer) tableModel.getValueAt(sel, 0);
-        String name = (String) tableModel.getValueAt(sel, 1);
+        User row = getLoadedUser(sel);
+        if (row == null) return;
+        int userId = row.getUserId();
+        String name = row.getName();
         int r = JOptionPane.showConfirmDialog(this, "确认删除用户: " + name + " ?", "确认", JOptionPane.YES_NO_OPTION);
         if (r == JOptionPane.YES_OPTION) {
-            if (userService.deleteUser(userId)) { JOptionPane.showMessageDialog(this, "删除成功", "提示", JOptionPane.INFORMATION_MESSAGE); loadUserData(); }
+            if (userService.deleteUser(userId)) { JOptionPane.showMessageDialog(this, "删除成功", "提示", JOptionPane.INFORMATION_MESSAGE); tableModel.refresh(); }
             else JOptionPane.showMessageDialog(this, "删除失败", "错误", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -189,8 +206,9 @@ public class UserManagementPanel extends JPanel {
     private void viewUserDetails() {
         int sel = userTable.getSelectedRow();
         if (sel == -1) { JOptionPane.showMessageDialog(this, "请选择要查看的用户", "提示", JOptionPane.WARNING_MESSAGE); return; }
-        int userId = (Integer) tableModel.getValueAt(sel, 0);
-        User u = userService.getUserById(userId);
+        User row = getLoadedUser(sel);
+        if (row == null) return;
+        User u = userService.getUserById(row.getUserId());
         if (u != null) {
             StringBuilder sb = new StringBuilder();
             sb.append("ID: ").append(u.getUserId()).append('\n');
@@ -204,5 +222,5 @@ public class UserManagementPanel extends JPanel {
         }
     }
 
-    public void refreshData() { loadUserData(); }
+    public void refreshData() { tableModel.refresh(); }
 }
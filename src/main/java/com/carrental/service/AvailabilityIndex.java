@@ -0,0 +1,370 @@
+package com.carrental.service;
+
+import com.carrental.dao.DataChangeBus;
+import com.carrental.dao.MaintainInformationDAO;
+import com.carrental.dao.RentInformationDAO;
+import com.carrental.entity.Booking;
+import com.carrental.entity.Car;
+import com.carrental.util.AppConfig;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 车辆占用时段索引
+ * 进行中的租车和未结束的维修按车辆合并成互不重叠的时段，存放在以开始日期为键的有序表中，
+ * 判断某辆车在[开始日期, 结束日期)内是否空闲只需floor和ceiling两次O(log n)查找
+ * 已超过计划归还日期仍未还车的租车视为没有结束时间
+ * 车辆、租车、维修的写入通过DataChangeBus通知，下次查询前只重新读取涉及的车辆；
+ * 其他客户端的修改在定期全量重建后可见
+ * 数据库查询不持有读写锁，只在替换内存数据时短暂持有写锁，查询线程不会因为索引更新而等待数据库
+ */
+public final class AvailabilityIndex {
+    private static final AvailabilityIndex INSTANCE = new AvailabilityIndex();
+
+    private final RentInformationDAO rentInfoDAO = new RentInformationDAO();
+    private final MaintainInformationDAO maintainInfoDAO = new MaintainInformationDAO();
+    private final long rebuildIntervalNanos =
+            AppConfig.getLong("availability.rebuildSeconds", 300) * 1_000_000_000L;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 同一时间只有一个线程读取数据库并更新索引；持有它的线程读取以下字段时不需要读锁
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // 以下字段受lock保护，只有持有refreshLock的线程会修改
+    private Map<Integer, List<Booking>> bookingsByCar = new HashMap<>();
+    private Map<Integer, TreeMap<LocalDate, LocalDate>> busyByCar = new HashMap<>();
+    private Map<Integer, Integer> carByMaintainId = new HashMap<>();
+    private Map<Integer, Integer> carByRentId = new HashMap<>();
+    private boolean loaded;
+    private long builtAt;
+
+    // 等待重新读取的车辆ID、维修信息ID和租车信息ID，写入线程只往这里记录
+    private final Set<Integer> pendingCars = Collections.synchronizedSet(new HashSet<>());
+    private final Set<Integer> pendingMaintains = Collections.synchronizedSet(new HashSet<>());
+    private final Set<Integer> pendingRents = Collections.synchronizedSet(new HashSet<>());
+
+    private AvailabilityIndex() {
+        DataChangeBus.subscribe((table, id) -> {
+            if (DataChangeBus.CAR.equals(table)) {
+                pendingCars.add(id);
+            } else if (DataChangeBus.MAINTAIN.equals(table)) {
+                pendingMaintains.add(id);
+            } else if (DataChangeBus.RENT.equals(table)) {
+                pendingRents.add(id);
+            }
+        });
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 判断车辆在指定日期范围内是否没有租车或维修安排
+     * @param carId 车辆ID
+     * @param from 开始日期（含）
+     * @param to 结束日期（不含）
+     * @return 是否空闲
+     */
+    public boolean isAvailable(int carId, LocalDate from, LocalDate to) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            return isFree(busyByCar.get(carId), from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询指定日期范围内没有租车或维修安排的车辆
+     * @param from 开始日期（含）
+     * @param to 结束日期（不含）
+     * @param status 车辆状态，null或"全部"表示不限
+     * @param brand 品牌，null或"全部"表示不限
+     * @param model 型号，null或"全部"表示不限
+     * @return 按车辆ID排序的车辆列表
+     */
+    public List<Car> findAvailableCars(LocalDate from, LocalDate to, String status, String brand, String model) {
+        List<Car> candidates = FleetIndex.getInstance().search(null, status, brand, model);
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            candidates.removeIf(car -> !isFree(busyByCar.get(car.getCarId()), from, to));
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询车辆的占用时段
+     * @param carId 车辆ID
+     * @return 按开始日期排序的占用时段（副本）
+     */
+    public List<Booking> getBookings(int carId) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            List<Booking> bookings = bookingsByCar.get(carId);
+            return bookings != null ? new ArrayList<>(bookings) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 丢弃索引，下次查询时全量重建
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 开始日期不晚于from的最后一段在from之后才结束，或from之后的第一段在to之前开始，则有冲突
+     */
+    private static boolean isFree(TreeMap<LocalDate, LocalDate> busy, LocalDate from, LocalDate to) {
+        if (busy == null) {
+            return true;
+        }
+        Map.Entry<LocalDate, LocalDate> floor = busy.floorEntry(from);
+        if (floor != null && floor.getValue().isAfter(from)) {
+            return false;
+        }
+        LocalDate ceiling = busy.ceilingKey(from);
+        return ceiling == null || !ceiling.isBefore(to);
+    }
+
+    /**
+     * 首次使用或到期时全量构建，否则只重新读取有变化的车辆
+     * 已加载过且其他线程正在更新时直接使用现有数据，不排队等待数据库
+     * 查询失败时保留原有数据：全量构建失败不标记为已加载，增量读取失败时把ID放回待读取集合，下次查询再试
+     */
+    private void ensureCurrent() {
+        boolean wasLoaded;
+        lock.readLock().lock();
+        try {
+            wasLoaded = loaded;
+            if (loaded && pendingCars.isEmpty() && pendingMaintains.isEmpty() && pendingRents.isEmpty()
+                    && System.nanoTime() - builtAt < rebuildIntervalNanos) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (wasLoaded) {
+            if (!refreshLock.tryLock()) {
+                return;
+            }
+        } else {
+            refreshLock.lock();
+        }
+        try {
+            boolean full;
+            lock.readLock().lock();
+            try {
+                full = !loaded || System.nanoTime() - builtAt >= rebuildIntervalNanos;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<Integer> cars = drain(pendingCars);
+            List<Integer> maintains = drain(pendingMaintains);
+            List<Integer> rents = drain(pendingRents);
+            try {
+                if (full) {
+                    rebuild();
+                } else if (!cars.isEmpty() || !maintains.isEmpty() || !rents.isEmpty()) {
+                    reload(cars, maintains, rents);
+                }
+            } catch (SQLException e) {
+                pendingCars.addAll(cars);
+                pendingMaintains.addAll(maintains);
+                pendingRents.addAll(rents);
+                System.err.println("车辆占用时段索引更新失败: " + e.getMessage());
+                e.printStackTrace();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private static List<Integer> drain(Set<Integer> pending) {
+        synchronized (pending) {
+            List<Integer> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * 全量构建，查询全部成功后在写锁内一次替换原有数据
+     */
+    private void rebuild() throws SQLException {
+        List<Booking> all = rentInfoDAO.loadActiveRentBookings(null);
+        all.addAll(maintainInfoDAO.loadOpenMaintainBookings(null));
+
+        Map<Integer, List<Booking>> bookings = group(all);
+        Map<Integer, TreeMap<LocalDate, LocalDate>> busy = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<Integer, List<Booking>> entry : bookings.entrySet()) {
+            busy.put(entry.getKey(), merge(entry.getValue(), today));
+        }
+        Map<Integer, Integer> maintainCars = new HashMap<>();
+        Map<Integer, Integer> rentCars = new HashMap<>();
+        for (Booking booking : all) {
+            (Booking.MAINTAIN.equals(booking.getType()) ? maintainCars : rentCars)
+                    .put(booking.getSourceId(), booking.getCarId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            bookingsByCar = bookings;
+            busyByCar = busy;
+            carByMaintainId = maintainCars;
+            carByRentId = rentCars;
+            loaded = true;
+            builtAt = System.nanoTime();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 重新读取有变化的车辆，查询全部成功后才在写锁内替换这些车辆的占用时段
+     */
+    private void reload(List<Integer> changedCars, List<Integer> maintains, List<Integer> rents) throws SQLException {
+        // 修改或删除前所属的车辆从本地记录中找，新增或改到其他车辆的从数据库中找
+        Set<Integer> cars = new HashSet<>(changedCars);
+        for (Integer maintainId : maintains) {
+            Integer carId = carByMaintainId.get(maintainId);
+            if (carId != null) {
+                cars.add(carId);
+            }
+        }
+        for (Integer rentId : rents) {
+            Integer carId = carByRentId.get(rentId);
+            if (carId != null) {
+                cars.add(carId);
+            }
+        }
+        if (!maintains.isEmpty()) {
+            cars.addAll(maintainInfoDAO.loadCarIdsByMaintainIds(maintains));
+        }
+        if (!rents.isEmpty()) {
+            cars.addAll(rentInfoDAO.loadCarIdsByRentIds(rents));
+        }
+        if (cars.isEmpty()) {
+            return;
+        }
+        List<Booking> current = rentInfoDAO.loadActiveRentBookings(cars);
+        current.addAll(maintainInfoDAO.loadOpenMaintainBookings(cars));
+
+        Map<Integer, List<Booking>> bookings = group(current);
+        Map<Integer, TreeMap<LocalDate, LocalDate>> busy = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<Integer, List<Booking>> entry : bookings.entrySet()) {
+            busy.put(entry.getKey(), merge(entry.getValue(), today));
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Integer carId : cars) {
+                List<Booking> old = bookingsByCar.remove(carId);
+                if (old != null) {
+                    for (Booking booking : old) {
+                        (Booking.MAINTAIN.equals(booking.getType()) ? carByMaintainId : carByRentId)
+                                .remove(booking.getSourceId());
+                    }
+                }
+                busyByCar.remove(carId);
+            }
+            bookingsByCar.putAll(bookings);
+            busyByCar.putAll(busy);
+            for (Booking booking : current) {
+                (Booking.MAINTAIN.equals(booking.getType()) ? carByMaintainId : carByRentId)
+                        .put(booking.getSourceId(), booking.getCarId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按车辆分组，每辆车的占用时段按开始日期排序
+     */
+    private static Map<Integer, List<Booking>> group(Collection<Booking> bookings) {
+        Map<Integer, List<Booking>> byCar = new HashMap<>();
+        for (Booking booking : bookings) {
+            byCar.computeIfAbsent(booking.getCarId(), k -> new ArrayList<>()).add(booking);
+        }
+        for (List<Booking> list : byCar.values()) {
+            list.sort(Comparator.comparing(Booking::getStart));
+        }
+        return byCar;
+    }
+
+    /**
+     * 将按开始日期排序的占用时段中重叠或相接的合并为一段
+     */
+    private static TreeMap<LocalDate, LocalDate> merge(List<Booking> bookings, LocalDate today) {
+        TreeMap<LocalDate, LocalDate> busy = new TreeMap<>();
+        LocalDate start = null;
+        LocalDate end = null;
+        for (Booking booking : bookings) {
+            LocalDate bookingEnd = endOf(booking, today);
+            if (start != null && !booking.getStart().isAfter(end)) {
+                if (bookingEnd.isAfter(end)) {
+                    end = bookingEnd;
+                }
+                continue;
+            }
+            if (start != null) {
+                busy.put(start, end);
+            }
+            start = booking.getStart();
+            end = bookingEnd;
+        }
+        busy.put(start, end);
+
+        // 结束日期不晚于开始日期的空时段不构成占用
+        for (Iterator<Map.Entry<LocalDate, LocalDate>> it = busy.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<LocalDate, LocalDate> entry = it.next();
+            if (!entry.getValue().isAfter(entry.getKey())) {
+                it.remove();
+            }
+        }
+        return busy;
+    }
+
+    private static LocalDate endOf(Booking booking, LocalDate today) {
+        LocalDate end = booking.getEnd();
+        if (end == null) {
+            return LocalDate.MAX;
+        }
+        if (Booking.RENT.equals(booking.getType()) && !end.isAfter(today)) {
+            // 逾期未还，何时可用未知
+            return LocalDate.MAX;
+        }
+        return end;
+    }
+}
@@ -4,8 +4,8 @@ import com.carrental.dao.CarDAO;
 import com.carrental.dao.RentInformationDAO;
 import com.carrental.entity.Car;
 import com.carrental.entity.RentInformation;
+import com.carrental.util.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -85,6 +85,24 @@ public class CarService {
         return carDAO.getCarById(carId);
     }
 
+    /**
+     * 根据ID查询车辆（不含照片），用于只展示信息的场景
+     * @param carId 车辆ID
+     * @return 车辆对象
+     */
+    public Car getCarSummaryById(int carId) {
+        return carDAO.getCarSummaryById(carId);
+    }
+
+    /**
+     * 查询车辆照片
+     * @param carId 车辆ID
+     * @return 照片数据，没有照片时返回null
+     */
+    public byte[] getCarPhoto(int carId) {
+        return carDAO.getCarPhoto(carId);
+    }
+
     /**
      * 查询所有车辆
      * @return 车辆列表
@@ -101,6 +119,16 @@ public class CarService {
         return carDAO.getCarsByStatus("空闲");
     }
 
+    /**
+     * 查询在指定日期范围内可以出租的车辆：状态为空闲，且没有与该范围重叠的维修安排
+     * @param from 租借日期
+     * @param to 归还日期
+     * @return 车辆列表
+     */
+    public List<Car> getAvailableCars(LocalDate from, LocalDate to) {
+        return AvailabilityIndex.getInstance().findAvailableCars(from, to, "空闲", null, null);
+    }
+
     /**
      * 根据品牌查询车辆
      * @param brand 品牌
@@ -116,10 +144,18 @@ public class CarService {
      * @return 车辆列表
      */
     public List<Car> getCarsByModel(String model) {
-        List<Car> allCars = carDAO.getAllCars();
-        return allCars.stream()
-                .filter(car -> car.getModel().equals(model))
-                .collect(java.util.stream.Collectors.toList());
+        return FleetIndex.getInstance().findByModel(model);
+    }
+
+    /**
+     * 在内存索引中搜索车辆
+     * @param text 车牌号、品牌或型号中包含的文字，空表示不限
+     * @param status 状态，"全部"表示不限
+     * @param brand 品牌，"全部"表示不限
+     * @return 车辆列表
+     */
+    public List<Car> searchCars(String text, String status, String brand) {
+        return FleetIndex.getInstance().search(text, status, brand);
     }
 
     /**
@@ -129,12 +165,7 @@ public class CarService {
      * @return 是否更新成功
      */
     public boolean updateCarStatus(int carId, String status) {
-        Car car = carDAO.getCarById(carId);
-        if (car != null) {
-            car.setStatus(status);
-            return carDAO.updateCar(car);
-        }
-        return false;
+        return carDAO.updateCarStatus(carId, status);
     }
 
     /**
@@ -144,10 +175,10 @@ public class CarService {
      * @param returnDate 归还日期
      * @return 租金金额
      */
-    public BigDecimal calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
+    public Money calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
         if (rentDate.isAfter(returnDate)) {
             System.err.println("租借日期不能晚于归还日期");
-            return BigDecimal.ZERO;
+            return Money.ZERO;
         }
         
         return rentInfoDAO.calculateRent(carId, rentDate, returnDate);
@@ -174,11 +205,16 @@ public class CarService {
             return false;
         }
         
-        if (car.getRent() == null || car.getRent().compareTo(BigDecimal.ZERO) <= 0) {
+        if (car.getRent() == null || car.getRent().signum() <= 0) {
             System.err.println("日租金必须大于0");
             return false;
         }
         
+        if (car.getDeposit() != null && car.getDeposit().signum() < 0) {
+            System.err.println("押金不能为负数");
+            return false;
+        }
+        
         if (car.getPurchaseDate() == null || car.getPurchaseDate().isAfter(LocalDate.now())) {
             System.err.println("购买日期不能为空或晚于当前日期");
             return false;
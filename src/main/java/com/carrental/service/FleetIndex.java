@@ -0,0 +1,392 @@
+package com.carrental.service;
+
+import com.carrental.dao.CarDAO;
+import com.carrental.dao.DataChangeBus;
+import com.carrental.entity.Car;
+import com.carrental.util.AppConfig;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 车辆内存索引
+ * 全部车辆（不含照片）加载到内存后，车牌号、品牌、型号按长度1到3的子串建倒排表，
+ * 状态、品牌、型号按取值建位图，搜索不访问数据库
+ * 本进程内的车辆写入通过DataChangeBus通知，下次搜索前批量重新读取变化的车辆；
+ * 其他客户端的修改在定期全量重建后可见
+ */
+public final class FleetIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final CarDAO carDAO;
+    private final long rebuildIntervalNanos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下字段受lock保护
+    private final Map<Integer, Integer> slotByCarId = new HashMap<>();
+    private final List<Car> cars = new ArrayList<>();
+    private final List<String[]> searchFields = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+    private final Map<String, BitSet> byBrand = new HashMap<>();
+    private final Map<String, BitSet> byModel = new HashMap<>();
+    private boolean loaded;
+    private long builtAt;
+
+    // 等待重新读取的车辆ID，写入线程只往这里记录
+    private final Set<Integer> pending = Collections.synchronizedSet(new HashSet<>());
+
+    private FleetIndex() {
+        carDAO = new CarDAO();
+        rebuildIntervalNanos = AppConfig.getLong("fleetIndex.rebuildSeconds", 300) * 1_000_000_000L;
+        DataChangeBus.subscribe((table, id) -> {
+            if (DataChangeBus.CAR.equals(table)) {
+                pending.add(id);
+            }
+        });
+    }
+
+    private FleetIndex(Collection<Car> allCars) {
+        // 独立索引从不过期，也没有变更通知，不会访问数据库
+        carDAO = null;
+        rebuildIntervalNanos = Long.MAX_VALUE;
+        rebuild(new ArrayList<>(allCars));
+    }
+
+    public static FleetIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 用给定的车辆构建独立的索引，不访问数据库，也不接收变更通知，用于基准测试
+     * @param allCars 车辆
+     * @return 新索引
+     */
+    public static FleetIndex of(Collection<Car> allCars) {
+        return new FleetIndex(allCars);
+    }
+
+    /**
+     * 搜索车辆
+     * @param text 车牌号、品牌或型号中包含的文字，空表示不限
+     * @param status 状态，null或"全部"表示不限
+     * @param brand 品牌，null或"全部"表示不限
+     * @return 按车辆ID排序的车辆列表（副本）
+     */
+    public List<Car> search(String text, String status, String brand) {
+        return search(text, status, brand, null);
+    }
+
+    /**
+     * 搜索车辆
+     * @param text 车牌号、品牌或型号中包含的文字，空表示不限
+     * @param status 状态，null或"全部"表示不限
+     * @param brand 品牌，null或"全部"表示不限
+     * @param model 型号（精确匹配），null或"全部"表示不限
+     * @return 按车辆ID排序的车辆列表（副本）
+     */
+    public List<Car> search(String text, String status, String brand, String model) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            BitSet filter = (BitSet) live.clone();
+            if (!isAll(status) && !and(filter, byStatus.get(status))) {
+                return new ArrayList<>();
+            }
+            if (!isAll(brand) && !and(filter, byBrand.get(brand))) {
+                return new ArrayList<>();
+            }
+            if (!isAll(model) && !and(filter, byModel.get(model))) {
+                return new ArrayList<>();
+            }
+
+            String needle = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+            List<Car> result = new ArrayList<>();
+            if (needle.isEmpty()) {
+                for (int slot = filter.nextSetBit(0); slot >= 0; slot = filter.nextSetBit(slot + 1)) {
+                    result.add(new Car(cars.get(slot)));
+                }
+            } else {
+                Postings candidates = rarestPostings(needle);
+                if (candidates == null) {
+                    return result;
+                }
+                for (int i = 0; i < candidates.size; i++) {
+                    int slot = candidates.slots[i];
+                    if (filter.get(slot) && matches(searchFields.get(slot), needle)) {
+                        result.add(new Car(cars.get(slot)));
+                    }
+                }
+            }
+            result.sort(Comparator.comparingInt(Car::getCarId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按型号精确查询
+     * @param model 型号
+     * @return 按车辆ID排序的车辆列表（副本）
+     */
+    public List<Car> findByModel(String model) {
+        return search(null, null, null, model);
+    }
+
+    /**
+     * 丢弃索引，下次搜索时全量重建
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 首次使用或到期时全量构建，否则只重新读取有变化的车辆
+     * 查询失败时保留原有索引：全量构建失败不标记为已加载，下次搜索再试；
+     * 增量读取失败时把车辆ID放回pending，旧数据继续可搜
+     */
+    private void ensureCurrent() {
+        lock.readLock().lock();
+        try {
+            if (loaded && pending.isEmpty() && System.nanoTime() - builtAt < rebuildIntervalNanos) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!loaded || System.nanoTime() - builtAt >= rebuildIntervalNanos) {
+                List<Integer> drained = drainPending();
+                try {
+                    rebuild(carDAO.loadAllCars());
+                } catch (SQLException e) {
+                    pending.addAll(drained);
+                    System.err.println("车辆索引构建失败: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            } else if (!pending.isEmpty()) {
+                List<Integer> changed = drainPending();
+                Map<Integer, Car> current;
+                try {
+                    current = carDAO.loadCarsByIds(changed);
+                } catch (SQLException e) {
+                    pending.addAll(changed);
+                    System.err.println("车辆索引更新失败: " + e.getMessage());
+                    e.printStackTrace();
+                    return;
+                }
+                for (Integer carId : changed) {
+                    remove(carId);
+                    Car car = current.get(carId);
+                    if (car != null) {
+                        add(car);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Integer> drainPending() {
+        synchronized (pending) {
+            List<Integer> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        }
+    }
+
+    private void rebuild(List<Car> allCars) {
+        slotByCarId.clear();
+        cars.clear();
+        searchFields.clear();
+        freeSlots.clear();
+        live.clear();
+        grams.clear();
+        byStatus.clear();
+        byBrand.clear();
+        byModel.clear();
+        for (Car car : allCars) {
+            add(car);
+        }
+        loaded = true;
+        builtAt = System.nanoTime();
+    }
+
+    private void add(Car car) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = cars.size();
+            cars.add(car);
+            searchFields.add(null);
+        } else {
+            slot = freeSlots.poll();
+            cars.set(slot, car);
+        }
+        String[] fields = {lower(car.getLicensePlateNumber()), lower(car.getBrand()), lower(car.getModel())};
+        searchFields.set(slot, fields);
+        slotByCarId.put(car.getCarId(), slot);
+        live.set(slot);
+
+        for (String gram : gramsOf(fields)) {
+            grams.computeIfAbsent(gram, k -> new Postings()).add(slot);
+        }
+        bitmap(byStatus, car.getStatus()).set(slot);
+        bitmap(byBrand, car.getBrand()).set(slot);
+        bitmap(byModel, car.getModel()).set(slot);
+    }
+
+    private void remove(int carId) {
+        Integer slot = slotByCarId.remove(carId);
+        if (slot == null) {
+            return;
+        }
+        Car car = cars.get(slot);
+        for (String gram : gramsOf(searchFields.get(slot))) {
+            Postings postings = grams.get(gram);
+            if (postings != null && postings.remove(slot) && postings.size == 0) {
+                grams.remove(gram);
+            }
+        }
+        clear(byStatus, car.getStatus(), slot);
+        clear(byBrand, car.getBrand(), slot);
+        clear(byModel, car.getModel(), slot);
+        live.clear(slot);
+        cars.set(slot, null);
+        searchFields.set(slot, null);
+        freeSlots.add(slot);
+    }
+
+    /**
+     * 搜索词的所有子串中倒排表最短的一个作为候选集，再逐个核对
+     * @return 候选倒排表，某个子串不存在时返回null
+     */
+    private Postings rarestPostings(String needle) {
+        if (needle.length() <= GRAM_LENGTH) {
+            return grams.get(needle);
+        }
+        Postings rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            Postings postings = grams.get(needle.substring(i, i + GRAM_LENGTH));
+            if (postings == null) {
+                return null;
+            }
+            if (rarest == null || postings.size < rarest.size) {
+                rarest = postings;
+            }
+        }
+        return rarest;
+    }
+
+    private static Set<String> gramsOf(String[] fields) {
+        Set<String> result = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                for (int n = 1; n <= GRAM_LENGTH && i + n <= field.length(); n++) {
+                    result.add(field.substring(i, i + n));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(String[] fields, String needle) {
+        for (String field : fields) {
+            if (field.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean and(BitSet filter, BitSet other) {
+        if (other == null) {
+            return false;
+        }
+        filter.and(other);
+        return true;
+    }
+
+    private static BitSet bitmap(Map<String, BitSet> index, String value) {
+        return index.computeIfAbsent(value == null ? "" : value, k -> new BitSet());
+    }
+
+    private static void clear(Map<String, BitSet> index, String value, int slot) {
+        String key = value == null ? "" : value;
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static boolean isAll(String value) {
+        return value == null || "全部".equals(value);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // 首次使用共享索引时才创建，只用独立索引时不连接数据库
+    private static final class Holder {
+        private static final FleetIndex INSTANCE = new FleetIndex();
+    }
+
+    /**
+     * 有序的槽位列表
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+            slots[pos] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -1,17 +1,14 @@
 package com.carrental.service;
 
 import com.carrental.dao.RentInformationDAO;
-import com.carrental.dao.CarDAO;
-import com.carrental.dao.UserDAO;
-import com.carrental.dao.StaffDAO;
 import com.carrental.entity.RentInformation;
-import com.carrental.entity.Car;
-import com.carrental.entity.User;
-import com.carrental.entity.Staff;
+import com.carrental.entity.RentOutcome;
+import com.carrental.entity.RentView;
+import com.carrental.util.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 租车管理服务类
@@ -19,99 +16,42 @@ import java.util.List;
  */
 public class RentService {
     private RentInformationDAO rentInfoDAO;
-    private CarDAO carDAO;
-    private UserDAO userDAO;
-    private StaffDAO staffDAO;
 
     public RentService() {
         this.rentInfoDAO = new RentInformationDAO();
-        this.carDAO = new CarDAO();
-        this.userDAO = new UserDAO();
-        this.staffDAO = new StaffDAO();
     }
 
     /**
      * 租车
+     * 日期校验和租车、维修安排的时段检查在事务开始前由内存索引完成，
+     * 并发租车由数据库中车辆状态的条件更新判断，抢占车辆和写入租车信息在同一个数据库事务中完成
      * @param carId 车辆ID
      * @param userId 用户ID
      * @param staffId 员工ID
      * @param rentDate 租借日期
      * @param returnDate 归还日期
-     * @return 是否租车成功
+     * @return 操作结果，失败时说明具体原因
      */
-    public boolean rentCar(int carId, int userId, int staffId, LocalDate rentDate, LocalDate returnDate) {
-        // 验证租车信息
-        if (!validateRentInfo(carId, userId, staffId, rentDate, returnDate)) {
-            return false;
-        }
-        
-        // 检查车辆是否可用
-        Car car = carDAO.getCarById(carId);
-        if (car == null || !"空闲".equals(car.getStatus())) {
-            System.err.println("车辆不可用");
-            return false;
-        }
-        
-        // 计算租金
-        BigDecimal rentAmount = rentInfoDAO.calculateRent(carId, rentDate, returnDate);
-        if (rentAmount.compareTo(BigDecimal.ZERO) <= 0) {
-            System.err.println("租金计算错误");
-            return false;
+    public RentOutcome rentCar(int carId, int userId, int staffId, LocalDate rentDate, LocalDate returnDate) {
+        if (!validateRentDates(rentDate, returnDate)) {
+            return RentOutcome.INVALID_DATES;
         }
-        
-        // 创建租车信息
-        RentInformation rentInfo = new RentInformation();
-        rentInfo.setCarId(carId);
-        rentInfo.setUserId(userId);
-        rentInfo.setStaffId(staffId);
-        rentInfo.setRentDate(rentDate);
-        rentInfo.setReturnDate(returnDate);
-        rentInfo.setPayTheAmount(rentAmount);
-        rentInfo.setReturnAmount(BigDecimal.ZERO); // 初始退还金额为0
-        
-        // 添加租车信息
-        boolean success = rentInfoDAO.addRentInformation(rentInfo);
-        
-        if (success) {
-            // 更新车辆状态为已借出
-            carDAO.updateCarStatus(carId, "已借出");
+        if (!AvailabilityIndex.getInstance().isAvailable(carId, rentDate, returnDate)) {
+            return RentOutcome.SCHEDULE_CONFLICT;
         }
-        
-        return success;
+        return rentInfoDAO.rentCar(carId, userId, staffId, rentDate, returnDate);
     }
 
     /**
      * 还车
+     * 退还金额 = 支付金额 - 实际租金 - 损坏费用，与车辆状态在同一个数据库事务中更新
      * @param rentId 租车信息ID
      * @param actualReturnDate 实际归还日期
      * @param damageCost 损坏费用
-     * @return 是否还车成功
+     * @return 操作结果，失败时说明具体原因
      */
-    public boolean returnCar(int rentId, LocalDate actualReturnDate, BigDecimal damageCost) {
-        RentInformation rentInfo = rentInfoDAO.getRentInformationById(rentId);
-        if (rentInfo == null) {
-            System.err.println("租车信息不存在");
-            return false;
-        }
-        
-        // 计算实际租金
-        BigDecimal actualRent = rentInfoDAO.calculateRent(rentInfo.getCarId(), rentInfo.getRentDate(), actualReturnDate);
-        
-        // 计算退还金额（支付金额 - 实际租金 - 损坏费用）
-        BigDecimal returnAmount = rentInfo.getPayTheAmount().subtract(actualRent).subtract(damageCost);
-        
-        // 更新租车信息
-        rentInfo.setReturnDate(actualReturnDate);
-        rentInfo.setReturnAmount(returnAmount);
-        
-        boolean success = rentInfoDAO.updateRentInformation(rentInfo);
-        
-        if (success) {
-            // 更新车辆状态为空闲
-            carDAO.updateCarStatus(rentInfo.getCarId(), "空闲");
-        }
-        
-        return success;
+    public RentOutcome returnCar(int rentId, LocalDate actualReturnDate, Money damageCost) {
+        return rentInfoDAO.returnCar(rentId, actualReturnDate, damageCost);
     }
 
     /**
@@ -122,6 +62,46 @@ public class RentService {
         return rentInfoDAO.getAllRentInformation();
     }
 
+    /**
+     * 根据ID查询租车信息
+     * @param rentId 租车信息ID
+     * @return 租车信息对象
+     */
+    public RentInformation getRentInformationById(int rentId) {
+        return rentInfoDAO.getRentInformationById(rentId);
+    }
+
+    /**
+     * 分页查询租车记录展示行
+     * @param status 状态筛选："全部"、"租借中"、"已归还"
+     * @param after 上一页最后一条记录，null表示第一页
+     * @param limit 每页条数
+     * @return 展示行列表
+     */
+    public List<RentView> getRentViewPage(String status, RentView after, int limit) {
+        return rentInfoDAO.getRentViewPage(status, after, limit);
+    }
+
+    /**
+     * 按偏移量查询租车记录展示行
+     * @param status 状态筛选
+     * @param offset 跳过的条数
+     * @param limit 每页条数
+     * @return 展示行列表
+     */
+    public List<RentView> getRentViewPageAt(String status, int offset, int limit) {
+        return rentInfoDAO.getRentViewPageAt(status, offset, limit);
+    }
+
+    /**
+     * 统计符合状态筛选的租车记录数
+     * @param status 状态筛选
+     * @return 记录数
+     */
+    public int countRentViews(String status) {
+        return rentInfoDAO.countRentViews(status);
+    }
+
     /**
      * 根据用户ID查询租车信息
      * @param userId 用户ID
@@ -154,10 +134,7 @@ public class RentService {
      * @return 租车信息列表
      */
     public List<RentInformation> getCurrentRentals() {
-        List<RentInformation> allRentals = rentInfoDAO.getAllRentInformation();
-        return allRentals.stream()
-                .filter(rent -> rent.getReturnDate() == null || rent.getReturnDate().isAfter(LocalDate.now()))
-                .collect(java.util.stream.Collectors.toList());
+        return rentInfoDAO.getCurrentRentals();
     }
 
     /**
@@ -167,10 +144,10 @@ public class RentService {
      * @param returnDate 归还日期
      * @return 租金金额
      */
-    public BigDecimal calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
+    public Money calculateRent(int carId, LocalDate rentDate, LocalDate returnDate) {
         if (rentDate.isAfter(returnDate)) {
             System.err.println("租借日期不能晚于归还日期");
-            return BigDecimal.ZERO;
+            return Money.ZERO;
         }
         
         return rentInfoDAO.calculateRent(carId, rentDate, returnDate);
@@ -180,56 +157,78 @@ public class RentService {
      * 计算总收益
      * @return 总收益
      */
-    public BigDecimal calculateTotalRevenue() {
-        List<RentInformation> allRentals = rentInfoDAO.getAllRentInformation();
-        return allRentals.stream()
-                .filter(rent -> rent.getReturnDate() != null)
-                .map(rent -> rent.getPayTheAmount().subtract(rent.getReturnAmount()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calculateTotalRevenue() {
+        return rentInfoDAO.getRevenue(null, null);
     }
 
     /**
-     * 验证租车信息
-     * @param carId 车辆ID
-     * @param userId 用户ID
-     * @param staffId 员工ID
+     * 计算指定期间的收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 收入合计
+     */
+    public Money calculateRevenue(LocalDate from, LocalDate to) {
+        return rentInfoDAO.getRevenue(from, to);
+    }
+
+    /**
+     * 按归还日期统计每日收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 日期到收入的有序映射
+     */
+    public Map<LocalDate, Money> getDailyRevenue(LocalDate from, LocalDate to) {
+        return rentInfoDAO.getDailyRevenue(from, to);
+    }
+
+    /**
+     * 按车辆统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 车辆ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByCar(LocalDate from, LocalDate to) {
+        return rentInfoDAO.getRevenueByCar(from, to);
+    }
+
+    /**
+     * 按经办员工统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 员工ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByStaff(LocalDate from, LocalDate to) {
+        return rentInfoDAO.getRevenueByStaff(from, to);
+    }
+
+    /**
+     * 按用户统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 用户ID到收入的映射
+     */
+    public Map<Integer, Money> getRevenueByUser(LocalDate from, LocalDate to) {
+        return rentInfoDAO.getRevenueByUser(from, to);
+    }
+
+    /**
+     * 验证租车日期
+     * 租金按天计算，归还日期必须晚于租借日期
      * @param rentDate 租借日期
      * @param returnDate 归还日期
      * @return 是否有效
      */
-    private boolean validateRentInfo(int carId, int userId, int staffId, LocalDate rentDate, LocalDate returnDate) {
-        // 检查车辆是否存在
-        Car car = carDAO.getCarById(carId);
-        if (car == null) {
-            System.err.println("车辆不存在");
-            return false;
-        }
-        
-        // 检查用户是否存在
-        User user = userDAO.getUserById(userId);
-        if (user == null) {
-            System.err.println("用户不存在");
-            return false;
-        }
-        
-        // 检查员工是否存在
-        Staff staff = staffDAO.getStaffById(staffId);
-        if (staff == null) {
-            System.err.println("员工不存在");
-            return false;
-        }
-        
-        // 检查日期
+    private boolean validateRentDates(LocalDate rentDate, LocalDate returnDate) {
         if (rentDate.isBefore(LocalDate.now())) {
             System.err.println("租借日期不能早于当前日期");
             return false;
         }
-        
-        if (rentDate.isAfter(returnDate)) {
-            System.err.println("租借日期不能晚于归还日期");
+
+        if (!returnDate.isAfter(rentDate)) {
+            System.err.println("归还日期必须晚于租借日期");
             return false;
         }
-        
+
         return true;
     }
 }
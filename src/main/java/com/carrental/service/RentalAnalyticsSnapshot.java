@@ -0,0 +1,778 @@
+package com.carrental.service;
+
+import com.carrental.dao.DataChangeBus;
+import com.carrental.dao.MaintainInformationDAO;
+import com.carrental.dao.RentInformationDAO;
+import com.carrental.dao.TrafficFineDAO;
+import com.carrental.util.AppConfig;
+import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 租车分析快照
+ * 租车、违章、维修记录按列存放在基本类型数组中：ID用int，日期用距1970-01-01的天数，金额用以分为单位的long，
+ * 车辆、用户、员工ID再编码为连续的序号，分组汇总直接用数组下标累加，按块并行执行后合并
+ * 首次使用时全量读取一次，之后每隔几秒检查并追加新记录；本进程内的修改和删除通过DataChangeBus通知后按ID重新读取，
+ * 其他客户端的修改和删除在定期全量重建后可见
+ */
+public final class RentalAnalyticsSnapshot {
+    private static final RentalAnalyticsSnapshot INSTANCE = new RentalAnalyticsSnapshot();
+
+    // 并行汇总时每块的行数
+    private static final int CHUNK = 1 << 16;
+    // 归还日期为空
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int IN_BATCH = 500;
+
+    private static final String RENT_COLUMNS =
+            "SELECT rent_id, car_id, user_id, staff_id, rent_date, return_date, pay_the_amount, return_amount "
+            + "FROM rent_information";
+    private static final String FINE_COLUMNS =
+            "SELECT fine_id, car_id, user_id, violation_date, fine, fine_state FROM traffic_fine";
+    private static final String MAINTAIN_COLUMNS =
+            "SELECT maintain_id, car_id, maintain_data, maimtain_cost FROM maintain_information";
+
+    private final DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+    private final RentInformationDAO rentInfoDAO = new RentInformationDAO();
+    private final TrafficFineDAO fineDAO = new TrafficFineDAO();
+    private final MaintainInformationDAO maintainInfoDAO = new MaintainInformationDAO();
+    private final long rebuildIntervalNanos =
+            AppConfig.getLong("analytics.rebuildSeconds", 600) * 1_000_000_000L;
+    private final long appendCheckNanos =
+            AppConfig.getLong("analytics.appendCheckSeconds", 5) * 1_000_000_000L;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下字段受lock保护
+    private Codes cars = new Codes();
+    private Codes users = new Codes();
+    private Codes staff = new Codes();
+    private Rentals rentals = new Rentals();
+    private Fines fines = new Fines();
+    private Maintains maintains = new Maintains();
+    private boolean loaded;
+    private long builtAt;
+    // 上一次检查新记录的时间，在读锁下更新
+    private volatile long checkedAt;
+
+    // 等待重新读取的记录ID，写入线程只往这里记录
+    private final Set<Integer> pendingRentals = Collections.synchronizedSet(new HashSet<>());
+    private final Set<Integer> pendingFines = Collections.synchronizedSet(new HashSet<>());
+    private final Set<Integer> pendingMaintains = Collections.synchronizedSet(new HashSet<>());
+
+    private RentalAnalyticsSnapshot() {
+        DataChangeBus.subscribe((table, id) -> {
+            if (DataChangeBus.RENT.equals(table)) {
+                pendingRentals.add(id);
+            } else if (DataChangeBus.FINE.equals(table)) {
+                pendingFines.add(id);
+            } else if (DataChangeBus.MAINTAIN.equals(table)) {
+                pendingMaintains.add(id);
+            }
+        });
+    }
+
+    public static RentalAnalyticsSnapshot getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 租车金额统计：记录数、支付总额、平均值和百分位数
+     * @return 统计结果
+     */
+    public RentalStats getRentalStats() {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            Rentals r = rentals;
+            long[] amounts = new long[r.size];
+            int count = 0;
+            for (int i = 0; i < r.size; i++) {
+                if (!r.deleted.get(i)) {
+                    amounts[count++] = r.paid[i];
+                }
+            }
+            amounts = Arrays.copyOf(amounts, count);
+            Arrays.parallelSort(amounts);
+            long total = Arrays.stream(amounts).parallel().sum();
+            return new RentalStats(count, total, percentile(amounts, 50), percentile(amounts, 90), percentile(amounts, 99));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按车辆统计收入（支付金额减退还金额，只计已有归还日期的记录）
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 车辆ID到收入（分）的映射，按收入从高到低排列
+     */
+    public Map<Integer, Long> revenueByCar(LocalDate from, LocalDate to) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            Rentals r = rentals;
+            return revenueBy(r.car, cars, r, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按经办员工统计收入
+     * @param from 归还日期起（含），null表示不限
+     * @param to 归还日期止（不含），null表示不限
+     * @return 员工ID到收入（分）的映射，按收入从高到低排列
+     */
+    public Map<Integer, Long> revenueByStaff(LocalDate from, LocalDate to) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            Rentals r = rentals;
+            return revenueBy(r.staff, staff, r, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按归还日期统计每日收入
+     * @param from 归还日期起（含）
+     * @param to 归还日期止（不含）
+     * @return 日期到收入（分）的有序映射，没有收入的日期不出现
+     */
+    public Map<LocalDate, Long> revenueByDay(LocalDate from, LocalDate to) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            Rentals r = rentals;
+            int fromDay = (int) from.toEpochDay();
+            int days = (int) (to.toEpochDay() - from.toEpochDay());
+            if (days <= 0) {
+                return new LinkedHashMap<>();
+            }
+            long[][] sums = aggregate(r.size, days, (lo, hi, part) -> {
+                for (int i = lo; i < hi; i++) {
+                    int offset = r.returnDay[i] - fromDay;
+                    if (r.returnDay[i] != NO_DAY && offset >= 0 && offset < days && !r.deleted.get(i)) {
+                        part[0][offset] += r.paid[i] - r.refunded[i];
+                        part[1][offset]++;
+                    }
+                }
+            });
+            Map<LocalDate, Long> result = new LinkedHashMap<>();
+            for (int d = 0; d < days; d++) {
+                if (sums[1][d] > 0) {
+                    result.put(LocalDate.ofEpochDay(fromDay + d), sums[0][d]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 维修和违章费用统计
+     * @return 统计结果
+     */
+    public CostStats getCostStats() {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            Maintains m = maintains;
+            Fines f = fines;
+            long[][] maintainSum = aggregate(m.size, 1, (lo, hi, part) -> {
+                for (int i = lo; i < hi; i++) {
+                    if (!m.deleted.get(i)) {
+                        part[0][0] += m.cost[i];
+                        part[1][0]++;
+                    }
+                }
+            });
+            // 第0组为全部罚款，第1组为未交罚款
+            long[][] fineSum = aggregate(f.size, 2, (lo, hi, part) -> {
+                for (int i = lo; i < hi; i++) {
+                    if (!f.deleted.get(i)) {
+                        part[0][0] += f.amount[i];
+                        part[1][0]++;
+                        if (f.unpaid.get(i)) {
+                            part[0][1] += f.amount[i];
+                            part[1][1]++;
+                        }
+                    }
+                }
+            });
+            return new CostStats((int) maintainSum[1][0], maintainSum[0][0],
+                    (int) fineSum[1][0], fineSum[0][0], (int) fineSum[1][1], fineSum[0][1]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 丢弃快照，下次使用时全量重建
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Integer, Long> revenueBy(int[] codes, Codes dictionary, Rentals r, LocalDate from, LocalDate to) {
+        int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE + 1;
+        int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+        long[][] sums = aggregate(r.size, dictionary.size(), (lo, hi, part) -> {
+            for (int i = lo; i < hi; i++) {
+                int day = r.returnDay[i];
+                if (day != NO_DAY && day >= fromDay && day < toDay && !r.deleted.get(i)) {
+                    part[0][codes[i]] += r.paid[i] - r.refunded[i];
+                    part[1][codes[i]]++;
+                }
+            }
+        });
+        List<Integer> order = new ArrayList<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            if (sums[1][code] > 0) {
+                order.add(code);
+            }
+        }
+        order.sort((a, b) -> Long.compare(sums[0][b], sums[0][a]));
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        for (int code : order) {
+            result.put(dictionary.idOf(code), sums[0][code]);
+        }
+        return result;
+    }
+
+    /**
+     * 按块并行汇总，每块使用自己的累加数组，最后相加
+     * @param rows 行数
+     * @param groups 分组数
+     * @param chunk 处理[lo, hi)行，累加到part[0]（金额）和part[1]（行数）
+     * @return 合并后的{金额, 行数}
+     */
+    private static long[][] aggregate(int rows, int groups, ChunkAggregator chunk) {
+        int chunks = (rows + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    long[][] part = new long[2][groups];
+                    chunk.accumulate(c * CHUNK, Math.min(rows, (c + 1) * CHUNK), part);
+                    return part;
+                })
+                .reduce(new long[2][groups], (a, b) -> {
+                    long[][] merged = new long[2][groups];
+                    for (int g = 0; g < groups; g++) {
+                        merged[0][g] = a[0][g] + b[0][g];
+                        merged[1][g] = a[1][g] + b[1][g];
+                    }
+                    return merged;
+                });
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // 最近秩法
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * 首次使用或到期时全量读取，否则追加新记录并重新读取有变化的记录
+     * 全量读取写入新建的列，全部成功后才一次替换，失败时保留原有快照；重新读取失败时把ID放回待读取集合
+     * 追加由各DAO的扫描自行借用连接，只有重新读取变化的记录时才另外借用一个连接
+     */
+    private void ensureCurrent() {
+        lock.readLock().lock();
+        try {
+            if (loaded && pendingRentals.isEmpty() && pendingFines.isEmpty() && pendingMaintains.isEmpty()
+                    && System.nanoTime() - builtAt < rebuildIntervalNanos) {
+                // 新增的记录隔一段时间检查一次，没有新记录就不必取写锁
+                long now = System.nanoTime();
+                if (now - checkedAt < appendCheckNanos) {
+                    return;
+                }
+                checkedAt = now;
+                if (!hasNewRows()) {
+                    return;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Integer> rentIds = drain(pendingRentals);
+            List<Integer> fineIds = drain(pendingFines);
+            List<Integer> maintainIds = drain(pendingMaintains);
+            try {
+                if (!loaded || System.nanoTime() - builtAt >= rebuildIntervalNanos) {
+                    Codes newCars = new Codes();
+                    Codes newUsers = new Codes();
+                    Codes newStaff = new Codes();
+                    Rentals newRentals = new Rentals();
+                    Fines newFines = new Fines();
+                    Maintains newMaintains = new Maintains();
+                    appendAll(newCars, newUsers, newStaff, newRentals, newFines, newMaintains);
+                    cars = newCars;
+                    users = newUsers;
+                    staff = newStaff;
+                    rentals = newRentals;
+                    fines = newFines;
+                    maintains = newMaintains;
+                    loaded = true;
+                    builtAt = System.nanoTime();
+                } else {
+                    // 追加到一半失败时已追加的行都是完整记录，下次从最大ID继续
+                    appendAll(cars, users, staff, rentals, fines, maintains);
+                    if (!rentIds.isEmpty() || !fineIds.isEmpty() || !maintainIds.isEmpty()) {
+                        try (Connection conn = dbConnection.getConnection()) {
+                            reloadRentals(conn, rentIds);
+                            reloadFines(conn, fineIds);
+                            reloadMaintains(conn, maintainIds);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                pendingRentals.addAll(rentIds);
+                pendingFines.addAll(fineIds);
+                pendingMaintains.addAll(maintainIds);
+                System.err.println("加载租车分析快照失败: " + e.getMessage());
+                e.printStackTrace();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 是否有比快照中最大ID更大的记录
+     */
+    private boolean hasNewRows() {
+        String sql = "SELECT (SELECT MAX(rent_id) FROM rent_information) > ? "
+                + "OR (SELECT MAX(fine_id) FROM traffic_fine) > ? "
+                + "OR (SELECT MAX(maintain_id) FROM maintain_information) > ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, rentals.lastId());
+            pstmt.setInt(2, fines.lastId());
+            pstmt.setInt(3, maintains.lastId());
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException e) {
+            System.err.println("检查租车分析快照失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 追加ID大于列中最大ID的记录，由各DAO按服务器端游标逐行扫描，不在内存中缓存结果集
+     * 全量读取时传入新建的列，增量追加时传入当前快照的列
+     */
+    private void appendAll(Codes cars, Codes users, Codes staff,
+                           Rentals rentals, Fines fines, Maintains maintains) throws SQLException {
+        long rentRows = rentInfoDAO.forEachRental(rentals.lastId(), row -> {
+            int i = rentals.append();
+            Rentals r = rentals;
+            r.id[i] = row.getRentId();
+            r.car[i] = cars.codeOf(row.getCarId());
+            r.user[i] = users.codeOf(row.getUserId());
+            r.staff[i] = staff.codeOf(row.getStaffId());
+            r.rentDay[i] = row.getRentDay();
+            r.returnDay[i] = row.getReturnDay();
+            r.paid[i] = row.getPayCents();
+            r.refunded[i] = row.getReturnCents();
+        });
+        long fineRows = fineDAO.forEachFine(fines.lastId(), row -> {
+            int i = fines.append();
+            Fines f = fines;
+            f.id[i] = row.getFineId();
+            f.car[i] = cars.codeOf(row.getCarId());
+            f.user[i] = users.codeOf(row.getUserId());
+            f.day[i] = row.getViolationDay();
+            f.amount[i] = row.getFineCents();
+            f.unpaid.set(i, "未交".equals(row.getFineState()));
+        });
+        long maintainRows = maintainInfoDAO.forEachMaintain(maintains.lastId(), row -> {
+            int i = maintains.append();
+            Maintains m = maintains;
+            m.id[i] = row.getMaintainId();
+            m.car[i] = cars.codeOf(row.getCarId());
+            m.day[i] = row.getMaintainDay();
+            m.cost[i] = row.getCostCents();
+        });
+        if (rentRows < 0 || fineRows < 0 || maintainRows < 0) {
+            throw new SQLException("扫描租车、违章或维修记录失败");
+        }
+    }
+
+    private void reloadRentals(Connection conn, List<Integer> ids) throws SQLException {
+        for (List<Integer> batch : batches(ids)) {
+            Set<Integer> missing = new HashSet<>(batch);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    RENT_COLUMNS + " WHERE rent_id IN (" + placeholders(batch.size()) + ")")) {
+                setIds(pstmt, batch);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    int row = rentals.indexOf(rs.getInt(1));
+                    if (row >= 0) {
+                        missing.remove(rs.getInt(1));
+                        rentals.deleted.clear(row);
+                        setRental(row, rs);
+                    }
+                }
+            }
+            for (int id : missing) {
+                int row = rentals.indexOf(id);
+                if (row >= 0) {
+                    rentals.deleted.set(row);
+                }
+            }
+        }
+    }
+
+    private void reloadFines(Connection conn, List<Integer> ids) throws SQLException {
+        for (List<Integer> batch : batches(ids)) {
+            Set<Integer> missing = new HashSet<>(batch);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    FINE_COLUMNS + " WHERE fine_id IN (" + placeholders(batch.size()) + ")")) {
+                setIds(pstmt, batch);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    int row = fines.indexOf(rs.getInt(1));
+                    if (row >= 0) {
+                        missing.remove(rs.getInt(1));
+                        fines.deleted.clear(row);
+                        setFine(row, rs);
+                    }
+                }
+            }
+            for (int id : missing) {
+                int row = fines.indexOf(id);
+                if (row >= 0) {
+                    fines.deleted.set(row);
+                }
+            }
+        }
+    }
+
+    private void reloadMaintains(Connection conn, List<Integer> ids) throws SQLException {
+        for (List<Integer> batch : batches(ids)) {
+            Set<Integer> missing = new HashSet<>(batch);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    MAINTAIN_COLUMNS + " WHERE maintain_id IN (" + placeholders(batch.size()) + ")")) {
+                setIds(pstmt, batch);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    int row = maintains.indexOf(rs.getInt(1));
+                    if (row >= 0) {
+                        missing.remove(rs.getInt(1));
+                        maintains.deleted.clear(row);
+                        setMaintain(row, rs);
+                    }
+                }
+            }
+            for (int id : missing) {
+                int row = maintains.indexOf(id);
+                if (row >= 0) {
+                    maintains.deleted.set(row);
+                }
+            }
+        }
+    }
+
+    private void setRental(int row, ResultSet rs) throws SQLException {
+        Rentals r = rentals;
+        r.id[row] = rs.getInt(1);
+        r.car[row] = cars.codeOf(rs.getInt(2));
+        r.user[row] = users.codeOf(rs.getInt(3));
+        r.staff[row] = staff.codeOf(rs.getInt(4));
+        r.rentDay[row] = day(rs.getDate(5));
+        r.returnDay[row] = day(rs.getDate(6));
+        r.paid[row] = Money.readCents(rs, 7);
+        r.refunded[row] = Money.readCents(rs, 8);
+    }
+
+    private void setFine(int row, ResultSet rs) throws SQLException {
+        Fines f = fines;
+        f.id[row] = rs.getInt(1);
+        f.car[row] = cars.codeOf(rs.getInt(2));
+        f.user[row] = users.codeOf(rs.getInt(3));
+        f.day[row] = day(rs.getDate(4));
+        f.amount[row] = Money.readCents(rs, 5);
+        f.unpaid.set(row, "未交".equals(rs.getString(6)));
+    }
+
+    private void setMaintain(int row, ResultSet rs) throws SQLException {
+        Maintains m = maintains;
+        m.id[row] = rs.getInt(1);
+        m.car[row] = cars.codeOf(rs.getInt(2));
+        m.day[row] = day(rs.getDate(3));
+        m.cost[row] = Money.readCents(rs, 4);
+    }
+
+    private static int day(Date date) {
+        return date != null ? (int) date.toLocalDate().toEpochDay() : NO_DAY;
+    }
+
+    private static List<Integer> drain(Set<Integer> pending) {
+        synchronized (pending) {
+            List<Integer> ids = new ArrayList<>(pending);
+            pending.clear();
+            return ids;
+        }
+    }
+
+    private static List<List<Integer>> batches(List<Integer> ids) {
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_BATCH) {
+            batches.add(ids.subList(i, Math.min(ids.size(), i + IN_BATCH)));
+        }
+        return batches;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    private static void setIds(PreparedStatement pstmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            pstmt.setInt(i + 1, ids.get(i));
+        }
+    }
+
+    /**
+     * 处理一块行的汇总
+     */
+    private interface ChunkAggregator {
+        void accumulate(int lo, int hi, long[][] part);
+    }
+
+    /**
+     * ID与连续序号的双向映射
+     */
+    private static final class Codes {
+        private final Map<Integer, Integer> codes = new HashMap<>();
+        private int[] ids = new int[64];
+
+        int codeOf(int id) {
+            Integer code = codes.get(id);
+            if (code == null) {
+                code = codes.size();
+                if (code == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[code] = id;
+                codes.put(id, code);
+            }
+            return code;
+        }
+
+        int idOf(int code) {
+            return ids[code];
+        }
+
+        int size() {
+            return codes.size();
+        }
+    }
+
+    /**
+     * 按ID升序追加的列，ID可二分查找
+     */
+    private abstract static class Columns {
+        int size;
+        int[] id = new int[1024];
+        final BitSet deleted = new BitSet();
+
+        int append() {
+            if (size == id.length) {
+                grow(size * 2);
+            }
+            return size++;
+        }
+
+        int indexOf(int recordId) {
+            int row = Arrays.binarySearch(id, 0, size, recordId);
+            return row >= 0 ? row : -1;
+        }
+
+        int lastId() {
+            return size > 0 ? id[size - 1] : 0;
+        }
+
+        void grow(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+        }
+    }
+
+    private static final class Rentals extends Columns {
+        int[] car = new int[1024];
+        int[] user = new int[1024];
+        int[] staff = new int[1024];
+        int[] rentDay = new int[1024];
+        int[] returnDay = new int[1024];
+        long[] paid = new long[1024];
+        long[] refunded = new long[1024];
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            car = Arrays.copyOf(car, capacity);
+            user = Arrays.copyOf(user, capacity);
+            staff = Arrays.copyOf(staff, capacity);
+            rentDay = Arrays.copyOf(rentDay, capacity);
+            returnDay = Arrays.copyOf(returnDay, capacity);
+            paid = Arrays.copyOf(paid, capacity);
+            refunded = Arrays.copyOf(refunded, capacity);
+        }
+    }
+
+    private static final class Fines extends Columns {
+        int[] car = new int[1024];
+        int[] user = new int[1024];
+        int[] day = new int[1024];
+        long[] amount = new long[1024];
+        final BitSet unpaid = new BitSet();
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            car = Arrays.copyOf(car, capacity);
+            user = Arrays.copyOf(user, capacity);
+            day = Arrays.copyOf(day, capacity);
+            amount = Arrays.copyOf(amount, capacity);
+        }
+    }
+
+    private static final class Maintains extends Columns {
+        int[] car = new int[1024];
+        int[] day = new int[1024];
+        long[] cost = new long[1024];
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            car = Arrays.copyOf(car, capacity);
+            day = Arrays.copyOf(day, capacity);
+            cost = Arrays.copyOf(cost, capacity);
+        }
+    }
+
+    /**
+     * 租车金额统计结果，金额单位为分
+     */
+    public static final class RentalStats {
+        private final int count;
+        private final long totalCents;
+        private final long p50Cents;
+        private final long p90Cents;
+        private final long p99Cents;
+
+        RentalStats(int count, long totalCents, long p50Cents, long p90Cents, long p99Cents) {
+            this.count = count;
+            this.totalCents = totalCents;
+            this.p50Cents = p50Cents;
+            this.p90Cents = p90Cents;
+            this.p99Cents = p99Cents;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalCents() {
+            return totalCents;
+        }
+
+        public long getAverageCents() {
+            return count > 0 ? Math.round((double) totalCents / count) : 0;
+        }
+
+        public long getP50Cents() {
+            return p50Cents;
+        }
+
+        public long getP90Cents() {
+            return p90Cents;
+        }
+
+        public long getP99Cents() {
+            return p99Cents;
+        }
+    }
+
+    /**
+     * 维修和违章费用统计结果，金额单位为分
+     */
+    public static final class CostStats {
+        private final int maintainCount;
+        private final long maintainCents;
+        private final int fineCount;
+        private final long fineCents;
+        private final int unpaidFineCount;
+        private final long unpaidFineCents;
+
+        CostStats(int maintainCount, long maintainCents, int fineCount, long fineCents,
+                  int unpaidFineCount, long unpaidFineCents) {
+            this.maintainCount = maintainCount;
+            this.maintainCents = maintainCents;
+            this.fineCount = fineCount;
+            this.fineCents = fineCents;
+            this.unpaidFineCount = unpaidFineCount;
+            this.unpaidFineCents = unpaidFineCents;
+        }
+
+        public int getMaintainCount() {
+            return maintainCount;
+        }
+
+        public long getMaintainCents() {
+            return maintainCents;
+        }
+
+        public int getFineCount() {
+            return fineCount;
+        }
+
+        public long getFineCents() {
+            return fineCents;
+        }
+
+        public int getUnpaidFineCount() {
+            return unpaidFineCount;
+        }
+
+        public long getUnpaidFineCents() {
+            return unpaidFineCents;
+        }
+    }
+}
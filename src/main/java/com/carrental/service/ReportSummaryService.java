@@ -0,0 +1,87 @@
+package com.carrental.service;
+
+import com.carrental.dao.ReportSummaryDAO;
+import com.carrental.util.AppConfig;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 财务报表汇总服务
+ * 后台定时重算有变化的汇总行，汇总数据最多落后一个刷新周期；打开或刷新报表时也会先重算一次
+ */
+public final class ReportSummaryService {
+    private static final ReportSummaryService INSTANCE = new ReportSummaryService();
+
+    private final ReportSummaryDAO summaryDAO = new ReportSummaryDAO();
+    private final int batchSize = Math.max(1, AppConfig.getInt("report.summaryBatchSize", 500));
+    private ScheduledExecutorService scheduler;
+
+    private ReportSummaryService() {
+    }
+
+    public static ReportSummaryService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 启动后台定时重算，重复调用无效
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long period = Math.max(1, AppConfig.getLong("report.summaryRefreshSeconds", 60));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-summary");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 立即重算有变化的汇总行
+     * @return 重算的行数，其他客户端正在重算时返回-1，失败返回-2
+     */
+    public int refresh() {
+        return summaryDAO.refreshDirty(batchSize);
+    }
+
+    /**
+     * 查询汇总数据的新鲜程度
+     * @return 汇总状态
+     */
+    public SummaryStatus getStatus() {
+        return new SummaryStatus(summaryDAO.getRefreshedAt(), summaryDAO.countPending());
+    }
+
+    /**
+     * 汇总数据的更新时间和尚未重算的行数
+     */
+    public static final class SummaryStatus {
+        private final LocalDateTime refreshedAt;
+        private final int pending;
+
+        SummaryStatus(LocalDateTime refreshedAt, int pending) {
+            this.refreshedAt = refreshedAt;
+            this.pending = pending;
+        }
+
+        /**
+         * @return 最近一次更新时间，尚未初始化时为null
+         */
+        public LocalDateTime getRefreshedAt() {
+            return refreshedAt;
+        }
+
+        /**
+         * @return 尚未重算的汇总行数，查询失败时为-1
+         */
+        public int getPending() {
+            return pending;
+        }
+    }
+}
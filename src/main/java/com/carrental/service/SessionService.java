@@ -0,0 +1,175 @@
+package com.carrental.service;
+
+import com.carrental.dao.StaffDAO;
+import com.carrental.dao.StaffSessionDAO;
+import com.carrental.entity.LoginOutcome;
+import com.carrental.entity.Staff;
+import com.carrental.entity.StaffSession;
+import com.carrental.util.AppConfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 员工登录会话服务
+ * 登录时在staff_session表中申请带租约的会话，同一员工同时只有一个会话；
+ * 后台定时为本进程持有的会话续约并清理其他客户端遗留的过期会话，进程退出时释放会话
+ */
+public final class SessionService {
+    private static final SessionService INSTANCE = new SessionService();
+
+    private final StaffDAO staffDAO = new StaffDAO();
+    private final StaffSessionDAO sessionDAO = new StaffSessionDAO();
+    private final int heartbeatSeconds = Math.max(1, AppConfig.getInt("session.heartbeatSeconds", 20));
+    // 租约至少覆盖两次续约，一次续约失败不会丢失会话
+    private final int leaseSeconds = Math.max(heartbeatSeconds * 2,
+            AppConfig.getInt("session.leaseSeconds", 60));
+    private final int cleanupBatchSize = Math.max(1, AppConfig.getInt("session.cleanupBatchSize", 500));
+    private final String client = clientName();
+    // 本进程持有的会话，键为会话ID
+    private final Map<String, StaffSession> heldSessions = new ConcurrentHashMap<>();
+    private volatile Consumer<StaffSession> sessionLostListener;
+    private ScheduledExecutorService scheduler;
+
+    private SessionService() {
+    }
+
+    public static SessionService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 启动后台续约和过期会话清理，重复调用无效
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long cleanupPeriod = Math.max(1, AppConfig.getLong("session.cleanupSeconds", 300));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "staff-session");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::cleanup, 0, cleanupPeriod, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::releaseAll, "staff-session-release"));
+    }
+
+    /**
+     * 员工登录：验证密码后申请会话
+     * @param name 员工姓名
+     * @param password 密码
+     * @return 登录结果，成功时带有会话
+     */
+    public LoginResult login(String name, String password) {
+        Staff staff = staffDAO.findByCredentials(name, password);
+        if (staff == null) {
+            return new LoginResult(LoginOutcome.INVALID_CREDENTIALS, null);
+        }
+        String sessionId = UUID.randomUUID().toString();
+        int claimed = sessionDAO.claim(staff.getStaffId(), sessionId, client, leaseSeconds);
+        if (claimed < 0) {
+            return new LoginResult(LoginOutcome.DATABASE_ERROR, null);
+        }
+        if (claimed == 0) {
+            return new LoginResult(LoginOutcome.ALREADY_LOGGED_IN, null);
+        }
+        StaffSession session = new StaffSession(staff, sessionId);
+        heldSessions.put(sessionId, session);
+        start();
+        return new LoginResult(LoginOutcome.SUCCESS, session);
+    }
+
+    /**
+     * 员工登出，释放会话
+     * @param session 登录时得到的会话
+     * @return 是否释放了会话，会话已过期被接管时返回false
+     */
+    public boolean logout(StaffSession session) {
+        if (session == null) {
+            return false;
+        }
+        heldSessions.remove(session.getSessionId());
+        return sessionDAO.release(session.getStaffId(), session.getSessionId());
+    }
+
+    /**
+     * 设置会话丢失时的回调，例如长时间断网后会话过期并被其他客户端接管；回调在后台线程中执行
+     * @param listener 回调，参数为丢失的会话，为null时取消
+     */
+    public void setSessionLostListener(Consumer<StaffSession> listener) {
+        this.sessionLostListener = listener;
+    }
+
+    /**
+     * 为本进程持有的会话续约，续约失败（会话已不存在）时移除并通知
+     */
+    private void heartbeat() {
+        for (StaffSession session : heldSessions.values()) {
+            // 数据库暂时不可用时保留会话，租约内恢复即可继续续约
+            if (sessionDAO.renew(session.getStaffId(), session.getSessionId(), leaseSeconds) == 0
+                    && heldSessions.remove(session.getSessionId()) != null) {
+                System.err.println("员工登录会话已失效: " + session.getStaff().getName());
+                Consumer<StaffSession> listener = sessionLostListener;
+                if (listener != null) {
+                    listener.accept(session);
+                }
+            }
+        }
+    }
+
+    /**
+     * 清理所有客户端遗留的过期会话
+     */
+    private void cleanup() {
+        while (sessionDAO.deleteExpired(cleanupBatchSize) >= cleanupBatchSize) {
+            // 一次删除的行数达到上限说明可能还有，继续删除
+        }
+    }
+
+    private void releaseAll() {
+        for (StaffSession session : heldSessions.values()) {
+            logout(session);
+        }
+    }
+
+    private static String clientName() {
+        String name = ManagementFactory.getRuntimeMXBean().getName(); // pid@主机名
+        return name.length() > 100 ? name.substring(0, 100) : name;
+    }
+
+    /**
+     * 登录结果和成功时得到的会话
+     */
+    public static final class LoginResult {
+        private final LoginOutcome outcome;
+        private final StaffSession session;
+
+        LoginResult(LoginOutcome outcome, StaffSession session) {
+            this.outcome = outcome;
+            this.session = session;
+        }
+
+        public LoginOutcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * @return 会话，登录失败时为null
+         */
+        public StaffSession getSession() {
+            return session;
+        }
+
+        public boolean isSuccess() {
+            return outcome.isSuccess();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.carrental.service;
+
+import com.carrental.dao.CarDAO;
+import com.carrental.dao.StaffDAO;
+import com.carrental.entity.Car;
+import com.carrental.entity.Staff;
+import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 数据统计服务类
+ * 车辆、用户、员工统计各用一条聚合查询，租车和财务统计使用内存中的租车分析快照，
+ * 各部分在后台线程池中并行执行，各自借用连接池中的连接
+ */
+public class StatisticsService {
+    public static final String ALL = "全部统计";
+    public static final String CAR = "车辆统计";
+    public static final String USER = "用户统计";
+    public static final String STAFF = "员工统计";
+    public static final String RENT = "租车统计";
+    public static final String FINANCIAL = "财务统计";
+
+    private static final String SEPARATOR = "----------------------------------------\n";
+    // 收入排行显示的条数
+    private static final int TOP_N = 5;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "statistics-worker-" + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final DatabaseConnection dbConnection;
+    private final CarDAO carDAO;
+    private final StaffDAO staffDAO;
+
+    public StatisticsService() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.carDAO = new CarDAO();
+        this.staffDAO = new StaffDAO();
+    }
+
+    /**
+     * 统计部分完成回调
+     */
+    public interface SectionListener {
+        /**
+         * 某个统计部分生成完毕，在后台线程中调用
+         * @param index 部分序号
+         * @param text 统计文本
+         */
+        void sectionReady(int index, String text);
+    }
+
+    /**
+     * 一次统计的执行句柄
+     */
+    public static final class Report {
+        private final List<String> sections;
+        private final List<Future<?>> futures;
+
+        Report(List<String> sections, List<Future<?>> futures) {
+            this.sections = sections;
+            this.futures = futures;
+        }
+
+        /**
+         * 获取本次统计包含的部分
+         * @return 部分名称列表
+         */
+        public List<String> getSections() {
+            return sections;
+        }
+
+        /**
+         * 取消尚未开始的查询；已经在执行的查询不中断，以免中断借用连接或执行JDBC调用的线程，结果由调用方丢弃
+         */
+        public void cancel() {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 获取报表类型包含的统计部分
+     * @param reportType 报表类型
+     * @return 部分名称列表
+     */
+    public static List<String> sectionsOf(String reportType) {
+        if (ALL.equals(reportType)) {
+            return Arrays.asList(CAR, USER, STAFF, RENT, FINANCIAL);
+        }
+        return Collections.singletonList(reportType);
+    }
+
+    /**
+     * 并行生成报表的各个部分
+     * @param reportType 报表类型
+     * @param listener 每个部分完成时的回调
+     * @return 执行句柄，可用于取消
+     */
+    public Report generate(String reportType, SectionListener listener) {
+        List<String> sections = sectionsOf(reportType);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) {
+            final int index = i;
+            final String section = sections.get(i);
+            futures.add(EXECUTOR.submit(() -> {
+                String text = loadSection(section);
+                if (!Thread.currentThread().isInterrupted()) {
+                    listener.sectionReady(index, text);
+                }
+            }));
+        }
+        return new Report(sections, futures);
+    }
+
+    /**
+     * 生成单个统计部分
+     * 只在执行查询时借用连接，读取租车分析快照的部分不持有连接，以免快照刷新时占用多个连接
+     * @param section 部分名称
+     * @return 统计文本
+     */
+    public String loadSection(String section) {
+        StringBuilder statistics = new StringBuilder();
+        statistics.append("【").append(section).append("】\n");
+        statistics.append(SEPARATOR);
+
+        try {
+            switch (section) {
+                case CAR:
+                    try (Connection conn = dbConnection.getConnection()) {
+                        loadCarStatistics(conn, statistics);
+                    }
+                    break;
+                case USER:
+                    try (Connection conn = dbConnection.getConnection()) {
+                        loadUserStatistics(conn, statistics);
+                    }
+                    break;
+                case STAFF:
+                    try (Connection conn = dbConnection.getConnection()) {
+                        loadStaffStatistics(conn, statistics);
+                    }
+                    break;
+                case RENT:
+                    loadRentStatistics(statistics);
+                    break;
+                case FINANCIAL:
+                    loadFinancialStatistics(statistics);
+                    break;
+                default:
+                    statistics.append("未知的统计类型\n");
+                    break;
+            }
+        } catch (SQLException e) {
+            statistics.append(section).append("加载失败: ").append(e.getMessage()).append("\n");
+        }
+        return statistics.toString();
+    }
+
+    /**
+     * 车辆统计：按状态和品牌分组一次查出，总数和两个维度的小计在内存中汇总
+     */
+    private void loadCarStatistics(Connection conn, StringBuilder statistics) throws SQLException {
+        String sql = "SELECT status, brand, COUNT(*) FROM car GROUP BY status, brand";
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        Map<String, Integer> byBrand = new LinkedHashMap<>();
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int count = rs.getInt(3);
+                total += count;
+                byStatus.merge(String.valueOf(rs.getString(1)), count, Integer::sum);
+                byBrand.merge(String.valueOf(rs.getString(2)), count, Integer::sum);
+            }
+        }
+
+        statistics.append("总车辆数: ").append(total).append(" 辆\n");
+        statistics.append("按状态统计:\n");
+        appendCounts(statistics, byStatus, false, " 辆");
+        statistics.append("按品牌统计:\n");
+        appendCounts(statistics, byBrand, true, " 辆");
+    }
+
+    /**
+     * 用户统计：按会员状态和信誉度分组一次查出
+     */
+    private void loadUserStatistics(Connection conn, StringBuilder statistics) throws SQLException {
+        String sql = "SELECT member, judge, COUNT(*) FROM user GROUP BY member, judge";
+        Map<String, Integer> byMember = new LinkedHashMap<>();
+        Map<String, Integer> byJudge = new LinkedHashMap<>();
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int count = rs.getInt(3);
+                total += count;
+                byMember.merge(String.valueOf(rs.getString(1)), count, Integer::sum);
+                byJudge.merge(String.valueOf(rs.getString(2)), count, Integer::sum);
+            }
+        }
+
+        statistics.append("总用户数: ").append(total).append(" 人\n");
+        statistics.append("按会员状态统计:\n");
+        appendCounts(statistics, byMember, false, " 人");
+        statistics.append("按信誉度统计:\n");
+        appendCounts(statistics, byJudge, true, " 人");
+    }
+
+    /**
+     * 员工统计：按职位和权限等级分组一次查出
+     */
+    private void loadStaffStatistics(Connection conn, StringBuilder statistics) throws SQLException {
+        String sql = "SELECT position, role, COUNT(*) FROM staff GROUP BY position, role ORDER BY role DESC";
+        Map<String, Integer> byPosition = new LinkedHashMap<>();
+        Map<String, Integer> byRole = new LinkedHashMap<>();
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int count = rs.getInt(3);
+                total += count;
+                byPosition.merge(String.valueOf(rs.getString(1)), count, Integer::sum);
+                byRole.merge("等级" + rs.getInt(2), count, Integer::sum);
+            }
+        }
+
+        statistics.append("总员工数: ").append(total).append(" 人\n");
+        statistics.append("按职位统计:\n");
+        appendCounts(statistics, byPosition, true, " 人");
+        statistics.append("按权限等级统计:\n");
+        appendCounts(statistics, byRole, false, " 人");
+    }
+
+    /**
+     * 租车统计：金额统计和按车辆、员工的收入排行来自内存中的租车分析快照
+     */
+    private void loadRentStatistics(StringBuilder statistics) {
+        RentalAnalyticsSnapshot snapshot = RentalAnalyticsSnapshot.getInstance();
+        RentalAnalyticsSnapshot.RentalStats stats = snapshot.getRentalStats();
+        statistics.append("总租车记录数: ").append(stats.getCount()).append(" 条\n");
+        statistics.append("总租车收入: ").append(Money.ofCents(stats.getTotalCents())).append(" 元\n");
+        statistics.append("平均租车金额: ").append(Money.ofCents(stats.getAverageCents())).append(" 元\n");
+        statistics.append("租车金额中位数: ").append(Money.ofCents(stats.getP50Cents())).append(" 元\n");
+        statistics.append("租车金额90%分位: ").append(Money.ofCents(stats.getP90Cents())).append(" 元\n");
+        statistics.append("租车金额99%分位: ").append(Money.ofCents(stats.getP99Cents())).append(" 元\n");
+
+        List<Map.Entry<Integer, Long>> topCars = top(snapshot.revenueByCar(null, null));
+        Map<Integer, Car> cars = carDAO.getCarsByIds(keys(topCars));
+        statistics.append("收入最高的车辆:\n");
+        for (Map.Entry<Integer, Long> entry : topCars) {
+            Car car = cars.get(entry.getKey());
+            statistics.append("  ").append(car != null ? car.getLicensePlateNumber() : "车辆" + entry.getKey())
+                    .append(": ").append(Money.ofCents(entry.getValue())).append(" 元\n");
+        }
+
+        statistics.append("员工经办收入:\n");
+        for (Map.Entry<Integer, Long> entry : top(snapshot.revenueByStaff(null, null))) {
+            Staff staff = staffDAO.getStaffById(entry.getKey());
+            statistics.append("  ").append(staff != null ? staff.getName() : "员工" + entry.getKey())
+                    .append(": ").append(Money.ofCents(entry.getValue())).append(" 元\n");
+        }
+    }
+
+    /**
+     * 财务统计：维修和违章费用来自租车分析快照，损坏记录只需一次计数
+     */
+    private void loadFinancialStatistics(StringBuilder statistics) throws SQLException {
+        RentalAnalyticsSnapshot.CostStats costs = RentalAnalyticsSnapshot.getInstance().getCostStats();
+        int damageCount = 0;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM damage_information");
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                damageCount = rs.getInt(1);
+            }
+        }
+        statistics.append("损坏记录数: ").append(damageCount).append(" 条\n");
+        statistics.append("维修记录数: ").append(costs.getMaintainCount()).append(" 条\n");
+        statistics.append("总维修费用: ").append(Money.ofCents(costs.getMaintainCents())).append(" 元\n");
+        statistics.append("违章罚款记录数: ").append(costs.getFineCount()).append(" 条\n");
+        statistics.append("未交罚款总额: ").append(Money.ofCents(costs.getUnpaidFineCents())).append(" 元\n");
+    }
+
+    /**
+     * 取收入排行的前几项
+     * @param revenue 按收入从高到低排列的映射
+     * @return 前TOP_N项
+     */
+    private static List<Map.Entry<Integer, Long>> top(Map<Integer, Long> revenue) {
+        List<Map.Entry<Integer, Long>> entries = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : revenue.entrySet()) {
+            if (entries.size() == TOP_N) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<Integer> keys(List<Map.Entry<Integer, Long>> entries) {
+        List<Integer> keys = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * 输出分组计数
+     * @param statistics 输出
+     * @param counts 分组计数
+     * @param sortByCount 是否按数量从多到少排序
+     * @param unit 单位
+     */
+    private void appendCounts(StringBuilder statistics, Map<String, Integer> counts, boolean sortByCount, String unit) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        if (sortByCount) {
+            entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        }
+        for (Map.Entry<String, Integer> entry : entries) {
+            statistics.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append(unit).append("\n");
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.carrental.service;
 
 import com.carrental.dao.StaffDAO;
 import com.carrental.dao.UserDAO;
+import com.carrental.entity.LoginOutcome;
 import com.carrental.entity.Staff;
+import com.carrental.entity.StaffSession;
 import com.carrental.entity.User;
 
 import java.sql.PreparedStatement;
@@ -28,34 +30,29 @@ public class UserService {
      * 员工登录
      * @param name 员工姓名
      * @param password 密码
-     * @return 员工对象，登录失败返回null
+     * @return 登录结果，成功时带有会话，登出时交还给logout
      */
-    public Staff login(String name, String password) {
+    public SessionService.LoginResult login(String name, String password) {
         if (name == null || name.trim().isEmpty()) {
             System.err.println("用户名不能为空");
-            return null;
+            return new SessionService.LoginResult(LoginOutcome.INVALID_CREDENTIALS, null);
         }
 
         if (password == null || password.trim().isEmpty()) {
             System.err.println("密码不能为空");
-            return null;
+            return new SessionService.LoginResult(LoginOutcome.INVALID_CREDENTIALS, null);
         }
 
-        // 直接执行登录验证，利用MySQL的锁机制
-        return staffDAO.login(name.trim(), password.trim());
+        return SessionService.getInstance().login(name.trim(), password.trim());
     }
+
     /**
      * 员工登出
-     * @param name 员工姓名
+     * @param session 登录时得到的会话
      * @return 是否登出成功
      */
-    public boolean logout(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            System.err.println("用户名不能为空");
-            return false;
-        }
-
-        return staffDAO.logout(name.trim());
+    public boolean logout(StaffSession session) {
+        return SessionService.getInstance().logout(session);
     }
 
     /**
@@ -187,6 +184,43 @@ public class UserService {
         return userDAO.getAllUsers();
     }
 
+    /**
+     * 按主键分页查询用户
+     * @param keyword 姓名、身份证号或电话包含的关键字，空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @param afterUserId 上一页最后一条的用户ID，第一页传0
+     * @param limit 每页条数
+     * @return 用户列表
+     */
+    public List<User> getUsersPage(String keyword, String member, String judge, int afterUserId, int limit) {
+        return userDAO.getUsersPage(keyword, member, judge, afterUserId, limit);
+    }
+
+    /**
+     * 按偏移量分页查询用户
+     * @param keyword 姓名、身份证号或电话包含的关键字，空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @param offset 跳过的条数
+     * @param limit 每页条数
+     * @return 用户列表
+     */
+    public List<User> getUsersPageAt(String keyword, String member, String judge, int offset, int limit) {
+        return userDAO.getUsersPageAt(keyword, member, judge, offset, limit);
+    }
+
+    /**
+     * 统计符合筛选条件的用户数
+     * @param keyword 姓名、身份证号或电话包含的关键字，空表示不限
+     * @param member 会员筛选，null表示全部
+     * @param judge 信誉度筛选，null表示全部
+     * @return 用户数
+     */
+    public int countUsers(String keyword, String member, String judge) {
+        return userDAO.countUsers(keyword, member, judge);
+    }
+
     /**
      * 根据会员状态查询用户
      * @param member 会员状态
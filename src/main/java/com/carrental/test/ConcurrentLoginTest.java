@@ -1,55 +1,66 @@
 package com.carrental.test;
 
-import com.carrental.entity.Staff;
+import com.carrental.entity.LoginOutcome;
+import com.carrental.service.SessionService;
 import com.carrental.service.UserService;
 
+import java.util.Arrays;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 并发登录测试类
- * 测试MySQL锁机制是否能有效防止同一用户重复登录
+ * 测试登录会话表能否保证同一员工同时只有一个线程登录成功，并统计登录耗时
  */
 public class ConcurrentLoginTest {
     private static final String TEST_USERNAME = "super213";
     private static final String TEST_PASSWORD = "213";
     private static final int THREAD_COUNT = 10;
     private static final int TEST_ROUNDS = 3;
-    
+
     public static void main(String[] args) {
         System.out.println("开始并发登录测试...");
         System.out.println("测试用户: " + TEST_USERNAME);
         System.out.println("并发线程数: " + THREAD_COUNT);
         System.out.println("测试轮数: " + TEST_ROUNDS);
         System.out.println("=====================================");
-        
+
+        long[] allLatencies = new long[0];
+        int passedRounds = 0;
         for (int round = 1; round <= TEST_ROUNDS; round++) {
             System.out.println("\n第 " + round + " 轮测试:");
-            testConcurrentLogin();
-            
-            // 等待一段时间再进行下一轮测试
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+            long[] latencies = new long[THREAD_COUNT];
+            if (testConcurrentLogin(latencies)) {
+                passedRounds++;
             }
+            long[] merged = Arrays.copyOf(allLatencies, allLatencies.length + latencies.length);
+            System.arraycopy(latencies, 0, merged, allLatencies.length, latencies.length);
+            allLatencies = merged;
         }
-        
+
         System.out.println("\n=====================================");
+        System.out.println("通过轮数: " + passedRounds + "/" + TEST_ROUNDS);
+        printLatencies("全部登录请求", allLatencies);
         System.out.println("并发登录测试完成！");
     }
-    
+
     /**
-     * 执行并发登录测试
+     * 执行一轮并发登录测试
+     * 成功的线程一直持有会话到本轮结束，保证其他线程看到的是已登录状态；本轮结束后登出，下一轮可以重新登录
+     * @param latencies 输出每个线程的登录耗时（纳秒）
+     * @return 是否恰好一个线程登录成功
      */
-    private static void testConcurrentLogin() {
+    private static boolean testConcurrentLogin(long[] latencies) {
         ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
         CountDownLatch startLatch = new CountDownLatch(1);
         CountDownLatch endLatch = new CountDownLatch(THREAD_COUNT);
         AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger alreadyLoggedInCount = new AtomicInteger(0);
         AtomicInteger failureCount = new AtomicInteger(0);
-        
+        AtomicReference<SessionService.LoginResult> winner = new AtomicReference<>();
+        UserService userService = new UserService();
+
         // 创建多个并发登录任务
         for (int i = 0; i < THREAD_COUNT; i++) {
             final int threadId = i + 1;
@@ -57,28 +68,23 @@ public class ConcurrentLoginTest {
                 try {
                     // 等待所有线程准备就绪
                     startLatch.await();
-                    
-                    UserService userService = new UserService();
-                    Staff staff = userService.login(TEST_USERNAME, TEST_PASSWORD);
-                    
-                    if (staff != null) {
+
+                    long start = System.nanoTime();
+                    SessionService.LoginResult result = userService.login(TEST_USERNAME, TEST_PASSWORD);
+                    latencies[threadId - 1] = System.nanoTime() - start;
+
+                    if (result.isSuccess()) {
                         successCount.incrementAndGet();
-                        System.out.println("线程 " + threadId + ": 登录成功 - " + staff.getName());
-                        
-                        // 模拟用户操作一段时间
-                        Thread.sleep(1000);
-                        
-                        // 登出
-                        if (userService.logout(TEST_USERNAME)) {
-                            System.out.println("线程 " + threadId + ": 登出成功");
-                        } else {
-                            System.out.println("线程 " + threadId + ": 登出失败");
-                        }
+                        winner.set(result);
+                        System.out.println("线程 " + threadId + ": 登录成功 - " + result.getSession().getStaff().getName());
+                    } else if (result.getOutcome() == LoginOutcome.ALREADY_LOGGED_IN) {
+                        alreadyLoggedInCount.incrementAndGet();
+                        System.out.println("线程 " + threadId + ": 登录失败（用户已登录）");
                     } else {
                         failureCount.incrementAndGet();
-                        System.out.println("线程 " + threadId + ": 登录失败（可能用户已登录）");
+                        System.out.println("线程 " + threadId + ": 登录失败 - " + result.getOutcome().getMessage());
                     }
-                    
+
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     System.err.println("线程 " + threadId + " 被中断");
@@ -90,35 +96,69 @@ public class ConcurrentLoginTest {
                 }
             });
         }
-        
+
         try {
             // 启动所有线程
             startLatch.countDown();
-            
+
             // 等待所有线程完成
             boolean finished = endLatch.await(30, TimeUnit.SECONDS);
-            
+
             if (!finished) {
                 System.err.println("测试超时！");
             }
-            
+
+            // 登出，释放会话
+            SessionService.LoginResult result = winner.get();
+            if (result != null) {
+                if (userService.logout(result.getSession())) {
+                    System.out.println("登出成功");
+                } else {
+                    System.out.println("登出失败");
+                }
+            }
+
             // 输出测试结果
             System.out.println("测试结果:");
             System.out.println("  成功登录次数: " + successCount.get());
-            System.out.println("  失败登录次数: " + failureCount.get());
-            System.out.println("  预期结果: 只有1个线程应该成功登录");
-            
-            if (successCount.get() == 1) {
-                System.out.println("  ✓ 测试通过！MySQL锁机制工作正常");
+            System.out.println("  已登录被拒次数: " + alreadyLoggedInCount.get());
+            System.out.println("  其他失败次数: " + failureCount.get());
+            System.out.println("  预期结果: 只有1个线程应该成功登录，其余线程被拒");
+            printLatencies("本轮登录请求", latencies);
+
+            boolean passed = finished && successCount.get() == 1
+                    && alreadyLoggedInCount.get() == THREAD_COUNT - 1;
+            if (passed) {
+                System.out.println("  ✓ 测试通过！登录会话机制工作正常");
             } else {
                 System.out.println("  ✗ 测试失败！可能存在并发问题");
             }
-            
+            return passed;
+
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("测试被中断");
+            return false;
         } finally {
             executor.shutdown();
         }
     }
+
+    /**
+     * 输出登录耗时的中位数、p99和最大值
+     */
+    private static void printLatencies(String label, long[] latencies) {
+        if (latencies.length == 0) {
+            return;
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("  %s耗时: p50 %.1f 毫秒, p99 %.1f 毫秒, 最大 %.1f 毫秒%n", label,
+                percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
 }
@@ -0,0 +1,151 @@
+package com.carrental.test;
+
+import com.carrental.dao.StaffDAO;
+import com.carrental.entity.Car;
+import com.carrental.entity.RentInformation;
+import com.carrental.entity.RentOutcome;
+import com.carrental.entity.Staff;
+import com.carrental.entity.User;
+import com.carrental.service.CarService;
+import com.carrental.service.RentService;
+import com.carrental.service.UserService;
+import com.carrental.util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并发租车测试类
+ * 多个线程同时租同一辆空闲车辆，验证只有一个线程成功且只写入一条租车信息；
+ * 随后多个线程同时还这辆车，验证只有一个线程成功
+ * 注意：测试会在数据库中写入真实的租车记录
+ */
+public class ConcurrentRentTest {
+    private static final int THREAD_COUNT = 20;
+    private static final int TEST_ROUNDS = 5;
+
+    private static final RentService rentService = new RentService();
+
+    public static void main(String[] args) {
+        List<Car> cars = new CarService().getAvailableCars();
+        List<User> users = new UserService().getAllUsers();
+        List<Staff> staffList = new StaffDAO().getAllStaff();
+        if (cars.isEmpty() || users.isEmpty() || staffList.isEmpty()) {
+            System.err.println("测试需要至少一辆空闲车辆、一个用户和一个员工");
+            return;
+        }
+
+        Car car = cars.get(0);
+        int userId = users.get(0).getUserId();
+        int staffId = staffList.get(0).getStaffId();
+
+        System.out.println("开始并发租车测试...");
+        System.out.println("测试车辆: " + car.getLicensePlateNumber() + " (ID:" + car.getCarId() + ")");
+        System.out.println("并发线程数: " + THREAD_COUNT);
+        System.out.println("测试轮数: " + TEST_ROUNDS);
+        System.out.println("=====================================");
+
+        int passed = 0;
+        for (int round = 1; round <= TEST_ROUNDS; round++) {
+            System.out.println("\n第 " + round + " 轮测试:");
+            if (testRound(car.getCarId(), userId, staffId)) {
+                passed++;
+            }
+        }
+
+        System.out.println("\n=====================================");
+        System.out.println("并发租车测试完成！通过 " + passed + "/" + TEST_ROUNDS + " 轮");
+    }
+
+    /**
+     * 执行一轮并发租车和并发还车
+     * @return 本轮是否通过
+     */
+    private static boolean testRound(int carId, int userId, int staffId) {
+        int rentalsBefore = rentService.getRentInformationByCarId(carId).size();
+        LocalDate today = LocalDate.now();
+
+        Map<RentOutcome, Integer> rentResults = runConcurrently(
+                () -> rentService.rentCar(carId, userId, staffId, today, today.plusDays(1)));
+        List<RentInformation> rentals = rentService.getRentInformationByCarId(carId);
+        int newRentals = rentals.size() - rentalsBefore;
+
+        System.out.println("  租车结果: " + rentResults);
+        System.out.println("  新增租车记录: " + newRentals);
+        boolean rentPassed = count(rentResults, RentOutcome.SUCCESS) == 1 && newRentals == 1;
+        System.out.println(rentPassed ? "  ✓ 租车通过，没有重复出租" : "  ✗ 租车失败！出现重复出租或没有租出");
+        if (newRentals < 1) {
+            return false;
+        }
+
+        // 按主键排序，最后一条就是本轮的租车记录
+        int rentId = rentals.get(rentals.size() - 1).getRentId();
+        Map<RentOutcome, Integer> returnResults = runConcurrently(
+                () -> rentService.returnCar(rentId, today.plusDays(1), Money.ZERO));
+
+        System.out.println("  还车结果: " + returnResults);
+        boolean returnPassed = count(returnResults, RentOutcome.SUCCESS) == 1
+                && count(returnResults, RentOutcome.ALREADY_RETURNED) == THREAD_COUNT - 1;
+        System.out.println(returnPassed ? "  ✓ 还车通过，只还了一次" : "  ✗ 还车失败！出现重复还车");
+
+        return rentPassed && returnPassed;
+    }
+
+    /**
+     * 所有线程同时开始执行同一个操作，统计各种结果的次数
+     * @param operation 租车或还车操作
+     * @return 结果次数
+     */
+    private static Map<RentOutcome, Integer> runConcurrently(Callable<RentOutcome> operation) {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Map<RentOutcome, AtomicInteger> counters = new EnumMap<>(RentOutcome.class);
+        for (RentOutcome outcome : RentOutcome.values()) {
+            counters.put(outcome, new AtomicInteger(0));
+        }
+
+        try {
+            List<Future<RentOutcome>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    // 等待所有线程准备就绪
+                    startLatch.await();
+                    return operation.call();
+                }));
+            }
+            startLatch.countDown();
+
+            for (Future<RentOutcome> future : futures) {
+                try {
+                    counters.get(future.get(30, TimeUnit.SECONDS)).incrementAndGet();
+                } catch (ExecutionException | TimeoutException e) {
+                    counters.get(RentOutcome.DATABASE_ERROR).incrementAndGet();
+                    System.err.println("线程执行异常: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("测试被中断");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<RentOutcome, Integer> results = new EnumMap<>(RentOutcome.class);
+        for (Map.Entry<RentOutcome, AtomicInteger> entry : counters.entrySet()) {
+            if (entry.getValue().get() > 0) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+        }
+        return results;
+    }
+
+    private static int count(Map<RentOutcome, Integer> results, RentOutcome outcome) {
+        Integer value = results.get(outcome);
+        return value != null ? value : 0;
+    }
+}
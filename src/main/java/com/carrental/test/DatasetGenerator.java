@@ -0,0 +1,462 @@
+package com.carrental.test;
+
+import com.carrental.dao.RentInformationDAO;
+import com.carrental.util.AppConfig;
+import com.carrental.util.Money;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * 测试数据生成程序
+ * 按固定的随机种子生成多年的车辆、用户、员工、租车、违章罚款、损坏和维修数据，批量写入数据库，用于按数倍于线上的规模测试各面板和报表
+ * 每辆车按时间顺序生成自己的经历：空闲一段时间后被租出，还车后可能送修，修好后再等待下一次租车，因此：
+ *   同一辆车的租期互不重叠；违章日期落在对应租期内，罚款记在租车的用户名下；
+ *   损坏登记在还车当天，费用从退还金额中扣除；维修在两次租车之间，维修期间不会被租出；
+ *   到today时仍未还车的租车归还日期为计划归还日期、退还金额为0，车辆状态为已借出；仍在维修的车辆状态为维修中
+ * 参数（key=value，均可省略）：
+ *   seed=213         随机种子，种子、today和数据库中已有的最大ID都相同时生成的数据完全相同
+ *   cars=10000 users=200000 staff=500  生成的车辆、用户、员工数
+ *   years=5          每辆车经历的年数，截止到today
+ *   today=           数据截止日期（yyyy-MM-dd），默认为今天
+ *   maxRentDays=14   计划租期上限（天）
+ *   maxIdleDays=6    两次租车之间空闲天数的上限
+ *   fineRate=0.05 damageRate=0.03 maintainRate=0.08  每次租车产生违章、损坏以及还车后例行维修的概率
+ *   batchSize=5000   每批写入的行数，每批提交一次事务
+ *   dryRun=false     为true时只生成不写库，用于估算行数和生成速度
+ * 生成的ID从各表已有的最大ID之后开始，不会覆盖已有数据；连接为单独建立的连接，打开rewriteBatchedStatements并关闭
+ * useCursorFetch和useServerPrepStmts，让驱动把一批插入改写成多行INSERT，写入速度主要取决于数据库，
+ * 统计表触发器会为每行写一次待重算标记
+ * 注意：程序会在config.properties配置的数据库中写入大量数据，请指向测试库
+ */
+public class DatasetGenerator {
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周",
+            "徐", "孙", "马", "朱", "胡", "郭", "何", "林", "高", "罗"};
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "磊", "强", "军", "洋", "勇",
+            "艳", "杰", "涛", "明", "超", "秀英", "建华", "晓东", "志强", "海燕"};
+    private static final String[][] MODELS = {
+            {"丰田", "卡罗拉"}, {"丰田", "凯美瑞"}, {"本田", "雅阁"}, {"本田", "思域"}, {"大众", "帕萨特"},
+            {"大众", "朗逸"}, {"日产", "轩逸"}, {"别克", "君威"}, {"比亚迪", "汉"}, {"比亚迪", "秦"},
+            {"宝马", "3系"}, {"奔驰", "C级"}, {"奥迪", "A4L"}, {"特斯拉", "Model 3"}, {"吉利", "星瑞"}};
+    private static final String[] COLORS = {"白色", "黑色", "银色", "灰色", "红色", "蓝色"};
+    private static final String[] REGIONS = {"110101", "310104", "440106", "330106", "510107", "420102"};
+    private static final String[] LOCATIONS = {"长安街", "中山路", "人民路", "解放路", "建设大道", "环城高速"};
+    private static final String[] DAMAGES = {"前保险杠刮擦", "后视镜破损", "车门凹陷", "挡风玻璃裂纹", "轮毂划伤"};
+    private static final String[] ROUTINE_MAINTAINS = {"定期保养", "更换机油", "更换轮胎", "刹车片更换", "空调检修"};
+    private static final int[] ID_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final String ID_CHECK_CODES = "10X98765432";
+
+    private final SplittableRandom random;
+    private final LocalDate today;
+    private final LocalDate start;
+    private final int maxRentDays;
+    private final int maxIdleDays;
+    private final double fineRate;
+    private final double damageRate;
+    private final double maintainRate;
+
+    private final Batch carBatch;
+    private final Batch userBatch;
+    private final Batch staffBatch;
+    private final Batch rentBatch;
+    private final Batch fineBatch;
+    private final Batch damageBatch;
+    private final Batch maintainBatch;
+    private final Connection conn;
+
+    private int nextCarId;
+    private int nextUserId;
+    private int nextStaffId;
+    private int nextRentId;
+    private int nextMaintainId;
+    private int firstUserId;
+    private int firstStaffId;
+    private int userCount;
+    private int staffCount;
+
+    private DatasetGenerator(Connection conn, LoadOptions options) throws SQLException {
+        this.conn = conn;
+        this.random = new SplittableRandom(options.getLong("seed", 213));
+        String todayText = options.getString("today", "");
+        this.today = todayText.isEmpty() ? LocalDate.now() : LocalDate.parse(todayText);
+        this.start = today.minusYears(options.getInt("years", 5));
+        this.maxRentDays = Math.max(1, options.getInt("maxRentDays", 14));
+        this.maxIdleDays = Math.max(0, options.getInt("maxIdleDays", 6));
+        this.fineRate = options.getDouble("fineRate", 0.05);
+        this.damageRate = options.getDouble("damageRate", 0.03);
+        this.maintainRate = options.getDouble("maintainRate", 0.08);
+        int batchSize = Math.max(1, options.getInt("batchSize", 5000));
+
+        carBatch = new Batch(conn, "car", batchSize, "INSERT INTO car (car_id, license_plate_number, model, color, "
+                + "status, brand, purchase_date, photo, rent, deposit) VALUES (?, ?, ?, ?, ?, ?, ?, NULL, ?, ?)");
+        userBatch = new Batch(conn, "user", batchSize, "INSERT INTO user (user_id, name, identity_id, phone, "
+                + "register_date, member, judge) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        staffBatch = new Batch(conn, "staff", batchSize, "INSERT INTO staff (staff_id, name, phone, entry_date, "
+                + "position, role, password) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        rentBatch = new Batch(conn, "rent_information", batchSize, "INSERT INTO rent_information (rent_id, car_id, "
+                + "staff_id, user_id, rent_date, return_date, pay_the_amount, return_amount) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        fineBatch = new Batch(conn, "traffic_fine", batchSize, "INSERT INTO traffic_fine (car_id, user_id, "
+                + "violation_date, offending_location, fine, fine_state) VALUES (?, ?, ?, ?, ?, ?)");
+        damageBatch = new Batch(conn, "damage_information", batchSize, "INSERT INTO damage_information (car_id, "
+                + "photo, damage_data, damage_describe, damage_state) VALUES (?, NULL, ?, ?, ?)");
+        maintainBatch = new Batch(conn, "maintain_information", batchSize, "INSERT INTO maintain_information "
+                + "(maintain_id, car_id, maintain_data, maintain_describe, maintain_begin_date, maintain_finish_date, "
+                + "maimtain_cost) VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+        nextCarId = maxId("car", "car_id") + 1;
+        nextUserId = maxId("user", "user_id") + 1;
+        nextStaffId = maxId("staff", "staff_id") + 1;
+        nextRentId = maxId("rent_information", "rent_id") + 1;
+        nextMaintainId = maxId("maintain_information", "maintain_id") + 1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = new LoadOptions(args, (key, value) -> System.out.println("  " + key + " = " + value));
+        System.out.println("测试数据生成参数:");
+        boolean dryRun = Boolean.parseBoolean(options.getString("dryRun", "false"));
+        int cars = options.getInt("cars", 10000);
+        int users = options.getInt("users", 200000);
+        int staff = options.getInt("staff", 500);
+        if (cars <= 0 || users <= 0 || staff <= 0) {
+            System.err.println("车辆、用户和员工数都必须大于0");
+            return;
+        }
+
+        Connection conn = dryRun ? null : openConnection();
+        try {
+            DatasetGenerator generator = new DatasetGenerator(conn, options);
+            System.out.println("=====================================");
+            System.out.println(dryRun ? "只生成不写库" : "写入数据库: " + conn.getMetaData().getURL());
+            System.out.println("数据区间: " + generator.start + " 至 " + generator.today);
+            long begin = System.nanoTime();
+            generator.generate(cars, users, staff);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            generator.printSummary(seconds);
+        } finally {
+            if (conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * 建立单独的批量写入连接：打开rewriteBatchedStatements，关闭服务端预编译和游标读取
+     * 驱动只对客户端预编译的批量插入改写为多行INSERT；配置的URL打开了useCursorFetch，
+     * 驱动会因此强制使用服务端预编译，所以这里两者都要关闭
+     */
+    private static Connection openConnection() throws SQLException {
+        String url = AppConfig.get("database.url", "jdbc:mysql://localhost:3306/car_rental_system");
+        url = withParameter(url, "useCursorFetch", "false");
+        url = withParameter(url, "useServerPrepStmts", "false");
+        url = withParameter(url, "rewriteBatchedStatements", "true");
+        Connection conn = DriverManager.getConnection(url,
+                AppConfig.get("database.username", "root"), AppConfig.get("database.password", ""));
+        conn.setAutoCommit(false);
+        return conn;
+    }
+
+    /**
+     * 设置JDBC URL中的参数，已有同名参数时替换其值
+     */
+    static String withParameter(String url, String key, String value) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return url + "?" + key + "=" + value;
+        }
+        StringBuilder result = new StringBuilder(url.substring(0, query + 1));
+        boolean replaced = false;
+        for (String pair : url.substring(query + 1).split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            if (result.length() > query + 1) {
+                result.append('&');
+            }
+            if (pair.startsWith(key + "=") || pair.equals(key)) {
+                result.append(key).append('=').append(value);
+                replaced = true;
+            } else {
+                result.append(pair);
+            }
+        }
+        if (!replaced) {
+            result.append(result.length() > query + 1 ? "&" : "").append(key).append('=').append(value);
+        }
+        return result.toString();
+    }
+
+    private int maxId(String table, String column) throws SQLException {
+        if (conn == null) {
+            return 0;
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * 先写入员工和用户，再逐辆车生成经历；车辆状态取决于经历的结尾，所以每辆车在经历生成完后才加入批次，
+     * 任何一个批次写满时按车辆在前的顺序全部写出并提交，保证子表的行写入时车辆已经存在
+     */
+    private void generate(int cars, int users, int staff) throws SQLException {
+        firstStaffId = nextStaffId;
+        staffCount = staff;
+        for (int i = 0; i < staff; i++) {
+            addStaff();
+        }
+        firstUserId = nextUserId;
+        userCount = users;
+        for (int i = 0; i < users; i++) {
+            addUser();
+        }
+        flushAll();
+        System.out.println("员工和用户已生成，开始生成车辆经历...");
+
+        int progressStep = Math.max(1, cars / 10);
+        for (int i = 1; i <= cars; i++) {
+            addCar();
+            if (i % progressStep == 0) {
+                System.out.printf("  已生成车辆 %d/%d, 租车信息 %d 条%n", i, cars, rentBatch.total);
+            }
+        }
+        flushAll();
+    }
+
+    private void addStaff() throws SQLException {
+        int staffId = nextStaffId++;
+        boolean manager = random.nextInt(50) == 0;
+        staffBatch.add(staffId, randomName() + staffId, mobile("138", staffId),
+                start.minusDays(random.nextInt(3650)), manager ? "经理" : "员工", manager ? 1 : 2, "123456");
+    }
+
+    private void addUser() throws SQLException {
+        int userId = nextUserId++;
+        String judge;
+        int roll = random.nextInt(100);
+        if (roll < 2) {
+            judge = "非常低";
+        } else if (roll < 8) {
+            judge = "低";
+        } else if (roll < 70) {
+            judge = "中";
+        } else if (roll < 95) {
+            judge = "高";
+        } else {
+            judge = "非常高";
+        }
+        userBatch.add(userId, randomName(), identityId(), mobile("139", userId),
+                start.minusDays(random.nextInt(730)), random.nextInt(5) == 0 ? "是" : "非", judge);
+    }
+
+    /**
+     * 生成一辆车从购买（或数据区间开始）到today的经历，最后写入车辆本身
+     */
+    private void addCar() throws SQLException {
+        int carId = nextCarId++;
+        String[] model = MODELS[random.nextInt(MODELS.length)];
+        Money dailyRent = Money.ofYuan(150 + random.nextInt(66) * 10);
+        LocalDate purchaseDate = start.plusDays(random.nextInt(365) - 180);
+        LocalDate day = (purchaseDate.isAfter(start) ? purchaseDate : start).minusDays(1);
+        String status = "空闲";
+
+        while (true) {
+            // 上一次还车或修好的第二天起才能再租出
+            LocalDate rentDate = day.plusDays(1 + random.nextInt(maxIdleDays + 1));
+            if (rentDate.isAfter(today)) {
+                break;
+            }
+            int userId = firstUserId + random.nextInt(userCount);
+            int staffId = firstStaffId + random.nextInt(staffCount);
+            LocalDate plannedReturn = rentDate.plusDays(1 + random.nextInt(maxRentDays));
+            Money paid = RentInformationDAO.rentFor(dailyRent, rentDate, plannedReturn);
+            if (plannedReturn.isAfter(today)) {
+                // 仍在租借中
+                rentBatch.add(nextRentId++, carId, staffId, userId, rentDate, plannedReturn, paid, Money.ZERO);
+                addFines(carId, userId, rentDate, today);
+                status = "已借出";
+                break;
+            }
+
+            // 约五分之一提前还车
+            long plannedDays = plannedReturn.toEpochDay() - rentDate.toEpochDay();
+            LocalDate returnDate = random.nextInt(5) == 0
+                    ? rentDate.plusDays(1 + random.nextInt((int) plannedDays)) : plannedReturn;
+            boolean damaged = random.nextDouble() < damageRate;
+            String damage = damaged ? DAMAGES[random.nextInt(DAMAGES.length)] : null;
+            Money damageCost = damaged ? Money.ofYuan(100 + random.nextInt(20) * 100) : Money.ZERO;
+            rentBatch.add(nextRentId++, carId, staffId, userId, rentDate, returnDate, paid,
+                    RentInformationDAO.refundFor(paid, dailyRent, rentDate, returnDate, damageCost));
+            addFines(carId, userId, rentDate, returnDate);
+            day = returnDate;
+
+            // 损坏的车辆大多随即送修，其余的保持未维修，也可能在之后的例行维修中一并处理
+            boolean repaired = damaged && random.nextInt(5) != 0;
+            if (repaired || random.nextDouble() < maintainRate) {
+                LocalDate begin = returnDate.plusDays(random.nextInt(2));
+                LocalDate finish = begin.plusDays(1 + random.nextInt(repaired ? 7 : 3));
+                String describe = repaired ? "维修" + damage
+                        : ROUTINE_MAINTAINS[random.nextInt(ROUTINE_MAINTAINS.length)];
+                Money cost = Money.ofYuan(repaired ? 500 + random.nextInt(40) * 100 : 200 + random.nextInt(10) * 50);
+                maintainBatch.add(nextMaintainId++, carId, begin, describe, begin, finish, cost);
+                if (damaged) {
+                    damageBatch.add(carId, returnDate, damage, repaired ? "已维修" : "未维修");
+                }
+                if (!finish.isBefore(today)) {
+                    status = "维修中";
+                    break;
+                }
+                day = finish;
+            } else if (damaged) {
+                damageBatch.add(carId, returnDate, damage, "未维修");
+            }
+            flushIfFull();
+        }
+
+        carBatch.add(carId, String.format(Locale.ROOT, "京Z%06d", carId % 1_000_000), model[1],
+                COLORS[random.nextInt(COLORS.length)], status, model[0], purchaseDate, dailyRent,
+                dailyRent.times(20));
+        flushIfFull();
+    }
+
+    /**
+     * 在租期[rentDate, lastDate]内生成违章，较早的罚款大多已交
+     */
+    private void addFines(int carId, int userId, LocalDate rentDate, LocalDate lastDate) throws SQLException {
+        if (random.nextDouble() >= fineRate) {
+            return;
+        }
+        int days = (int) (lastDate.toEpochDay() - rentDate.toEpochDay()) + 1;
+        int count = 1 + (random.nextInt(10) == 0 ? 1 : 0);
+        for (int i = 0; i < count; i++) {
+            LocalDate violationDate = rentDate.plusDays(random.nextInt(days));
+            boolean old = violationDate.isBefore(today.minusDays(60));
+            String state = random.nextInt(10) < (old ? 9 : 3) ? "已交" : "未交";
+            fineBatch.add(carId, userId, violationDate, LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    Money.ofYuan(50 + random.nextInt(20) * 50), state);
+        }
+    }
+
+    private String randomName() {
+        return SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+    }
+
+    private static String mobile(String prefix, int id) {
+        return prefix + String.format(Locale.ROOT, "%08d", id % 100_000_000);
+    }
+
+    /**
+     * 18位身份证号：地区码、18至60岁的出生日期、顺序码和按GB 11643计算的校验码
+     */
+    private String identityId() {
+        LocalDate birth = today.minusYears(18).minusDays(random.nextInt(42 * 365));
+        StringBuilder id = new StringBuilder(18)
+                .append(REGIONS[random.nextInt(REGIONS.length)])
+                .append(String.format(Locale.ROOT, "%04d%02d%02d%03d", birth.getYear(), birth.getMonthValue(),
+                        birth.getDayOfMonth(), random.nextInt(1000)));
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (id.charAt(i) - '0') * ID_WEIGHTS[i];
+        }
+        return id.append(ID_CHECK_CODES.charAt(sum % 11)).toString();
+    }
+
+    private void flushIfFull() throws SQLException {
+        if (carBatch.isFull() || rentBatch.isFull() || fineBatch.isFull() || damageBatch.isFull()
+                || maintainBatch.isFull()) {
+            flushAll();
+        }
+    }
+
+    /**
+     * 按父表在前的顺序写出所有批次并提交
+     */
+    private void flushAll() throws SQLException {
+        staffBatch.flush();
+        userBatch.flush();
+        carBatch.flush();
+        rentBatch.flush();
+        fineBatch.flush();
+        damageBatch.flush();
+        maintainBatch.flush();
+        if (conn != null) {
+            conn.commit();
+        }
+    }
+
+    private void printSummary(double seconds) throws SQLException {
+        Batch[] batches = {carBatch, userBatch, staffBatch, rentBatch, fineBatch, damageBatch, maintainBatch};
+        long total = 0;
+        System.out.println("=====================================");
+        System.out.printf("%-22s %12s%n", "表", "行数");
+        for (Batch batch : batches) {
+            System.out.printf("%-22s %12d%n", batch.table, batch.total);
+            total += batch.total;
+            batch.close();
+        }
+        System.out.printf(Locale.ROOT, "共 %d 行, 用时 %.1f 秒, %.0f 行/秒%n", total, seconds, total / seconds);
+        System.out.println("测试数据生成完成！");
+    }
+
+    /**
+     * 一张表的批量插入：攒够batchSize行后由flushAll统一写出；dryRun时没有语句，只计数
+     */
+    private static final class Batch {
+        private final String table;
+        private final int batchSize;
+        private final PreparedStatement pstmt;
+        private int pending;
+        private long total;
+
+        Batch(Connection conn, String table, int batchSize, String sql) throws SQLException {
+            this.table = table;
+            this.batchSize = batchSize;
+            this.pstmt = conn == null ? null : conn.prepareStatement(sql);
+        }
+
+        void add(Object... values) throws SQLException {
+            if (pstmt != null) {
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    if (value instanceof LocalDate) {
+                        pstmt.setDate(i + 1, Date.valueOf((LocalDate) value));
+                    } else if (value instanceof Money) {
+                        Money.bind(pstmt, i + 1, (Money) value);
+                    } else {
+                        pstmt.setObject(i + 1, value);
+                    }
+                }
+                pstmt.addBatch();
+            }
+            pending++;
+            total++;
+        }
+
+        boolean isFull() {
+            return pending >= batchSize;
+        }
+
+        void flush() throws SQLException {
+            if (pending > 0 && pstmt != null) {
+                pstmt.executeBatch();
+            }
+            pending = 0;
+        }
+
+        void close() throws SQLException {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        }
+    }
+}
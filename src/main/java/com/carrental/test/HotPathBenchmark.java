@@ -0,0 +1,320 @@
+package com.carrental.test;
+
+import com.carrental.dao.RentInformationDAO;
+import com.carrental.dao.ResultSetMappers;
+import com.carrental.entity.Car;
+import com.carrental.entity.RentInformation;
+import com.carrental.service.CarService;
+import com.carrental.service.FleetIndex;
+import com.carrental.service.RentService;
+import com.carrental.util.Money;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.io.File;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 热点路径基准测试类
+ * 不需要数据库的部分用随机生成的数据测量：
+ *   DAO把结果集映射为实体（结果集为内存中的CachedRowSet，另测只遍历结果集的耗时作为基线）、
+ *   租金和退还金额计算、车辆管理界面原先的流式过滤与现在的内存索引搜索、按型号查询、在内存中汇总收入
+ * 加上参数db=true时，另外通过真实数据库测量CarService.getCarsByModel、RentService.calculateTotalRevenue
+ * 和RentInformationDAO.calculateRent
+ * 参数（key=value，均可省略）：
+ *   sizes=1000,10000,100000  数据规模（车辆数和租车记录数）
+ *   warmup=3 iterations=5 iterationMillis=1000  预热轮数、测量轮数、每轮时长
+ *   db=false  是否测量访问数据库的方法
+ *   out=bench-results  结果目录
+ */
+public class HotPathBenchmark {
+    private static final String[] BRANDS = {"丰田", "本田", "大众", "宝马", "奔驰", "奥迪", "比亚迪", "特斯拉"};
+    private static final String[][] MODELS = {
+            {"卡罗拉", "凯美瑞", "汉兰达"}, {"思域", "雅阁", "CR-V"}, {"朗逸", "帕萨特", "途观"},
+            {"3系", "5系", "X3"}, {"C级", "E级", "GLC"}, {"A4L", "A6L", "Q5"},
+            {"秦", "汉", "唐"}, {"Model 3", "Model Y", "Model S"}};
+    private static final String[] COLORS = {"白色", "黑色", "银色", "红色", "蓝色"};
+    private static final String[] STATUSES = {"空闲", "已借出", "维修中"};
+    // 车辆管理界面常见的搜索：搜索词、状态、品牌
+    private static final String[][] QUERIES = {
+            {"", "全部", "全部"}, {"", "空闲", "全部"}, {"", "全部", "丰田"}, {"京A1", "全部", "全部"},
+            {"凯美瑞", "空闲", "全部"}, {"Model", "全部", "特斯拉"}, {"A6L", "全部", "奥迪"}, {"粤B9", "已借出", "全部"}};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        LoadOptions options = new LoadOptions(args, settings::put);
+        int[] sizes = options.getInts("sizes", "1000,10000,100000");
+        int warmup = options.getInt("warmup", 3);
+        int iterations = options.getInt("iterations", 5);
+        long iterationMillis = options.getLong("iterationMillis", 1000);
+        boolean db = Boolean.parseBoolean(options.getString("db", "false"));
+        File out = new File(options.getString("out", "bench-results"));
+
+        Microbench bench = new Microbench("hot-path", warmup, iterations, iterationMillis);
+        settings.forEach(bench::setting);
+        bench.setting("java", System.getProperty("java.version"));
+
+        System.out.println("开始热点路径基准测试...");
+        System.out.println("=====================================");
+        bench.printHeader();
+
+        for (int size : sizes) {
+            Random random = new Random(213);
+            List<Car> cars = generateCars(random, size);
+            List<RentInformation> rents = generateRents(random, cars, size);
+            CachedRowSet carRows = carRowSet(cars);
+            CachedRowSet rentRows = rentRowSet(rents);
+            Money[] dailyRents = new Money[cars.size()];
+            for (Car car : cars) {
+                dailyRents[car.getCarId() - 1] = car.getRent();
+            }
+
+            bench.run("resultSetScanCar", size, () -> scan(carRows));
+            bench.run("mapResultSetToCar", size, () -> {
+                carRows.beforeFirst();
+                int rows = 0;
+                while (carRows.next()) {
+                    Microbench.consume(ResultSetMappers.car(carRows));
+                    rows++;
+                }
+                return rows;
+            });
+
+            bench.run("resultSetScanRent", size, () -> scan(rentRows));
+            bench.run("mapResultSetToRentInfo", size, () -> {
+                rentRows.beforeFirst();
+                int rows = 0;
+                while (rentRows.next()) {
+                    Microbench.consume(ResultSetMappers.rentInformation(rentRows));
+                    rows++;
+                }
+                return rows;
+            });
+
+            bench.run("calculateRent", size, () -> {
+                for (RentInformation rent : rents) {
+                    Money dailyRent = dailyRents[rent.getCarId() - 1];
+                    LocalDate returnDate = rent.getReturnDate() != null
+                            ? rent.getReturnDate() : rent.getRentDate().plusDays(3);
+                    Money paid = RentInformationDAO.rentFor(dailyRent, rent.getRentDate(), returnDate.plusDays(2));
+                    Microbench.consume(RentInformationDAO.refundFor(paid, dailyRent, rent.getRentDate(), returnDate,
+                            Money.ZERO).getCents());
+                }
+                return rents.size();
+            });
+
+            int[] query = {0};
+            bench.run("searchStreamFilter", size, () -> {
+                String[] q = QUERIES[query[0]++ % QUERIES.length];
+                Microbench.consume(streamFilter(cars, q[0], q[1], q[2]).size());
+                return 1;
+            });
+
+            FleetIndex index = FleetIndex.of(cars);
+            bench.run("fleetIndexSearch", size, () -> {
+                String[] q = QUERIES[query[0]++ % QUERIES.length];
+                Microbench.consume(index.search(q[0], q[1], q[2]).size());
+                return 1;
+            });
+
+            bench.run("fleetIndexFindByModel", size, () -> {
+                String[] models = MODELS[query[0]++ % MODELS.length];
+                Microbench.consume(index.findByModel(models[query[0] % models.length]).size());
+                return 1;
+            });
+
+            bench.run("totalRevenueInMemory", size, () -> {
+                Money total = Money.ZERO;
+                for (RentInformation rent : rents) {
+                    total = total.plus(rent.getPayTheAmount()).minus(rent.getReturnAmount());
+                }
+                Microbench.consume(total.getCents());
+                return rents.size();
+            });
+        }
+
+        if (db) {
+            runDatabaseBenchmarks(bench);
+        }
+
+        File csv = bench.write(out);
+        System.out.println("\n=====================================");
+        System.out.println("结果已写入: " + csv.getPath() + " 及同名JSON文件");
+        System.out.println("热点路径基准测试完成！");
+    }
+
+    /**
+     * 通过真实数据库测量，数据规模为数据库中现有的数据量（记为0）
+     */
+    private static void runDatabaseBenchmarks(Microbench bench) throws Exception {
+        CarService carService = new CarService();
+        RentService rentService = new RentService();
+        RentInformationDAO rentDAO = new RentInformationDAO();
+        List<Car> cars = carService.getAllCars();
+        if (cars.isEmpty()) {
+            System.err.println("数据库中没有车辆，跳过访问数据库的基准");
+            return;
+        }
+        int[] next = {0};
+        bench.run("db.getCarsByModel", 0, () -> {
+            Car car = cars.get(next[0]++ % cars.size());
+            Microbench.consume(carService.getCarsByModel(car.getModel()).size());
+            return 1;
+        });
+        bench.run("db.calculateTotalRevenue", 0, () -> {
+            Microbench.consume(rentService.calculateTotalRevenue().getCents());
+            return 1;
+        });
+        LocalDate today = LocalDate.now();
+        bench.run("db.calculateRent", 0, () -> {
+            Car car = cars.get(next[0]++ % cars.size());
+            Microbench.consume(rentDAO.calculateRent(car.getCarId(), today, today.plusDays(3)).getCents());
+            return 1;
+        });
+    }
+
+    /**
+     * 车辆管理界面原先的搜索：读出全部车辆后依次过滤
+     */
+    private static List<Car> streamFilter(List<Car> cars, String searchText, String status, String brand) {
+        return cars.stream()
+                .filter(car -> searchText.isEmpty() ||
+                    car.getLicensePlateNumber().contains(searchText) ||
+                    car.getBrand().contains(searchText) ||
+                    car.getModel().contains(searchText))
+                .filter(car -> status.equals("全部") || car.getStatus().equals(status))
+                .filter(car -> brand.equals("全部") || car.getBrand().equals(brand))
+                .collect(Collectors.toList());
+    }
+
+    private static int scan(ResultSet rs) throws SQLException {
+        rs.beforeFirst();
+        int rows = 0;
+        while (rs.next()) {
+            Microbench.consume(rs.getInt(1));
+            rows++;
+        }
+        return rows;
+    }
+
+    private static List<Car> generateCars(Random random, int count) {
+        String[] regions = {"京A", "京B", "沪A", "粤B", "浙A"};
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int b = random.nextInt(BRANDS.length);
+            Car car = new Car();
+            car.setCarId(i);
+            car.setLicensePlateNumber(regions[random.nextInt(regions.length)]
+                    + String.format("%05d", random.nextInt(100000)));
+            car.setBrand(BRANDS[b]);
+            car.setModel(MODELS[b][random.nextInt(MODELS[b].length)]);
+            car.setColor(COLORS[random.nextInt(COLORS.length)]);
+            car.setStatus(STATUSES[random.nextInt(10) < 6 ? 0 : 1 + random.nextInt(2)]);
+            car.setPurchaseDate(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000)));
+            car.setRent(Money.ofCents(10000 + random.nextInt(90000)));
+            car.setDeposit(Money.ofYuan(1000 + random.nextInt(9) * 1000));
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    private static List<RentInformation> generateRents(Random random, List<Car> cars, int count) {
+        List<RentInformation> rents = new ArrayList<>(count);
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        for (int i = 1; i <= count; i++) {
+            Car car = cars.get(random.nextInt(cars.size()));
+            int planned = 1 + random.nextInt(30);
+            int actual = 1 + random.nextInt(planned);
+            RentInformation rent = new RentInformation();
+            rent.setRentId(i);
+            rent.setCarId(car.getCarId());
+            rent.setStaffId(1 + random.nextInt(20));
+            rent.setUserId(1 + random.nextInt(5000));
+            rent.setRentDate(first.plusDays(random.nextInt(2000)));
+            rent.setPayTheAmount(car.getRent().times(planned));
+            // 约5%尚未归还
+            if (random.nextInt(20) > 0) {
+                rent.setReturnDate(rent.getRentDate().plusDays(actual));
+                rent.setReturnAmount(car.getRent().times(planned - actual));
+            } else {
+                rent.setReturnAmount(Money.ZERO);
+            }
+            rents.add(rent);
+        }
+        return rents;
+    }
+
+    private static CachedRowSet carRowSet(List<Car> cars) throws SQLException {
+        CachedRowSet rs = newRowSet(new String[]{"car_id", "license_plate_number", "model", "color", "status",
+                "brand", "purchase_date", "rent", "deposit"},
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.VARCHAR, Types.DATE, Types.DECIMAL, Types.DECIMAL});
+        for (Car car : cars) {
+            rs.moveToInsertRow();
+            rs.updateInt(1, car.getCarId());
+            rs.updateString(2, car.getLicensePlateNumber());
+            rs.updateString(3, car.getModel());
+            rs.updateString(4, car.getColor());
+            rs.updateString(5, car.getStatus());
+            rs.updateString(6, car.getBrand());
+            rs.updateDate(7, Date.valueOf(car.getPurchaseDate()));
+            rs.updateBigDecimal(8, car.getRent().toBigDecimal());
+            rs.updateBigDecimal(9, car.getDeposit().toBigDecimal());
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+        return rs;
+    }
+
+    private static CachedRowSet rentRowSet(List<RentInformation> rents) throws SQLException {
+        CachedRowSet rs = newRowSet(new String[]{"rent_id", "car_id", "staff_id", "user_id", "rent_date",
+                "return_date", "pay_the_amount", "return_amount"},
+                new int[]{Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.DATE,
+                        Types.DATE, Types.DECIMAL, Types.DECIMAL});
+        for (RentInformation rent : rents) {
+            rs.moveToInsertRow();
+            rs.updateInt(1, rent.getRentId());
+            rs.updateInt(2, rent.getCarId());
+            rs.updateInt(3, rent.getStaffId());
+            rs.updateInt(4, rent.getUserId());
+            rs.updateDate(5, Date.valueOf(rent.getRentDate()));
+            if (rent.getReturnDate() != null) {
+                rs.updateDate(6, Date.valueOf(rent.getReturnDate()));
+            } else {
+                rs.updateNull(6);
+            }
+            rs.updateBigDecimal(7, rent.getPayTheAmount().toBigDecimal());
+            rs.updateBigDecimal(8, rent.getReturnAmount().toBigDecimal());
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+        return rs;
+    }
+
+    private static CachedRowSet newRowSet(String[] names, int[] types) throws SQLException {
+        CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(names.length);
+        for (int i = 0; i < names.length; i++) {
+            metaData.setColumnName(i + 1, names[i]);
+            metaData.setColumnType(i + 1, types[i]);
+            if (types[i] == Types.DECIMAL) {
+                metaData.setScale(i + 1, 2);
+                metaData.setPrecision(i + 1, 12);
+            }
+        }
+        rs.setMetaData(metaData);
+        return rs;
+    }
+}
@@ -0,0 +1,105 @@
+package com.carrental.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图，供压测程序统计百分位
+ * 以微秒记录，每个2的幂区间再均分为32个桶，相对误差不超过约3%；可多线程同时记录，不加锁
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = SUB_COUNT * (64 - SUB_BITS + 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     * @param nanos 纳秒
+     */
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        total.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        long max;
+        while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+            // 其他线程同时更新了最大值，重新比较
+        }
+    }
+
+    long getCount() {
+        return total.get();
+    }
+
+    double getMeanMillis() {
+        long count = total.get();
+        return count == 0 ? 0 : sumMicros.get() / 1000.0 / count;
+    }
+
+    double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * @param percentile 百分位，例如99.9
+     * @return 该百分位所在桶的上界（毫秒），没有记录时为0
+     */
+    double percentileMillis(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * 逐个访问非空的桶
+     */
+    void forEachBucket(BucketVisitor visitor) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                visitor.visit(upperBound(i), count);
+            }
+        }
+    }
+
+    interface BucketVisitor {
+        /**
+         * @param upperMicros 桶内耗时的上界（微秒）
+         * @param count 落在桶内的次数
+         */
+        void visit(long upperMicros, long count);
+    }
+
+    private static int bucket(long micros) {
+        if (micros < SUB_COUNT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BITS;
+        return SUB_COUNT + shift * SUB_COUNT + (int) ((micros >>> shift) - SUB_COUNT);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long sub = bucket % SUB_COUNT;
+        return ((SUB_COUNT + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.carrental.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测驱动
+ * rate大于0时为开环：按固定到达率提交请求，不管之前的请求是否完成，耗时从计划到达时刻算起，包含排队时间；
+ * rate为0时为闭环：每个线程完成一个请求后立即发起下一个。预热期间的请求照常执行但不计入统计
+ */
+final class LoadDriver {
+    /**
+     * 一次请求
+     */
+    interface Task {
+        /**
+         * @param intendedStart 计划开始时刻（System.nanoTime），计算耗时的起点
+         * @param measured 是否计入统计，预热期间为false
+         */
+        void run(long intendedStart, boolean measured) throws Exception;
+    }
+
+    private final int threads;
+    private final double ratePerSecond;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    /**
+     * @param threads 执行请求的线程数
+     * @param ratePerSecond 每秒到达的请求数，0表示闭环
+     * @param warmupSeconds 预热时长
+     * @param durationSeconds 计入统计的时长
+     */
+    LoadDriver(int threads, double ratePerSecond, int warmupSeconds, int durationSeconds) {
+        this.threads = Math.max(1, threads);
+        this.ratePerSecond = Math.max(0, ratePerSecond);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Math.max(0, warmupSeconds));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, durationSeconds));
+    }
+
+    /**
+     * 执行压测，直到预热和统计时长都结束且已提交的请求全部完成
+     * @return 实际计入统计的秒数，开环时包含统计期结束后处理积压请求的时间
+     */
+    double run(Task task) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long end = measureStart + durationNanos;
+        long finished = ratePerSecond > 0
+                ? runOpenLoop(task, start, measureStart, end)
+                : runClosedLoop(task, measureStart, end);
+        return (Math.max(end, finished) - measureStart) / 1e9;
+    }
+
+    /**
+     * @return 抛出异常的请求数
+     */
+    long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return 完成的请求数，包含预热期间
+     */
+    long getCompleted() {
+        return completed.get();
+    }
+
+    private long runClosedLoop(Task task, long measureStart, long end) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, this::newThread);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        execute(task, now, now >= measureStart);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        return end;
+    }
+
+    private long runOpenLoop(Task task, long start, long measureStart, long end) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, this::newThread);
+        long interval = Math.max(1, (long) (1e9 / ratePerSecond));
+        for (long arrival = start; arrival < end; arrival += interval) {
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            final long intendedStart = arrival;
+            executor.execute(() -> execute(task, intendedStart, intendedStart >= measureStart));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+            System.err.println("积压请求在10分钟内未完成");
+            executor.shutdownNow();
+        }
+        return System.nanoTime();
+    }
+
+    private void execute(Task task, long intendedStart, boolean measured) {
+        try {
+            task.run(intendedStart, measured);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (failures.incrementAndGet() <= 10) {
+                System.err.println("请求发生异常: " + e);
+            }
+        } finally {
+            completed.incrementAndGet();
+        }
+    }
+
+    private Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "load-worker");
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -0,0 +1,66 @@
+package com.carrental.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 压测程序的命令行参数
+ * 参数写成key=value，例如 threads=32 rate=200；未给出的参数取默认值。用到的参数都会交给settings记入结果
+ */
+final class LoadOptions {
+    private final Map<String, String> values = new HashMap<>();
+    private final BiConsumer<String, Object> settings;
+
+    LoadOptions(String[] args, BiConsumer<String, Object> settings) {
+        this.settings = settings;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("参数格式应为key=value: " + arg);
+            }
+            values.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+    }
+
+    int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        int result = value == null ? defaultValue : Integer.parseInt(value);
+        settings.accept(key, result);
+        return result;
+    }
+
+    long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        long result = value == null ? defaultValue : Long.parseLong(value);
+        settings.accept(key, result);
+        return result;
+    }
+
+    double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        double result = value == null ? defaultValue : Double.parseDouble(value);
+        settings.accept(key, result);
+        return result;
+    }
+
+    /**
+     * @return 逗号分隔的整数列表
+     */
+    int[] getInts(String key, String defaultValue) {
+        String value = values.getOrDefault(key, defaultValue);
+        settings.accept(key, value);
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    String getString(String key, String defaultValue) {
+        String result = values.getOrDefault(key, defaultValue);
+        settings.accept(key, result);
+        return result;
+    }
+}
@@ -0,0 +1,236 @@
+package com.carrental.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 压测结果
+ * 按操作统计耗时直方图和各种结果的次数，输出到控制台，并写成JSON和CSV文件，便于比较不同版本
+ */
+final class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Set<String> conflictOutcomes = new HashSet<>();
+    private volatile double measuredSeconds;
+
+    LoadReport(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 记录压测参数，原样写入结果文件
+     */
+    void setting(String key, Object value) {
+        settings.put(key, String.valueOf(value));
+    }
+
+    /**
+     * 记录一次操作
+     * @param operation 操作名
+     * @param outcome 结果，例如SUCCESS、ALREADY_LOGGED_IN
+     * @param nanos 耗时（纳秒）
+     */
+    void record(String operation, String outcome, long nanos) {
+        Operation op = operations.computeIfAbsent(operation, k -> new Operation());
+        op.latency.record(nanos);
+        op.outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 指定哪些结果算作冲突（例如车辆已被他人租出），SUCCESS和这些结果以外的都算作失败
+     */
+    void setConflictOutcomes(String... outcomes) {
+        conflictOutcomes.addAll(Arrays.asList(outcomes));
+        setting("conflictOutcomes", String.join(",", new TreeSet<>(conflictOutcomes)));
+    }
+
+    /**
+     * @param seconds 计入统计的时长，用于计算吞吐量
+     */
+    void setMeasuredSeconds(double seconds) {
+        this.measuredSeconds = seconds;
+    }
+
+    /**
+     * 在控制台输出每个操作的汇总
+     */
+    void print() {
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            Operation op = entry.getValue();
+            LatencyHistogram h = op.latency;
+            System.out.printf("%s: %d 次, %.1f 次/秒, 平均 %.2f 毫秒, p50 %.2f, p99 %.2f, p999 %.2f, 最大 %.2f 毫秒%n",
+                    entry.getKey(), h.getCount(), throughput(h), h.getMeanMillis(), h.percentileMillis(50),
+                    h.percentileMillis(99), h.percentileMillis(99.9), h.getMaxMillis());
+            System.out.printf("  结果: %s, 冲突 %.1f%%, 失败 %.1f%%%n", outcomeCounts(op),
+                    conflictRate(op) * 100, failureRate(op) * 100);
+        }
+    }
+
+    /**
+     * 写出结果文件：name-时间.json包含参数、汇总和直方图，name-时间.csv每个操作一行汇总
+     * @param directory 输出目录，不存在时创建
+     * @return JSON文件
+     */
+    File write(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录: " + directory);
+        }
+        String base = name + "-" + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File json = new File(directory, base + ".json");
+        try (PrintWriter out = new PrintWriter(json, StandardCharsets.UTF_8.name())) {
+            writeJson(out);
+        }
+        try (PrintWriter out = new PrintWriter(new File(directory, base + ".csv"), StandardCharsets.UTF_8.name())) {
+            writeCsv(out);
+        }
+        return json;
+    }
+
+    private void writeJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"name\": " + quote(name) + ",");
+        out.println("  \"startedAt\": " + quote(startedAt.toString()) + ",");
+        out.println("  \"measuredSeconds\": " + format(measuredSeconds) + ",");
+        out.println("  \"settings\": {");
+        int i = 0;
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            out.println("    " + quote(entry.getKey()) + ": " + quote(entry.getValue())
+                    + (++i < settings.size() ? "," : ""));
+        }
+        out.println("  },");
+        out.println("  \"operations\": [");
+        Map<String, Operation> sorted = new TreeMap<>(operations);
+        i = 0;
+        for (Map.Entry<String, Operation> entry : sorted.entrySet()) {
+            Operation op = entry.getValue();
+            LatencyHistogram h = op.latency;
+            out.println("    {");
+            out.println("      \"name\": " + quote(entry.getKey()) + ",");
+            out.println("      \"count\": " + h.getCount() + ",");
+            out.println("      \"throughputPerSecond\": " + format(throughput(h)) + ",");
+            StringBuilder outcomes = new StringBuilder();
+            for (Map.Entry<String, Long> outcome : outcomeCounts(op).entrySet()) {
+                outcomes.append(outcomes.length() == 0 ? "" : ", ")
+                        .append(quote(outcome.getKey())).append(": ").append(outcome.getValue());
+            }
+            out.println("      \"outcomes\": {" + outcomes + "},");
+            out.println("      \"conflictRate\": " + format(conflictRate(op)) + ",");
+            out.println("      \"failureRate\": " + format(failureRate(op)) + ",");
+            out.print("      \"latencyMillis\": {\"mean\": " + format(h.getMeanMillis()));
+            for (double p : PERCENTILES) {
+                out.print(", " + quote(percentileName(p)) + ": " + format(h.percentileMillis(p)));
+            }
+            out.println(", \"max\": " + format(h.getMaxMillis()) + "},");
+            StringBuilder buckets = new StringBuilder();
+            h.forEachBucket((upperMicros, count) -> buckets.append(buckets.length() == 0 ? "" : ", ")
+                    .append('[').append(upperMicros).append(", ").append(count).append(']'));
+            out.println("      \"histogramMicros\": [" + buckets + "]");
+            out.println("    }" + (++i < sorted.size() ? "," : ""));
+        }
+        out.println("  ]");
+        out.println("}");
+    }
+
+    private void writeCsv(PrintWriter out) {
+        StringBuilder header = new StringBuilder("operation,count,throughput_per_second,mean_ms");
+        for (double p : PERCENTILES) {
+            header.append(',').append(percentileName(p)).append("_ms");
+        }
+        out.println(header.append(",max_ms,conflict_rate,failure_rate,outcomes"));
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            LatencyHistogram h = entry.getValue().latency;
+            StringBuilder line = new StringBuilder(entry.getKey()).append(',').append(h.getCount())
+                    .append(',').append(format(throughput(h))).append(',').append(format(h.getMeanMillis()));
+            for (double p : PERCENTILES) {
+                line.append(',').append(format(h.percentileMillis(p)));
+            }
+            line.append(',').append(format(h.getMaxMillis()))
+                    .append(',').append(format(conflictRate(entry.getValue())))
+                    .append(',').append(format(failureRate(entry.getValue()))).append(",\"");
+            int i = 0;
+            for (Map.Entry<String, Long> outcome : outcomeCounts(entry.getValue()).entrySet()) {
+                line.append(i++ == 0 ? "" : ";").append(outcome.getKey()).append('=').append(outcome.getValue());
+            }
+            out.println(line.append('"'));
+        }
+    }
+
+    private double throughput(LatencyHistogram h) {
+        return measuredSeconds > 0 ? h.getCount() / measuredSeconds : 0;
+    }
+
+    private double conflictRate(Operation op) {
+        return share(op, outcome -> conflictOutcomes.contains(outcome));
+    }
+
+    private double failureRate(Operation op) {
+        return share(op, outcome -> !"SUCCESS".equals(outcome) && !conflictOutcomes.contains(outcome));
+    }
+
+    private static double share(Operation op, Predicate<String> filter) {
+        long total = 0;
+        long matched = 0;
+        for (Map.Entry<String, LongAdder> entry : op.outcomes.entrySet()) {
+            long count = entry.getValue().sum();
+            total += count;
+            if (filter.test(entry.getKey())) {
+                matched += count;
+            }
+        }
+        return total == 0 ? 0 : (double) matched / total;
+    }
+
+    private static Map<String, Long> outcomeCounts(Operation op) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : op.outcomes.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    private static String percentileName(double p) {
+        return p == 99.9 ? "p999" : "p" + (int) p;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static final class Operation {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    }
+}
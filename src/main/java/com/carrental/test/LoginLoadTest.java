@@ -0,0 +1,106 @@
+package com.carrental.test;
+
+import com.carrental.dao.StaffDAO;
+import com.carrental.dao.UserDAO;
+import com.carrental.entity.LoginOutcome;
+import com.carrental.entity.Staff;
+import com.carrental.entity.User;
+import com.carrental.service.SessionService;
+import com.carrental.service.UserService;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 登录压测程序
+ * 用数据库中已有的多个员工和用户账号反复执行员工登录、登出和用户登录，
+ * 统计每种操作的耗时百分位、吞吐量和各种结果的次数，结果写入out目录下的JSON和CSV文件
+ * 参数（key=value，均可省略）：
+ *   threads=16          执行请求的线程数
+ *   rate=0              每秒到达的请求数，0表示闭环（每个线程做完一个立即做下一个）
+ *   warmupSeconds=10    预热时长，期间的请求不计入统计
+ *   durationSeconds=60  统计时长
+ *   staffAccounts=50    参与压测的员工账号数
+ *   userAccounts=200    参与压测的用户账号数
+ *   userLoginRatio=0.3  请求中用户登录所占比例，其余为员工登录（成功后登出）
+ *   holdMillis=0        员工登录成功后持有会话的时间，越长同一账号的并发登录越容易被拒
+ *   out=load-results    结果目录
+ * 员工账号同时只能登录一次，并发登录同一账号被拒记为ALREADY_LOGGED_IN；连接池借用超时等数据库错误记为DATABASE_ERROR
+ */
+public class LoginLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadReport report = new LoadReport("login-load");
+        LoadOptions options = new LoadOptions(args, report::setting);
+        int threads = options.getInt("threads", 16);
+        double rate = options.getDouble("rate", 0);
+        int warmupSeconds = options.getInt("warmupSeconds", 10);
+        int durationSeconds = options.getInt("durationSeconds", 60);
+        int staffAccounts = options.getInt("staffAccounts", 50);
+        int userAccounts = options.getInt("userAccounts", 200);
+        double userLoginRatio = options.getDouble("userLoginRatio", 0.3);
+        long holdMillis = options.getLong("holdMillis", 0);
+        File out = new File(options.getString("out", "load-results"));
+
+        List<Staff> staffList = new StaffDAO().getAllStaff();
+        if (staffList.size() > staffAccounts) {
+            staffList = staffList.subList(0, staffAccounts);
+        }
+        List<User> users = new UserDAO().getUsersPage(null, null, null, 0, userAccounts);
+        if (staffList.isEmpty() || (userLoginRatio > 0 && users.isEmpty())) {
+            System.err.println("压测需要至少一个员工账号，用户登录比例大于0时还需要至少一个用户账号");
+            return;
+        }
+        report.setConflictOutcomes(LoginOutcome.ALREADY_LOGGED_IN.name());
+        report.setting("staffAccountsFound", staffList.size());
+        report.setting("userAccountsFound", users.size());
+
+        System.out.println("开始登录压测...");
+        System.out.println("线程数: " + threads + (rate > 0 ? ", 开环 " + rate + " 次/秒" : ", 闭环"));
+        System.out.println("员工账号: " + staffList.size() + ", 用户账号: " + users.size());
+        System.out.println("预热 " + warmupSeconds + " 秒, 统计 " + durationSeconds + " 秒");
+        System.out.println("=====================================");
+
+        UserService userService = new UserService();
+        List<Staff> staffAccountList = staffList;
+        LoadDriver driver = new LoadDriver(threads, rate, warmupSeconds, durationSeconds);
+        double measuredSeconds = driver.run((intendedStart, measured) -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < userLoginRatio) {
+                User user = users.get(random.nextInt(users.size()));
+                User result = userService.userLogin(user.getPhone(), user.getIdentityId());
+                record(report, measured, "userLogin", result != null ? "SUCCESS" : "FAILED", intendedStart);
+                return;
+            }
+
+            Staff staff = staffAccountList.get(random.nextInt(staffAccountList.size()));
+            SessionService.LoginResult result = userService.login(staff.getName(), staff.getPassword());
+            record(report, measured, "staffLogin", result.getOutcome().name(), intendedStart);
+            if (result.isSuccess()) {
+                if (holdMillis > 0) {
+                    Thread.sleep(holdMillis);
+                }
+                long start = System.nanoTime();
+                boolean released = userService.logout(result.getSession());
+                record(report, measured, "staffLogout", released ? "SUCCESS" : "NOT_HELD", start);
+            }
+        });
+        report.setMeasuredSeconds(measuredSeconds);
+        report.setting("uncaughtExceptions", driver.getFailures());
+
+        System.out.println("\n=====================================");
+        System.out.printf("完成请求 %d 个（含预热）, 异常 %d 个, 统计时长 %.1f 秒%n",
+                driver.getCompleted(), driver.getFailures(), measuredSeconds);
+        report.print();
+        File json = report.write(out);
+        System.out.println("结果已写入: " + json.getPath() + " 及同名CSV文件");
+        System.out.println("登录压测完成！");
+    }
+
+    private static void record(LoadReport report, boolean measured, String operation, String outcome, long start) {
+        if (measured) {
+            report.record(operation, outcome, System.nanoTime() - start);
+        }
+    }
+}
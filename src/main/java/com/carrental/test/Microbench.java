@@ -0,0 +1,193 @@
+package com.carrental.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 微基准测试工具
+ * 每个基准先预热若干轮，再测量若干轮，每轮反复执行到规定时长；
+ * 报告每次操作的耗时和分配的字节数，分配量由HotSpot的线程分配计数得出
+ * 被测代码的结果交给consume，避免被JIT当作无用代码消除
+ */
+final class Microbench {
+    /**
+     * 被测代码
+     */
+    interface Body {
+        /**
+         * @return 本次调用完成的操作数，例如映射的行数
+         */
+        int run() throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static long sink;
+
+    private final String name;
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private final List<Result> results = new ArrayList<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    /**
+     * @param name 结果文件名前缀
+     * @param warmupIterations 预热轮数
+     * @param measureIterations 测量轮数
+     * @param iterationMillis 每轮时长（毫秒）
+     */
+    Microbench(String name, int warmupIterations, int measureIterations, long iterationMillis) {
+        this.name = name;
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = Math.max(1, measureIterations);
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    static void consume(long value) {
+        sink += value;
+    }
+
+    static void consume(Object value) {
+        sink += value == null ? 0 : 1;
+    }
+
+    /**
+     * 记录参数，原样写入结果文件
+     */
+    void setting(String key, Object value) {
+        settings.put(key, String.valueOf(value));
+    }
+
+    /**
+     * 执行一个基准并输出结果
+     * @param benchmark 基准名
+     * @param size 数据规模
+     * @param body 被测代码
+     */
+    void run(String benchmark, int size, Body body) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(body);
+        }
+        double bestNanosPerOp = Double.MAX_VALUE;
+        double totalNanos = 0;
+        double totalBytes = 0;
+        long totalOps = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long[] measured = iteration(body);
+            bestNanosPerOp = Math.min(bestNanosPerOp, (double) measured[1] / measured[0]);
+            totalOps += measured[0];
+            totalNanos += measured[1];
+            totalBytes += measured[2];
+        }
+        Result result = new Result(benchmark, size, totalOps, totalNanos / totalOps, bestNanosPerOp,
+                totalBytes / totalOps, totalBytes / (1 << 20) / (totalNanos / 1e9));
+        results.add(result);
+        System.out.printf(Locale.ROOT, "%-24s %8d %14.1f %14.1f %12.1f %12.1f%n", benchmark, size,
+                result.nanosPerOp, result.bestNanosPerOp, result.bytesPerOp, result.allocMbPerSecond);
+    }
+
+    /**
+     * 输出表头，与run输出的各列对应
+     */
+    void printHeader() {
+        System.out.printf("%-24s %8s %14s %14s %12s %12s%n",
+                "benchmark", "size", "ns/op", "best ns/op", "B/op", "alloc MB/s");
+    }
+
+    /**
+     * 写出结果文件：name-时间.csv每个基准一行，name-时间.json另含参数
+     * @param directory 输出目录，不存在时创建
+     * @return CSV文件
+     */
+    File write(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录: " + directory);
+        }
+        String base = name + "-" + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File csv = new File(directory, base + ".csv");
+        try (PrintWriter out = new PrintWriter(csv, StandardCharsets.UTF_8.name())) {
+            out.println("benchmark,size,ops,ns_per_op,best_ns_per_op,bytes_per_op,alloc_mb_per_second");
+            for (Result r : results) {
+                out.println(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f", r.benchmark, r.size,
+                        r.ops, r.nanosPerOp, r.bestNanosPerOp, r.bytesPerOp, r.allocMbPerSecond));
+            }
+        }
+        try (PrintWriter out = new PrintWriter(new File(directory, base + ".json"), StandardCharsets.UTF_8.name())) {
+            out.println("{");
+            out.println("  \"name\": \"" + name + "\",");
+            out.println("  \"startedAt\": \"" + startedAt + "\",");
+            out.println("  \"settings\": {");
+            int i = 0;
+            for (Map.Entry<String, String> entry : settings.entrySet()) {
+                out.println("    \"" + entry.getKey() + "\": \"" + entry.getValue() + "\""
+                        + (++i < settings.size() ? "," : ""));
+            }
+            out.println("  },");
+            out.println("  \"results\": [");
+            i = 0;
+            for (Result r : results) {
+                out.println(String.format(Locale.ROOT, "    {\"benchmark\": \"%s\", \"size\": %d, \"ops\": %d, "
+                                + "\"nsPerOp\": %.3f, \"bestNsPerOp\": %.3f, \"bytesPerOp\": %.3f, "
+                                + "\"allocMbPerSecond\": %.3f}%s", r.benchmark, r.size, r.ops, r.nanosPerOp,
+                        r.bestNanosPerOp, r.bytesPerOp, r.allocMbPerSecond, ++i < results.size() ? "," : ""));
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+        // 确保sink被使用
+        if (sink == 42) {
+            System.out.println();
+        }
+        return csv;
+    }
+
+    /**
+     * @return 操作数、耗时（纳秒）、分配字节数
+     */
+    private long[] iteration(Body body) throws Exception {
+        long ops = 0;
+        long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            ops += body.run();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long bytes = THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+        return new long[]{Math.max(1, ops), elapsed, bytes};
+    }
+
+    private static final class Result {
+        private final String benchmark;
+        private final int size;
+        private final long ops;
+        private final double nanosPerOp;
+        private final double bestNanosPerOp;
+        private final double bytesPerOp;
+        private final double allocMbPerSecond;
+
+        Result(String benchmark, int size, long ops, double nanosPerOp, double bestNanosPerOp,
+               double bytesPerOp, double allocMbPerSecond) {
+            this.benchmark = benchmark;
+            this.size = size;
+            this.ops = ops;
+            this.nanosPerOp = nanosPerOp;
+            this.bestNanosPerOp = bestNanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.allocMbPerSecond = allocMbPerSecond;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.carrental.test;
+
+import com.carrental.util.Money;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * 金额运算基准测试类
+ * 用随机生成的租车记录比较BigDecimal和Money在批量计算租金、退还金额和收入汇总时的耗时，
+ * 两种方式的结果必须完全一致；不需要连接数据库
+ */
+public class MoneyBenchmark {
+    private static final int RENTAL_COUNT = 1_000_000;
+    private static final int CAR_COUNT = 500;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    // 租车记录，金额以数据库读出的文本形式生成，再分别转换为两种类型
+    private static final int[] carIds = new int[RENTAL_COUNT];
+    private static final int[] plannedDays = new int[RENTAL_COUNT];
+    private static final int[] actualDays = new int[RENTAL_COUNT];
+    private static final BigDecimal[] decimalRents = new BigDecimal[RENTAL_COUNT];
+    private static final BigDecimal[] decimalDamages = new BigDecimal[RENTAL_COUNT];
+    private static final Money[] moneyRents = new Money[RENTAL_COUNT];
+    private static final Money[] moneyDamages = new Money[RENTAL_COUNT];
+
+    public static void main(String[] args) {
+        System.out.println("开始金额运算基准测试...");
+        System.out.println("租车记录数: " + RENTAL_COUNT);
+        System.out.println("车辆数: " + CAR_COUNT);
+        System.out.println("=====================================");
+
+        generate(new Random(213));
+
+        BigDecimal decimalTotal = null;
+        Money moneyTotal = null;
+        long decimalBest = Long.MAX_VALUE;
+        long moneyBest = Long.MAX_VALUE;
+        for (int round = 1; round <= WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+            long start = System.nanoTime();
+            decimalTotal = revenueWithBigDecimal();
+            long decimalNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            moneyTotal = revenueWithMoney();
+            long moneyNanos = System.nanoTime() - start;
+
+            if (round > WARMUP_ROUNDS) {
+                decimalBest = Math.min(decimalBest, decimalNanos);
+                moneyBest = Math.min(moneyBest, moneyNanos);
+                System.out.printf("第 %d 轮: BigDecimal %.1f 毫秒, Money %.1f 毫秒%n",
+                        round - WARMUP_ROUNDS, decimalNanos / 1e6, moneyNanos / 1e6);
+            }
+        }
+
+        System.out.println("\n=====================================");
+        System.out.println("BigDecimal 收入合计: " + decimalTotal);
+        System.out.println("Money 收入合计: " + moneyTotal);
+        boolean same = Money.of(decimalTotal).equals(moneyTotal);
+        System.out.println(same ? "✓ 两种方式结果一致" : "✗ 结果不一致！");
+        System.out.printf("最快一轮: BigDecimal %.1f 毫秒, Money %.1f 毫秒, 加速 %.1f 倍%n",
+                decimalBest / 1e6, moneyBest / 1e6, (double) decimalBest / moneyBest);
+    }
+
+    /**
+     * 生成日租金100~999.99元、计划租期1~30天的租车记录，约十分之一有损坏费用
+     */
+    private static void generate(Random random) {
+        for (int i = 0; i < RENTAL_COUNT; i++) {
+            carIds[i] = random.nextInt(CAR_COUNT);
+            plannedDays[i] = 1 + random.nextInt(30);
+            actualDays[i] = 1 + random.nextInt(plannedDays[i]);
+            String rent = (100 + random.nextInt(900)) + "." + String.format("%02d", random.nextInt(100));
+            String damage = random.nextInt(10) == 0 ? random.nextInt(2000) + ".50" : "0.00";
+            decimalRents[i] = new BigDecimal(rent);
+            decimalDamages[i] = new BigDecimal(damage);
+            moneyRents[i] = Money.parse(rent);
+            moneyDamages[i] = Money.parse(damage);
+        }
+    }
+
+    /**
+     * 支付金额 = 日租金 × 计划天数，退还金额 = 支付金额 - 日租金 × 实际天数 - 损坏费用，
+     * 收入 = 支付金额 - 退还金额，按车辆累计后再求总和
+     */
+    private static BigDecimal revenueWithBigDecimal() {
+        BigDecimal[] byCar = new BigDecimal[CAR_COUNT];
+        for (int c = 0; c < CAR_COUNT; c++) {
+            byCar[c] = BigDecimal.ZERO;
+        }
+        for (int i = 0; i < RENTAL_COUNT; i++) {
+            BigDecimal pay = decimalRents[i].multiply(BigDecimal.valueOf(plannedDays[i]));
+            BigDecimal actualRent = decimalRents[i].multiply(BigDecimal.valueOf(actualDays[i]));
+            BigDecimal returnAmount = pay.subtract(actualRent).subtract(decimalDamages[i]);
+            byCar[carIds[i]] = byCar[carIds[i]].add(pay.subtract(returnAmount));
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal revenue : byCar) {
+            total = total.add(revenue);
+        }
+        return total;
+    }
+
+    private static Money revenueWithMoney() {
+        Money[] byCar = new Money[CAR_COUNT];
+        for (int c = 0; c < CAR_COUNT; c++) {
+            byCar[c] = Money.ZERO;
+        }
+        for (int i = 0; i < RENTAL_COUNT; i++) {
+            Money pay = moneyRents[i].times(plannedDays[i]);
+            Money actualRent = moneyRents[i].times(actualDays[i]);
+            Money returnAmount = pay.minus(actualRent).minus(moneyDamages[i]);
+            byCar[carIds[i]] = byCar[carIds[i]].plus(pay.minus(returnAmount));
+        }
+        Money total = Money.ZERO;
+        for (Money revenue : byCar) {
+            total = total.plus(revenue);
+        }
+        return total;
+    }
+}
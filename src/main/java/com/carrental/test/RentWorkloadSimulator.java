@@ -0,0 +1,226 @@
+package com.carrental.test;
+
+import com.carrental.dao.DamageInformationDAO;
+import com.carrental.dao.StaffDAO;
+import com.carrental.dao.TrafficFineDAO;
+import com.carrental.entity.Car;
+import com.carrental.entity.DamageInformation;
+import com.carrental.entity.RentInformation;
+import com.carrental.entity.RentOutcome;
+import com.carrental.entity.Staff;
+import com.carrental.entity.TrafficFine;
+import com.carrental.entity.User;
+import com.carrental.service.CarService;
+import com.carrental.service.RentService;
+import com.carrental.service.UserService;
+import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 租车业务压测程序
+ * 按比例混合执行租车、还车、查询当前租借、登记和查询违章罚款、登记和查询损坏记录，
+ * 统计每种操作的吞吐量、耗时百分位以及冲突和失败的比例，结果写入out目录下的JSON和CSV文件
+ * 还车的对象来自启动时和压测中查询当前租借的结果，本程序对每条租车信息只还一次
+ * 参数（key=value，均可省略）：
+ *   threads=16 rate=0 warmupSeconds=10 durationSeconds=60  同LoginLoadTest
+ *   rentWeight=30 returnWeight=25 currentWeight=20                    租车、还车、查询当前租借的比重
+ *   fineQueryWeight=10 fineAddWeight=5 damageQueryWeight=7 damageAddWeight=3  罚款、损坏记录的查询和登记比重
+ *   maxRentDays=7  租期上限（天），租借日期为今天
+ *   out=load-results  结果目录
+ * 数据库为config.properties中配置的MySQL，建议指向本地的测试库
+ * 注意：测试会在数据库中写入真实的租车、罚款和损坏记录
+ */
+public class RentWorkloadSimulator {
+    private static final String[] OPERATIONS =
+            {"rentCar", "returnCar", "getCurrentRentals", "fineQuery", "fineAdd", "damageQuery", "damageAdd"};
+    private static final String[] LOCATIONS = {"长安街", "中山路", "人民路", "解放路", "建设大道"};
+
+    private final RentService rentService = new RentService();
+    private final TrafficFineDAO fineDAO = new TrafficFineDAO();
+    private final DamageInformationDAO damageDAO = new DamageInformationDAO();
+    private final List<Car> cars;
+    private final List<User> users;
+    private final List<Staff> staffList;
+    private final int maxRentDays;
+    private final LoadReport report;
+    // 待还车的租车信息ID；queued记录加入过队列的ID，取出后也不删除，避免根据较早的查询结果再次还车
+    private final ConcurrentLinkedQueue<Integer> returnable = new ConcurrentLinkedQueue<>();
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+
+    private RentWorkloadSimulator(List<Car> cars, List<User> users, List<Staff> staffList, int maxRentDays,
+                                  LoadReport report) {
+        this.cars = cars;
+        this.users = users;
+        this.staffList = staffList;
+        this.maxRentDays = Math.max(1, maxRentDays);
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadReport report = new LoadReport("rent-workload");
+        LoadOptions options = new LoadOptions(args, report::setting);
+        int threads = options.getInt("threads", 16);
+        double rate = options.getDouble("rate", 0);
+        int warmupSeconds = options.getInt("warmupSeconds", 10);
+        int durationSeconds = options.getInt("durationSeconds", 60);
+        int[] weights = {
+                options.getInt("rentWeight", 30),
+                options.getInt("returnWeight", 25),
+                options.getInt("currentWeight", 20),
+                options.getInt("fineQueryWeight", 10),
+                options.getInt("fineAddWeight", 5),
+                options.getInt("damageQueryWeight", 7),
+                options.getInt("damageAddWeight", 3)};
+        int maxRentDays = options.getInt("maxRentDays", 7);
+        File out = new File(options.getString("out", "load-results"));
+
+        List<Car> cars = new CarService().getAllCars();
+        List<User> users = new UserService().getAllUsers();
+        List<Staff> staffList = new StaffDAO().getAllStaff();
+        if (cars.isEmpty() || users.isEmpty() || staffList.isEmpty()) {
+            System.err.println("压测需要至少一辆车、一个用户和一个员工");
+            return;
+        }
+        report.setting("cars", cars.size());
+        report.setting("users", users.size());
+        report.setting("staff", staffList.size());
+        report.setConflictOutcomes(RentOutcome.CAR_NOT_AVAILABLE.name(), RentOutcome.SCHEDULE_CONFLICT.name(),
+                RentOutcome.ALREADY_RETURNED.name());
+        report.setting("poolMaxSize", DatabaseConnection.getInstance().getStatistics().getMaxSize());
+
+        RentWorkloadSimulator simulator = new RentWorkloadSimulator(cars, users, staffList, maxRentDays, report);
+        simulator.offerReturnable(simulator.rentService.getCurrentRentals());
+
+        System.out.println("开始租车业务压测...");
+        System.out.println("线程数: " + threads + (rate > 0 ? ", 开环 " + rate + " 次/秒" : ", 闭环"));
+        System.out.println("车辆: " + cars.size() + ", 用户: " + users.size() + ", 员工: " + staffList.size()
+                + ", 待还车辆: " + simulator.returnable.size());
+        System.out.println("预热 " + warmupSeconds + " 秒, 统计 " + durationSeconds + " 秒");
+        System.out.println("=====================================");
+
+        int totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += Math.max(0, weight);
+        }
+        if (totalWeight == 0) {
+            System.err.println("各操作的比重不能全为0");
+            return;
+        }
+        int weightSum = totalWeight;
+        LoadDriver driver = new LoadDriver(threads, rate, warmupSeconds, durationSeconds);
+        double measuredSeconds = driver.run((intendedStart, measured) -> {
+            int pick = ThreadLocalRandom.current().nextInt(weightSum);
+            int op = 0;
+            while (pick >= Math.max(0, weights[op])) {
+                pick -= Math.max(0, weights[op]);
+                op++;
+            }
+            simulator.execute(op, intendedStart, measured);
+        });
+        report.setMeasuredSeconds(measuredSeconds);
+        report.setting("uncaughtExceptions", driver.getFailures());
+
+        System.out.println("\n=====================================");
+        System.out.printf("完成请求 %d 个（含预热）, 异常 %d 个, 统计时长 %.1f 秒%n",
+                driver.getCompleted(), driver.getFailures(), measuredSeconds);
+        report.print();
+        File json = report.write(out);
+        System.out.println("结果已写入: " + json.getPath() + " 及同名CSV文件");
+        System.out.println("租车业务压测完成！");
+    }
+
+    /**
+     * 执行一次操作并记录耗时和结果
+     * 租车被拒（车辆已租出、日期冲突）和还车被拒（已还车）记为冲突，其余非SUCCESS的结果为失败
+     */
+    private void execute(int op, long intendedStart, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        String outcome;
+        switch (op) {
+            case 0: {
+                Car car = cars.get(random.nextInt(cars.size()));
+                RentOutcome result = rentService.rentCar(car.getCarId(),
+                        users.get(random.nextInt(users.size())).getUserId(),
+                        staffList.get(random.nextInt(staffList.size())).getStaffId(),
+                        today, today.plusDays(1 + random.nextInt(maxRentDays)));
+                outcome = result.name();
+                break;
+            }
+            case 1: {
+                Integer rentId = returnable.poll();
+                if (rentId == null) {
+                    // 没有可还的车辆时不计时，只记次数
+                    if (measured) {
+                        report.record("returnCar.skipped", "NO_RENTAL", 0);
+                    }
+                    return;
+                }
+                Money damageCost = random.nextInt(10) == 0 ? Money.ofYuan(100 + random.nextInt(900)) : Money.ZERO;
+                outcome = rentService.returnCar(rentId, today, damageCost).name();
+                break;
+            }
+            case 2: {
+                List<RentInformation> current = rentService.getCurrentRentals();
+                outcome = "SUCCESS";
+                record(OPERATIONS[op], outcome, intendedStart, measured);
+                offerReturnable(current);
+                return;
+            }
+            case 3: {
+                Integer userId = users.get(random.nextInt(users.size())).getUserId();
+                fineDAO.getTrafficFineViewPage(random.nextBoolean() ? "未交" : null, null, userId, null, 20);
+                outcome = "SUCCESS";
+                break;
+            }
+            case 4: {
+                TrafficFine fine = new TrafficFine(0, cars.get(random.nextInt(cars.size())).getCarId(),
+                        users.get(random.nextInt(users.size())).getUserId(), today,
+                        LOCATIONS[random.nextInt(LOCATIONS.length)], Money.ofYuan(50 + random.nextInt(20) * 50), "未交");
+                outcome = fineDAO.addTrafficFine(fine) ? "SUCCESS" : "FAILED";
+                break;
+            }
+            case 5: {
+                Integer carId = random.nextBoolean() ? cars.get(random.nextInt(cars.size())).getCarId() : null;
+                damageDAO.getDamageViewPage(null, carId, null, 20);
+                outcome = "SUCCESS";
+                break;
+            }
+            default: {
+                DamageInformation damage = new DamageInformation(0, cars.get(random.nextInt(cars.size())).getCarId(),
+                        null, today, "压测登记的损坏", "未维修");
+                outcome = damageDAO.addDamageInformation(damage) ? "SUCCESS" : "FAILED";
+                break;
+            }
+        }
+        record(OPERATIONS[op], outcome, intendedStart, measured);
+    }
+
+    private void record(String operation, String outcome, long intendedStart, boolean measured) {
+        if (measured) {
+            report.record(operation, outcome, System.nanoTime() - intendedStart);
+        }
+    }
+
+    /**
+     * 把当前租借（归还日期为空或在今天之后）加入待还队列，加入过的不再加入
+     * 租车时写入的是计划归还日期，不能按归还日期为空判断；还车后归还日期变为当天，不再出现在当前租借中
+     */
+    private void offerReturnable(List<RentInformation> rentals) {
+        LocalDate today = LocalDate.now();
+        for (RentInformation rental : rentals) {
+            if (rental.getRentDate() != null && !rental.getRentDate().isAfter(today)
+                    && queued.add(rental.getRentId())) {
+                returnable.add(rental.getRentId());
+            }
+        }
+    }
+}
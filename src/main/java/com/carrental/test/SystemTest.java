@@ -2,14 +2,14 @@ package com.carrental.test;
 
 import com.carrental.entity.Car;
 import com.carrental.entity.User;
-import com.carrental.entity.Staff;
 import com.carrental.entity.RentInformation;
 import com.carrental.service.CarService;
+import com.carrental.service.SessionService;
 import com.carrental.service.UserService;
 import com.carrental.service.RentService;
 import com.carrental.util.DatabaseConnection;
+import com.carrental.util.Money;
 
-import java.math.BigDecimal;
 
 /**
  * 系统测试类
@@ -80,11 +80,12 @@ public class SystemTest {
             UserService userService = new UserService();
             
             // 测试员工登录
-            Staff staff = userService.login("super213", "213");
-            if (staff != null) {
-                System.out.println("✓ 员工登录测试成功: " + staff.getName());
+            SessionService.LoginResult result = userService.login("super213", "213");
+            if (result.isSuccess()) {
+                System.out.println("✓ 员工登录测试成功: " + result.getSession().getStaff().getName());
+                userService.logout(result.getSession());
             } else {
-                System.out.println("✗ 员工登录测试失败");
+                System.out.println("✗ 员工登录测试失败: " + result.getOutcome().getMessage());
             }
             
             // 查询所有用户
@@ -109,7 +110,7 @@ public class SystemTest {
             System.out.println("✓ 查询到 " + rentInfos.size() + " 条租车记录");
             
             // 计算总收益
-            BigDecimal totalRevenue = rentService.calculateTotalRevenue();
+            Money totalRevenue = rentService.calculateTotalRevenue();
             System.out.println("✓ 总收益: ¥" + totalRevenue);
             
         } catch (Exception e) {
@@ -0,0 +1,102 @@
+package com.carrental.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * 应用配置工具类
+ * 读取工作目录下的config.properties，同名的系统属性（-Dkey=value）优先生效
+ */
+public final class AppConfig {
+    private static final String CONFIG_FILE = "config.properties";
+    private static final Properties PROPS = loadProperties();
+
+    private AppConfig() {
+    }
+
+    /**
+     * 加载配置文件
+     * @return 配置项，文件不存在时为空
+     */
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        File file = new File(CONFIG_FILE);
+        if (!file.exists()) {
+            return props;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            props.load(reader);
+        } catch (IOException e) {
+            System.err.println("读取配置文件失败: " + e.getMessage());
+        }
+        return props;
+    }
+
+    /**
+     * 获取字符串配置
+     * @param key 配置键
+     * @param defaultValue 默认值
+     * @return 配置值
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPS.getProperty(key);
+        }
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * 获取整数配置
+     * @param key 配置键
+     * @param defaultValue 默认值
+     * @return 配置值，格式错误时返回默认值
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("配置项格式错误: " + key + "=" + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取长整数配置
+     * @param key 配置键
+     * @param defaultValue 默认值
+     * @return 配置值，格式错误时返回默认值
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("配置项格式错误: " + key + "=" + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取布尔配置
+     * @param key 配置键
+     * @param defaultValue 默认值
+     * @return 配置值
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,412 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库连接池
+ * 有界、线程安全，借出时校验连接，按最大存活时间和空闲超时回收连接
+ * 创建后调用start()开始后台维护
+ */
+public class ConnectionPool {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxLifetimeMillis;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    // 许可数即最多可同时借出的连接数，物理连接总数不会超过maxSize
+    private final Semaphore permits;
+    // 空闲连接按后进先出使用，让不常用的连接自然超时回收
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+    private final long housekeepPeriodMillis;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final StatementCache.Stats statementCacheStats = new StatementCache.Stats();
+
+    private volatile boolean closed = false;
+    private volatile boolean lastCreateFailed = false;
+
+    /**
+     * 创建连接池
+     * @param url 数据库URL
+     * @param username 用户名
+     * @param password 密码
+     * @param maxSize 最大连接数
+     * @param minIdle 最少保持的空闲连接数
+     * @param maxLifetimeMillis 物理连接最大存活时间（毫秒）
+     * @param idleTimeoutMillis 空闲连接超时时间（毫秒）
+     * @param borrowTimeoutMillis 等待可用连接的最长时间（毫秒）
+     * @param validationTimeoutSeconds 校验连接的超时时间（秒）
+     * @param validationIntervalMillis 最近使用过的连接在该时间内借出时跳过校验（毫秒）
+     * @param statementCacheSize 每个连接缓存的预编译语句数，0表示不缓存
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int maxSize, int minIdle, long maxLifetimeMillis, long idleTimeoutMillis,
+                          long borrowTimeoutMillis, int validationTimeoutSeconds, long validationIntervalMillis,
+                          int statementCacheSize) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxSize));
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeepPeriodMillis = Math.max(1000L, Math.min(30000L, idleTimeoutMillis / 2));
+    }
+
+    /**
+     * 开始后台维护：定期回收超时和过期的空闲连接，补足最少空闲连接；重复调用无效
+     * 不在构造函数中启动，避免维护线程看到尚未构造完成的连接池
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            housekeeper.scheduleWithFixedDelay(this::housekeep, housekeepPeriodMillis, housekeepPeriodMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 借出连接，使用完毕后调用close()归还
+     * @return 连接
+     * @throws SQLException 等待超时、被中断或无法建立连接时抛出
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("连接池已关闭");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException("获取数据库连接超时（" + borrowTimeoutMillis + "毫秒），当前借出 "
+                        + activeCount.get() + "/" + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("获取数据库连接被中断", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                discard(pooled);
+            }
+            if (pooled == null) {
+                pooled = create();
+            }
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            borrowCount.incrementAndGet();
+            activeCount.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接，由连接代理的close()调用
+     * @param pooled 被归还的连接
+     */
+    void release(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || pooled.isBroken() || isExpired(pooled, System.currentTimeMillis())) {
+                discard(pooled);
+                return;
+            }
+            try {
+                pooled.reset();
+                idleConnections.offerFirst(pooled);
+            } catch (SQLException e) {
+                System.err.println("重置数据库连接失败，丢弃该连接: " + e.getMessage());
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 预先建立最少空闲连接
+     * @return 是否全部建立成功
+     */
+    public boolean warmUp() {
+        try {
+            fillIdle();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("预建数据库连接失败: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 关闭连接池及全部空闲连接，已借出的连接在归还时关闭
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * 最近一次建立物理连接是否失败
+     * @return 是否失败
+     */
+    public boolean isLastCreateFailed() {
+        return lastCreateFailed;
+    }
+
+    /**
+     * 获取连接池统计快照
+     * @return 统计信息
+     */
+    public Statistics getStatistics() {
+        return new Statistics(activeCount.get(), idleConnections.size(), totalCount.get(), maxSize,
+                borrowCount.get(), totalWaitNanos.get(), maxWaitNanos.get(), timeoutCount.get(),
+                createdCount.get(), evictedCount.get(), statementCacheStats.getHits(),
+                statementCacheStats.getMisses(), statementCacheStats.getEvictions());
+    }
+
+    /**
+     * 本连接池的语句缓存统计，由池中各连接的语句缓存累加
+     * @return 统计计数器
+     */
+    StatementCache.Stats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    /**
+     * 建立新的物理连接
+     */
+    private PooledConnection create() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            PooledConnection pooled;
+            try {
+                pooled = new PooledConnection(this, physical, statementCacheSize);
+            } catch (SQLException e) {
+                physical.close();
+                throw e;
+            }
+            lastCreateFailed = false;
+            createdCount.incrementAndGet();
+            totalCount.incrementAndGet();
+            return pooled;
+        } catch (SQLException e) {
+            lastCreateFailed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * 借出前检查连接：未超过存活时间，且（最近刚用过或）校验通过
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (pooled.isBroken() || isExpired(pooled, now)) {
+            return false;
+        }
+        if (now - pooled.getLastUsedAt() < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMillis > 0 && now - pooled.getCreatedAt() >= maxLifetimeMillis;
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalCount.decrementAndGet();
+        evictedCount.incrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * 后台维护：回收超时的空闲连接和超过存活时间的连接，并补足最少空闲连接
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            boolean idleTooLong = idleTimeoutMillis > 0 && now - pooled.getLastUsedAt() >= idleTimeoutMillis
+                    && idleConnections.size() > minIdle;
+            if ((idleTooLong || isExpired(pooled, now)) && idleConnections.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+        try {
+            fillIdle();
+        } catch (SQLException e) {
+            System.err.println("补充空闲数据库连接失败: " + e.getMessage());
+        }
+    }
+
+    private void fillIdle() throws SQLException {
+        while (!closed && idleConnections.size() < minIdle && permits.tryAcquire()) {
+            try {
+                idleConnections.offerLast(create());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 连接池统计信息
+     */
+    public static class Statistics {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        Statistics(int active, int idle, int total, int maxSize, long borrowCount, long totalWaitNanos,
+                   long maxWaitNanos, long timeoutCount, long createdCount, long evictedCount,
+                   long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getEvictedCount() {
+            return evictedCount;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("借出中: %d, 空闲: %d, 物理连接: %d/%d, 借出次数: %d, 平均等待: %.2fms, "
+                            + "最长等待: %.2fms, 等待超时: %d, 新建连接: %d, 回收连接: %d, "
+                            + "语句缓存命中: %d, 未命中: %d, 淘汰: %d",
+                    active, idle, total, maxSize, borrowCount, getAverageWaitMillis(), getMaxWaitMillis(),
+                    timeoutCount, createdCount, evictedCount, statementCacheHits, statementCacheMisses,
+                    statementCacheEvictions);
+        }
+    }
+}
@@ -2,45 +2,69 @@ package com.carrental.util;
 
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * 数据库连接工具类
- * 使用单例模式管理数据库连接
+ * 使用单例模式管理数据库连接池，getConnection()借出的连接在close()时归还连接池
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://10.245.203.137:3306/car_rental_system?useSSL=false&serverTimezone=UTC";
+    private static final String URL = "jdbc:mysql://10.245.203.137:3306/car_rental_system?useSSL=false&serverTimezone=UTC&useServerPrepStmts=true&useCursorFetch=true";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "12345678";
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
-    
+
     private static DatabaseConnection instance;
-    private Connection connection;
-    private boolean connectionFailed = false; // 标记连接是否失败
-    private boolean initialized = false; // 标记是否已尝试初始化
+    private final ConnectionPool pool;
+    private volatile boolean connectionFailed = false; // 标记连接是否失败
 
     /**
      * 私有构造函数，防止外部实例化
      */
     private DatabaseConnection() {
+        this.pool = createPool();
         initializeConnection();
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "connection-pool-shutdown"));
     }
 
     /**
-     * 初始化数据库连接
+     * 按配置文件创建连接池并开始后台维护，未配置的项使用默认值
+     * @return 连接池
      */
-    private void initializeConnection() {
+    private ConnectionPool createPool() {
+        String driver = AppConfig.get("database.driver", DRIVER);
         try {
-            Class.forName(DRIVER);
-            this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            this.connectionFailed = false; // 连接成功，重置失败标记
-            this.initialized = true;
-        } catch (ClassNotFoundException | SQLException e) {
-            System.err.println("数据库连接失败: " + e.getMessage());
+            Class.forName(driver);
+        } catch (ClassNotFoundException e) {
+            System.err.println("数据库驱动加载失败: " + e.getMessage());
             e.printStackTrace();
+            connectionFailed = true;
+        }
+        ConnectionPool connectionPool = new ConnectionPool(
+                AppConfig.get("database.url", URL),
+                AppConfig.get("database.username", USERNAME),
+                AppConfig.get("database.password", PASSWORD),
+                AppConfig.getInt("database.pool.maxSize", 10),
+                AppConfig.getInt("database.pool.minIdle", 2),
+                AppConfig.getLong("database.pool.maxLifetimeMillis", 30 * 60 * 1000L),
+                AppConfig.getLong("database.pool.idleTimeoutMillis", 10 * 60 * 1000L),
+                AppConfig.getLong("database.pool.borrowTimeoutMillis", 5000L),
+                AppConfig.getInt("database.pool.validationTimeoutSeconds", 3),
+                AppConfig.getLong("database.pool.validationIntervalMillis", 500L),
+                AppConfig.getInt("database.pool.statementCacheSize", 64));
+        connectionPool.start();
+        return connectionPool;
+    }
+
+    /**
+     * 初始化数据库连接，预先建立最少空闲连接
+     */
+    private void initializeConnection() {
+        if (pool.warmUp()) {
+            this.connectionFailed = false; // 连接成功，重置失败标记
+        } else {
+            System.err.println("数据库连接失败，将在下次获取连接时重试");
             this.connectionFailed = true; // 标记连接失败
-            this.initialized = true; // 标记已尝试初始化
         }
     }
 
@@ -56,49 +80,26 @@ public class DatabaseConnection {
     }
 
     /**
-     * 获取数据库连接
+     * 从连接池借出数据库连接，使用完毕后必须close()归还
      * @return Connection对象
      */
     public Connection getConnection() throws SQLException {
-        if (!initialized) {
-            // 如果尚未初始化，先初始化连接
-            initializeConnection();
-        }
-        
         try {
-            // 如果连接失败过，尝试重新连接
-            if (connectionFailed || connection == null || connection.isClosed()) {
-                try {
-                    connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                    connectionFailed = false; // 重新连接成功，重置失败标记
-                } catch (SQLException e) {
-                    System.err.println("重新获取数据库连接失败: " + e.getMessage());
-                    e.printStackTrace();
-                    connectionFailed = true; // 标记连接失败
-                    throw e; // 抛出异常让调用者处理
-                }
-            }
+            Connection conn = pool.borrow();
+            connectionFailed = false; // 获取成功，重置失败标记
+            return conn;
         } catch (SQLException e) {
-            System.err.println("检查数据库连接时出错: " + e.getMessage());
-            e.printStackTrace();
-            connectionFailed = true;
-            throw e;
+            System.err.println("获取数据库连接失败: " + e.getMessage());
+            connectionFailed = pool.isLastCreateFailed();
+            throw e; // 抛出异常让调用者处理
         }
-        return connection;
     }
 
     /**
-     * 关闭数据库连接
+     * 关闭连接池，释放全部数据库连接
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("关闭数据库连接失败: " + e.getMessage());
-            e.printStackTrace();
-        }
+        pool.shutdown();
     }
 
     /**
@@ -106,8 +107,7 @@ public class DatabaseConnection {
      * @return 连接是否成功
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             System.err.println("测试数据库连接失败: " + e.getMessage());
@@ -120,10 +120,14 @@ public class DatabaseConnection {
      * @return 是否连接失败
      */
     public boolean isConnectionFailed() {
-        if (!initialized) {
-            // 如果尚未初始化，先初始化
-            initializeConnection();
-        }
         return connectionFailed;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取连接池统计信息
+     * @return 统计信息
+     */
+    public ConnectionPool.Statistics getStatistics() {
+        return pool.getStatistics();
+    }
+}
@@ -0,0 +1,247 @@
+package com.carrental.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 实体读穿缓存
+ * 按主键等键缓存实体，超过容量时淘汰最久未使用的条目，超过存活时间的条目读取时视为未命中；
+ * 实体类可变，因此放入缓存和从缓存取出时都复制一份，调用者修改返回的对象不会影响缓存；
+ * 加载期间如果发生过失效，加载结果不放入缓存，避免把旧数据写回
+ * @param <K> 键类型
+ * @param <V> 实体类型
+ */
+public final class EntityCache<K, V> {
+    private static final List<EntityCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 以下字段都由this保护
+    private long version = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+    private long invalidations = 0;
+
+    /**
+     * @param name 缓存名称，用于统计展示
+     * @param maxSize 最多缓存的条目数，小于等于0表示不缓存
+     * @param ttlMillis 条目存活时间（毫秒），小于等于0表示不缓存
+     * @param copier 实体复制方法
+     */
+    public EntityCache(String name, int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.copier = copier;
+    }
+
+    /**
+     * 按配置文件创建缓存并登记到统计列表
+     * 配置项为cache.&lt;key&gt;.maxSize和cache.&lt;key&gt;.ttlSeconds
+     * @param key 配置键
+     * @param name 缓存名称
+     * @param defaultMaxSize 默认容量
+     * @param defaultTtlSeconds 默认存活时间（秒）
+     * @param copier 实体复制方法
+     * @return 缓存
+     */
+    public static <K, V> EntityCache<K, V> create(String key, String name, int defaultMaxSize,
+                                                  long defaultTtlSeconds, UnaryOperator<V> copier) {
+        EntityCache<K, V> cache = new EntityCache<>(name,
+                AppConfig.getInt("cache." + key + ".maxSize", defaultMaxSize),
+                AppConfig.getLong("cache." + key + ".ttlSeconds", defaultTtlSeconds) * 1000L,
+                copier);
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * 读取缓存，未命中时调用loader加载并放入缓存
+     * 加载结果为null时不缓存
+     * @param key 键
+     * @param loader 加载方法，在锁外执行
+     * @return 实体副本，不存在时返回null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            return loader.apply(key);
+        }
+
+        long startVersion;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return copier.apply(entry.value);
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            startVersion = version;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            V cached = copier.apply(value);
+            synchronized (this) {
+                if (version == startVersion) {
+                    entries.put(key, new Entry<>(cached, System.currentTimeMillis() + ttlMillis));
+                    evictIfNeeded();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使某个键失效
+     * @param key 键
+     */
+    public synchronized void invalidate(K key) {
+        version++;
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations++;
+        entries.clear();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 获取统计信息
+     * @return 统计信息
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(name, entries.size(), maxSize, ttlMillis / 1000L,
+                hits, misses, evictions, expirations, invalidations);
+    }
+
+    /**
+     * 获取所有通过create创建的缓存的统计信息
+     * @return 统计信息列表
+     */
+    public static List<Statistics> getAllStatistics() {
+        List<Statistics> result = new ArrayList<>();
+        for (EntityCache<?, ?> cache : CACHES) {
+            result.add(cache.getStatistics());
+        }
+        return result;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public static class Statistics {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long ttlSeconds;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        Statistics(String name, int size, int maxSize, long ttlSeconds, long hits, long misses,
+                   long evictions, long expirations, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.ttlSeconds = ttlSeconds;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s缓存: %d/%d条, 存活%d秒, 命中%d, 未命中%d（命中率%.1f%%）, 淘汰%d, 过期%d, 失效%d",
+                    name, size, maxSize, ttlSeconds, hits, misses, getHitRatio() * 100,
+                    evictions, expirations, invalidations);
+        }
+    }
+}
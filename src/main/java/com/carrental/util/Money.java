@@ -0,0 +1,258 @@
+package com.carrental.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * 金额
+ * 以分为单位保存在long中，加减和乘以整数没有舍入，也不创建BigDecimal
+ * 舍入规则：从BigDecimal、字符串或数据库读入时，以及乘以小数时，统一四舍五入到分（RoundingMode.HALF_UP）
+ * 数据库中的金额列都是DECIMAL(...,2)，读写时不会丢失精度；结果超出long范围时抛出ArithmeticException
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+    // 不超过这么多位的整数部分直接按字符解析，不会溢出
+    private static final int FAST_PARSE_DIGITS = 16;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * @param cents 以分为单位的金额
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @param yuan 以元为单位的整数金额
+     */
+    public static Money ofYuan(long yuan) {
+        return ofCents(Math.multiplyExact(yuan, 100L));
+    }
+
+    /**
+     * 将BigDecimal转换为金额，超过两位的小数四舍五入
+     * @param amount 金额，为null时返回null
+     */
+    public static Money of(BigDecimal amount) {
+        return amount == null ? null : ofCents(toCents(amount));
+    }
+
+    /**
+     * 解析用户输入或数据库中的金额文本，允许带"¥"前缀和千位分隔符
+     * @param text 金额文本，为null或空白时返回null
+     * @throws NumberFormatException 文本不是数字时
+     */
+    public static Money parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String s = text.trim();
+        if (s.startsWith("¥")) {
+            s = s.substring(1).trim();
+        }
+        if (s.indexOf(',') >= 0) {
+            s = s.replace(",", "");
+        }
+        if (s.isEmpty()) {
+            return null;
+        }
+        return ofCents(parseCents(s));
+    }
+
+    /**
+     * 从结果集中读取金额，按文本读取后解析，不经过BigDecimal
+     * @return 金额，列值为NULL时返回null
+     */
+    public static Money read(ResultSet rs, int column) throws SQLException {
+        String text = rs.getString(column);
+        return text == null ? null : ofCents(parseCents(text));
+    }
+
+    /**
+     * 从结果集中读取金额
+     * @return 金额，列值为NULL时返回null
+     */
+    public static Money read(ResultSet rs, String column) throws SQLException {
+        String text = rs.getString(column);
+        return text == null ? null : ofCents(parseCents(text));
+    }
+
+    /**
+     * 从结果集中读取早期可能以文本保存的金额（如押金），按parse的规则解析
+     * 无法解析的历史数据记录后返回null，不让单个异常值中断整个查询
+     * @return 金额，列值为NULL或无法解析时返回null
+     */
+    public static Money readLenient(ResultSet rs, String column) throws SQLException {
+        String text = rs.getString(column);
+        try {
+            return parse(text);
+        } catch (NumberFormatException e) {
+            System.err.println("无法解析的金额 " + column + ": " + text);
+            return null;
+        }
+    }
+
+    /**
+     * 从结果集中读取以分为单位的金额
+     * @return 分，列值为NULL时返回0
+     */
+    public static long readCents(ResultSet rs, int column) throws SQLException {
+        String text = rs.getString(column);
+        return text == null ? 0 : parseCents(text);
+    }
+
+    /**
+     * 设置语句参数，amount为null时设置为NULL
+     */
+    public static void bind(PreparedStatement pstmt, int index, Money amount) throws SQLException {
+        if (amount == null) {
+            pstmt.setNull(index, Types.DECIMAL);
+        } else {
+            pstmt.setBigDecimal(index, amount.toBigDecimal());
+        }
+    }
+
+    /**
+     * 将BigDecimal转换为分，超过两位的小数四舍五入
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public Money plus(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * 乘以整数，例如日租金乘以天数
+     */
+    public Money times(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    /**
+     * 乘以小数，例如折扣率，结果四舍五入到分
+     */
+    public Money times(BigDecimal factor) {
+        return ofCents(toCents(BigDecimal.valueOf(cents, SCALE).multiply(factor)));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * @return 以元为单位的近似值，仅用于绘图等不要求精确的场合
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * @return 保留两位小数的金额文本，例如"-12.50"
+     */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /**
+     * 解析形如"-123.456"的十进制文本为分，第三位小数起四舍五入
+     * 整数部分过长或带指数等其他格式时交给BigDecimal处理
+     */
+    private static long parseCents(String s) {
+        int length = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long whole = 0;
+        int wholeDigits = 0;
+        while (i < length && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            whole = whole * 10 + (s.charAt(i++) - '0');
+            wholeDigits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean hasPoint = i < length && s.charAt(i) == '.';
+        if (hasPoint) {
+            i++;
+            while (i < length && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (s.charAt(i) - '0');
+                } else if (fractionDigits == SCALE) {
+                    roundUp = s.charAt(i) >= '5';
+                }
+                fractionDigits++;
+                i++;
+            }
+        }
+        if (i != length || wholeDigits > FAST_PARSE_DIGITS || (wholeDigits == 0 && fractionDigits == 0)) {
+            try {
+                return toCents(new BigDecimal(s));
+            } catch (ArithmeticException e) {
+                throw new NumberFormatException("金额超出范围: " + s);
+            }
+        }
+        for (int d = Math.min(fractionDigits, SCALE); d < SCALE; d++) {
+            fraction *= 10;
+        }
+        long value = whole * 100 + fraction + (roundUp ? 1 : 0);
+        return negative ? -value : value;
+    }
+}
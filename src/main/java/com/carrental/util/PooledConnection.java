@@ -0,0 +1,287 @@
+package com.carrental.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 连接池中的物理连接
+ * 每次借出时生成一个新的代理对象，代理的close()把连接归还给连接池而不是真正关闭；
+ * prepareStatement(sql)和prepareStatement(sql, autoGeneratedKeys)走该连接的语句缓存；
+ * 借出期间创建的语句和结果集同样经过代理，getConnection()和getStatement()不会暴露物理对象，
+ * 它们抛出的连接类错误也会把连接标记为不可用
+ */
+final class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private volatile long lastUsedAt;
+    private volatile boolean broken = false;
+
+    // 建立连接时的会话状态，归还时恢复
+    private final boolean defaultAutoCommit;
+    private final int defaultIsolation;
+    private final boolean defaultReadOnly;
+    private final String defaultCatalog;
+    // 借出期间是否修改过隔离级别、只读或当前数据库
+    private volatile boolean sessionChanged = false;
+
+    /**
+     * @param pool 所属连接池
+     * @param physical 物理连接
+     * @param statementCacheSize 语句缓存容量，0表示不缓存
+     * @throws SQLException 读取会话状态失败
+     */
+    PooledConnection(ConnectionPool pool, Connection physical, int statementCacheSize) throws SQLException {
+        this.pool = pool;
+        this.physical = physical;
+        this.defaultAutoCommit = physical.getAutoCommit();
+        this.defaultIsolation = physical.getTransactionIsolation();
+        this.defaultReadOnly = physical.isReadOnly();
+        this.defaultCatalog = physical.getCatalog();
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(this, physical, statementCacheSize, pool.getStatementCacheStats()) : null;
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    /**
+     * 借出连接
+     * @return 包装后的连接代理
+     */
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler());
+    }
+
+    /**
+     * 归还前重置连接状态：回滚未提交的事务，恢复自动提交、隔离级别、只读和当前数据库，
+     * 避免把上一个使用者的会话设置带给下一个使用者
+     * @throws SQLException SQL异常
+     */
+    void reset() throws SQLException {
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+        }
+        if (physical.getAutoCommit() != defaultAutoCommit) {
+            physical.setAutoCommit(defaultAutoCommit);
+        }
+        if (sessionChanged) {
+            if (physical.getTransactionIsolation() != defaultIsolation) {
+                physical.setTransactionIsolation(defaultIsolation);
+            }
+            if (physical.isReadOnly() != defaultReadOnly) {
+                physical.setReadOnly(defaultReadOnly);
+            }
+            if (defaultCatalog != null && !defaultCatalog.equals(physical.getCatalog())) {
+                physical.setCatalog(defaultCatalog);
+            }
+            sessionChanged = false;
+        }
+        physical.clearWarnings();
+    }
+
+    /**
+     * 取出反射调用中被包装的异常，连接类错误把连接标记为不可用
+     * @param e 反射调用异常
+     * @return 原始异常
+     */
+    Throwable failure(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+            broken = true;
+        }
+        return cause;
+    }
+
+    /**
+     * 为语句或结果集生成代理
+     * @param type 代理实现的接口
+     * @param target 物理语句或结果集
+     * @param parent 语句的getConnection()或结果集的getStatement()返回的对象
+     * @return 代理对象
+     */
+    Object wrap(Class<?> type, Object target, Object parent) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new ChildHandler(target, parent));
+    }
+
+    /**
+     * 调用结果是语句或结果集时换成代理
+     */
+    private Object wrapResult(Method method, Object result, Object parent) {
+        if (result instanceof ResultSet) {
+            return wrap(ResultSet.class, result, parent);
+        }
+        if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+            return wrap(method.getReturnType(), result, parent);
+        }
+        return result;
+    }
+
+    /**
+     * 关闭物理连接
+     */
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("关闭物理连接失败: " + e.getMessage());
+        }
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * 单次借出的代理处理器
+     * 归还后再调用任何方法都会抛出SQLException
+     */
+    private class LeaseHandler implements InvocationHandler {
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        // 本次借出中从缓存取出的语句，归还连接时关闭仍未关闭的语句
+        private final List<PreparedStatement> cachedStatements = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        closeLeasedStatements();
+                        lastUsedAt = System.currentTimeMillis();
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy))
+                            + (closed.get() ? " (已归还)" : "");
+                case "setTransactionIsolation":
+                case "setReadOnly":
+                case "setCatalog":
+                    sessionChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("连接已归还连接池，不能继续使用");
+            }
+            if (statementCache != null && "prepareStatement".equals(name) && isCacheable(args)) {
+                Integer autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : null;
+                PreparedStatement statement = statementCache.checkout((String) args[0], autoGeneratedKeys,
+                        (Connection) proxy);
+                cachedStatements.add(statement);
+                return statement;
+            }
+            try {
+                return wrapResult(method, method.invoke(physical, args), proxy);
+            } catch (InvocationTargetException e) {
+                throw failure(e);
+            }
+        }
+
+        private void closeLeasedStatements() {
+            for (PreparedStatement statement : cachedStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println("归还预编译语句失败: " + e.getMessage());
+                }
+            }
+            cachedStatements.clear();
+        }
+    }
+
+    /**
+     * 借出期间创建的语句和结果集的代理处理器
+     * 语句的getConnection()返回连接代理，结果集的getStatement()返回语句代理，异常经过连接类错误检查
+     */
+    private class ChildHandler implements InvocationHandler {
+        private final Object target;
+        private final Object parent;
+
+        ChildHandler(Object target, Object parent) {
+            this.target = target;
+            this.parent = parent;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    if (target instanceof Statement) {
+                        return parent;
+                    }
+                    break;
+                case "getStatement":
+                    if (target instanceof ResultSet) {
+                        return parent;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return wrapResult(method, method.invoke(target, args), proxy);
+            } catch (InvocationTargetException e) {
+                throw failure(e);
+            }
+        }
+    }
+
+    /**
+     * 只缓存prepareStatement(String)和prepareStatement(String, int autoGeneratedKeys)
+     * @param args 方法参数
+     * @return 是否走语句缓存
+     */
+    private static boolean isCacheable(Object[] args) {
+        return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+    }
+
+    /**
+     * 判断异常是否说明连接已不可用（SQLState以08开头为连接类错误）
+     * @param e SQL异常
+     * @return 是否为致命错误
+     */
+    private static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
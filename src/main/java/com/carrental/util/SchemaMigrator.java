@@ -0,0 +1,462 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 数据库结构升级
+ * 启动时按版本号依次执行尚未执行的升级步骤，已执行的版本记录在schema_version表中
+ * 多个客户端同时启动时用MySQL命名锁保证只有一个在升级
+ * 表用CREATE TABLE IF NOT EXISTS创建，索引、视图和触发器不存在时才创建，重复执行不会出错
+ * 新的结构变更以及对已有数据或列类型的修正（如v5的押金列、v6的员工角色）只能追加为新版本，不要修改已发布的版本
+ */
+public final class SchemaMigrator {
+    private static final String LOCK_NAME = "car_rental_schema_migration";
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "基础表结构",
+                    sql("CREATE TABLE IF NOT EXISTS car ("
+                            + "car_id INT NOT NULL AUTO_INCREMENT, "
+                            + "license_plate_number VARCHAR(20) NOT NULL, "
+                            + "model VARCHAR(50), "
+                            + "color VARCHAR(20), "
+                            + "status VARCHAR(10) NOT NULL DEFAULT '空闲', "
+                            + "brand VARCHAR(50), "
+                            + "purchase_date DATE, "
+                            + "photo LONGBLOB, "
+                            + "rent DECIMAL(10,2) NOT NULL DEFAULT 0, "
+                            + "deposit VARCHAR(20), "
+                            + "PRIMARY KEY (car_id), "
+                            + "UNIQUE KEY uk_car_license_plate (license_plate_number)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS user ("
+                            + "user_id INT NOT NULL AUTO_INCREMENT, "
+                            + "name VARCHAR(50) NOT NULL, "
+                            + "identity_id VARCHAR(18), "
+                            + "phone VARCHAR(20), "
+                            + "register_date DATE DEFAULT (CURRENT_DATE), "
+                            + "member VARCHAR(4) DEFAULT '非', "
+                            + "judge VARCHAR(10) DEFAULT '中', "
+                            + "PRIMARY KEY (user_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS staff ("
+                            + "staff_id INT NOT NULL AUTO_INCREMENT, "
+                            + "name VARCHAR(50) NOT NULL, "
+                            + "phone VARCHAR(20), "
+                            + "entry_date DATE, "
+                            + "position VARCHAR(20), "
+                            + "role INT NOT NULL DEFAULT 1, "
+                            + "password VARCHAR(100) NOT NULL, "
+                            + "PRIMARY KEY (staff_id), "
+                            + "UNIQUE KEY uk_staff_name (name)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS rent_information ("
+                            + "rent_id INT NOT NULL AUTO_INCREMENT, "
+                            + "car_id INT NOT NULL, "
+                            + "staff_id INT NOT NULL, "
+                            + "user_id INT NOT NULL, "
+                            + "rent_date DATE NOT NULL, "
+                            + "return_date DATE, "
+                            + "pay_the_amount DECIMAL(10,2) NOT NULL DEFAULT 0, "
+                            + "return_amount DECIMAL(10,2) NOT NULL DEFAULT 0, "
+                            + "PRIMARY KEY (rent_id), "
+                            // car_id不单独建索引：外键先用MySQL自动创建的索引，
+                            // v2的idx_rent_car_revenue以car_id开头，建立后自动替代它
+                            + "CONSTRAINT fk_rent_car FOREIGN KEY (car_id) REFERENCES car (car_id), "
+                            + "CONSTRAINT fk_rent_staff FOREIGN KEY (staff_id) REFERENCES staff (staff_id), "
+                            + "CONSTRAINT fk_rent_user FOREIGN KEY (user_id) REFERENCES user (user_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS damage_information ("
+                            + "damage_id INT NOT NULL AUTO_INCREMENT, "
+                            + "car_id INT NOT NULL, "
+                            + "photo LONGBLOB, "
+                            + "damage_data DATE, "
+                            + "damage_describe VARCHAR(255), "
+                            + "damage_state VARCHAR(10) NOT NULL DEFAULT '未维修', "
+                            + "PRIMARY KEY (damage_id), "
+                            + "CONSTRAINT fk_damage_car FOREIGN KEY (car_id) REFERENCES car (car_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS maintain_information ("
+                            + "maintain_id INT NOT NULL AUTO_INCREMENT, "
+                            + "car_id INT NOT NULL, "
+                            + "maintain_data DATE, "
+                            + "maintain_describe VARCHAR(255), "
+                            + "maintain_begin_date DATE, "
+                            + "maintain_finish_date DATE, "
+                            + "maimtain_cost DECIMAL(10,2) DEFAULT 0, "
+                            + "PRIMARY KEY (maintain_id), "
+                            + "CONSTRAINT fk_maintain_car FOREIGN KEY (car_id) REFERENCES car (car_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS traffic_fine ("
+                            + "fine_id INT NOT NULL AUTO_INCREMENT, "
+                            + "car_id INT NOT NULL, "
+                            + "user_id INT NOT NULL, "
+                            + "violation_date DATE, "
+                            + "offending_location VARCHAR(100), "
+                            + "fine DECIMAL(10,2) NOT NULL DEFAULT 0, "
+                            + "fine_state VARCHAR(4) NOT NULL DEFAULT '未交', "
+                            + "PRIMARY KEY (fine_id), "
+                            + "CONSTRAINT fk_fine_car FOREIGN KEY (car_id) REFERENCES car (car_id), "
+                            + "CONSTRAINT fk_fine_user FOREIGN KEY (user_id) REFERENCES user (user_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4")),
+
+            new Migration(2, "常用查询索引",
+                    // 车辆按状态、品牌、型号筛选，按car_id排序（二级索引自带主键）
+                    index("car", "idx_car_status", "status"),
+                    index("car", "idx_car_brand_model", "brand, model"),
+                    index("car", "idx_car_model", "model"),
+                    // 用户按电话、身份证号查找，按会员、信誉度筛选
+                    index("user", "idx_user_phone", "phone"),
+                    index("user", "idx_user_identity", "identity_id"),
+                    index("user", "idx_user_member_judge", "member, judge"),
+                    index("user", "idx_user_judge", "judge"),
+                    // 当前租车和收入统计，包含金额列，统计时不必回表
+                    index("rent_information", "idx_rent_return_date", "return_date, pay_the_amount, return_amount"),
+                    index("rent_information", "idx_rent_car_revenue", "car_id, return_date, pay_the_amount, return_amount"),
+                    index("rent_information", "idx_rent_staff_revenue", "staff_id, return_date, pay_the_amount, return_amount"),
+                    index("rent_information", "idx_rent_user_revenue", "user_id, return_date, pay_the_amount, return_amount"),
+                    // 违章按状态、车辆、用户筛选，按违规日期降序分页
+                    index("traffic_fine", "idx_fine_violation_date", "violation_date"),
+                    index("traffic_fine", "idx_fine_state_date", "fine_state, violation_date"),
+                    index("traffic_fine", "idx_fine_car_date", "car_id, violation_date"),
+                    index("traffic_fine", "idx_fine_user_date", "user_id, violation_date"),
+                    // 损坏按状态筛选，按损毁日期降序分页
+                    index("damage_information", "idx_damage_data", "damage_data"),
+                    index("damage_information", "idx_damage_state_date", "damage_state, damage_data"),
+                    index("damage_information", "idx_damage_car_date", "car_id, damage_data"),
+                    // 维修按车辆查询，按报修日期降序分页，按结束日期查未结束的维修
+                    index("maintain_information", "idx_maintain_data", "maintain_data"),
+                    index("maintain_information", "idx_maintain_car_date", "car_id, maintain_data"),
+                    index("maintain_information", "idx_maintain_finish_date", "maintain_finish_date")),
+
+            new Migration(3, "财务报表视图",
+                    view("profit_view", "SELECT c.car_id AS `车辆编号`, "
+                            + "COALESCE(r.paid, 0) AS `用户支付金额`, "
+                            + "COALESCE(r.refunded, 0) AS `归还用户金额`, "
+                            + "COALESCE(m.cost, 0) AS `用户造成的损坏`, "
+                            + "COALESCE(r.paid, 0) - COALESCE(r.refunded, 0) - COALESCE(m.cost, 0) AS `利润` "
+                            + "FROM car c "
+                            + "LEFT JOIN (SELECT car_id, SUM(pay_the_amount) AS paid, SUM(return_amount) AS refunded "
+                            + "FROM rent_information GROUP BY car_id) r ON r.car_id = c.car_id "
+                            + "LEFT JOIN (SELECT car_id, SUM(maimtain_cost) AS cost "
+                            + "FROM maintain_information GROUP BY car_id) m ON m.car_id = c.car_id "
+                            + "WHERE r.car_id IS NOT NULL OR m.car_id IS NOT NULL"),
+                    view("fine_not_paied", "SELECT u.name AS `名字`, SUM(f.fine) AS `罚款金额` "
+                            + "FROM traffic_fine f JOIN user u ON u.user_id = f.user_id "
+                            + "WHERE f.fine_state = '未交' "
+                            + "GROUP BY u.user_id, u.name"),
+                    view("staff_car_count", "SELECT s.name AS `管理员工`, COUNT(DISTINCT r.car_id) AS `管理车辆数量` "
+                            + "FROM staff s JOIN rent_information r ON r.staff_id = s.staff_id "
+                            + "GROUP BY s.staff_id, s.name"),
+                    view("repaired_car", "SELECT c.license_plate_number AS `车牌号`, c.model AS `型号`, "
+                            + "c.color AS `颜色`, c.status AS `状态`, c.rent AS `日租金`, c.deposit AS `押金` "
+                            + "FROM car c "
+                            + "WHERE EXISTS (SELECT 1 FROM maintain_information m "
+                            + "WHERE m.car_id = c.car_id AND m.maintain_finish_date IS NOT NULL)")),
+
+            // 报表视图每次都要扫描全部历史，改为读取按车辆、用户、员工汇总的表；
+            // 触发器只记录哪些汇总行需要重算，由ReportSummaryDAO批量重算
+            new Migration(4, "财务报表汇总表",
+                    sql("CREATE TABLE IF NOT EXISTS report_car_profit ("
+                            + "car_id INT NOT NULL, "
+                            + "paid DECIMAL(14,2) NOT NULL DEFAULT 0, "
+                            + "refunded DECIMAL(14,2) NOT NULL DEFAULT 0, "
+                            + "maintain_cost DECIMAL(14,2) NOT NULL DEFAULT 0, "
+                            + "PRIMARY KEY (car_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS report_user_fine ("
+                            + "user_id INT NOT NULL, "
+                            + "unpaid DECIMAL(14,2) NOT NULL DEFAULT 0, "
+                            + "PRIMARY KEY (user_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS report_staff_car ("
+                            + "staff_id INT NOT NULL, "
+                            + "car_count INT NOT NULL DEFAULT 0, "
+                            + "PRIMARY KEY (staff_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS report_repaired_car ("
+                            + "car_id INT NOT NULL, "
+                            + "PRIMARY KEY (car_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS report_dirty ("
+                            + "kind VARCHAR(10) NOT NULL, "
+                            + "key_id INT NOT NULL, "
+                            + "PRIMARY KEY (kind, key_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("CREATE TABLE IF NOT EXISTS report_refresh ("
+                            + "id TINYINT NOT NULL, "
+                            + "refreshed_at DATETIME(3) NOT NULL, "
+                            + "PRIMARY KEY (id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    // 先建触发器再初始化，初始化期间的写入会留下待重算标记
+                    trigger("trg_rent_insert_report", "AFTER INSERT ON rent_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) "
+                            + "VALUES ('car', NEW.car_id), ('staff', NEW.staff_id)"),
+                    trigger("trg_rent_update_report", "AFTER UPDATE ON rent_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) "
+                            + "VALUES ('car', OLD.car_id), ('car', NEW.car_id), "
+                            + "('staff', OLD.staff_id), ('staff', NEW.staff_id)"),
+                    trigger("trg_rent_delete_report", "AFTER DELETE ON rent_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) "
+                            + "VALUES ('car', OLD.car_id), ('staff', OLD.staff_id)"),
+                    trigger("trg_maintain_insert_report", "AFTER INSERT ON maintain_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) VALUES ('car', NEW.car_id)"),
+                    trigger("trg_maintain_update_report", "AFTER UPDATE ON maintain_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) "
+                            + "VALUES ('car', OLD.car_id), ('car', NEW.car_id)"),
+                    trigger("trg_maintain_delete_report", "AFTER DELETE ON maintain_information FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) VALUES ('car', OLD.car_id)"),
+                    trigger("trg_fine_insert_report", "AFTER INSERT ON traffic_fine FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) VALUES ('user', NEW.user_id)"),
+                    trigger("trg_fine_update_report", "AFTER UPDATE ON traffic_fine FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) "
+                            + "VALUES ('user', OLD.user_id), ('user', NEW.user_id)"),
+                    trigger("trg_fine_delete_report", "AFTER DELETE ON traffic_fine FOR EACH ROW "
+                            + "INSERT IGNORE INTO report_dirty (kind, key_id) VALUES ('user', OLD.user_id)"),
+                    sql("REPLACE INTO report_car_profit (car_id, paid, refunded, maintain_cost) "
+                            + "SELECT c.car_id, COALESCE(r.paid, 0), COALESCE(r.refunded, 0), COALESCE(m.cost, 0) "
+                            + "FROM car c "
+                            + "LEFT JOIN (SELECT car_id, SUM(pay_the_amount) AS paid, SUM(return_amount) AS refunded "
+                            + "FROM rent_information GROUP BY car_id) r ON r.car_id = c.car_id "
+                            + "LEFT JOIN (SELECT car_id, SUM(maimtain_cost) AS cost "
+                            + "FROM maintain_information GROUP BY car_id) m ON m.car_id = c.car_id "
+                            + "WHERE r.car_id IS NOT NULL OR m.car_id IS NOT NULL"),
+                    sql("REPLACE INTO report_user_fine (user_id, unpaid) "
+                            + "SELECT user_id, SUM(fine) FROM traffic_fine WHERE fine_state = '未交' GROUP BY user_id"),
+                    sql("REPLACE INTO report_staff_car (staff_id, car_count) "
+                            + "SELECT staff_id, COUNT(DISTINCT car_id) FROM rent_information GROUP BY staff_id"),
+                    sql("REPLACE INTO report_repaired_car (car_id) "
+                            + "SELECT DISTINCT car_id FROM maintain_information WHERE maintain_finish_date IS NOT NULL"),
+                    sql("REPLACE INTO report_refresh (id, refreshed_at) VALUES (1, NOW(3))")),
+
+            // 押金原先以文本保存，可能带有货币符号和千位分隔符；无法识别的值先把原文备份到car_deposit_backup
+            // 并逐条输出车辆ID，再置空后改为定点数
+            new Migration(5, "押金改为DECIMAL",
+                    sql("CREATE TABLE IF NOT EXISTS car_deposit_backup ("
+                            + "car_id INT NOT NULL, "
+                            + "deposit VARCHAR(20), "
+                            + "backed_up_at DATETIME(3) NOT NULL, "
+                            + "PRIMARY KEY (car_id)"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("INSERT IGNORE INTO car_deposit_backup (car_id, deposit, backed_up_at) "
+                            + "SELECT car_id, deposit, NOW(3) FROM car WHERE deposit IS NOT NULL "
+                            + "AND REPLACE(REPLACE(TRIM(deposit), '¥', ''), ',', '') "
+                            + "NOT REGEXP '^-?[0-9]+([.][0-9]+)?$'"),
+                    SchemaMigrator::reportDepositBackup,
+                    sql("UPDATE car SET deposit = REPLACE(REPLACE(TRIM(deposit), '¥', ''), ',', '') "
+                            + "WHERE deposit IS NOT NULL"),
+                    sql("UPDATE car SET deposit = NULL "
+                            + "WHERE deposit IS NOT NULL AND deposit NOT REGEXP '^-?[0-9]+([.][0-9]+)?$'"),
+                    sql("ALTER TABLE car MODIFY deposit DECIMAL(10,2)")),
+
+            // 登录状态原先借用role的符号位标记，改为带租约的会话表；先把残留的负数role恢复
+            new Migration(6, "员工登录会话",
+                    sql("CREATE TABLE IF NOT EXISTS staff_session ("
+                            + "staff_id INT NOT NULL, "
+                            + "session_id CHAR(36) NOT NULL, "
+                            + "client VARCHAR(100), "
+                            + "created_at DATETIME(3) NOT NULL, "
+                            + "expires_at DATETIME(3) NOT NULL, "
+                            + "PRIMARY KEY (staff_id), "
+                            + "KEY idx_staff_session_expires (expires_at), "
+                            + "CONSTRAINT fk_session_staff FOREIGN KEY (staff_id) REFERENCES staff (staff_id) "
+                            + "ON DELETE CASCADE"
+                            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    sql("UPDATE staff SET role = ABS(role) WHERE role < 0"))
+    );
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * 执行尚未执行的升级步骤
+     * @return 数据库结构是否已是最新版本
+     */
+    public static boolean migrate() {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!acquireLock(conn)) {
+                System.err.println("数据库结构升级失败: 等待其他客户端升级超时");
+                return false;
+            }
+            try {
+                return applyPending(conn);
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("数据库结构升级失败: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 获取程序要求的数据库结构版本
+     * @return 最新版本号
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static boolean applyPending(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT NOT NULL, "
+                    + "description VARCHAR(100) NOT NULL, "
+                    + "applied_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                    + "PRIMARY KEY (version)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+        int current = currentVersion(conn);
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            // MySQL的DDL会隐式提交，无法回滚；每个步骤都可重复执行，失败后下次启动从该版本重新开始
+            try {
+                for (Step step : migration.steps) {
+                    step.apply(conn);
+                }
+            } catch (SQLException e) {
+                System.err.println("数据库结构升级到版本" + migration.version + "（" + migration.description
+                        + "）失败: " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.executeUpdate();
+            }
+            System.out.println("数据库结构已升级到版本" + migration.version + ": " + migration.description);
+        }
+        return true;
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT MAX(version) FROM schema_version");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, AppConfig.getInt("schema.lockTimeoutSeconds", 60));
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("释放数据库结构升级锁失败: " + e.getMessage());
+        }
+    }
+
+    private static boolean exists(Connection conn, String sql, String... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next();
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * 输出v5中无法识别、即将置空的押金，原值已备份在car_deposit_backup中
+     */
+    private static void reportDepositBackup(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT car_id, deposit FROM car_deposit_backup ORDER BY car_id")) {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                System.err.println("车辆" + rs.getInt("car_id") + "的押金\"" + rs.getString("deposit")
+                        + "\"无法识别，已备份到car_deposit_backup后置空");
+            }
+        }
+    }
+
+    /**
+     * 直接执行的语句，需自身可重复执行（如IF NOT EXISTS）
+     */
+    private static Step sql(String sql) {
+        return conn -> execute(conn, sql);
+    }
+
+    /**
+     * 不存在同名索引时创建索引（MySQL不支持CREATE INDEX IF NOT EXISTS）
+     */
+    private static Step index(String table, String name, String columns) {
+        return conn -> {
+            if (!exists(conn, "SELECT 1 FROM information_schema.statistics "
+                    + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?", table, name)) {
+                execute(conn, "CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+            }
+        };
+    }
+
+    /**
+     * 不存在同名视图时创建视图，已部署的视图保持原定义
+     */
+    private static Step view(String name, String select) {
+        return conn -> {
+            if (!exists(conn, "SELECT 1 FROM information_schema.views "
+                    + "WHERE table_schema = DATABASE() AND table_name = ?", name)) {
+                execute(conn, "CREATE VIEW " + name + " AS " + select);
+            }
+        };
+    }
+
+    /**
+     * 不存在同名触发器时创建触发器
+     * @param definition CREATE TRIGGER之后的部分（时机、事件、表和单条语句的触发体）
+     */
+    private static Step trigger(String name, String definition) {
+        return conn -> {
+            if (!exists(conn, "SELECT 1 FROM information_schema.triggers "
+                    + "WHERE trigger_schema = DATABASE() AND trigger_name = ?", name)) {
+                execute(conn, "CREATE TRIGGER " + name + " " + definition);
+            }
+        };
+    }
+
+    /**
+     * 升级步骤
+     */
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 一个版本的升级
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = Arrays.asList(steps);
+        }
+    }
+}
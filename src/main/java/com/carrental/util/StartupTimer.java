@@ -0,0 +1,83 @@
+package com.carrental.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 启动耗时统计
+ * 从点击登录开始，按阶段记录到主界面可交互为止的耗时，结束时输出到控制台
+ * 阶段耗时为距上一次记录的时间，skip()可跳过等待用户操作（如确认对话框）的时间
+ */
+public final class StartupTimer {
+    private static final Map<String, Long> PHASES = new LinkedHashMap<>();
+    private static long lastMark;
+    private static boolean running;
+    private static String lastReport = "尚未记录";
+
+    private StartupTimer() {
+    }
+
+    /**
+     * 开始一次新的统计，清除上一次的记录
+     */
+    public static synchronized void start() {
+        PHASES.clear();
+        lastMark = System.nanoTime();
+        running = true;
+    }
+
+    /**
+     * 记录一个阶段，耗时为距上一次记录的时间
+     * @param name 阶段名称
+     */
+    public static synchronized void phase(String name) {
+        if (!running) {
+            return;
+        }
+        long now = System.nanoTime();
+        PHASES.merge(name, now - lastMark, Long::sum);
+        lastMark = now;
+    }
+
+    /**
+     * 跳过距上一次记录的时间，不计入任何阶段
+     */
+    public static synchronized void skip() {
+        lastMark = System.nanoTime();
+    }
+
+    /**
+     * 结束统计并输出各阶段耗时
+     */
+    public static synchronized void finish() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        StringBuilder report = new StringBuilder("启动耗时: ");
+        long total = 0;
+        for (Map.Entry<String, Long> entry : PHASES.entrySet()) {
+            report.append(entry.getKey()).append(' ').append(entry.getValue() / 1_000_000).append("ms | ");
+            total += entry.getValue();
+        }
+        report.append("合计 ").append(total / 1_000_000).append("ms");
+        lastReport = report.toString();
+        System.out.println(lastReport);
+    }
+
+    /**
+     * 当前是否正在统计
+     * @return 是否在统计中
+     */
+    public static synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 获取最近一次的统计结果
+     * @return 统计结果文本
+     */
+    public static synchronized String getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,269 @@
+package com.carrental.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预编译语句缓存
+ * 每个物理连接一个，按SQL文本缓存PreparedStatement，超过容量时淘汰最久未使用的语句
+ */
+class StatementCache {
+    private final PooledConnection connection;
+    private final Connection physical;
+    private final int capacity;
+    private final Stats stats;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * @param connection 所属的池化连接，语句和结果集的异常交给它检查
+     * @param physical 物理连接
+     * @param capacity 缓存容量
+     * @param stats 所属连接池的缓存统计
+     */
+    StatementCache(PooledConnection connection, Connection physical, int capacity, Stats stats) {
+        this.connection = connection;
+        this.physical = physical;
+        this.capacity = capacity;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 从缓存取出预编译语句，未命中时新建并放入缓存
+     * @param sql SQL语句
+     * @param autoGeneratedKeys 是否返回自增主键，null表示普通prepareStatement(sql)
+     * @param owner 借出该语句的连接代理，语句的getConnection()返回它
+     * @return 语句代理，close()时归还缓存
+     * @throws SQLException SQL异常
+     */
+    synchronized PreparedStatement checkout(String sql, Integer autoGeneratedKeys, Connection owner) throws SQLException {
+        String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "#" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            stats.hits.incrementAndGet();
+        } else if (cached != null) {
+            // 同一条SQL被嵌套使用时，第二个使用者拿不缓存的语句，同样经过代理
+            stats.misses.incrementAndGet();
+            PreparedStatement statement = autoGeneratedKeys == null
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+            return (PreparedStatement) connection.wrap(PreparedStatement.class, statement, owner);
+        } else {
+            stats.misses.incrementAndGet();
+            PreparedStatement statement = autoGeneratedKeys == null
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+            cached = new CachedStatement(statement);
+            statements.put(key, cached);
+            evictIfNeeded();
+        }
+        cached.inUse = true;
+        return cached.newHandle(owner);
+    }
+
+    /**
+     * 关闭缓存中的全部语句
+     */
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closeQuietly();
+        }
+        statements.clear();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            stats.evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true; // 使用者close()时再真正关闭
+            } else {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    private synchronized void checkin(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted) {
+            cached.closeQuietly();
+        }
+    }
+
+    /**
+     * 语句缓存统计，每个连接池一份，由池中所有连接的缓存共同累加
+     */
+    static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        long getHits() {
+            return hits.get();
+        }
+
+        long getMisses() {
+            return misses.get();
+        }
+
+        long getEvictions() {
+            return evictions.get();
+        }
+    }
+
+    /**
+     * 缓存中的一条物理语句
+     */
+    private class CachedStatement {
+        private final PreparedStatement statement;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private volatile boolean inUse = false;
+        private boolean evicted = false;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement newHandle(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new HandleHandler(this, owner));
+        }
+
+        /**
+         * 归还前清理：关闭未关闭的结果集、清空参数和批处理、恢复被修改的语句属性
+         */
+        void reset(List<ResultSet> openResults, boolean propertiesChanged) throws SQLException {
+            for (ResultSet rs : openResults) {
+                if (!rs.isClosed()) {
+                    rs.close();
+                }
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            if (propertiesChanged) {
+                statement.setFetchSize(defaultFetchSize);
+                statement.setMaxRows(defaultMaxRows);
+                statement.setQueryTimeout(defaultQueryTimeout);
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("关闭预编译语句失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 单次借出的语句代理处理器
+     */
+    private class HandleHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private final List<ResultSet> openResults = new ArrayList<>(1);
+        private boolean propertiesChanged = false;
+        private boolean closed = false;
+
+        HandleHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                    propertiesChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("语句已关闭");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw connection.failure(e);
+            }
+            if (result instanceof ResultSet) {
+                openResults.add((ResultSet) result);
+                return connection.wrap(ResultSet.class, result, proxy);
+            }
+            return result;
+        }
+
+        private void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                cached.reset(openResults, propertiesChanged);
+                checkin(cached);
+            } catch (SQLException e) {
+                // 清理失败的语句不再复用
+                synchronized (StatementCache.this) {
+                    remove(cached);
+                    cached.inUse = false;
+                }
+                cached.closeQuietly();
+                throw e;
+            } finally {
+                openResults.clear();
+            }
+        }
+    }
+
+    private void remove(CachedStatement cached) {
+        Iterator<Map.Entry<String, CachedStatement>> it = statements.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() == cached) {
+                it.remove();
+                return;
+            }
+        }
+    }
+}